@@ -0,0 +1,128 @@
+package com.example.solverservice.benchmark;
+
+import com.example.solverservice.solver.DanceTimetableSolver;
+import com.example.solverservice.solver.SolverExecutionProfile;
+import com.example.solverservice.solver.SolverInput;
+import com.example.solverservice.solver.SolverOutput;
+import com.example.solverservice.solver.SyntheticStudioGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end timings of {@link DanceTimetableSolver} on seeded synthetic studios, split so that a regression in one
+ * hot path shows up in its own number:
+ * <ul>
+ *   <li>{@code modelBuild}: every stage gets a one-microsecond search budget, so the time is input reduction, model
+ *       build and the greedy warm start;</li>
+ *   <li>{@code solveToFirstSolution}: each stage stops at its first feasible solution;</li>
+ *   <li>{@code solveToOptimum}: each stage runs until CP-SAT proves optimality (or the 60-second cap);</li>
+ *   <li>{@code resultConversion}: serializing a finished {@link SolverOutput} to the JSON the service returns.</li>
+ * </ul>
+ * Every studio size is a {@link Param}, e.g. {@code java -jar benchmarks.jar -p instructors=100 -p locations=3}.
+ * Search runs on one worker so the numbers do not depend on the core count of the machine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DanceTimetableSolverBenchmark {
+
+    @Param({"42"})
+    public long seed;
+
+    @Param({"20", "60"})
+    public int instructors;
+
+    @Param({"3"})
+    public int availabilitySlotsPerInstructor;
+
+    @Param({"2"})
+    public int locations;
+
+    @Param({"2"})
+    public int roomsPerLocation;
+
+    @Param({"2"})
+    public int priorityRequestsPerInstructor;
+
+    @Param({"4"})
+    public int classDefinitions;
+
+    private DanceTimetableSolver solver;
+    private ObjectMapper objectMapper;
+    private SolverInput buildOnlyInput;
+    private SolverInput firstSolutionInput;
+    private SolverInput optimumInput;
+    private SolverOutput solvedOutput;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        solver = new DanceTimetableSolver(1, 60);
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        buildOnlyInput = studio(SolverExecutionProfile.builder()
+            .stageATimeLimitSeconds(1e-6).stageBTimeLimitSeconds(1e-6).build());
+        firstSolutionInput = studio(SolverExecutionProfile.builder()
+            .stopAtFirstSolution(true).build());
+        optimumInput = studio(SolverExecutionProfile.builder()
+            .stageATimeLimitSeconds(60.0).stageBTimeLimitSeconds(60.0).build());
+        solvedOutput = solver.executeSolve(optimumInput);
+        if (!solvedOutput.isSolveSuccess()) {
+            throw new IllegalStateException("Benchmark studio failed to solve: " + solvedOutput.getStatusMessage());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        solver.shutdown();
+    }
+
+    @Benchmark
+    public SolverOutput modelBuild() {
+        return solver.executeSolve(buildOnlyInput);
+    }
+
+    @Benchmark
+    public SolverOutput solveToFirstSolution() {
+        return solver.executeSolve(firstSolutionInput);
+    }
+
+    @Benchmark
+    public SolverOutput solveToOptimum() {
+        return solver.executeSolve(optimumInput);
+    }
+
+    @Benchmark
+    public byte[] resultConversion() throws Exception {
+        return objectMapper.writeValueAsBytes(solvedOutput);
+    }
+
+    private SolverInput studio(SolverExecutionProfile profile) {
+        SolverInput input = new SyntheticStudioGenerator()
+            .seed(seed)
+            .instructors(instructors)
+            .availabilitySlotsPerInstructor(availabilitySlotsPerInstructor)
+            .locations(locations)
+            .roomsPerLocation(roomsPerLocation)
+            .priorityRequestsPerInstructor(priorityRequestsPerInstructor)
+            .classDefinitions(classDefinitions)
+            .generate();
+        input.setExecutionProfile(profile);
+        return input;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.solverservice.benchmark;
+
+import com.example.solverservice.dto.PubSubSolveRequest;
+import com.example.solverservice.service.SolvePayloadCodec;
+import com.example.solverservice.solver.SolverInput;
+import com.example.solverservice.solver.SyntheticStudioGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+import com.google.pubsub.v1.PubsubMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the Pub/Sub solve request in each {@link SolvePayloadCodec} format:
+ * <ul>
+ *   <li>{@code publish}: encoding the request and building the Pub/Sub message, as the API does per job;</li>
+ *   <li>{@code receive}: parsing the message off the wire and decoding the request, as solver-service does.</li>
+ * </ul>
+ * The encoded size of each studio is printed once per trial, e.g.
+ * {@code java -jar benchmarks.jar SolvePayloadBenchmark -p instructors=400}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SolvePayloadBenchmark {
+
+    @Param({SolvePayloadCodec.JSON, SolvePayloadCodec.JSON_GZIP})
+    public String format;
+
+    @Param({"100", "400"})
+    public int instructors;
+
+    @Param({"8"})
+    public int availabilitySlotsPerInstructor;
+
+    @Param({"12"})
+    public int classDefinitions;
+
+    private SolvePayloadCodec codec;
+    private PubSubSolveRequest request;
+    private Map<String, String> attributes;
+    private byte[] wire;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        codec = new SolvePayloadCodec(new ObjectMapper().findAndRegisterModules());
+        SolverInput input = new SyntheticStudioGenerator()
+            .seed(5)
+            .instructors(instructors)
+            .availabilitySlotsPerInstructor(availabilitySlotsPerInstructor)
+            .locations(2)
+            .roomsPerLocation(3)
+            .priorityRequestsPerInstructor(2)
+            .classDefinitions(classDefinitions)
+            .generate();
+        request = new PubSubSolveRequest("benchmark-job", input);
+        attributes = SolvePayloadCodec.attributes(format);
+        wire = publish().toByteArray();
+        System.out.printf("%n%s, %d instructors: %d payload bytes%n", format, instructors,
+            PubsubMessage.parseFrom(wire).getData().size());
+    }
+
+    @Benchmark
+    public PubsubMessage publish() throws Exception {
+        return PubsubMessage.newBuilder()
+            .setData(ByteString.copyFrom(codec.encode(request, format)))
+            .putAllAttributes(attributes)
+            .build();
+    }
+
+    @Benchmark
+    public PubSubSolveRequest receive() throws Exception {
+        PubsubMessage message = PubsubMessage.parseFrom(wire);
+        return codec.decode(message.getData().toByteArray(), message.getAttributesMap());
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.solverservice.controller;
 
+import com.example.solverservice.dto.JobStatusDTO;
+import com.example.solverservice.service.JobStoreService;
 import com.example.solverservice.solver.DanceTimetableSolver;
 import com.example.solverservice.solver.SolverInput;
 import com.example.solverservice.solver.SolverOutput;
@@ -7,6 +9,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,10 +22,12 @@ public class SolverController {
 
     private static final Logger logger = LoggerFactory.getLogger(SolverController.class);
     private final DanceTimetableSolver danceTimetableSolver;
+    private final JobStoreService jobStoreService;
 
     @Autowired
-    public SolverController(DanceTimetableSolver danceTimetableSolver) {
+    public SolverController(DanceTimetableSolver danceTimetableSolver, JobStoreService jobStoreService) {
         this.danceTimetableSolver = danceTimetableSolver;
+        this.jobStoreService = jobStoreService;
     }
 
     @PostMapping("/solve")
@@ -45,4 +51,14 @@ public class SolverController {
             return ResponseEntity.status(500).body(errorOutput);
         }
     }
+
+    // Status of a Pub/Sub job, including the latest intermediate Stage A solution while it is still running.
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<JobStatusDTO> getJobStatus(@PathVariable String jobId) {
+        JobStatusDTO jobStatus = jobStoreService.getJobStatus(jobId);
+        if (jobStatus == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(jobStatus);
+    }
 }
\ No newline at end of file
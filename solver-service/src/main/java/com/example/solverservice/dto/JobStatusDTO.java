@@ -0,0 +1,16 @@
+package com.example.solverservice.dto;
+
+import com.example.solverservice.solver.SolverOutput;
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class JobStatusDTO {
+    private String jobId;
+    private String status; // PENDING, PROCESSING, COMPLETED or FAILED
+    private String errorMessage;
+
+    private SolveProgressDTO progress; // Latest intermediate solution while PROCESSING
+    private SolverOutput output; // Final result once COMPLETED
+}
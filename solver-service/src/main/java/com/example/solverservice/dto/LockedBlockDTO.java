@@ -2,9 +2,13 @@ package com.example.solverservice.dto; // Updated package
 
 import lombok.Data;
 import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class LockedBlockDTO {
     // These fields will correspond to what your solver's Stage A produces
     // and what your ScheduledEvent entity (or a simplified version) might store for these.
@@ -0,0 +1,36 @@
+package com.example.solverservice.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledClassDTO {
+    // One placed session of a ClassSessionRequirement, as produced by Stage B.
+    private Integer classSessionRequirementId;
+    private Integer sessionIndex; // 0-based, among the requirement's sessionsPerWeek
+
+    private Integer classDefinitionId;
+    private String classDefinitionName;
+
+    private String instructorName;
+    private Integer instructorId;
+
+    private String roomName;
+    private Integer roomId;
+
+    private String studioLocationName; // If applicable
+    private Integer studioLocationId;  // If applicable
+
+    private Integer startSlot; // The solver's internal slot index
+    private Integer lengthSlots;
+
+    // Human-readable start/end times, day of week
+    private String dayOfWeek;
+    private String startTime; // e.g., "18:00"
+    private String endTime;   // e.g., "19:00"
+}
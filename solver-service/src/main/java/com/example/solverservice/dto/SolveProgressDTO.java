@@ -0,0 +1,19 @@
+package com.example.solverservice.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@Builder
+public class SolveProgressDTO {
+    // Latest improving (not necessarily final) solution of a running stage.
+    private String stage; // "A"
+    private Double objectiveValue;
+    private Double bestObjectiveBound;
+    private Double wallTimeSeconds; // Since the stage started
+    private Integer solutionCount; // Improving solutions seen so far, published or not
+
+    private List<LockedBlockDTO> lockedBlocks;
+}
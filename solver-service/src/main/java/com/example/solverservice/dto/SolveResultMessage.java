@@ -0,0 +1,26 @@
+package com.example.solverservice.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolveResultMessage {
+    // Published on the result topic when a Pub/Sub job starts, for each intermediate Stage A solution, and when it
+    // finishes.
+    private String jobId;
+    private String status; // RUNNING, COMPLETED or FAILED
+    private String errorMessage; // Set when FAILED
+
+    private List<LockedBlockDTO> stageAResults; // Set when COMPLETED
+    private List<ScheduledClassDTO> stageBResults; // Set when COMPLETED
+    private List<StageStatisticsDTO> stageStatistics;
+
+    private SolveProgressDTO progress; // Set on RUNNING updates that carry an intermediate solution
+}
@@ -0,0 +1,33 @@
+package com.example.solverservice.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StageStatisticsDTO {
+    // Size and outcome of one solve stage, summed over the independent CP-SAT models it was split into.
+    private String stage; // "A" or "B"
+    private Integer components; // Independent models the stage was split into
+    private Integer requestCount; // Priority requests (Stage A) or class sessions (Stage B) given to the model
+
+    private Integer variables;
+    private Integer constraints;
+    private Long modelBytes; // Serialized CpModelProto size
+    private Double modelBuildSeconds; // Time spent building the CP-SAT models, before any search
+
+    private String status; // CpSolverStatus name
+    private Double objectiveValue;
+    private Double bestObjectiveBound;
+    private Double relativeGap; // |bound - objective| / max(1, |objective|) at the end of the search
+    private Double warmStartObjectiveValue; // Objective of the greedy hint, when the stage has one
+    private Double timeLimitSeconds; // Wall-clock budget the stage ran under
+    private Double firstSolutionSeconds; // Null when CP-SAT found no solution
+    private Double optimalSeconds; // Time to prove optimality; null unless the status is OPTIMAL
+    private Double wallTimeSeconds;
+    private Double deterministicTime; // CP-SAT's machine-independent work measure
+}
@@ -12,6 +12,7 @@ import lombok.AllArgsConstructor;
 public class SolverClassDefinition {
     private Integer id;
     private String name;
-    private int defaultDurationMinutes; // Assuming this is needed by Stage B
+    private int durationMinutes; // Length of one session; Stage B rounds this up to whole slots
+    private Integer defaultStudioCapacityNeeded; // Null means any room will do
     // Add other relevant fields like difficulty, type, etc., if Stage B uses them.
 }
\ No newline at end of file
@@ -12,8 +12,10 @@ import lombok.AllArgsConstructor;
 public class SolverClassSessionRequirement {
     private Integer id;
     private SolverClassDefinition classDefinition;
-    private int requiredSessions;
+    private Integer classDefinitionId; // Normalized input: refers into SolverInput.classDefinitions
+    private int sessionsPerWeek;
     private SolverStudioLocation studioLocation; // Preferred location, if any
+    private Integer studioLocationId; // Normalized input: refers into SolverInput.studioLocations
     private boolean active;
     // Add other fields if Stage B logic requires them.
 }
\ No newline at end of file
@@ -15,6 +15,7 @@ public class SolverInstructor {
     private Integer id;
     private String name;
     private List<SolverAvailabilitySlot> availabilitySlots;
+    private List<Integer> qualifiedClassDefinitionIds; // From InstructorClassQualification; Stage B only offers these classes
     // Add other fields if DanceTimetableSolver uses them, e.g., qualifications, preferences.
     // For now, keeping it simple based on current DanceTimetableSolver usage for availability.
 }
\ No newline at end of file
@@ -12,8 +12,11 @@ import lombok.AllArgsConstructor;
 public class SolverPriorityRequest {
     private Integer id;
     private SolverInstructor instructor;
+    private Integer instructorId; // Normalized input: refers into SolverInput.instructors instead of embedding a copy
     private SolverStudioLocation studioLocation; // Preferred location for the request
+    private Integer studioLocationId; // Normalized input: refers into SolverInput.studioLocations
     private int blockLengthHours;
+    private Integer relativePriority; // Lower value = higher priority; null is treated as 1
     private boolean active; 
     // Add any other fields from the original InstructorPriorityRequest entity 
     // that DanceTimetableSolver's prepareStageAPriorityRequests method might need.
@@ -10,9 +10,6 @@ import com.example.solverservice.solver.OperatingHoursSpan;
 
 import java.time.DayOfWeek;
 import java.util.Map;
-// We might not need operating hours directly on the room if effectiveDayWindows in SolverInput covers it.
-// However, DanceTimetableSolver's current logic for room assignment in priority requests might use it.
-// For now, let's include a simplified representation or assume it's handled by effectiveDayWindows.
 
 @Data
 @Builder
@@ -22,5 +19,7 @@ public class SolverRoom {
     private Integer id;
     private String name;
     private SolverStudioLocation studioLocation; 
-    // private Map<DayOfWeek, OperatingHoursSpan> operatingHours; // Or handled by effectiveDayWindows
+    private Integer studioLocationId; // Normalized input: refers into SolverInput.studioLocations
+    private Integer capacity; // Null means unknown; Stage B then does not filter on it
+    private Map<DayOfWeek, OperatingHoursSpan> operatingHours; // Null means open whenever the master grid is; a missing day means closed
 }
\ No newline at end of file
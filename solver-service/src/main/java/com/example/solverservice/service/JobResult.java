@@ -0,0 +1,27 @@
+package com.example.solverservice.service;
+
+import com.example.solverservice.dto.SolveProgressDTO;
+
+class JobResult {
+    private JobStatus status;
+    private StoredOutput output; // Null if not completed or failed before output generation
+    private String errorMessage;
+    private volatile SolveProgressDTO progress; // Written from solver threads while PROCESSING
+    private long finishedAtMillis; // When the job reached COMPLETED or FAILED; 0 while it is still active
+
+    public JobResult(JobStatus status) {
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public JobStatus getStatus() { return status; }
+    public void setStatus(JobStatus status) { this.status = status; }
+    public StoredOutput getOutput() { return output; }
+    public void setOutput(StoredOutput output) { this.output = output; }
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    public SolveProgressDTO getProgress() { return progress; }
+    public void setProgress(SolveProgressDTO progress) { this.progress = progress; }
+    public long getFinishedAtMillis() { return finishedAtMillis; }
+    public void setFinishedAtMillis(long finishedAtMillis) { this.finishedAtMillis = finishedAtMillis; }
+}
@@ -0,0 +1,10 @@
+package com.example.solverservice.service;
+
+enum JobStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED;
+
+    boolean isFinished() { return this == COMPLETED || this == FAILED; }
+}
@@ -1,66 +1,322 @@
 package com.example.solverservice.service;
 
+import com.example.solverservice.dto.JobStatusDTO;
+import com.example.solverservice.dto.SolveProgressDTO;
 import com.example.solverservice.solver.SolverOutput;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
-enum JobStatus {
-    PENDING,
-    PROCESSING,
-    COMPLETED,
-    FAILED
-}
+/**
+ * In-memory store of Pub/Sub job state, bounded so a long-lived instance does not grow without limit.
+ * <p>
+ * Finished jobs (COMPLETED or FAILED) are dropped {@code solver.jobs.ttl-seconds} after they finish, and the oldest
+ * finished jobs go first once more than {@code solver.jobs.max-entries} are held. Jobs still PENDING or PROCESSING are
+ * never evicted, since the handler relies on them to skip duplicate deliveries. Outputs are kept as gzipped JSON;
+ * those larger than {@code solver.jobs.spill-threshold-bytes} compressed go to {@code solver.jobs.spill-dir} when set.
+ * Every state change is a single {@code compute} on the map, so concurrent updates for one job cannot interleave.
+ */
+@Service
+public class JobStoreService {
 
-class JobResult {
-    private JobStatus status;
-    private SolverOutput output; // Null if not completed or failed before output generation
-    private String errorMessage;
+    private static final Logger logger = LoggerFactory.getLogger(JobStoreService.class);
+
+    // In-memory store. Replace with Firestore/Cloud SQL in production.
+    private final Map<String, JobResult> jobResults = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Path spillDir;
+    private final long spillThresholdBytes;
+    private final long sweepIntervalMillis;
+    private final AtomicLong lastSweepMillis = new AtomicLong();
+    private final AtomicLong heapOutputBytes = new AtomicLong();
 
-    public JobResult(JobStatus status) {
-        this.status = status;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter expiredEvictions;
+    private final Counter sizeEvictions;
+
+    @Autowired
+    public JobStoreService(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${solver.jobs.ttl-seconds:3600}") long ttlSeconds,
+                           @Value("${solver.jobs.max-entries:1000}") int maxEntries,
+                           @Value("${solver.jobs.spill-dir:}") String spillDir,
+                           @Value("${solver.jobs.spill-threshold-bytes:262144}") long spillThresholdBytes) {
+        this(objectMapper, meterRegistry, Clock.systemUTC(), Duration.ofSeconds(ttlSeconds), maxEntries,
+            spillDir == null || spillDir.isBlank() ? null : Path.of(spillDir), spillThresholdBytes);
     }
 
-    // Getters and Setters
-    public JobStatus getStatus() { return status; }
-    public void setStatus(JobStatus status) { this.status = status; }
-    public SolverOutput getOutput() { return output; }
-    public void setOutput(SolverOutput output) { this.output = output; }
-    public String getErrorMessage() { return errorMessage; }
-    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
-}
+    JobStoreService(ObjectMapper objectMapper, MeterRegistry meterRegistry, Clock clock, Duration ttl, int maxEntries,
+                    Path spillDir, long spillThresholdBytes) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.spillDir = spillDir;
+        this.spillThresholdBytes = spillThresholdBytes;
+        // Expired jobs are also dropped on lookup, so sweeping every tenth of the TTL (at most once a minute) is enough.
+        this.sweepIntervalMillis = Math.min(Math.max(1, ttlMillis / 10), Duration.ofMinutes(1).toMillis());
+        this.lastSweepMillis.set(clock.millis());
+        if (spillDir != null) {
+            try {
+                Files.createDirectories(spillDir);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create job output spill directory " + spillDir, e);
+            }
+        }
 
-@Service
-public class JobStoreService {
-    // In-memory store. Replace with Firestore/Cloud SQL in production.
-    private final Map<String, JobResult> jobResults = new ConcurrentHashMap<>();
+        this.hits = Counter.builder("solver.jobs.lookups").tag("result", "hit")
+            .description("Job status lookups that found the job").register(meterRegistry);
+        this.misses = Counter.builder("solver.jobs.lookups").tag("result", "miss")
+            .description("Job status lookups for unknown or evicted jobs").register(meterRegistry);
+        this.expiredEvictions = Counter.builder("solver.jobs.evictions").tag("cause", "expired")
+            .description("Finished jobs dropped after their TTL").register(meterRegistry);
+        this.sizeEvictions = Counter.builder("solver.jobs.evictions").tag("cause", "size")
+            .description("Finished jobs dropped to stay within max-entries").register(meterRegistry);
+        Gauge.builder("solver.jobs.stored", jobResults, Map::size)
+            .description("Jobs currently held").register(meterRegistry);
+        Gauge.builder("solver.jobs.output_bytes", heapOutputBytes, AtomicLong::get)
+            .description("Compressed job output bytes held on the heap").register(meterRegistry);
+    }
 
     public void initJob(String jobId) {
-        jobResults.put(jobId, new JobResult(JobStatus.PENDING));
+        jobResults.compute(jobId, (id, existing) -> {
+            release(existing);
+            return new JobResult(JobStatus.PENDING);
+        });
+        maintain();
+    }
+
+    /**
+     * Atomically moves a job to PROCESSING unless it is already PROCESSING or COMPLETED, in which case this is a
+     * duplicate delivery and false is returned. Unknown, PENDING and FAILED jobs are (re)started.
+     */
+    public boolean tryStartJob(String jobId) {
+        boolean[] started = {false};
+        jobResults.compute(jobId, (id, existing) -> {
+            if (existing != null && !isExpired(existing)
+                    && (existing.getStatus() == JobStatus.PROCESSING || existing.getStatus() == JobStatus.COMPLETED)) {
+                return existing;
+            }
+            release(existing);
+            started[0] = true;
+            return new JobResult(JobStatus.PROCESSING);
+        });
+        maintain();
+        return started[0];
     }
 
     public void updateJobStatus(String jobId, JobStatus status) {
-        JobResult result = jobResults.getOrDefault(jobId, new JobResult(status));
-        result.setStatus(status);
-        jobResults.put(jobId, result);
+        jobResults.compute(jobId, (id, existing) -> {
+            JobResult result = existing != null ? existing : new JobResult(status);
+            result.setStatus(status);
+            result.setFinishedAtMillis(status.isFinished() ? clock.millis() : 0);
+            return result;
+        });
+        maintain();
     }
 
     public void storeJobOutput(String jobId, SolverOutput output) {
-        JobResult result = jobResults.getOrDefault(jobId, new JobResult(JobStatus.COMPLETED));
-        result.setStatus(JobStatus.COMPLETED);
-        result.setOutput(output);
-        jobResults.put(jobId, result);
+        StoredOutput stored = store(jobId, output); // Compressed outside the map lock
+        jobResults.compute(jobId, (id, existing) -> {
+            JobResult result = existing != null ? existing : new JobResult(JobStatus.COMPLETED);
+            release(result.getOutput());
+            result.setStatus(JobStatus.COMPLETED);
+            result.setOutput(stored);
+            result.setProgress(null); // Superseded by the final output
+            result.setFinishedAtMillis(clock.millis());
+            return result;
+        });
+        maintain();
     }
 
     public void storeJobError(String jobId, String errorMessage) {
-        JobResult result = jobResults.getOrDefault(jobId, new JobResult(JobStatus.FAILED));
-        result.setStatus(JobStatus.FAILED);
-        result.setErrorMessage(errorMessage);
-        jobResults.put(jobId, result);
+        jobResults.compute(jobId, (id, existing) -> {
+            JobResult result = existing != null ? existing : new JobResult(JobStatus.FAILED);
+            result.setStatus(JobStatus.FAILED);
+            result.setErrorMessage(errorMessage);
+            result.setFinishedAtMillis(clock.millis());
+            return result;
+        });
+        maintain();
+    }
+
+    public void updateJobProgress(String jobId, SolveProgressDTO progress) {
+        jobResults.computeIfPresent(jobId, (id, result) -> {
+            if (result.getStatus() == JobStatus.PROCESSING) {
+                result.setProgress(progress);
+            }
+            return result;
+        });
     }
 
     public JobResult getJobResult(String jobId) {
-        return jobResults.get(jobId);
+        JobResult result = jobResults.get(jobId);
+        if (result != null && isExpired(result)) {
+            evict(jobId, result, expiredEvictions);
+            return null;
+        }
+        return result;
+    }
+
+    public JobStatusDTO getJobStatus(String jobId) {
+        // Copied inside the map lock, which every update also takes, so the status, error, progress and output all
+        // come from the same state of the job.
+        JobSnapshot[] snapshot = {null};
+        jobResults.computeIfPresent(jobId, (id, result) -> {
+            if (isExpired(result)) {
+                release(result);
+                expiredEvictions.increment();
+                return null;
+            }
+            snapshot[0] = new JobSnapshot(result.getStatus(), result.getErrorMessage(), result.getProgress(),
+                result.getOutput());
+            return result;
+        });
+        if (snapshot[0] == null) {
+            misses.increment();
+            return null;
+        }
+        SolverOutput output;
+        try {
+            output = load(snapshot[0].output()); // Decompressed outside the map lock
+        } catch (NoSuchFileException e) {
+            // Evicted or replaced since the snapshot above, which deleted its spill file: the job is gone.
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return JobStatusDTO.builder()
+            .jobId(jobId)
+            .status(snapshot[0].status().name())
+            .errorMessage(snapshot[0].errorMessage())
+            .progress(snapshot[0].progress())
+            .output(output)
+            .build();
     }
-}
\ No newline at end of file
+
+    /** The fields of a {@link JobResult} that a status read reports, as of one moment. */
+    private record JobSnapshot(JobStatus status, String errorMessage, SolveProgressDTO progress, StoredOutput output) {}
+
+    int size() { return jobResults.size(); }
+
+    long heapOutputBytes() { return heapOutputBytes.get(); }
+
+    /** Drops every finished job past its TTL. */
+    void evictExpired() {
+        lastSweepMillis.set(clock.millis());
+        jobResults.forEach((jobId, result) -> {
+            if (isExpired(result)) evict(jobId, result, expiredEvictions);
+        });
+    }
+
+    private void maintain() {
+        long now = clock.millis();
+        long last = lastSweepMillis.get();
+        if (now - last >= sweepIntervalMillis && lastSweepMillis.compareAndSet(last, now)) {
+            evictExpired();
+        }
+        if (jobResults.size() > maxEntries) {
+            evictOldestFinished();
+        }
+    }
+
+    private void evictOldestFinished() {
+        int excess = jobResults.size() - maxEntries;
+        if (excess <= 0) return;
+        List<Map.Entry<String, JobResult>> oldest = jobResults.entrySet().stream()
+            .filter(entry -> entry.getValue().getStatus().isFinished())
+            .sorted(Comparator.comparingLong(entry -> entry.getValue().getFinishedAtMillis()))
+            .limit(excess)
+            .collect(Collectors.toList());
+        for (Map.Entry<String, JobResult> entry : oldest) {
+            evict(entry.getKey(), entry.getValue(), sizeEvictions);
+        }
+        if (jobResults.size() > maxEntries) {
+            logger.warn("Job store holds {} jobs, above its limit of {}, because the rest are still running.",
+                jobResults.size(), maxEntries);
+        }
+    }
+
+    private void evict(String jobId, JobResult result, Counter cause) {
+        // Only if the job was not restarted or updated under another value in the meantime.
+        if (jobResults.remove(jobId, result)) {
+            release(result);
+            cause.increment();
+        }
+    }
+
+    private boolean isExpired(JobResult result) {
+        return result.getStatus().isFinished() && clock.millis() - result.getFinishedAtMillis() >= ttlMillis;
+    }
+
+    private void release(JobResult result) {
+        if (result != null) release(result.getOutput());
+    }
+
+    private void release(StoredOutput output) {
+        if (output == null) return;
+        heapOutputBytes.addAndGet(-output.getHeapBytes());
+        output.discard();
+    }
+
+    private StoredOutput store(String jobId, SolverOutput output) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(gzip, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize output of job " + jobId, e);
+        }
+        byte[] compressed = buffer.toByteArray();
+        if (spillDir != null && compressed.length > spillThresholdBytes) {
+            // A unique file per output, so replacing a job's output never deletes the file that replaces it.
+            try {
+                Path spillFile = Files.createTempFile(spillDir, jobId.replaceAll("[^A-Za-z0-9._-]", "_") + "-", ".json.gz");
+                Files.write(spillFile, compressed);
+                return StoredOutput.spilled(spillFile, compressed.length);
+            } catch (IOException e) {
+                logger.warn("Could not spill output of job {} to {}; keeping it in memory.", jobId, spillDir, e);
+            }
+        }
+        heapOutputBytes.addAndGet(compressed.length);
+        return StoredOutput.inMemory(compressed);
+    }
+
+    private SolverOutput load(StoredOutput output) throws NoSuchFileException {
+        if (output == null) return null;
+        try (InputStream in = output.open()) {
+            return objectMapper.readValue(in, SolverOutput.class);
+        } catch (NoSuchFileException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read stored job output", e);
+        }
+    }
+}
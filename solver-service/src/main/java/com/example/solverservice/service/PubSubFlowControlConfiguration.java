@@ -0,0 +1,50 @@
+package com.example.solverservice.service;
+
+import com.google.api.gax.batching.FlowControlSettings;
+import com.google.api.gax.batching.FlowController;
+import com.google.cloud.spring.pubsub.support.DefaultSubscriberFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.threeten.bp.Duration;
+
+/**
+ * Caps the Pub/Sub messages this instance holds unacked at {@link SolveWorkerPool#getCapacity()}, so the subscriber
+ * stops pulling while every worker is busy and the queue is full. Other instances pick up the remaining jobs.
+ * <p>
+ * Also turns on the subscriber's lease extension, which Spring leaves off by default: while a message is held,
+ * running or queued, the client keeps pushing its ack deadline out for up to {@code solver.pubsub.max-ack-extension-seconds},
+ * so a solve longer than the subscription's ack deadline is not redelivered mid-run.
+ */
+@Configuration
+public class PubSubFlowControlConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(PubSubFlowControlConfiguration.class);
+
+    // Static, and resolving the pool only once the subscriber factory exists, so registering the post-processor
+    // does not create the pool (and its meter registry) ahead of the rest of the context.
+    @Bean
+    static BeanPostProcessor solveFlowControl(ObjectProvider<SolveWorkerPool> solveWorkerPool,
+                                              @Value("${solver.pubsub.max-ack-extension-seconds:3600}") long maxAckExtensionSeconds) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DefaultSubscriberFactory subscriberFactory) {
+                    int capacity = solveWorkerPool.getObject().getCapacity();
+                    subscriberFactory.setFlowControlSettings(FlowControlSettings.newBuilder()
+                        .setMaxOutstandingElementCount((long) capacity)
+                        .setLimitExceededBehavior(FlowController.LimitExceededBehavior.Block)
+                        .build());
+                    subscriberFactory.setMaxAckExtensionPeriod(Duration.ofSeconds(maxAckExtensionSeconds));
+                    logger.info("Pub/Sub flow control: at most {} outstanding solve requests, leases extended for up to {} s.",
+                        capacity, maxAckExtensionSeconds);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.solverservice.service;
 
 import com.example.solverservice.dto.PubSubSolveRequest;
+import com.example.solverservice.dto.SolveResultMessage;
 import com.example.solverservice.solver.DanceTimetableSolver;
+import com.example.solverservice.solver.SolveCapture;
 import com.example.solverservice.solver.SolverInput;
 import com.example.solverservice.solver.SolverOutput;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -17,11 +19,17 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.integration.annotation.ServiceActivator;
 import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.ExecutorChannel;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ErrorMessage;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
 
 @Service
 public class PubSubMessageHandler {
@@ -31,61 +39,110 @@ public class PubSubMessageHandler {
     @Value("${solver.gcp.subscription-id}") // Configure in application.properties
     private String subscriptionId;
 
+    // Opt-in: when set, every job's request, CP-SAT models and parameters are saved under <dir>/<jobId> for CaptureReplay.
+    @Value("${solver.capture.dir:}")
+    private String captureDir;
+
     private final DanceTimetableSolver danceTimetableSolver;
-    private final ObjectMapper objectMapper; // For JSON deserialization
+    private final ObjectMapper objectMapper;
     private final JobStoreService jobStoreService;
+    private final SolveWorkerPool solveWorkerPool;
+    private final SolveResultPublisher solveResultPublisher;
+    private final SolvePayloadCodec payloadCodec;
 
-    public PubSubMessageHandler(DanceTimetableSolver danceTimetableSolver, ObjectMapper objectMapper, JobStoreService jobStoreService) {
+    public PubSubMessageHandler(DanceTimetableSolver danceTimetableSolver, ObjectMapper objectMapper, JobStoreService jobStoreService,
+                                SolveWorkerPool solveWorkerPool, SolveResultPublisher solveResultPublisher) {
         this.danceTimetableSolver = danceTimetableSolver;
         this.objectMapper = objectMapper;
         this.jobStoreService = jobStoreService;
+        this.solveWorkerPool = solveWorkerPool;
+        this.solveResultPublisher = solveResultPublisher;
+        this.payloadCodec = new SolvePayloadCodec(objectMapper);
     }
 
+    // Hands each message to a solve worker, so the subscriber thread is free again as soon as the job is queued.
     @Bean
     public MessageChannel pubsubInputChannel() {
+        return new ExecutorChannel(solveWorkerPool.getExecutor());
+    }
+
+    // Receives the messages the adapter could not hand to a worker; see nackUndeliveredMessage.
+    @Bean
+    public MessageChannel pubsubSendFailureChannel() {
         return new DirectChannel();
     }
 
     @Bean
     public PubSubInboundChannelAdapter messageChannelAdapter(
             @Qualifier("pubsubInputChannel") MessageChannel inputChannel,
+            @Qualifier("pubsubSendFailureChannel") MessageChannel sendFailureChannel,
             PubSubTemplate pubSubTemplate) {
         PubSubInboundChannelAdapter adapter =
                 new PubSubInboundChannelAdapter(pubSubTemplate, this.subscriptionId);
         adapter.setOutputChannel(inputChannel);
+        adapter.setErrorChannel(sendFailureChannel);
         adapter.setAckMode(AckMode.MANUAL); // Manual ack for robust processing
-        adapter.setPayloadType(String.class); // Receive message payload as String (JSON)
+        adapter.setPayloadType(byte[].class); // Raw bytes; SolvePayloadCodec decodes them per the message attributes
         return adapter;
     }
 
     @ServiceActivator(inputChannel = "pubsubInputChannel")
-    public void messageReceiver(String payload,
+    public void messageReceiver(byte[] payload,
                                 @Qualifier(GcpPubSubHeaders.ORIGINAL_MESSAGE) BasicAcknowledgeablePubsubMessage message) {
-        logger.info("Message arrived! Payload: {}", payload);
+        Map<String, String> attributes = message.getPubsubMessage() != null
+            ? message.getPubsubMessage().getAttributesMap() : Map.of();
+        logger.info("Message arrived: {} bytes of {}.", payload.length, SolvePayloadCodec.formatOf(attributes));
         PubSubSolveRequest solveRequest = null;
         try {
-            solveRequest = objectMapper.readValue(payload, PubSubSolveRequest.class);
+            solveRequest = payloadCodec.decode(payload, attributes);
             String jobId = solveRequest.getJobId();
             SolverInput solverInput = solveRequest.getSolverInput();
 
+            // Redelivered messages (e.g. after an expired lease) must not solve the same job twice.
+            if (!jobStoreService.tryStartJob(jobId)) {
+                logger.info("Job ID: {} is already processing or completed; acknowledging duplicate delivery without solving.",
+                    jobId);
+                message.ack();
+                return;
+            }
             logger.info("Processing Pub/Sub request for Job ID: {}", jobId);
-            jobStoreService.initJob(jobId); // Initialize or update status
-            jobStoreService.updateJobStatus(jobId, JobStatus.PROCESSING);
+            solveResultPublisher.publish(SolveResultMessage.builder().jobId(jobId).status("RUNNING").build());
 
-            SolverOutput solverOutput = danceTimetableSolver.executeSolve(solverInput);
+            SolveCapture capture = captureDir != null && !captureDir.isBlank()
+                ? SolveCapture.start(Path.of(captureDir), jobId, objectMapper.writeValueAsString(solveRequest)) : null;
+            // Intermediate solutions arrive throttled to DanceTimetableSolver.PROGRESS_MIN_INTERVAL_MILLIS.
+            SolverOutput solverOutput = danceTimetableSolver.executeSolve(solverInput, progress -> {
+                jobStoreService.updateJobProgress(jobId, progress);
+                solveResultPublisher.publish(
+                    SolveResultMessage.builder().jobId(jobId).status("RUNNING").progress(progress).build());
+            }, capture);
 
             if (solverOutput.isSolveSuccess()) {
                 jobStoreService.storeJobOutput(jobId, solverOutput);
                 logger.info("Job ID: {} completed successfully.", jobId);
+                solveResultPublisher.publish(SolveResultMessage.builder()
+                    .jobId(jobId)
+                    .status("COMPLETED")
+                    .stageAResults(solverOutput.getStageAResults())
+                    .stageBResults(solverOutput.getStageBResults())
+                    .stageStatistics(solverOutput.getStageStatistics())
+                    .build());
             } else {
                 jobStoreService.storeJobError(jobId, solverOutput.getStatusMessage());
                 logger.error("Job ID: {} failed. Reason: {}", jobId, solverOutput.getStatusMessage());
+                solveResultPublisher.publish(SolveResultMessage.builder()
+                    .jobId(jobId)
+                    .status("FAILED")
+                    .errorMessage(solverOutput.getStatusMessage())
+                    .stageStatistics(solverOutput.getStageStatistics())
+                    .build());
             }
             message.ack(); // Acknowledge after processing
             logger.info("Pub/Sub message for Job ID: {} acknowledged.", jobId);
 
         } catch (IOException e) {
-            logger.error("Failed to deserialize Pub/Sub message payload: {}", payload, e);
+            logger.error("Failed to decode Pub/Sub message payload ({} bytes of {}).", payload.length,
+                SolvePayloadCodec.formatOf(attributes), e);
             // Consider not acking or sending to a dead-letter topic if deserialization fails
             // For now, we ack to prevent reprocessing of a malformed message.
             // If solveRequest is null, we can't get jobId to update status.
@@ -94,10 +151,35 @@ public class PubSubMessageHandler {
             logger.error("Error processing Pub/Sub message for Job ID: {}", (solveRequest != null ? solveRequest.getJobId() : "UNKNOWN"), e);
             if (solveRequest != null) {
                 jobStoreService.storeJobError(solveRequest.getJobId(), "Unexpected error: " + e.getMessage());
+                solveResultPublisher.publish(SolveResultMessage.builder()
+                    .jobId(solveRequest.getJobId())
+                    .status("FAILED")
+                    .errorMessage("Unexpected error: " + e.getMessage())
+                    .build());
             }
             // Acknowledge the message to prevent reprocessing loops for unexpected errors.
             // A more robust system might use a dead-letter queue.
             message.ack();
         }
     }
+
+    /**
+     * Nacks a message the solve worker pool rejected, so Pub/Sub redelivers it, possibly to another instance. Under
+     * {@link AckMode#MANUAL} the adapter neither acks nor nacks when sending fails, and the lease extension would
+     * otherwise keep the message, and its flow-control slot, held here for up to an hour.
+     */
+    @ServiceActivator(inputChannel = "pubsubSendFailureChannel")
+    public void nackUndeliveredMessage(ErrorMessage errorMessage) {
+        Throwable failure = errorMessage.getPayload();
+        Message<?> failedMessage = failure instanceof MessagingException messagingException
+            ? messagingException.getFailedMessage() : errorMessage.getOriginalMessage();
+        Object original = failedMessage != null ? failedMessage.getHeaders().get(GcpPubSubHeaders.ORIGINAL_MESSAGE) : null;
+        if (original instanceof BasicAcknowledgeablePubsubMessage message) {
+            Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+            logger.warn("Could not hand the solve request to a worker ({}); nacked it for redelivery.", cause.getMessage());
+            message.nack();
+        } else {
+            logger.error("Could not hand a Pub/Sub message to a worker, and it carries no original message to nack.", failure);
+        }
+    }
 }
\ No newline at end of file
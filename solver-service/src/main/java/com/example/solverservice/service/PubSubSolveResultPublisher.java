@@ -0,0 +1,57 @@
+package com.example.solverservice.service;
+
+import com.example.solverservice.dto.SolveResultMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.spring.pubsub.core.PubSubTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Publishes results as JSON to {@code solver.gcp.result-topic-id}, with the job ID and status as message attributes.
+ * With no topic configured, results stay in the local {@link JobStoreService} only.
+ */
+@Component
+public class PubSubSolveResultPublisher implements SolveResultPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PubSubSolveResultPublisher.class);
+
+    private final PubSubTemplate pubSubTemplate;
+    private final ObjectMapper objectMapper;
+    private final String resultTopicId;
+
+    public PubSubSolveResultPublisher(PubSubTemplate pubSubTemplate, ObjectMapper objectMapper,
+                                      @Value("${solver.gcp.result-topic-id:}") String resultTopicId) {
+        this.pubSubTemplate = pubSubTemplate;
+        this.objectMapper = objectMapper;
+        this.resultTopicId = resultTopicId;
+    }
+
+    @Override
+    public void publish(SolveResultMessage result) {
+        if (resultTopicId == null || resultTopicId.isBlank()) {
+            logger.debug("No result topic configured; job {} {} kept locally.", result.getJobId(), result.getStatus());
+            return;
+        }
+        try {
+            String payload = objectMapper.writeValueAsString(result);
+            pubSubTemplate.publish(resultTopicId, payload, Map.of("jobId", result.getJobId(), "status", result.getStatus()))
+                .whenComplete((messageId, failure) -> {
+                    if (failure != null) {
+                        logger.error("Failed to publish {} result of job {} to {}.", result.getStatus(), result.getJobId(),
+                            resultTopicId, failure);
+                    } else if (result.getProgress() != null) {
+                        logger.debug("Published progress of job {} as message {}.", result.getJobId(), messageId);
+                    } else {
+                        logger.info("Published {} result of job {} as message {}.", result.getStatus(), result.getJobId(), messageId);
+                    }
+                });
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.error("Failed to publish {} result of job {}.", result.getStatus(), result.getJobId(), e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.solverservice.service;
+
+import com.example.solverservice.dto.PubSubSolveRequest;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Wire format of the Pub/Sub solve request, named by the {@value #FORMAT_ATTRIBUTE} and {@value #VERSION_ATTRIBUTE}
+ * message attributes. {@value #JSON_GZIP} is gzipped JSON without null fields, typically a tenth of the plain JSON
+ * size; a message without the attributes is plain {@value #JSON}, which keeps older publishers working.
+ * studioapp-api's {@code SolvePayloadEncoder} writes the same format.
+ */
+public final class SolvePayloadCodec {
+
+    public static final String FORMAT_ATTRIBUTE = "payloadFormat";
+    public static final String VERSION_ATTRIBUTE = "payloadVersion";
+    public static final String JSON = "json";
+    public static final String JSON_GZIP = "json+gzip";
+    public static final String CURRENT_VERSION = "2";
+    // 1: requests embed their instructor and locations; 2: normalized input, see InputReferences. Both decode the same.
+    private static final Set<String> SUPPORTED_VERSIONS = Set.of("1", CURRENT_VERSION);
+
+    private final ObjectReader requestReader;
+    private final ObjectWriter requestWriter;
+
+    public SolvePayloadCodec(ObjectMapper objectMapper) {
+        this.requestReader = objectMapper.readerFor(PubSubSolveRequest.class);
+        this.requestWriter = objectMapper.copy()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .writerFor(PubSubSolveRequest.class);
+    }
+
+    public static Map<String, String> attributes(String format) {
+        return Map.of(FORMAT_ATTRIBUTE, format, VERSION_ATTRIBUTE, CURRENT_VERSION);
+    }
+
+    /** Format named by the message attributes; plain JSON when they are absent. */
+    public static String formatOf(Map<String, String> attributes) {
+        String format = attributes != null ? attributes.get(FORMAT_ATTRIBUTE) : null;
+        return format != null ? format : JSON;
+    }
+
+    public byte[] encode(PubSubSolveRequest request, String format) throws IOException {
+        if (JSON.equals(format)) {
+            return requestWriter.writeValueAsBytes(request);
+        }
+        if (JSON_GZIP.equals(format)) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (OutputStream gzip = new GZIPOutputStream(buffer)) {
+                requestWriter.writeValue(gzip, request);
+            }
+            return buffer.toByteArray();
+        }
+        throw new IOException("Unsupported solve payload format: " + format);
+    }
+
+    public PubSubSolveRequest decode(byte[] data, Map<String, String> attributes) throws IOException {
+        String version = attributes != null ? attributes.get(VERSION_ATTRIBUTE) : null;
+        if (version != null && !SUPPORTED_VERSIONS.contains(version)) {
+            throw new IOException("Unsupported solve payload version: " + version);
+        }
+        String format = formatOf(attributes);
+        if (JSON.equals(format)) {
+            return requestReader.readValue(data);
+        }
+        if (JSON_GZIP.equals(format)) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+                return requestReader.readValue(in);
+            }
+        }
+        throw new IOException("Unsupported solve payload format: " + format);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.solverservice.service;
+
+import com.example.solverservice.dto.SolveResultMessage;
+
+/**
+ * Sends job status changes, intermediate solutions and final results back to the caller, so they outlive this
+ * instance's {@link JobStoreService}. Publishing is best effort: a failure is logged and never fails the job.
+ */
+public interface SolveResultPublisher {
+
+    void publish(SolveResultMessage result);
+}
@@ -0,0 +1,118 @@
+package com.example.solverservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed pool of threads that run Pub/Sub solve jobs, so solves no longer run on the subscriber's own threads.
+ * <p>
+ * By default each solve may use up to {@code solver.limits.max-workers} CP-SAT workers, so the pool runs one solve
+ * per that many cores (at least one). {@link #getCapacity()} jobs, running plus queued, are the most this instance
+ * should hold at once; {@link PubSubFlowControlConfiguration} caps outstanding Pub/Sub messages at that number.
+ * The queue depth, in-flight count and capacity are published as {@code solver.solves.*} gauges.
+ */
+@Component
+public class SolveWorkerPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SolveWorkerPool.class);
+
+    private final int concurrentSolves;
+    private final int queueCapacity;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public SolveWorkerPool(@Value("${solver.workers.concurrent-solves:0}") int concurrentSolves,
+                           @Value("${solver.workers.queue-capacity:1}") int queueCapacity,
+                           @Value("${solver.limits.max-workers:0}") int maxSearchWorkersPerSolve,
+                           MeterRegistry meterRegistry) {
+        this(concurrentSolves > 0 ? concurrentSolves
+                : defaultConcurrentSolves(Runtime.getRuntime().availableProcessors(), maxSearchWorkersPerSolve),
+            queueCapacity);
+        Gauge.builder("solver.solves.in_flight", inFlight, AtomicInteger::get)
+            .description("Solve jobs currently running").register(meterRegistry);
+        Gauge.builder("solver.solves.queued", this, SolveWorkerPool::getQueueDepth)
+            .description("Solve jobs received and waiting for a worker").register(meterRegistry);
+        Gauge.builder("solver.solves.capacity", this, SolveWorkerPool::getCapacity)
+            .description("Most solve jobs, running plus queued, this instance takes at once").register(meterRegistry);
+    }
+
+    SolveWorkerPool(int concurrentSolves, int queueCapacity) {
+        this.concurrentSolves = Math.max(1, concurrentSolves);
+        this.queueCapacity = Math.max(0, queueCapacity);
+        BlockingQueue<Runnable> queue = this.queueCapacity > 0
+            ? new ArrayBlockingQueue<>(this.queueCapacity) : new SynchronousQueue<>();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.concurrentSolves, this.concurrentSolves, 0L, TimeUnit.MILLISECONDS, queue,
+            runnable -> {
+                Thread thread = new Thread(runnable, "solve-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            (runnable, pool) -> {
+                // Flow control keeps this from happening. If it does, the failed send reaches
+                // PubSubMessageHandler#nackUndeliveredMessage, which nacks the message so Pub/Sub redelivers it.
+                logger.warn("Solve worker pool full ({} running, {} queued); rejecting the job, its message will be nacked.",
+                    inFlight.get(), pool.getQueue().size());
+                throw new RejectedExecutionException("Solve worker pool is full");
+            }) {
+            @Override
+            protected void beforeExecute(Thread thread, Runnable runnable) {
+                inFlight.incrementAndGet();
+            }
+
+            @Override
+            protected void afterExecute(Runnable runnable, Throwable failure) {
+                inFlight.decrementAndGet();
+            }
+        };
+        logger.info("Solve worker pool: {} concurrent solves, {} queued at most.", this.concurrentSolves, this.queueCapacity);
+    }
+
+    /** One solve per {@code maxSearchWorkersPerSolve} cores, or a single solve when each may use every core. */
+    static int defaultConcurrentSolves(int cores, int maxSearchWorkersPerSolve) {
+        if (maxSearchWorkersPerSolve <= 0 || maxSearchWorkersPerSolve >= cores) return 1;
+        return Math.max(1, cores / maxSearchWorkersPerSolve);
+    }
+
+    public Executor getExecutor() { return executor; }
+
+    public int getConcurrentSolves() { return concurrentSolves; }
+
+    /** Jobs this instance holds at most: one per worker plus a full queue. */
+    public int getCapacity() { return concurrentSolves + queueCapacity; }
+
+    public int getInFlight() { return inFlight.get(); }
+
+    public int getQueueDepth() { return executor.getQueue().size(); }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Solve worker pool did not drain in 30 seconds; {} jobs left unacked for redelivery.",
+                    inFlight.get() + getQueueDepth());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.solverservice.service;
+
+import com.example.solverservice.solver.SolverOutput;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/** A finished job's {@link SolverOutput} as gzipped JSON, held in memory or, when large, in a local spill file. */
+final class StoredOutput {
+    private final byte[] compressed; // Null when spilled
+    private final Path spillFile; // Null when in memory
+    private final int compressedBytes;
+
+    private StoredOutput(byte[] compressed, Path spillFile, int compressedBytes) {
+        this.compressed = compressed;
+        this.spillFile = spillFile;
+        this.compressedBytes = compressedBytes;
+    }
+
+    static StoredOutput inMemory(byte[] compressed) { return new StoredOutput(compressed, null, compressed.length); }
+
+    static StoredOutput spilled(Path spillFile, int compressedBytes) { return new StoredOutput(null, spillFile, compressedBytes); }
+
+    boolean isSpilled() { return spillFile != null; }
+
+    int getCompressedBytes() { return compressedBytes; }
+
+    /** Bytes this output keeps on the heap. */
+    int getHeapBytes() { return compressed != null ? compressed.length : 0; }
+
+    InputStream open() throws IOException {
+        InputStream raw = spillFile != null ? Files.newInputStream(spillFile) : new ByteArrayInputStream(compressed);
+        return new GZIPInputStream(raw);
+    }
+
+    void discard() {
+        if (spillFile == null) return;
+        try {
+            Files.deleteIfExists(spillFile);
+        } catch (IOException e) {
+            LoggerFactory.getLogger(StoredOutput.class).warn("Could not delete spilled job output {}", spillFile, e);
+        }
+    }
+}
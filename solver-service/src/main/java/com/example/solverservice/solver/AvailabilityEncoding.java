@@ -0,0 +1,17 @@
+package com.example.solverservice.solver;
+
+/**
+ * How Stage A turns an instructor's availability windows into constraints on a request's start variable.
+ */
+public enum AvailabilityEncoding {
+    /**
+     * The start variable's domain is the union of feasible starts of every window
+     * (window start up to window end minus block length). No extra variables or constraints.
+     */
+    DOMAIN,
+    /**
+     * One reified BoolVar per window with two enforced bounds and an exactly-one over the windows and the
+     * request's absence. Kept for comparison with {@link #DOMAIN}.
+     */
+    REIFIED
+}
@@ -0,0 +1,192 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.model.SolverAvailabilitySlot;
+import com.example.solverservice.model.SolverClassSessionRequirement;
+import com.example.solverservice.model.SolverInstructor;
+import com.example.solverservice.model.SolverPriorityRequest;
+import com.example.solverservice.model.SolverRoom;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-solve reduction of instructor availability, run once per solve before any {@code CpModel} is built.
+ * <p>
+ * Per instructor and day, overlapping and adjacent windows are merged, the result is clipped to the hours at least
+ * one room is open, and windows too short for the instructor's smallest block are dropped. Each window that reaches
+ * the model becomes start-domain values (or a window literal under {@link AvailabilityEncoding#REIFIED}), so every
+ * window removed here is one CP-SAT presolve no longer has to remove on every run.
+ */
+final class AvailabilityReduction {
+
+    private final SolveContext ctx;
+    private final List<SolverInstructor> instructors;
+    private final Map<Integer, Map<DayOfWeek, OperatingHoursSpan>> roomHours = new HashMap<>();
+    private final Map<List<Object>, List<SolverAvailabilitySlot>> windowsByInstructorAndHours = new HashMap<>();
+    private int mergedWindows;
+    private int clippedWindows;
+    private int droppedWindows;
+
+    private AvailabilityReduction(SolveContext ctx, SolverInput input) {
+        this.ctx = ctx;
+        List<SolverRoom> rooms = input.getRooms() != null ? input.getRooms() : List.of();
+        for (SolverRoom room : rooms) {
+            if (room.getOperatingHours() != null) roomHours.put(room.getId(), room.getOperatingHours());
+        }
+        Map<Integer, Integer> smallestBlock = smallestBlockMinutes(input);
+
+        this.instructors = new ArrayList<>();
+        if (input.getInstructors() == null) return;
+        for (SolverInstructor instructor : input.getInstructors()) {
+            Integer minMinutes = smallestBlock.get(instructor.getId());
+            instructors.add(SolverInstructor.builder()
+                .id(instructor.getId())
+                .name(instructor.getName())
+                .qualifiedClassDefinitionIds(instructor.getQualifiedClassDefinitionIds())
+                .availabilitySlots(reduce(instructor.getAvailabilitySlots(), minMinutes != null ? minMinutes : 0))
+                .build());
+        }
+    }
+
+    static AvailabilityReduction of(SolveContext ctx, SolverInput input) {
+        return new AvailabilityReduction(ctx, input);
+    }
+
+    /** Copies of the input instructors carrying the reduced availability; the input itself is left untouched. */
+    List<SolverInstructor> getInstructors() { return instructors; }
+
+    /**
+     * {@code instructor}'s reduced windows clipped to {@code room}'s own operating hours. A room without operating
+     * hours is taken to be open whenever the master grid is. Rooms with the same hours get the same list instance,
+     * so callers can cache per-list work across them.
+     */
+    List<SolverAvailabilitySlot> windowsIn(SolverInstructor instructor, SolverRoom room) {
+        Map<DayOfWeek, OperatingHoursSpan> hours = roomHours.get(room.getId());
+        if (hours == null || instructor.getAvailabilitySlots() == null) return instructor.getAvailabilitySlots();
+        return windowsByInstructorAndHours.computeIfAbsent(List.of(instructor.getId(), hours), k -> {
+            List<SolverAvailabilitySlot> clipped = new ArrayList<>();
+            for (SolverAvailabilitySlot window : instructor.getAvailabilitySlots()) {
+                OperatingHoursSpan open = hours.get(window.getDayOfWeek());
+                if (open == null || open.getStart() == null || open.getEnd() == null) continue;
+                int start = Math.max(minuteOfDay(window.getStartTime()), minuteOfDay(open.getStart()));
+                int end = Math.min(minuteOfDay(window.getEndTime()), minuteOfDay(open.getEnd()));
+                if (start < end) clipped.add(slot(window.getId(), window.getDayOfWeek(), start, end));
+            }
+            return clipped;
+        });
+    }
+
+    void appendSummary(StringBuilder consoleLog) {
+        if (mergedWindows == 0 && clippedWindows == 0 && droppedWindows == 0) return;
+        consoleLog.append("Pre-solve reduction: merged ").append(mergedWindows)
+            .append(" overlapping or adjacent availability windows, clipped ").append(clippedWindows)
+            .append(" to room operating hours and dropped ").append(droppedWindows)
+            .append(" too short for any block.\n");
+    }
+
+    private List<SolverAvailabilitySlot> reduce(List<SolverAvailabilitySlot> windows, int minMinutes) {
+        if (windows == null) return null;
+        Map<DayOfWeek, List<SolverAvailabilitySlot>> byDay = new EnumMap<>(DayOfWeek.class);
+        for (SolverAvailabilitySlot window : windows) {
+            if (window.getDayOfWeek() == null || window.getStartTime() == null || window.getEndTime() == null
+                || !window.getEndTime().isAfter(window.getStartTime())) {
+                droppedWindows++;
+                continue;
+            }
+            byDay.computeIfAbsent(window.getDayOfWeek(), d -> new ArrayList<>()).add(window);
+        }
+
+        List<SolverAvailabilitySlot> reduced = new ArrayList<>();
+        byDay.forEach((day, dayWindows) -> {
+            dayWindows.sort(Comparator.comparing(SolverAvailabilitySlot::getStartTime));
+            List<SolverAvailabilitySlot> merged = new ArrayList<>();
+            Integer id = null;
+            int start = -1;
+            int end = -1;
+            for (SolverAvailabilitySlot window : dayWindows) {
+                int windowStart = minuteOfDay(window.getStartTime());
+                int windowEnd = minuteOfDay(window.getEndTime());
+                if (start >= 0 && windowStart <= end) {
+                    end = Math.max(end, windowEnd);
+                    mergedWindows++;
+                    continue;
+                }
+                if (start >= 0) merged.add(slot(id, day, start, end));
+                id = window.getId();
+                start = windowStart;
+                end = windowEnd;
+            }
+            merged.add(slot(id, day, start, end));
+
+            for (SolverAvailabilitySlot window : merged) {
+                int windowStart = minuteOfDay(window.getStartTime());
+                int windowEnd = minuteOfDay(window.getEndTime());
+                boolean whole = false;
+                for (int[] open : ctx.getCalendar().openMinutes(day)) {
+                    int clippedStart = Math.max(windowStart, open[0]);
+                    int clippedEnd = Math.min(windowEnd, open[1]);
+                    if (clippedStart >= clippedEnd) continue;
+                    whole |= clippedStart == windowStart && clippedEnd == windowEnd;
+                    if (clippedEnd - clippedStart < minMinutes) {
+                        droppedWindows++;
+                        continue;
+                    }
+                    reduced.add(slot(window.getId(), day, clippedStart, clippedEnd));
+                }
+                if (!whole) clippedWindows++;
+            }
+        });
+        return reduced;
+    }
+
+    /**
+     * Shortest block each instructor may be asked to teach: their active priority requests plus the active classes
+     * they are qualified for, in minutes rounded up to the slot grid. Instructors with no demand get no entry and
+     * keep every window.
+     */
+    private Map<Integer, Integer> smallestBlockMinutes(SolverInput input) {
+        Map<Integer, Integer> smallest = new HashMap<>();
+        if (input.getPriorityRequests() != null) {
+            for (SolverPriorityRequest request : input.getPriorityRequests()) {
+                if (!request.isActive() || request.getInstructor() == null) continue;
+                smallest.merge(request.getInstructor().getId(), request.getBlockLengthHours() * 60, Math::min);
+            }
+        }
+        if (input.getClassRequirements() != null && input.getInstructors() != null) {
+            Map<Integer, Integer> classMinutes = new HashMap<>();
+            for (SolverClassSessionRequirement requirement : input.getClassRequirements()) {
+                if (!requirement.isActive() || requirement.getClassDefinition() == null
+                    || requirement.getClassDefinition().getDurationMinutes() <= 0) continue;
+                int slots = (requirement.getClassDefinition().getDurationMinutes() + ctx.getSlotMinutes() - 1) / ctx.getSlotMinutes();
+                classMinutes.merge(requirement.getClassDefinition().getId(), slots * ctx.getSlotMinutes(), Math::min);
+            }
+            for (SolverInstructor instructor : input.getInstructors()) {
+                if (instructor.getQualifiedClassDefinitionIds() == null) continue;
+                for (Integer classId : instructor.getQualifiedClassDefinitionIds()) {
+                    Integer minutes = classMinutes.get(classId);
+                    if (minutes != null) smallest.merge(instructor.getId(), minutes, Math::min);
+                }
+            }
+        }
+        return smallest;
+    }
+
+    private static SolverAvailabilitySlot slot(Integer id, DayOfWeek day, int startMinute, int endMinute) {
+        return SolverAvailabilitySlot.builder()
+            .id(id)
+            .dayOfWeek(day)
+            .startTime(LocalTime.of(startMinute / 60, startMinute % 60))
+            .endTime(LocalTime.of(endMinute / 60, endMinute % 60))
+            .build();
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.PubSubSolveRequest;
+import com.example.solverservice.dto.StageStatisticsDTO;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.ortools.Loader;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpModelProto;
+import com.google.ortools.sat.CpSolver;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.protobuf.TextFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Solves a {@link SolveCapture} again, on any machine, and reports status, objective and time.
+ * <p>
+ * Every captured model is re-solved exactly as built, under its captured parameters, so a slow or infeasible
+ * production search can be profiled in isolation. The captured request is also run end to end through
+ * {@link DanceTimetableSolver}, which picks up any solver change made since the capture. From the packaged service:
+ * <pre>
+ * java -cp solver-service-exec.jar -Dloader.main=com.example.solverservice.solver.CaptureReplay \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher &lt;capture dir&gt; [--models-only]
+ * </pre>
+ */
+public final class CaptureReplay {
+
+    /** Outcome of one replayed search, or of one stage of the replayed request. */
+    public record ReplayResult(String name, String status, Double objective, Double bestBound, double wallTimeSeconds) {}
+
+    private CaptureReplay() {}
+
+    /** Re-solves every captured model in {@code captureDir}, in capture order. */
+    public static List<ReplayResult> replayModels(Path captureDir) throws IOException {
+        Loader.loadNativeLibraries();
+        List<Path> models;
+        try (Stream<Path> files = Files.list(captureDir)) {
+            models = files.filter(file -> file.getFileName().toString().endsWith(SolveCapture.MODEL_SUFFIX))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+        List<ReplayResult> results = new ArrayList<>(models.size());
+        for (Path modelFile : models) {
+            String name = modelFile.getFileName().toString();
+            name = name.substring(0, name.length() - SolveCapture.MODEL_SUFFIX.length());
+
+            CpModel model = new CpModel();
+            try (InputStream in = Files.newInputStream(modelFile)) {
+                model.getBuilder().mergeFrom(CpModelProto.parseFrom(in));
+            }
+            CpSolver solver = new CpSolver();
+            Path parametersFile = captureDir.resolve(name + SolveCapture.PARAMETERS_SUFFIX);
+            if (Files.exists(parametersFile)) {
+                TextFormat.merge(Files.readString(parametersFile, StandardCharsets.UTF_8), solver.getParameters());
+            }
+
+            CpSolverStatus status = solver.solve(model);
+            boolean hasSolution = status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE;
+            results.add(new ReplayResult(name, status.name(),
+                hasSolution ? solver.objectiveValue() : null,
+                hasSolution ? solver.bestObjectiveBound() : null,
+                solver.wallTime()));
+        }
+        return results;
+    }
+
+    /** Runs the captured request through {@code solver}; one result per stage that reached CP-SAT. */
+    public static List<ReplayResult> replayRequest(Path captureDir, DanceTimetableSolver solver) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        PubSubSolveRequest request = objectMapper.readValue(
+            captureDir.resolve(SolveCapture.REQUEST_FILE).toFile(), PubSubSolveRequest.class);
+
+        SolverOutput output = solver.executeSolve(request.getSolverInput());
+        if (!output.isSolveSuccess()) {
+            return List.of(new ReplayResult("request", "FAILED: " + output.getStatusMessage(), null, null, 0));
+        }
+        List<ReplayResult> results = new ArrayList<>();
+        for (StageStatisticsDTO stage : output.getStageStatistics()) {
+            results.add(new ReplayResult("request stage " + stage.getStage(), stage.getStatus(),
+                stage.getObjectiveValue(), stage.getBestObjectiveBound(), stage.getWallTimeSeconds()));
+        }
+        return results;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: CaptureReplay <capture dir> [--models-only]");
+            System.exit(2);
+        }
+        Path captureDir = Path.of(args[0]);
+        List<ReplayResult> results = new ArrayList<>(replayModels(captureDir));
+        boolean modelsOnly = args.length > 1 && "--models-only".equals(args[1]);
+        if (!modelsOnly && Files.exists(captureDir.resolve(SolveCapture.REQUEST_FILE))) {
+            DanceTimetableSolver solver = new DanceTimetableSolver();
+            try {
+                results.addAll(replayRequest(captureDir, solver));
+            } finally {
+                solver.shutdown();
+            }
+        }
+
+        System.out.println(String.format("%-20s %-10s %12s %12s %10s", "search", "status", "objective", "bound", "wall(s)"));
+        for (ReplayResult result : results) {
+            System.out.println(String.format("%-20s %-10s %12s %12s %10.3f", result.name(), result.status(),
+                result.objective() != null ? String.format("%.1f", result.objective()) : "-",
+                result.bestBound() != null ? String.format("%.1f", result.bestBound()) : "-",
+                result.wallTimeSeconds()));
+        }
+    }
+}
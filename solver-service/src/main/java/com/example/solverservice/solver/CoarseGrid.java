@@ -0,0 +1,115 @@
+package com.example.solverservice.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Coarse view of a solve's slot grid for coarse-to-fine solving: every {@code step}-th fine slot of each open segment,
+ * counted from the segment's opening. Within a segment the mapping is affine, so blocks whose lengths are multiples of the step
+ * overlap on the coarse grid exactly when they overlap on the fine one, and a coarse placement maps back to a fine
+ * placement of the same quality.
+ */
+final class CoarseGrid {
+    static final int MAX_COARSE_MINUTES = 60;
+
+    private final int step;       // fine slots per coarse slot
+    private final int[] fineSlot; // coarse slot -> fine slot it starts at; strictly increasing
+
+    private CoarseGrid(SlotCalendar calendar, int step) {
+        this.step = step;
+        int total = 0;
+        for (int segment = 0; segment < calendar.segmentCount(); segment++) {
+            total += (calendar.segmentSlots(segment) + step - 1) / step;
+        }
+        this.fineSlot = new int[total];
+        int c = 0;
+        for (int segment = 0; segment < calendar.segmentCount(); segment++) {
+            int first = calendar.segmentFirstSlot(segment);
+            for (int offset = 0; offset < calendar.segmentSlots(segment); offset += step) {
+                fineSlot[c++] = first + offset;
+            }
+        }
+    }
+
+    /**
+     * Grid whose step is the largest common divisor of every length and of {@link #MAX_COARSE_MINUTES}, or null when
+     * that step is a single fine slot and a coarse pass would gain nothing.
+     */
+    static CoarseGrid of(SlotCalendar calendar, int slotMinutes, int[] lengthSlots) {
+        int step = MAX_COARSE_MINUTES / slotMinutes;
+        for (int len : lengthSlots) {
+            step = gcd(step, len);
+        }
+        return step >= 2 ? new CoarseGrid(calendar, step) : null;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    int getStep() { return step; }
+    int getTotalSlots() { return fineSlot.length; }
+
+    int toFine(int coarseSlot) {
+        return fineSlot[coarseSlot];
+    }
+
+    int coarseLength(int fineLength) {
+        return fineLength / step;
+    }
+
+    /** Coarse slots whose fine counterpart is a feasible fine start. */
+    BitSet coarsen(BitSet fineStarts) {
+        BitSet coarse = new BitSet(fineSlot.length);
+        for (int c = 0; c < fineSlot.length; c++) {
+            if (fineStarts.get(fineSlot[c])) coarse.set(c);
+        }
+        return coarse;
+    }
+
+    /** {@link #coarsen(BitSet)} for inclusive [from, to] runs of fine starts. */
+    long[][] coarsen(long[][] fineIntervals) {
+        List<long[]> runs = new ArrayList<>();
+        for (long[] interval : fineIntervals) {
+            int lo = firstAtOrAfter(interval[0]);
+            int hi = firstAtOrAfter(interval[1] + 1) - 1;
+            if (lo > hi) continue;
+            if (!runs.isEmpty() && runs.get(runs.size() - 1)[1] + 1 >= lo) {
+                runs.get(runs.size() - 1)[1] = Math.max(runs.get(runs.size() - 1)[1], hi);
+            } else {
+                runs.add(new long[]{lo, hi});
+            }
+        }
+        return runs.toArray(new long[0][]);
+    }
+
+    private int firstAtOrAfter(long fine) {
+        int i = Arrays.binarySearch(fineSlot, (int) Math.min(fine, Integer.MAX_VALUE));
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /** The fine starts within one coarse step of {@code fineCenter}, the refinement window around a coarse placement. */
+    BitSet window(BitSet fineStarts, int fineCenter) {
+        BitSet window = new BitSet();
+        int to = fineCenter + step + 1;
+        for (int s = fineStarts.nextSetBit(Math.max(0, fineCenter - step)); s >= 0 && s < to; s = fineStarts.nextSetBit(s + 1)) {
+            window.set(s);
+        }
+        return window;
+    }
+
+    /** {@link #window(BitSet, int)} for inclusive [from, to] runs of fine starts. */
+    long[][] window(long[][] fineIntervals, int fineCenter) {
+        long from = fineCenter - step;
+        long to = fineCenter + step;
+        List<long[]> runs = new ArrayList<>();
+        for (long[] interval : fineIntervals) {
+            long lo = Math.max(interval[0], from);
+            long hi = Math.min(interval[1], to);
+            if (lo <= hi) runs.add(new long[]{lo, hi});
+        }
+        return runs.toArray(new long[0][]);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.solverservice.solver;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Splits solver items into independent groups: two items land in the same group when they are linked, directly or
+ * through other items, by a shared resource key (an instructor, a room, ...). Groups share no resource, so each can
+ * be modelled and solved on its own.
+ */
+final class ConflictComponents {
+
+    private ConflictComponents() {}
+
+    /**
+     * Returns the indices of {@code items} grouped by connected component. Indices within a group are ascending and
+     * groups are ordered by their smallest index, so the result is deterministic for a given input order.
+     */
+    static <T> List<List<Integer>> of(List<T> items, Function<T, Collection<?>> resourceKeys) {
+        int[] parent = new int[items.size()];
+        for (int i = 0; i < parent.length; i++) parent[i] = i;
+
+        Map<Object, Integer> firstHolder = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            for (Object key : resourceKeys.apply(items.get(i))) {
+                Integer holder = firstHolder.putIfAbsent(key, i);
+                if (holder != null) union(parent, holder, i);
+            }
+        }
+
+        Map<Integer, List<Integer>> byRoot = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            byRoot.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(i);
+        }
+        return new ArrayList<>(byRoot.values());
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+    }
+}
@@ -1,18 +1,37 @@
 package com.example.solverservice.solver; // Updated package
 
 import com.example.solverservice.dto.LockedBlockDTO; // Updated import
+import com.example.solverservice.dto.ScheduledClassDTO;
+import com.example.solverservice.dto.SolveProgressDTO;
+import com.example.solverservice.dto.StageStatisticsDTO;
 import com.example.solverservice.model.*; // Import new POJO models
 
 import com.google.ortools.Loader;
 import com.google.ortools.sat.*;
+import com.google.ortools.util.Domain;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 
@@ -20,113 +39,82 @@ import java.util.stream.Collectors;
 public class DanceTimetableSolver {
     private static final Logger logger = LoggerFactory.getLogger(DanceTimetableSolver.class);
 
-    private int slotMinutes;
-    private int dur60; // slots per 60 minutes
-    private Map<DayOfWeek, OperatingHoursSpan> effectiveDayWindows;
-    private Map<DayOfWeek, Integer> dayOfWeekSlotPrefix;
-    private int totalWeekSlots;
-
     private static final DateTimeFormatter INTERNAL_TIME_PARSER =
         DateTimeFormatter.ofPattern("[H:mm][HH:mm][:ss][.SSS]");
 
+    // Shared by all solves on this bean for running independent component models side by side.
+    private final ForkJoinPool componentPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    // Fires the no-improvement timeout of running searches.
+    private final ScheduledExecutorService stallTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "solver-stall-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Server-side caps applied to every job's SolverExecutionProfile, so one tenant cannot claim the whole box.
+    private final int maxWorkers;
+    private final double maxStageSeconds;
+    // Names every CP-SAT variable after its request or session; only worth the allocations when reading dumped models.
+    private final boolean debugModelNames;
+
+    // Holds no per-run state: everything derived from a SolverInput lives in the SolveContext
+    // built inside executeSolve, so one bean can serve concurrent solves.
     public DanceTimetableSolver() {
-         Loader.loadNativeLibraries();
+        this(0, 60);
     }
 
-    private void initializeSolverConfig(SolverInput input) {
-        this.slotMinutes = input.getSlotMinutes();
-        this.dur60 = 60 / this.slotMinutes;
-        this.effectiveDayWindows = input.getEffectiveDayWindows();
-
-        this.dayOfWeekSlotPrefix = new EnumMap<>(DayOfWeek.class);
-        int accumulatedSlots = 0;
-        for (DayOfWeek d : DayOfWeek.values()) {
-            OperatingHoursSpan span = this.effectiveDayWindows.get(d);
-            this.dayOfWeekSlotPrefix.put(d, accumulatedSlots);
-            if (span != null && span.getStart() != null && span.getEnd() != null) {
-                long minutesInDay = span.getStart().until(span.getEnd(), ChronoUnit.MINUTES);
-                accumulatedSlots += (int) (minutesInDay / this.slotMinutes);
-            }
-        }
-        OperatingHoursSpan sundaySpan = this.effectiveDayWindows.get(DayOfWeek.SUNDAY);
-        int sundaySlots = 0;
-        if (sundaySpan != null && sundaySpan.getStart() != null && sundaySpan.getEnd() != null) {
-             long minutesInSunday = sundaySpan.getStart().until(sundaySpan.getEnd(), ChronoUnit.MINUTES);
-             sundaySlots = (int) (minutesInSunday / this.slotMinutes);
-        }
-        this.totalWeekSlots = this.dayOfWeekSlotPrefix.get(DayOfWeek.SUNDAY) + sundaySlots;
-        logger.info("Solver initialized. SlotMin: {}, TotalWeekSlots: {}", this.slotMinutes, this.totalWeekSlots);
-    }
-
-    private int toGlobalSlot(DayOfWeek day, LocalTime time) {
-        OperatingHoursSpan daySpan = this.effectiveDayWindows.get(day);
-        if (daySpan == null || daySpan.getStart() == null || time.isBefore(daySpan.getStart()) || time.isAfter(daySpan.getEnd())) {
-            logger.warn("Time {} on {} is outside effective operating window {} for the master grid.", time, day, daySpan);
-            // This logic might need refinement based on how strictly out-of-bounds times are handled.
-            // For now, if it's outside, it might return -1 or an error, or clamp to bounds.
-            // The original code implies it might proceed if time is before start, but after end is problematic.
-            // Returning -1 for any out-of-bounds or undefined span.
-            if (daySpan == null || daySpan.getStart() == null) return -1;
-            if (time.isBefore(daySpan.getStart())) return this.dayOfWeekSlotPrefix.get(day); // Clamp to start
-            if (time.isAfter(daySpan.getEnd())) { // Clamp to end, effectively making it the last possible slot start
-                 long minutesFromDayStart = daySpan.getStart().until(daySpan.getEnd(), ChronoUnit.MINUTES);
-                 return this.dayOfWeekSlotPrefix.get(day) + (int) (minutesFromDayStart / this.slotMinutes) -1; // -1 if duration > slotmin
-            }
-        }
-        Integer prefix = this.dayOfWeekSlotPrefix.get(day);
-        if (prefix == null) return -1; 
-
-        long minutesFromDayStart = daySpan.getStart().until(time, ChronoUnit.MINUTES);
-        return prefix + (int) (minutesFromDayStart / this.slotMinutes);
-    }
-
-    private LocalDateTime globalSlotToLocalDateTime(long slot) {
-        DayOfWeek currentDay = DayOfWeek.MONDAY; // Default
-        for (DayOfWeek d : DayOfWeek.values()) {
-            Integer prefix = this.dayOfWeekSlotPrefix.get(d);
-            OperatingHoursSpan daySpan = this.effectiveDayWindows.get(d);
-            int slotsInThisDay = 0;
-            if (prefix != null && daySpan != null && daySpan.getStart() != null && daySpan.getEnd() != null) {
-                slotsInThisDay = (int) (daySpan.getStart().until(daySpan.getEnd(), ChronoUnit.MINUTES) / this.slotMinutes);
-                if (slot >= prefix && slot < prefix + slotsInThisDay) {
-                    currentDay = d;
-                    break;
-                }
-            } else if (prefix != null && slot >= prefix && (daySpan == null || daySpan.getStart() == null || daySpan.getEnd() == null)){
-                // This case means the slot falls into a day that has a prefix but no defined operating hours.
-                // This shouldn't happen if effectiveDayWindows is comprehensive.
-                logger.error("Slot {} falls into day {} which has no defined operating hours. Defaulting to MONDAY.", slot, d);
-                currentDay = DayOfWeek.MONDAY; // Fallback, but indicates an issue.
-                break;
-            }
-        }
-        
-        OperatingHoursSpan daySpan = this.effectiveDayWindows.get(currentDay);
-        if (daySpan == null || daySpan.getStart() == null) {
-             logger.error("Could not determine date for slot {} - missing daySpan start for {}", slot, currentDay);
-             // Fallback to a very distinct, clearly wrong time to indicate error
-             return LocalDateTime.of(1970, 1, 1, 0, 0); 
-        }
+    public DanceTimetableSolver(int maxWorkers, double maxStageSeconds) {
+        this(maxWorkers, maxStageSeconds, false);
+    }
 
-        int offsetInDaySlots = (int) (slot - this.dayOfWeekSlotPrefix.get(currentDay));
-        LocalTime time = daySpan.getStart().plusMinutes((long)offsetInDaySlots * this.slotMinutes);
-        
-        LocalDate today = LocalDate.now(); // Representative date, not critical for solver logic
-        LocalDate representativeDate = today.with(DayOfWeek.MONDAY).plusDays(currentDay.getValue() - 1);
-        return LocalDateTime.of(representativeDate, time);
+    @Autowired
+    public DanceTimetableSolver(@Value("${solver.limits.max-workers:0}") int maxWorkers,
+                                @Value("${solver.limits.max-stage-seconds:60}") double maxStageSeconds,
+                                @Value("${solver.model.debug-names:false}") boolean debugModelNames) {
+         Loader.loadNativeLibraries();
+         this.maxWorkers = maxWorkers > 0 ? maxWorkers : Runtime.getRuntime().availableProcessors();
+         this.maxStageSeconds = maxStageSeconds;
+         this.debugModelNames = debugModelNames;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        componentPool.shutdown();
+        stallTimer.shutdown();
     }
 
+    /** Minimum spacing between two intermediate solutions handed to a {@link SolveProgressListener}. */
+    public static final long PROGRESS_MIN_INTERVAL_MILLIS = 500;
+
+    // Share of a stage's time limit the coarse pass may use; the fine pass gets whatever the coarse pass left.
+    private static final double COARSE_PASS_TIME_SHARE = 0.5;
 
     public SolverOutput executeSolve(SolverInput input) {
+        return executeSolve(input, null);
+    }
+
+    public SolverOutput executeSolve(SolverInput input, SolveProgressListener progressListener) {
+        return executeSolve(input, progressListener, null);
+    }
+
+    /** As {@link #executeSolve(SolverInput, SolveProgressListener)}, saving every CP-SAT search to {@code capture} (nullable). */
+    public SolverOutput executeSolve(SolverInput input, SolveProgressListener progressListener, SolveCapture capture) {
         logger.info("Solver Engine: Starting execution...");
-        initializeSolverConfig(input);
         SolverOutput output = SolverOutput.builder().build(); // Use builder
         StringBuilder internalConsoleLog = new StringBuilder();
+        List<StageStatisticsDTO> stageStatistics = new ArrayList<>();
     
         try {
+            input = InputReferences.resolve(input, internalConsoleLog);
+            SolverExecutionProfile requestedProfile = input.getExecutionProfile() != null
+                ? input.getExecutionProfile() : new SolverExecutionProfile();
+            SolveContext ctx = SolveContext.from(input, requestedProfile.resolve(maxWorkers, maxStageSeconds), capture);
+            AvailabilityReduction reduction = AvailabilityReduction.of(ctx, input);
+            reduction.appendSummary(internalConsoleLog);
             logger.info("Solver Engine: Preparing for Stage A.");
             List<InternalSolverPriorityRequest> solverStageARequests =
-                prepareStageAPriorityRequests(input.getPriorityRequests(), input.getInstructors(), input.getRooms(), internalConsoleLog);
+                prepareStageAPriorityRequests(ctx, reduction, input.getPriorityRequests(), input.getRooms(), internalConsoleLog);
     
             if (solverStageARequests.isEmpty() && input.getPriorityRequests() != null && !input.getPriorityRequests().isEmpty()) {
                 logger.warn("No priority requests were prepared for Stage A, though input contained some. Check mapping.");
@@ -136,18 +124,29 @@ public class DanceTimetableSolver {
     
             List<InternalLockedBlock> stageARawResults = new ArrayList<>();
             if (!solverStageARequests.isEmpty()) {
-                 stageARawResults = runActualStageA(solverStageARequests, input.getInstructors(), input.getRooms(), internalConsoleLog);
+                 stageARawResults = runActualStageA(ctx, solverStageARequests, reduction.getInstructors(), input.getRooms(), internalConsoleLog, stageStatistics, progressListener);
             }
             
-            output.setStageAResults(convertToLockedBlockDTOs(stageARawResults)); 
+            output.setStageAResults(convertToLockedBlockDTOs(ctx, stageARawResults));
             logger.info("Solver Engine: Stage A completed. Found {} locked blocks.", stageARawResults.size());
     
-            // --- STAGE B (Placeholder for now) ---
-            logger.info("Solver Engine: Preparing for Stage B (currently placeholder).");
-            // output.setStageBResults(new ArrayList<>()); 
-    
+            // --- STAGE B: class sessions placed around the Stage A locked blocks ---
+            logger.info("Solver Engine: Preparing for Stage B.");
+            List<InternalClassSession> solverStageBSessions =
+                prepareStageBClassRequests(ctx, input.getClassRequirements(), reduction, input.getRooms(), stageARawResults, internalConsoleLog);
+
+            List<InternalScheduledClass> stageBRawResults = new ArrayList<>();
+            if (!solverStageBSessions.isEmpty()) {
+                stageBRawResults = runActualStageB(ctx, solverStageBSessions, internalConsoleLog, stageStatistics);
+            } else {
+                logger.info("No class sessions to process for Stage B.");
+            }
+
+            output.setStageBResults(convertToScheduledClassDTOs(ctx, stageBRawResults));
+            logger.info("Solver Engine: Stage B completed. Scheduled {} of {} class sessions.", stageBRawResults.size(), solverStageBSessions.size());
+
             output.setSolveSuccess(true);
-            output.setStatusMessage("Solver run (Stage A, Stage B placeholder) completed.");
+            output.setStatusMessage("Solver run (Stage A, Stage B) completed.");
     
         } catch (Exception e) {
             logger.error("Solver Engine: Exception during solve process!", e);
@@ -156,6 +155,7 @@ public class DanceTimetableSolver {
             internalConsoleLog.append("\nERROR: ").append(e.toString());
         }
     
+        output.setStageStatistics(stageStatistics);
         output.setConsoleLog(internalConsoleLog.toString());
         logger.info("Solver Engine: Execution finished.");
         return output;
@@ -165,12 +165,17 @@ public class DanceTimetableSolver {
     private record InternalSolverPriorityRequest(
         SolverPriorityRequest originalRequestPojo, // Changed from JPA entity
         SolverInstructor instructorPojo,        // Changed from JPA entity
-        SolverRoom roomPojo,                    // Changed from JPA entity
+        List<InternalRoomOption> roomOptions,   // Candidate rooms the request can still fit in, in location order
         int lengthSlots,
         IntVar startVar, 
         BoolVar presentVar,
         IntervalVar intervalVar
     ) {}
+
+    private record InternalRoomOption(
+        SolverRoom roomPojo,
+        List<SolverAvailabilitySlot> windows    // Instructor availability after pre-solve reduction, clipped to the room's hours
+    ) {}
     
     private record InternalLockedBlock(
         SolverInstructor instructorPojo,        // Changed from JPA entity
@@ -181,8 +186,9 @@ public class DanceTimetableSolver {
     
     
     private List<InternalSolverPriorityRequest> prepareStageAPriorityRequests(
+        SolveContext ctx,
+        AvailabilityReduction reduction,
         List<SolverPriorityRequest> pojoPriorityRequests, // Changed from JPA list
-        List<SolverInstructor> allInstructors,          // Changed from JPA list
         List<SolverRoom> allRooms,                      // Changed from JPA list
         StringBuilder internalConsoleLog) {
         
@@ -190,10 +196,7 @@ public class DanceTimetableSolver {
         if (pojoPriorityRequests == null) return solverRequests;
     
         Map<Integer, SolverInstructor> instructorMap = 
-            allInstructors.stream().collect(Collectors.toMap(SolverInstructor::getId, i -> i));
-        
-        // Map<Integer, SolverRoom> roomMap = 
-        //     allRooms.stream().collect(Collectors.toMap(SolverRoom::getId, r -> r)); // Not directly used like this anymore
+            reduction.getInstructors().stream().collect(Collectors.toMap(SolverInstructor::getId, i -> i));
     
         for (SolverPriorityRequest pojoReq : pojoPriorityRequests) {
             if (!pojoReq.isActive()){
@@ -201,133 +204,757 @@ public class DanceTimetableSolver {
                 continue;
             }
     
-            SolverInstructor instructor = instructorMap.get(pojoReq.getInstructor().getId());
+            SolverInstructor instructor = pojoReq.getInstructor() != null
+                ? instructorMap.get(pojoReq.getInstructor().getId()) : null;
             if (instructor == null) {
                 internalConsoleLog.append("Warning: Instructor not found for priority request ID: ").append(pojoReq.getId()).append("\n");
                 continue;
             }
     
-            SolverRoom targetRoom = null;
+            // Every room of the request's location is a candidate; CP-SAT picks one per placed block.
+            List<SolverRoom> candidateRooms = List.of();
             if (pojoReq.getStudioLocation() != null) {
                 Integer targetLocationId = pojoReq.getStudioLocation().getId();
-                targetRoom = allRooms.stream()
+                candidateRooms = allRooms.stream()
                                     .filter(r -> r.getStudioLocation() != null && r.getStudioLocation().getId().equals(targetLocationId))
-                                    .findFirst().orElse(null);
-                if (targetRoom == null) {
+                                    .collect(Collectors.toList());
+                if (candidateRooms.isEmpty()) {
                      internalConsoleLog.append("Warning: No room found in specified StudioLocation ID ").append(targetLocationId)
                                        .append(" for priority request ID: ").append(pojoReq.getId()).append(". Trying any room.\n");
                 }
             }
             
-            if (targetRoom == null && !allRooms.isEmpty()) {
-                targetRoom = allRooms.get(0); 
-                internalConsoleLog.append("Warning: Assigning priority request ID: ").append(pojoReq.getId())
-                                  .append(" to fallback room ID: ").append(targetRoom.getId()).append("\n");
-            } else if (targetRoom == null && allRooms.isEmpty()){
+            if (candidateRooms.isEmpty() && !allRooms.isEmpty()) {
+                candidateRooms = allRooms;
+                internalConsoleLog.append("Warning: Priority request ID: ").append(pojoReq.getId())
+                                  .append(" may use any of the ").append(allRooms.size()).append(" rooms as a fallback.\n");
+            } else if (candidateRooms.isEmpty()) {
                  internalConsoleLog.append("Error: No rooms available for priority request ID: ").append(pojoReq.getId()).append(". Skipping.\n");
                 continue;
             }
     
-            int lenSlots = pojoReq.getBlockLengthHours() * this.dur60;
-            solverRequests.add(new InternalSolverPriorityRequest(pojoReq, instructor, targetRoom, lenSlots, null, null, null));
+            int lenSlots = pojoReq.getBlockLengthHours() * ctx.getDur60();
+            List<InternalRoomOption> roomOptions = new ArrayList<>(candidateRooms.size());
+            for (SolverRoom room : candidateRooms) {
+                List<SolverAvailabilitySlot> windows = reduction.windowsIn(instructor, room);
+                if (!availableStartSlots(ctx, windows, lenSlots).isEmpty()) roomOptions.add(new InternalRoomOption(room, windows));
+            }
+            if (roomOptions.isEmpty()) {
+                internalConsoleLog.append("Pre-solve reduction: priority request ID: ").append(pojoReq.getId())
+                                  .append(" (").append(instructor.getName()).append(", ").append(pojoReq.getBlockLengthHours())
+                                  .append("h) fits no availability window in any of its ").append(candidateRooms.size())
+                                  .append(" candidate rooms; marked unplaceable.\n");
+                continue;
+            }
+            solverRequests.add(new InternalSolverPriorityRequest(pojoReq, instructor, roomOptions, lenSlots, null, null, null));
         }
         return solverRequests;
     }
     
     
     private List<InternalLockedBlock> runActualStageA(
+        SolveContext ctx,
         List<InternalSolverPriorityRequest> solverRequests,
         List<SolverInstructor> allInstructors, // Parameter kept for consistency, though availability is now on individual SolverInstructor objects
         List<SolverRoom> allRooms,             // Parameter kept for consistency, though room details are on individual SolverRoom objects
-        StringBuilder internalConsoleLog) {
+        StringBuilder internalConsoleLog,
+        List<StageStatisticsDTO> stageStatistics,
+        SolveProgressListener progressListener) {
     
         internalConsoleLog.append("Running OR-Tools Stage A with ").append(solverRequests.size()).append(" requests.\n");
         List<InternalLockedBlock> confirmedBlocks = new ArrayList<>();
         if (solverRequests.isEmpty()) return confirmedBlocks;
-    
-        CpModel model = new CpModel();
-    
-        List<InternalSolverPriorityRequest> requestsWithORToolsVars = new ArrayList<>();
+
+        // Requests that share neither an instructor nor a candidate room cannot constrain each other, so every
+        // connected component of that conflict graph (typically one per studio location) is solved as its own model.
+        List<List<Integer>> components = ConflictComponents.of(solverRequests, req -> {
+            List<String> keys = new ArrayList<>(req.roomOptions().size() + 1);
+            keys.add("instructor:" + req.instructorPojo().getId());
+            req.roomOptions().forEach(option -> keys.add("room:" + option.roomPojo().getId()));
+            return keys;
+        });
+        int workersPerComponent = workersPerComponent(ctx, components.size());
+        if (components.size() > 1) {
+            internalConsoleLog.append("Stage A split into ").append(components.size()).append(" independent components.\n");
+        }
+        CoarseGrid coarseGrid = coarseGridFor(ctx, "A",
+            solverRequests.stream().mapToInt(InternalSolverPriorityRequest::lengthSlots).toArray(), internalConsoleLog);
+        StageAProgress progress = progressListener != null
+            ? new StageAProgress(ctx, solverRequests, components, progressListener) : null;
+        List<StageAComponentResult> results = solveComponents(components.size(), c -> solveStageAComponent(ctx,
+            components.get(c).stream().map(solverRequests::get).collect(Collectors.toList()), workersPerComponent,
+            progress != null ? (placement, objective, bound) -> progress.onComponentSolution(c, placement, objective, bound) : null,
+            coarseGrid));
+
+        StageAPlacement placement = StageAPlacement.unplaced(solverRequests.size());
+        List<StageStatisticsDTO> componentStatistics = new ArrayList<>(results.size());
+        for (int c = 0; c < components.size(); c++) {
+            List<Integer> component = components.get(c);
+            StageAComponentResult result = results.get(c);
+            if (components.size() > 1) {
+                internalConsoleLog.append("Stage A component ").append(c + 1).append(" (").append(component.size()).append(" requests):\n");
+            }
+            internalConsoleLog.append(result.consoleLog());
+            placement.copyFrom(result.placement(), component);
+            componentStatistics.add(result.statistics());
+        }
+        stageStatistics.add(mergeStatistics("A", componentStatistics));
+
+        for (int i = 0; i < solverRequests.size(); i++) {
+            InternalSolverPriorityRequest req = solverRequests.get(i);
+            int start = placement.starts()[i];
+            if (start >= 0) {
+                SolverRoom room = req.roomOptions().get(placement.rooms()[i]).roomPojo();
+                confirmedBlocks.add(new InternalLockedBlock(
+                    req.instructorPojo(), 
+                    room, 
+                    start, 
+                    req.lengthSlots()
+                ));
+                internalConsoleLog.append("Scheduled Priority: Instr ")
+                    .append(req.instructorPojo().getName()).append(" in Room ")
+                    .append(room.getName()).append(" at slot ").append(start)
+                    .append(" for ").append(req.lengthSlots()).append(" slots.\n");
+            }
+        }
+        return confirmedBlocks;
+    }
+
+    /** Start slot and room option index per request, both -1 where the request is not placed. */
+    private record StageAPlacement(int[] starts, int[] rooms) {
+        static StageAPlacement unplaced(int requestCount) {
+            int[] starts = new int[requestCount];
+            int[] rooms = new int[requestCount];
+            Arrays.fill(starts, -1);
+            Arrays.fill(rooms, -1);
+            return new StageAPlacement(starts, rooms);
+        }
+
+        int placed() {
+            return (int) Arrays.stream(starts).filter(start -> start >= 0).count();
+        }
+
+        void place(int request, int start, int room) {
+            starts[request] = start;
+            rooms[request] = room;
+        }
+
+        /** Copies a component's placement, indexed like its requests, to their positions {@code indices}. */
+        void copyFrom(StageAPlacement component, List<Integer> indices) {
+            for (int k = 0; k < indices.size(); k++) {
+                place(indices.get(k), component.starts()[k], component.rooms()[k]);
+            }
+        }
+    }
+
+    private record StageAComponentResult(
+        StageAPlacement placement,
+        String consoleLog,
+        StageStatisticsDTO statistics
+    ) {}
+
+    /** Receives each improving solution of one Stage A component model, indexed like its requests. */
+    private interface ComponentIncumbentSink {
+        void accept(StageAPlacement placement, double objective, double bestBound);
+    }
+
+    /**
+     * Solves one Stage A component. With a {@code coarseGrid} the component is first solved on that grid, then
+     * refined on the fine grid with each placed request limited to one coarse step around its coarse start and the
+     * coarse placement as the warm start, so the result is never worse than the coarse pass.
+     */
+    private StageAComponentResult solveStageAComponent(SolveContext ctx, List<InternalSolverPriorityRequest> solverRequests,
+                                                       int numWorkers, ComponentIncumbentSink incumbents,
+                                                       CoarseGrid coarseGrid) {
+        StringBuilder internalConsoleLog = new StringBuilder();
+        List<BitSet[]> availableStarts = new ArrayList<>(solverRequests.size());
         for (InternalSolverPriorityRequest req : solverRequests) {
-            IntVar startVar = model.newIntVar(0, this.totalWeekSlots - req.lengthSlots(), "pstart_" + req.originalRequestPojo().getId());
-            BoolVar presentVar = model.newBoolVar("present_" + req.originalRequestPojo().getId());
-            IntVar endVar = model.newIntVar(0, this.totalWeekSlots, "pend_" + req.originalRequestPojo().getId()); // Corrected end var domain
-            model.addEquality(LinearExpr.sum(new IntVar[]{startVar, model.newConstant(req.lengthSlots())}), endVar).onlyEnforceIf(presentVar); // Define end based on start and length
-            IntervalVar intervalVar = model.newOptionalIntervalVar(startVar, model.newConstant(req.lengthSlots()), endVar, presentVar, "iv_p_" + req.originalRequestPojo().getId());
+            availableStarts.add(req.roomOptions().stream()
+                .map(option -> availableStartSlots(ctx, option.windows(), req.lengthSlots()))
+                .toArray(BitSet[]::new));
+        }
+        double timeLimitSeconds = ctx.getExecutionProfile().getStageATimeLimitSeconds();
+        if (coarseGrid == null) {
+            return searchStageA(ctx, solverRequests, ctx.getTotalWeekSlots(), availableStarts, null, timeLimitSeconds,
+                numWorkers, incumbents, internalConsoleLog);
+        }
+
+        List<InternalSolverPriorityRequest> coarseRequests = new ArrayList<>(solverRequests.size());
+        List<BitSet[]> coarseStarts = new ArrayList<>(solverRequests.size());
+        for (int i = 0; i < solverRequests.size(); i++) {
+            InternalSolverPriorityRequest req = solverRequests.get(i);
+            coarseRequests.add(new InternalSolverPriorityRequest(req.originalRequestPojo(), req.instructorPojo(), req.roomOptions(),
+                coarseGrid.coarseLength(req.lengthSlots()), null, null, null));
+            coarseStarts.add(Arrays.stream(availableStarts.get(i)).map(coarseGrid::coarsen).toArray(BitSet[]::new));
+        }
+        StageAComponentResult coarse = searchStageA(ctx, coarseRequests, coarseGrid.getTotalSlots(), coarseStarts, null,
+            timeLimitSeconds * COARSE_PASS_TIME_SHARE, numWorkers, null, new StringBuilder());
+        StageAPlacement preferred = StageAPlacement.unplaced(solverRequests.size());
+        for (int i = 0; i < solverRequests.size(); i++) {
+            int coarseStart = coarse.placement().starts()[i];
+            if (coarseStart < 0) continue;
+            int fineStart = coarseGrid.toFine(coarseStart);
+            preferred.place(i, fineStart, coarse.placement().rooms()[i]);
+            BitSet[] starts = availableStarts.get(i);
+            for (int k = 0; k < starts.length; k++) {
+                starts[k] = coarseGrid.window(starts[k], fineStart);
+            }
+        }
+        int coarseMinutes = coarseGrid.getStep() * ctx.getSlotMinutes();
+        internalConsoleLog.append("Stage A coarse pass (").append(coarseMinutes).append("-minute grid) placed ")
+            .append(preferred.placed()).append(" of ").append(solverRequests.size()).append(" requests (solver status ")
+            .append(coarse.statistics().getStatus()).append(").\n");
+
+        double coarseSeconds = coarse.statistics().getWallTimeSeconds();
+        StageAComponentResult fine = searchStageA(ctx, solverRequests, ctx.getTotalWeekSlots(), availableStarts, preferred,
+            timeLimitSeconds - coarseSeconds, numWorkers, incumbents, internalConsoleLog);
+        StageStatisticsDTO stats = fine.statistics();
+        stats.setTimeLimitSeconds(timeLimitSeconds);
+        stats.setWallTimeSeconds(stats.getWallTimeSeconds() + coarseSeconds);
+        if (stats.getFirstSolutionSeconds() != null) stats.setFirstSolutionSeconds(stats.getFirstSolutionSeconds() + coarseSeconds);
+        if (stats.getOptimalSeconds() != null) stats.setOptimalSeconds(stats.getOptimalSeconds() + coarseSeconds);
+        stats.setDeterministicTime(addNullable(stats.getDeterministicTime(), coarse.statistics().getDeterministicTime()));
+        return fine;
+    }
+
+    /**
+     * One Stage A CP-SAT search over {@code totalSlots} slots. Each request gets one optional interval per candidate
+     * room, exactly one of which is present when the request is placed, with its starts limited to that room's
+     * {@code availableStarts}. {@code preferred} (nullable) steers the greedy warm start.
+     */
+    private StageAComponentResult searchStageA(SolveContext ctx, List<InternalSolverPriorityRequest> solverRequests,
+                                               int totalSlots, List<BitSet[]> availableStarts, StageAPlacement preferred,
+                                               double timeLimitSeconds, int numWorkers, ComponentIncumbentSink incumbents,
+                                               StringBuilder internalConsoleLog) {
+        boolean domainEncoding = ctx.getAvailabilityEncoding() == AvailabilityEncoding.DOMAIN;
+        boolean finePass = totalSlots == ctx.getTotalWeekSlots();
+
+        StageAPlacement greedy = greedyStageA(solverRequests, availableStarts, preferred);
+        int greedyPlaced = greedy.placed();
+        internalConsoleLog.append("Stage A greedy warm start placed ").append(greedyPlaced)
+            .append(" of ").append(solverRequests.size()).append(" requests.\n");
+
+        // Requests of one instructor with the same rooms, length, priority and starts are interchangeable, so only
+        // the ordering with presences first and starts ascending is kept. Rooms that every request could use in
+        // exactly the same way can swap whole schedules, so only the ordering with booked slots non-increasing is
+        // kept. The hint is reordered to match both.
+        boolean symmetryBreaking = ctx.getExecutionProfile().getSymmetryBreaking();
+        List<List<Integer>> equivalentRequests = symmetryBreaking
+            ? EquivalenceClasses.of(solverRequests.size(), i -> {
+                InternalSolverPriorityRequest req = solverRequests.get(i);
+                return List.of(req.instructorPojo().getId(), roomIds(req), req.lengthSlots(),
+                    relativePriority(req.originalRequestPojo()), Arrays.asList(availableStarts.get(i)));
+            })
+            : List.of();
+        for (List<Integer> group : equivalentRequests) {
+            int[] placed = group.stream().filter(i -> greedy.starts()[i] >= 0)
+                .sorted(Comparator.comparingInt(i -> greedy.starts()[i])).mapToInt(Integer::intValue).toArray();
+            int[][] placements = Arrays.stream(placed).mapToObj(i -> new int[]{greedy.starts()[i], greedy.rooms()[i]}).toArray(int[][]::new);
+            for (int k = 0; k < group.size(); k++) {
+                if (k < placements.length) greedy.place(group.get(k), placements[k][0], placements[k][1]);
+                else greedy.place(group.get(k), -1, -1);
+            }
+        }
+        Map<Integer, List<int[]>> optionsByRoom = new LinkedHashMap<>(); // room id -> {request, option} pairs
+        for (int i = 0; i < solverRequests.size(); i++) {
+            List<InternalRoomOption> options = solverRequests.get(i).roomOptions();
+            for (int k = 0; k < options.size(); k++) {
+                optionsByRoom.computeIfAbsent(options.get(k).roomPojo().getId(), id -> new ArrayList<>()).add(new int[]{i, k});
+            }
+        }
+        List<Integer> roomIds = new ArrayList<>(optionsByRoom.keySet());
+        List<List<Integer>> interchangeableRooms = symmetryBreaking
+            ? EquivalenceClasses.of(roomIds.size(), r -> {
+                List<Object> signature = new ArrayList<>();
+                for (int[] option : optionsByRoom.get(roomIds.get(r))) {
+                    signature.add(option[0]);
+                    signature.add(availableStarts.get(option[0])[option[1]]);
+                }
+                return signature;
+            })
+            : List.of();
+        for (List<Integer> group : interchangeableRooms) {
+            relabelGreedyRooms(solverRequests, greedy, group.stream().map(roomIds::get).collect(Collectors.toList()));
+        }
+
+        ModelBuilder builder = new ModelBuilder(debugModelNames);
+        CpModel model = builder.model();
+        List<InternalSolverPriorityRequest> requestsWithORToolsVars = new ArrayList<>(solverRequests.size());
+        List<BoolVar[]> roomPresentVars = new ArrayList<>(solverRequests.size());
+        Map<Integer, List<IntervalVar>> byRoomORTools = new LinkedHashMap<>(2 * optionsByRoom.size());
+        for (int i = 0; i < solverRequests.size(); i++) {
+            InternalSolverPriorityRequest req = solverRequests.get(i);
+            List<InternalRoomOption> options = req.roomOptions();
+            BitSet[] roomStarts = availableStarts.get(i);
+            BitSet anyRoomStarts = new BitSet();
+            for (BitSet starts : roomStarts) anyRoomStarts.or(starts);
+            // DOMAIN: availability lives in the start variable's domain. This is sound for optional requests
+            // too, since an absent interval is ignored by NoOverlap and its start value is never read.
+            long[][] startIntervals = domainEncoding
+                ? feasibleStartIntervals(anyRoomStarts, req.lengthSlots(), null, null)
+                : null;
+            int requestId = req.originalRequestPojo().getId();
+            IntVar startVar = (startIntervals != null && startIntervals.length > 0)
+                ? builder.newIntVar(Domain.fromIntervals(startIntervals), "pstart_", requestId)
+                : builder.newIntVar(0, totalSlots - req.lengthSlots(), "pstart_", requestId);
+            BoolVar presentVar = builder.newBoolVar("present_", requestId);
+            if (startIntervals != null && startIntervals.length == 0) {
+                model.addImplication(presentVar, builder.falseLiteral());
+                if (finePass) logger.warn("No valid, schedulable windows found for Instructor {} (Req ID: {}) based on availability; request cannot be scheduled.",
+                    req.instructorPojo().getName(), req.originalRequestPojo().getId());
+            }
+            IntervalVar intervalVar = builder.newOptionalInterval(startVar, req.lengthSlots(), presentVar, "iv_p_", requestId);
+
+            // One optional interval per candidate room; a single candidate room simply reuses the request's own.
+            BoolVar[] roomPresent = new BoolVar[options.size()];
+            if (options.size() == 1) {
+                roomPresent[0] = presentVar;
+                byRoomORTools.computeIfAbsent(options.get(0).roomPojo().getId(), k -> new ArrayList<>()).add(intervalVar);
+            } else {
+                List<Literal> exactlyOne = new ArrayList<>(options.size() + 1);
+                exactlyOne.add(presentVar.not());
+                for (int k = 0; k < options.size(); k++) {
+                    int roomId = options.get(k).roomPojo().getId();
+                    roomPresent[k] = builder.newBoolVar("present_", requestId, "_r", roomId);
+                    exactlyOne.add(roomPresent[k]);
+                    if (domainEncoding && !roomStarts[k].equals(anyRoomStarts)) {
+                        long[][] roomIntervals = feasibleStartIntervals(roomStarts[k], req.lengthSlots(), null, null);
+                        if (roomIntervals.length == 0) {
+                            model.addImplication(roomPresent[k], builder.falseLiteral());
+                        } else {
+                            model.addLinearExpressionInDomain(startVar, Domain.fromIntervals(roomIntervals)).onlyEnforceIf(roomPresent[k]);
+                        }
+                    }
+                    byRoomORTools.computeIfAbsent(roomId, key -> new ArrayList<>()).add(
+                        builder.newOptionalInterval(startVar, req.lengthSlots(), roomPresent[k], "iv_p_", requestId, "_r", roomId));
+                }
+                model.addExactlyOne(exactlyOne);
+            }
+            roomPresentVars.add(roomPresent);
+
+            if (greedy.starts()[i] >= 0) {
+                model.addHint(startVar, greedy.starts()[i]);
+                model.addHint(presentVar, true);
+            } else {
+                model.addHint(presentVar, false);
+            }
+            if (options.size() > 1) {
+                for (int k = 0; k < options.size(); k++) {
+                    model.addHint(roomPresent[k], greedy.rooms()[i] == k);
+                }
+            }
             requestsWithORToolsVars.add(new InternalSolverPriorityRequest(
-                req.originalRequestPojo(), req.instructorPojo(), req.roomPojo(), req.lengthSlots(),
+                req.originalRequestPojo(), req.instructorPojo(), options, req.lengthSlots(),
                 startVar, presentVar, intervalVar
             ));
         }
         
-        Map<Integer, List<IntervalVar>> byInstrORTools = new HashMap<>();
+        for (List<Integer> group : equivalentRequests) {
+            for (int k = 1; k < group.size(); k++) {
+                InternalSolverPriorityRequest before = requestsWithORToolsVars.get(group.get(k - 1));
+                InternalSolverPriorityRequest after = requestsWithORToolsVars.get(group.get(k));
+                model.addImplication(after.presentVar(), before.presentVar());
+                model.addLessOrEqual(LinearExpr.affine(before.startVar(), 1, before.lengthSlots()), after.startVar())
+                    .onlyEnforceIf(after.presentVar());
+            }
+        }
+        if (!equivalentRequests.isEmpty()) {
+            internalConsoleLog.append("Stage A symmetry breaking ordered ").append(equivalentRequests.size())
+                .append(" groups of equivalent requests.\n");
+        }
+        for (List<Integer> group : interchangeableRooms) {
+            for (int k = 1; k < group.size(); k++) {
+                model.addGreaterOrEqual(
+                    bookedSlots(solverRequests, roomPresentVars, optionsByRoom.get(roomIds.get(group.get(k - 1)))),
+                    bookedSlots(solverRequests, roomPresentVars, optionsByRoom.get(roomIds.get(group.get(k)))));
+            }
+        }
+        if (!interchangeableRooms.isEmpty()) {
+            internalConsoleLog.append("Stage A symmetry breaking ordered ").append(interchangeableRooms.size())
+                .append(" groups of interchangeable rooms.\n");
+        }
+
+        Map<Integer, List<IntervalVar>> byInstrORTools = new HashMap<>(2 * requestsWithORToolsVars.size());
         for (InternalSolverPriorityRequest req : requestsWithORToolsVars) {
             byInstrORTools.computeIfAbsent(req.instructorPojo().getId(), k -> new ArrayList<>()).add(req.intervalVar());
         }
         byInstrORTools.values().forEach(model::addNoOverlap);
-    
-        Map<Integer, List<IntervalVar>> byRoomORTools = new HashMap<>();
+        byRoomORTools.values().forEach(model::addNoOverlap);
+
+        // Redundant with the per-room NoOverlaps, but it lets CP-SAT see a location's capacity before any room is
+        // chosen: requests sharing a set of candidate rooms never run more blocks at once than there are rooms.
+        Map<List<Integer>, List<IntervalVar>> bySharedRooms = new LinkedHashMap<>();
         for (InternalSolverPriorityRequest req : requestsWithORToolsVars) {
-            byRoomORTools.computeIfAbsent(req.roomPojo().getId(), k -> new ArrayList<>()).add(req.intervalVar());
+            if (req.roomOptions().size() > 1) bySharedRooms.computeIfAbsent(roomIds(req), k -> new ArrayList<>()).add(req.intervalVar());
         }
-        byRoomORTools.values().forEach(model::addNoOverlap);
+        bySharedRooms.forEach((rooms, intervals) -> {
+            if (intervals.size() > rooms.size()) {
+                CumulativeConstraint capacity = model.addCumulative(rooms.size());
+                intervals.forEach(interval -> capacity.addDemand(interval, 1));
+            }
+        });
     
-        for (InternalSolverPriorityRequest req : requestsWithORToolsVars) {
-            addWindowConstraintsInternal(model, req.startVar(), req.lengthSlots(), 
-                                         req.instructorPojo().getAvailabilitySlots(), // Pass POJO availability
-                                         req.presentVar(),
-                                         req.instructorPojo().getName(), // For logging
-                                         req.originalRequestPojo().getId().toString() // For logging
-                                         );
+        if (!domainEncoding) {
+            for (int i = 0; i < requestsWithORToolsVars.size(); i++) {
+                InternalSolverPriorityRequest req = requestsWithORToolsVars.get(i);
+                for (int k = 0; k < req.roomOptions().size(); k++) {
+                    addWindowConstraintsInternal(ctx, builder, req.startVar(), req.lengthSlots(),
+                                                 req.roomOptions().get(k).windows(),
+                                                 roomPresentVars.get(i)[k],
+                                                 req.instructorPojo().getName(), // For logging
+                                                 req.originalRequestPojo().getId().toString() // For logging
+                                                 );
+                }
+            }
         }
     
         IntVar[] presencesArray = requestsWithORToolsVars.stream().map(InternalSolverPriorityRequest::presentVar).toArray(IntVar[]::new);
         model.maximize(LinearExpr.sum(presencesArray));
     
         CpSolver solver = new CpSolver();
-        solver.getParameters().setMaxTimeInSeconds(10); 
-        CpSolverStatus status = solver.solve(model);
+        SearchOutcome outcome = runSearch(ctx, "A", solver, builder.build(), timeLimitSeconds, numWorkers,
+            incumbents == null ? null : callback -> incumbents.accept(
+                stageAPlacement(requestsWithORToolsVars, roomPresentVars, callback::booleanValue, callback::value),
+                callback.objectiveValue(), callback.bestObjectiveBound()));
+        CpSolverStatus status = outcome.status();
     
         internalConsoleLog.append("Stage A Solver status: ").append(status).append("\n");
-    
-        if (status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE) {
-            for (InternalSolverPriorityRequest req : requestsWithORToolsVars) {
-                if (solver.value(req.presentVar()) == 1) {
-                    int startSlotVal = (int) solver.value(req.startVar());
-                    confirmedBlocks.add(new InternalLockedBlock(
-                        req.instructorPojo(), 
-                        req.roomPojo(), 
-                        startSlotVal, 
-                        req.lengthSlots()
-                    ));
-                    internalConsoleLog.append("Scheduled Priority: Instr ")
-                        .append(req.instructorPojo().getName()).append(" in Room ")
-                        .append(req.roomPojo().getName()).append(" at slot ").append(startSlotVal)
-                        .append(" for ").append(req.lengthSlots()).append(" slots.\n");
+        StageStatisticsDTO stats = stageStatistics("A", solverRequests.size(), builder, solver, outcome, timeLimitSeconds);
+        stats.setWarmStartObjectiveValue((double) greedyPlaced);
+
+        // The greedy placement is feasible by construction, so it stands in whenever CP-SAT comes back without
+        // a solution at least as good (UNKNOWN at the time limit, or a worse incumbent).
+        boolean hasSolution = status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE;
+        boolean useGreedy = !hasSolution || solver.objectiveValue() < greedyPlaced;
+        if (useGreedy) {
+            internalConsoleLog.append("Stage A using greedy warm start placement (solver status ").append(status).append(").\n");
+            return new StageAComponentResult(greedy, internalConsoleLog.toString(), stats);
+        }
+        return new StageAComponentResult(
+            stageAPlacement(requestsWithORToolsVars, roomPresentVars, solver::booleanValue, solver::value),
+            internalConsoleLog.toString(), stats);
+    }
+
+    private static List<Integer> roomIds(InternalSolverPriorityRequest req) {
+        return req.roomOptions().stream().map(option -> option.roomPojo().getId()).collect(Collectors.toList());
+    }
+
+    /** Reads a placement off a solution, through either the final solver or a solution callback. */
+    private static StageAPlacement stageAPlacement(List<InternalSolverPriorityRequest> requests, List<BoolVar[]> roomPresentVars,
+                                                   Predicate<Literal> booleanValue, ToLongFunction<IntVar> value) {
+        StageAPlacement placement = StageAPlacement.unplaced(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            InternalSolverPriorityRequest req = requests.get(i);
+            if (!booleanValue.test(req.presentVar())) continue;
+            BoolVar[] roomPresent = roomPresentVars.get(i);
+            for (int k = 0; k < roomPresent.length; k++) {
+                if (booleanValue.test(roomPresent[k])) {
+                    placement.place(i, (int) value.applyAsLong(req.startVar()), k);
+                    break;
                 }
             }
         }
-        return confirmedBlocks;
+        return placement;
     }
-    
-    private void addWindowConstraintsInternal(CpModel model, IntVar startVar, int lengthSlots,
+
+    /** Slots booked in one room: the length of every request whose option for that room is present. */
+    private static LinearExpr bookedSlots(List<InternalSolverPriorityRequest> requests, List<BoolVar[]> roomPresentVars,
+                                          List<int[]> roomOptions) {
+        LinearExprBuilder load = LinearExpr.newBuilder();
+        for (int[] option : roomOptions) {
+            load.addTerm(roomPresentVars.get(option[0])[option[1]], requests.get(option[0]).lengthSlots());
+        }
+        return load.build();
+    }
+
+    /**
+     * Gives the greedy placement's schedules in a group of interchangeable rooms to the rooms in order of booked
+     * slots, heaviest first, so the hint satisfies the room ordering. Interchangeable rooms are candidates of the
+     * same requests with the same starts, so every block can move to its schedule's new room.
+     */
+    private void relabelGreedyRooms(List<InternalSolverPriorityRequest> requests, StageAPlacement greedy, List<Integer> groupRoomIds) {
+        Map<Integer, Integer> load = new HashMap<>();
+        for (int id : groupRoomIds) load.put(id, 0);
+        for (int i = 0; i < requests.size(); i++) {
+            if (greedy.starts()[i] < 0) continue;
+            int id = requests.get(i).roomOptions().get(greedy.rooms()[i]).roomPojo().getId();
+            int len = requests.get(i).lengthSlots();
+            load.computeIfPresent(id, (k, v) -> v + len);
+        }
+        List<Integer> byLoad = new ArrayList<>(groupRoomIds);
+        byLoad.sort(Comparator.comparingInt((Integer id) -> load.get(id)).reversed());
+        Map<Integer, Integer> newRoomOf = new HashMap<>();
+        for (int k = 0; k < byLoad.size(); k++) newRoomOf.put(byLoad.get(k), groupRoomIds.get(k));
+        for (int i = 0; i < requests.size(); i++) {
+            if (greedy.starts()[i] < 0) continue;
+            List<InternalRoomOption> options = requests.get(i).roomOptions();
+            Integer target = newRoomOf.get(options.get(greedy.rooms()[i]).roomPojo().getId());
+            if (target == null) continue;
+            for (int k = 0; k < options.size(); k++) {
+                if (options.get(k).roomPojo().getId().equals(target)) {
+                    greedy.place(i, greedy.starts()[i], k);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves each component on {@link #componentPool} and returns the results in component order. A single
+     * component runs on the calling thread.
+     */
+    private <R> List<R> solveComponents(int componentCount, IntFunction<R> solveComponent) {
+        if (componentCount == 1) {
+            return List.of(solveComponent.apply(0));
+        }
+        List<ForkJoinTask<R>> tasks = new ArrayList<>(componentCount);
+        for (int c = 0; c < componentCount; c++) {
+            int component = c;
+            tasks.add(componentPool.submit(() -> solveComponent.apply(component)));
+        }
+        List<R> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<R> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    /**
+     * Coarse grid for a stage when the execution profile asks for coarse-to-fine solving, or null. The REIFIED
+     * encoding builds its window constraints against the fine grid only, so it always solves in a single pass.
+     */
+    private CoarseGrid coarseGridFor(SolveContext ctx, String stage, int[] lengthSlots, StringBuilder internalConsoleLog) {
+        if (!ctx.getExecutionProfile().isCoarseToFine()) return null;
+        if (ctx.getAvailabilityEncoding() != AvailabilityEncoding.DOMAIN) {
+            internalConsoleLog.append("Stage ").append(stage).append(" coarse-to-fine skipped: it needs the DOMAIN availability encoding.\n");
+            return null;
+        }
+        CoarseGrid grid = CoarseGrid.of(ctx.getCalendar(), ctx.getSlotMinutes(), lengthSlots);
+        if (grid == null) {
+            internalConsoleLog.append("Stage ").append(stage).append(" coarse-to-fine skipped: its lengths share no step coarser than ")
+                .append(ctx.getSlotMinutes()).append(" minutes.\n");
+        }
+        return grid;
+    }
+
+    /** Splits the job's CP-SAT workers across the component models that can run at the same time. */
+    private int workersPerComponent(SolveContext ctx, int componentCount) {
+        int concurrent = Math.min(componentCount, componentPool.getParallelism());
+        return Math.max(1, ctx.getExecutionProfile().getNumSearchWorkers() / Math.max(1, concurrent));
+    }
+
+    /** Final status of one CP-SAT search, plus the wall time of its first solution (null when it found none). */
+    private record SearchOutcome(CpSolverStatus status, Double firstSolutionSeconds) {}
+
+    /**
+     * Runs one CP-SAT search under the job's execution profile. {@code onSolution} (nullable) sees every improving
+     * solution. A callback is always attached so the time to the first solution can be reported.
+     */
+    private SearchOutcome runSearch(SolveContext ctx, String stage, CpSolver solver, CpModel model, double timeLimitSeconds,
+                                     int numWorkers, Consumer<CpSolverSolutionCallback> onSolution) {
+        SolverExecutionProfile profile = ctx.getExecutionProfile();
+        SatParameters.Builder parameters = solver.getParameters();
+        parameters.setNumWorkers(numWorkers);
+        parameters.setMaxTimeInSeconds(timeLimitSeconds);
+        if (profile.isDeterministic()) {
+            // Interleaved workers make the multi-worker search reproducible under a deterministic time limit.
+            parameters.setMaxDeterministicTime(profile.getDeterministicTimeLimit());
+            parameters.setInterleaveSearch(true);
+        }
+        if (profile.getRelativeGapLimit() > 0) {
+            parameters.setRelativeGapLimit(profile.getRelativeGapLimit());
+        }
+        if (profile.isStopAtFirstSolution()) {
+            parameters.setStopAfterFirstSolution(true);
+        }
+        if (ctx.getCapture() != null) {
+            ctx.getCapture().captureSearch(stage, model.model(), parameters.build());
+        }
+
+        Double stallSeconds = profile.getNoImprovementTimeoutSeconds();
+        AtomicLong lastSolutionNanos = new AtomicLong();
+        AtomicReference<Double> firstSolutionSeconds = new AtomicReference<>();
+        CpSolverSolutionCallback callback = new CpSolverSolutionCallback() {
+            @Override
+            public void onSolutionCallback() {
+                lastSolutionNanos.set(System.nanoTime());
+                if (firstSolutionSeconds.get() == null) firstSolutionSeconds.set(wallTime());
+                if (onSolution != null) onSolution.accept(this);
+            }
+        };
+        ScheduledFuture<?> stallCheck = null;
+        if (stallSeconds != null) {
+            long stallNanos = (long) (stallSeconds * 1e9);
+            long periodMillis = Math.max(10, Math.min(250, stallNanos / 4_000_000L));
+            stallCheck = stallTimer.scheduleAtFixedRate(() -> {
+                long last = lastSolutionNanos.get();
+                if (last != 0 && System.nanoTime() - last > stallNanos) solver.stopSearch();
+            }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        }
+        try {
+            return new SearchOutcome(solver.solve(model, callback), firstSolutionSeconds.get());
+        } finally {
+            if (stallCheck != null) stallCheck.cancel(false);
+        }
+    }
+
+    /**
+     * Merges the incumbents of a Stage A's component models into one timetable and hands it to the listener.
+     * Publishing is throttled to {@link #PROGRESS_MIN_INTERVAL_MILLIS}, and the DTO conversion is skipped unless the
+     * combined objective improved since the last publish.
+     */
+    private final class StageAProgress {
+        private final SolveContext ctx;
+        private final List<InternalSolverPriorityRequest> requests;
+        private final List<List<Integer>> components;
+        private final SolveProgressListener listener;
+        private final long startNanos = System.nanoTime();
+
+        private final StageAPlacement placement;
+        private final double[] componentObjective;
+        private final double[] componentBound;
+        private double publishedObjective = Double.NEGATIVE_INFINITY;
+        private long lastPublishNanos;
+        private int solutionCount;
+
+        StageAProgress(SolveContext ctx, List<InternalSolverPriorityRequest> requests, List<List<Integer>> components,
+                       SolveProgressListener listener) {
+            this.ctx = ctx;
+            this.requests = requests;
+            this.components = components;
+            this.listener = listener;
+            this.lastPublishNanos = startNanos - PROGRESS_MIN_INTERVAL_MILLIS * 1_000_000L; // First incumbent goes out at once
+            this.placement = StageAPlacement.unplaced(requests.size());
+            this.componentObjective = new double[components.size()];
+            this.componentBound = new double[components.size()];
+            for (int c = 0; c < components.size(); c++) {
+                componentBound[c] = components.get(c).size(); // Trivial bound until the component reports one
+            }
+        }
+
+        synchronized void onComponentSolution(int component, StageAPlacement componentPlacement, double objective, double bestBound) {
+            solutionCount++;
+            placement.copyFrom(componentPlacement, components.get(component));
+            componentObjective[component] = objective;
+            componentBound[component] = bestBound;
+
+            double totalObjective = Arrays.stream(componentObjective).sum();
+            long now = System.nanoTime();
+            if (totalObjective <= publishedObjective
+                || now - lastPublishNanos < PROGRESS_MIN_INTERVAL_MILLIS * 1_000_000L) {
+                return;
+            }
+            publishedObjective = totalObjective;
+            lastPublishNanos = now;
+
+            List<InternalLockedBlock> blocks = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                int start = placement.starts()[i];
+                if (start < 0) continue;
+                InternalSolverPriorityRequest req = requests.get(i);
+                blocks.add(new InternalLockedBlock(req.instructorPojo(),
+                    req.roomOptions().get(placement.rooms()[i]).roomPojo(), start, req.lengthSlots()));
+            }
+            SolveProgressDTO progress = SolveProgressDTO.builder()
+                .stage("A")
+                .objectiveValue(totalObjective)
+                .bestObjectiveBound(Arrays.stream(componentBound).sum())
+                .wallTimeSeconds((now - startNanos) / 1e9)
+                .solutionCount(solutionCount)
+                .lockedBlocks(convertToLockedBlockDTOs(ctx, blocks))
+                .build();
+            try {
+                listener.onProgress(progress);
+            } catch (RuntimeException e) {
+                logger.warn("Solve progress listener failed; continuing the solve.", e);
+            }
+        }
+    }
+
+    /**
+     * Greedy Stage A pre-placement used as a CP-SAT hint and as the fallback result. Requests go in priority order
+     * (lowest relativePriority first, longer blocks first within a priority), each at its earliest available start
+     * that is still free for both its instructor and one of its candidate rooms, the earlier room on a tie; a
+     * request's preferred room and start (from {@code preferred}, nullable) are tried first.
+     */
+    private StageAPlacement greedyStageA(List<InternalSolverPriorityRequest> requests, List<BitSet[]> availableStarts,
+                                         StageAPlacement preferred) {
+        StageAPlacement placement = StageAPlacement.unplaced(requests.size());
+
+        Integer[] order = new Integer[requests.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator
+            .comparingInt((Integer i) -> relativePriority(requests.get(i).originalRequestPojo()))
+            .thenComparing(i -> requests.get(i).lengthSlots(), Comparator.reverseOrder()));
+
+        Map<Integer, BitSet> instructorBusy = new HashMap<>();
+        Map<Integer, BitSet> roomBusy = new HashMap<>();
+        for (int i : order) {
+            InternalSolverPriorityRequest req = requests.get(i);
+            int len = req.lengthSlots();
+            BitSet busyI = instructorBusy.computeIfAbsent(req.instructorPojo().getId(), k -> new BitSet());
+            BitSet[] candidates = availableStarts.get(i);
+            BitSet[] busyR = new BitSet[candidates.length];
+            for (int k = 0; k < candidates.length; k++) {
+                busyR[k] = roomBusy.computeIfAbsent(req.roomOptions().get(k).roomPojo().getId(), id -> new BitSet());
+            }
+            int start = -1;
+            int room = -1;
+            int preferredStart = preferred != null ? preferred.starts()[i] : -1;
+            int preferredRoom = preferred != null ? preferred.rooms()[i] : -1;
+            boolean preferredFree = preferredStart >= 0 && candidates[preferredRoom].get(preferredStart)
+                && isFree(busyI, preferredStart, len) && isFree(busyR[preferredRoom], preferredStart, len);
+            if (preferredFree) {
+                start = preferredStart;
+                room = preferredRoom;
+            }
+            for (int k = 0; k < candidates.length && !preferredFree; k++) {
+                for (int s = candidates[k].nextSetBit(0); s >= 0; s = candidates[k].nextSetBit(s + 1)) {
+                    if (start >= 0 && s >= start) break;
+                    if (isFree(busyI, s, len) && isFree(busyR[k], s, len)) {
+                        start = s;
+                        room = k;
+                        break;
+                    }
+                }
+            }
+            if (start < 0) continue;
+            placement.place(i, start, room);
+            busyI.set(start, start + len);
+            busyR[room].set(start, start + len);
+        }
+        return placement;
+    }
+
+    private static int relativePriority(SolverPriorityRequest request) {
+        return request.getRelativePriority() != null ? request.getRelativePriority() : 1;
+    }
+
+    private static boolean isFree(BitSet busy, int start, int len) {
+        int next = busy.nextSetBit(start);
+        return next < 0 || next >= start + len;
+    }
+
+    private void addWindowConstraintsInternal(SolveContext ctx, ModelBuilder builder, IntVar startVar, int lengthSlots,
                                             List<SolverAvailabilitySlot> availabilitySlots, // Changed from JPA list
                                             BoolVar presentLiteral,
                                             String instructorNameForLog, // Added for better logging
                                             String requestIdentifierForLog // Added for better logging
                                             ) {
+        CpModel model = builder.model();
         if (availabilitySlots == null || availabilitySlots.isEmpty()) {
-            model.addImplication(presentLiteral, model.falseLiteral());
-            logger.warn("Instructor {} (Req ID: {}) has no availability slots defined; request linked to literal {} cannot be scheduled.",
-                instructorNameForLog, requestIdentifierForLog, presentLiteral.getName());
+            model.addImplication(presentLiteral, builder.falseLiteral());
+            logger.warn("Instructor {} (Req ID: {}) has no availability slots defined; request cannot be scheduled.",
+                instructorNameForLog, requestIdentifierForLog);
             return;
         }
     
-        List<Literal> windowOptions = new ArrayList<>();
-        for (SolverAvailabilitySlot pojoAvail : availabilitySlots) { // Changed from JPA
+        List<Literal> windowOptions = new ArrayList<>(availabilitySlots.size() + 1);
+        for (int w = 0; w < availabilitySlots.size(); w++) {
+            SolverAvailabilitySlot pojoAvail = availabilitySlots.get(w);
             // DayOfWeekEnum toJavaTimeDayOfWeek() is no longer needed as SolverAvailabilitySlot uses java.time.DayOfWeek
-            int windowStartSlot = toGlobalSlot(pojoAvail.getDayOfWeek(), pojoAvail.getStartTime());
-            int windowEndSlot = toGlobalSlot(pojoAvail.getDayOfWeek(), pojoAvail.getEndTime());
+            int windowStartSlot = ctx.toGlobalSlot(pojoAvail.getDayOfWeek(), pojoAvail.getStartTime());
+            int windowEndSlot = ctx.toGlobalSlot(pojoAvail.getDayOfWeek(), pojoAvail.getEndTime());
             
             if (windowStartSlot == -1 || windowEndSlot == -1 || windowEndSlot <= windowStartSlot) {
                 logger.warn("Invalid availability slot for constraint (Instructor: {}, Req ID: {}): {} {}-{} mapped to {}-{}", 
@@ -336,9 +963,9 @@ public class DanceTimetableSolver {
                 continue; 
             }
     
-            // Unique name for windowSelectedLiteral, incorporating availability slot ID if available, or hash
-            String windowLiteralName = "win_" + (pojoAvail.getId() != null ? pojoAvail.getId() : Objects.hash(pojoAvail.getDayOfWeek(), pojoAvail.getStartTime())) + "_" + presentLiteral.getName();
-            BoolVar windowSelectedLiteral = model.newBoolVar(windowLiteralName);
+            // Named (under debug names) after the availability slot ID if available, else its position, and the presence literal
+            BoolVar windowSelectedLiteral = builder.newBoolVar("win_", pojoAvail.getId() != null ? pojoAvail.getId() : w,
+                "_", presentLiteral.getIndex());
             
             model.addGreaterOrEqual(startVar, windowStartSlot).onlyEnforceIf(windowSelectedLiteral);
             model.addLessOrEqual(startVar, windowEndSlot - lengthSlots).onlyEnforceIf(windowSelectedLiteral); 
@@ -348,9 +975,9 @@ public class DanceTimetableSolver {
         }
     
         if (windowOptions.isEmpty()) {
-            model.addImplication(presentLiteral, model.falseLiteral());
-             logger.warn("No valid, schedulable windows found for Instructor {} (Req ID: {}) based on availability; request linked to literal {} cannot be scheduled.",
-                instructorNameForLog, requestIdentifierForLog, presentLiteral.getName());
+            model.addImplication(presentLiteral, builder.falseLiteral());
+             logger.warn("No valid, schedulable windows found for Instructor {} (Req ID: {}) based on availability; request cannot be scheduled.",
+                instructorNameForLog, requestIdentifierForLog);
             return;
         }
     
@@ -359,12 +986,10 @@ public class DanceTimetableSolver {
     }
     
     
-    private List<LockedBlockDTO> convertToLockedBlockDTOs(List<InternalLockedBlock> internalBlocks) { // Removed SolverInput from params
+    private List<LockedBlockDTO> convertToLockedBlockDTOs(SolveContext ctx, List<InternalLockedBlock> internalBlocks) {
         if (internalBlocks == null) return new ArrayList<>();
+        SlotCalendar calendar = ctx.getCalendar();
         return internalBlocks.stream().map(ib -> {
-            LocalDateTime startDateTime = globalSlotToLocalDateTime(ib.startSlot());
-            LocalDateTime endDateTime = globalSlotToLocalDateTime(ib.startSlot() + ib.lengthSlots());
-    
             SolverStudioLocation loc = ib.roomPojo().getStudioLocation();
 
             return LockedBlockDTO.builder()
@@ -376,13 +1001,591 @@ public class DanceTimetableSolver {
                 .studioLocationName(loc != null ? loc.getName() : null)
                 .startSlot(ib.startSlot())
                 .lengthSlots(ib.lengthSlots())
-                .dayOfWeek(startDateTime.getDayOfWeek().toString())
-                .startTime(startDateTime.toLocalTime().format(DateTimeFormatter.ofPattern("HH:mm")))
-                .endTime(endDateTime.toLocalTime().format(DateTimeFormatter.ofPattern("HH:mm")))
+                .dayOfWeek(calendar.dayOf(ib.startSlot()).toString())
+                .startTime(calendar.formatStartTime(ib.startSlot()))
+                .endTime(calendar.formatEndTime(ib.startSlot(), ib.lengthSlots()))
                 .build();
         }).collect(Collectors.toList());
     }
     
-    // TODO: Implement `runActualStageB`, `prepareStageBClassRequests`, `convertToScheduledClassDTOs` using POJOs
-    // TODO: Review mapping of "Studio A"/"Studio B" if that concept is still relevant for Stage B with POJOs.
+    // --- Stage B: class session placement ---
+
+    private record InternalClassSession(
+        SolverClassSessionRequirement requirementPojo,
+        SolverClassDefinition classDefinitionPojo,
+        int sessionIndex,
+        int lengthSlots,
+        List<InternalPlacementOption> options // Shared by all sessions of the same requirement
+    ) {}
+
+    // One feasible (instructor, room) pairing for a session, with every start slot that survived pruning.
+    private record InternalPlacementOption(
+        SolverInstructor instructorPojo,
+        SolverRoom roomPojo,
+        long[][] startIntervals // Inclusive [from, to] runs of feasible start slots
+    ) {}
+
+    private record InternalScheduledClass(
+        SolverClassSessionRequirement requirementPojo,
+        SolverClassDefinition classDefinitionPojo,
+        int sessionIndex,
+        SolverInstructor instructorPojo,
+        SolverRoom roomPojo,
+        int startSlot,
+        int lengthSlots
+    ) {}
+
+    /**
+     * Expands each active requirement into its sessions and pre-computes their candidate domains. An
+     * (instructor, room, start) combination only survives if the instructor is qualified for the class,
+     * the room is at the requirement's location and big enough, the instructor is available and the room open
+     * for the whole session, and neither the instructor nor the room is held by a Stage A block at that time. CP-SAT then
+     * only sees options that can actually be used, instead of instructors x rooms x every week slot.
+     */
+    private List<InternalClassSession> prepareStageBClassRequests(
+        SolveContext ctx,
+        List<SolverClassSessionRequirement> pojoRequirements,
+        AvailabilityReduction reduction,
+        List<SolverRoom> allRooms,
+        List<InternalLockedBlock> lockedBlocks,
+        StringBuilder internalConsoleLog) {
+
+        List<InternalClassSession> sessions = new ArrayList<>();
+        if (pojoRequirements == null || pojoRequirements.isEmpty()) return sessions;
+        List<SolverInstructor> allInstructors = reduction.getInstructors();
+        if (allInstructors.isEmpty() || allRooms == null || allRooms.isEmpty()) {
+            internalConsoleLog.append("Error: No instructors or rooms available for Stage B. Skipping.\n");
+            return sessions;
+        }
+
+        int totalSlots = ctx.getTotalWeekSlots();
+        Map<Integer, BitSet> busyByInstructor = new HashMap<>();
+        Map<Integer, BitSet> busyByRoom = new HashMap<>();
+        for (InternalLockedBlock block : lockedBlocks) {
+            int end = Math.min(block.startSlot() + block.lengthSlots(), totalSlots);
+            busyByInstructor.computeIfAbsent(block.instructorPojo().getId(), k -> new BitSet(totalSlots)).set(block.startSlot(), end);
+            busyByRoom.computeIfAbsent(block.roomPojo().getId(), k -> new BitSet(totalSlots)).set(block.startSlot(), end);
+        }
+
+        // Availability-derived starts depend only on (instructor windows in the room's hours, length); rooms with the
+        // same hours share one windows list, so cache by list identity across rooms and requirements.
+        Map<List<SolverAvailabilitySlot>, Map<Integer, BitSet>> availableStartsCache = new IdentityHashMap<>();
+
+        for (SolverClassSessionRequirement pojoReq : pojoRequirements) {
+            if (!pojoReq.isActive()) {
+                internalConsoleLog.append("Skipping inactive class requirement ID: ").append(pojoReq.getId()).append("\n");
+                continue;
+            }
+            SolverClassDefinition classDef = pojoReq.getClassDefinition();
+            if (classDef == null || classDef.getDurationMinutes() <= 0 || pojoReq.getSessionsPerWeek() <= 0) {
+                internalConsoleLog.append("Warning: Class requirement ID: ").append(pojoReq.getId())
+                                  .append(" has no class definition, duration or sessions. Skipping.\n");
+                continue;
+            }
+
+            int lenSlots = (classDef.getDurationMinutes() + ctx.getSlotMinutes() - 1) / ctx.getSlotMinutes();
+            Integer targetLocationId = pojoReq.getStudioLocation() != null ? pojoReq.getStudioLocation().getId() : null;
+            Integer capacityNeeded = classDef.getDefaultStudioCapacityNeeded();
+
+            List<SolverRoom> candidateRooms = allRooms.stream()
+                .filter(r -> targetLocationId == null
+                          || (r.getStudioLocation() != null && targetLocationId.equals(r.getStudioLocation().getId())))
+                .filter(r -> capacityNeeded == null || r.getCapacity() == null || r.getCapacity() >= capacityNeeded)
+                .collect(Collectors.toList());
+
+            List<InternalPlacementOption> options = new ArrayList<>();
+            for (SolverInstructor instructor : allInstructors) {
+                if (instructor.getQualifiedClassDefinitionIds() == null
+                    || !instructor.getQualifiedClassDefinitionIds().contains(classDef.getId())) {
+                    continue;
+                }
+                for (SolverRoom room : candidateRooms) {
+                    List<SolverAvailabilitySlot> windows = reduction.windowsIn(instructor, room);
+                    if (windows == null) continue;
+                    BitSet availableStarts = availableStartsCache
+                        .computeIfAbsent(windows, k -> new HashMap<>())
+                        .computeIfAbsent(lenSlots, len -> availableStartSlots(ctx, windows, len));
+                    if (availableStarts.isEmpty()) continue;
+                    long[][] startIntervals = feasibleStartIntervals(availableStarts, lenSlots,
+                        busyByInstructor.get(instructor.getId()), busyByRoom.get(room.getId()));
+                    if (startIntervals.length > 0) {
+                        options.add(new InternalPlacementOption(instructor, room, startIntervals));
+                    }
+                }
+            }
+
+            if (options.isEmpty()) {
+                internalConsoleLog.append("Warning: No qualified instructor/room/time combination for class requirement ID: ")
+                                  .append(pojoReq.getId()).append(" (").append(classDef.getName()).append("). Skipping.\n");
+                continue;
+            }
+            for (int i = 0; i < pojoReq.getSessionsPerWeek(); i++) {
+                sessions.add(new InternalClassSession(pojoReq, classDef, i, lenSlots, options));
+            }
+        }
+        return sessions;
+    }
+
+    // Slots at which a block of lenSlots fits entirely inside one of the instructor's availability windows.
+    private BitSet availableStartSlots(SolveContext ctx, List<SolverAvailabilitySlot> availabilitySlots, int lenSlots) {
+        BitSet starts = new BitSet(ctx.getTotalWeekSlots());
+        if (availabilitySlots == null) return starts;
+        for (SolverAvailabilitySlot pojoAvail : availabilitySlots) {
+            int windowStartSlot = ctx.toGlobalSlot(pojoAvail.getDayOfWeek(), pojoAvail.getStartTime());
+            int windowEndSlot = ctx.toGlobalSlot(pojoAvail.getDayOfWeek(), pojoAvail.getEndTime());
+            if (windowStartSlot == -1 || windowEndSlot == -1 || windowEndSlot - windowStartSlot < lenSlots) continue;
+            starts.set(windowStartSlot, windowEndSlot - lenSlots + 1);
+        }
+        return starts;
+    }
+
+    // Removes starts whose [start, start + lenSlots) would touch a busy slot, then collapses the rest into runs.
+    private long[][] feasibleStartIntervals(BitSet availableStarts, int lenSlots, BitSet instructorBusy, BitSet roomBusy) {
+        BitSet busy = new BitSet();
+        if (instructorBusy != null) busy.or(instructorBusy);
+        if (roomBusy != null) busy.or(roomBusy);
+
+        List<long[]> runs = new ArrayList<>();
+        long runStart = -1;
+        long runEnd = -1;
+        for (int s = availableStarts.nextSetBit(0); s >= 0; s = availableStarts.nextSetBit(s + 1)) {
+            int nextBusy = busy.nextSetBit(s);
+            if (nextBusy != -1 && nextBusy < s + lenSlots) continue;
+            if (runStart != -1 && s == runEnd + 1) {
+                runEnd = s;
+            } else {
+                if (runStart != -1) runs.add(new long[]{runStart, runEnd});
+                runStart = s;
+                runEnd = s;
+            }
+        }
+        if (runStart != -1) runs.add(new long[]{runStart, runEnd});
+        return runs.toArray(new long[0][]);
+    }
+
+    private List<InternalScheduledClass> runActualStageB(
+        SolveContext ctx,
+        List<InternalClassSession> sessions,
+        StringBuilder internalConsoleLog,
+        List<StageStatisticsDTO> stageStatistics) {
+
+        internalConsoleLog.append("Running OR-Tools Stage B with ").append(sessions.size()).append(" class sessions.\n");
+        List<InternalScheduledClass> scheduled = new ArrayList<>();
+        if (sessions.isEmpty()) return scheduled;
+
+        // Sessions are linked through every instructor and room any of their options could use.
+        List<List<Integer>> components = ConflictComponents.of(sessions, session -> {
+            List<String> keys = new ArrayList<>(session.options().size() * 2);
+            for (InternalPlacementOption option : session.options()) {
+                keys.add("instructor:" + option.instructorPojo().getId());
+                keys.add("room:" + option.roomPojo().getId());
+            }
+            return keys;
+        });
+        int workersPerComponent = workersPerComponent(ctx, components.size());
+        if (components.size() > 1) {
+            internalConsoleLog.append("Stage B split into ").append(components.size()).append(" independent components.\n");
+        }
+        CoarseGrid coarseGrid = coarseGridFor(ctx, "B",
+            sessions.stream().mapToInt(InternalClassSession::lengthSlots).toArray(), internalConsoleLog);
+        List<StageBComponentResult> results = solveComponents(components.size(), c -> solveStageBComponent(ctx,
+            components.get(c).stream().map(sessions::get).collect(Collectors.toList()), workersPerComponent, coarseGrid));
+
+        InternalScheduledClass[] bySession = new InternalScheduledClass[sessions.size()];
+        List<StageStatisticsDTO> componentStatistics = new ArrayList<>(results.size());
+        for (int c = 0; c < components.size(); c++) {
+            List<Integer> component = components.get(c);
+            StageBComponentResult result = results.get(c);
+            if (components.size() > 1) {
+                internalConsoleLog.append("Stage B component ").append(c + 1).append(" (").append(component.size()).append(" sessions):\n");
+            }
+            internalConsoleLog.append(result.consoleLog());
+            for (int k = 0; k < component.size(); k++) {
+                bySession[component.get(k)] = result.scheduled()[k];
+            }
+            componentStatistics.add(result.statistics());
+        }
+        stageStatistics.add(mergeStatistics("B", componentStatistics));
+
+        for (InternalScheduledClass sc : bySession) {
+            if (sc == null) continue;
+            scheduled.add(sc);
+            internalConsoleLog.append("Scheduled Class: ").append(sc.classDefinitionPojo().getName())
+                .append(" #").append(sc.sessionIndex() + 1)
+                .append(" Instr ").append(sc.instructorPojo().getName())
+                .append(" in Room ").append(sc.roomPojo().getName())
+                .append(" at slot ").append(sc.startSlot())
+                .append(" for ").append(sc.lengthSlots()).append(" slots.\n");
+        }
+        int unscheduled = sessions.size() - scheduled.size();
+        if (unscheduled > 0) {
+            internalConsoleLog.append("Stage B left ").append(unscheduled).append(" class sessions unscheduled.\n");
+        }
+        return scheduled;
+    }
+
+    private record InternalOptionVars(
+        int sessionPosition,
+        InternalPlacementOption option,
+        IntVar startVar,
+        BoolVar presentVar
+    ) {}
+
+    private record StageBComponentResult(
+        InternalScheduledClass[] scheduled, // Placement per session of the component, null where the session is not placed
+        String consoleLog,
+        StageStatisticsDTO statistics
+    ) {}
+
+    /**
+     * Solves one Stage B component, coarse-to-fine when a {@code coarseGrid} is given: sessions placed by the coarse
+     * pass keep only the fine starts within one coarse step of their coarse start, and the coarse placement is both
+     * the hint and the fallback for the fine pass.
+     */
+    private StageBComponentResult solveStageBComponent(SolveContext ctx, List<InternalClassSession> sessions, int numWorkers,
+                                                       CoarseGrid coarseGrid) {
+        double timeLimitSeconds = ctx.getExecutionProfile().getStageBTimeLimitSeconds();
+        if (coarseGrid == null) {
+            return searchStageB(ctx, sessions, numWorkers, timeLimitSeconds, null);
+        }
+
+        // Sessions of one requirement share their options list; coarsen each list once.
+        Map<List<InternalPlacementOption>, List<InternalPlacementOption>> coarseOptions = new IdentityHashMap<>();
+        List<InternalClassSession> coarseSessions = new ArrayList<>(sessions.size());
+        for (InternalClassSession session : sessions) {
+            List<InternalPlacementOption> options = coarseOptions.computeIfAbsent(session.options(), fineOptions -> {
+                List<InternalPlacementOption> coarsened = new ArrayList<>(fineOptions.size());
+                for (InternalPlacementOption option : fineOptions) {
+                    long[][] intervals = coarseGrid.coarsen(option.startIntervals());
+                    if (intervals.length > 0) coarsened.add(new InternalPlacementOption(option.instructorPojo(), option.roomPojo(), intervals));
+                }
+                return coarsened;
+            });
+            coarseSessions.add(new InternalClassSession(session.requirementPojo(), session.classDefinitionPojo(),
+                session.sessionIndex(), coarseGrid.coarseLength(session.lengthSlots()), options));
+        }
+        StageBComponentResult coarse = searchStageB(ctx, coarseSessions, numWorkers, timeLimitSeconds * COARSE_PASS_TIME_SHARE, null);
+
+        // Map coarse placements back to the fine grid and narrow the placed sessions to a window around them.
+        List<InternalClassSession> fineSessions = new ArrayList<>(sessions.size());
+        InternalScheduledClass[] coarsePlacement = new InternalScheduledClass[sessions.size()];
+        int[][] hints = new int[sessions.size()][];
+        for (int s = 0; s < sessions.size(); s++) {
+            InternalClassSession session = sessions.get(s);
+            InternalScheduledClass placed = coarse.scheduled()[s];
+            if (placed == null) {
+                fineSessions.add(session);
+                continue;
+            }
+            int fineStart = coarseGrid.toFine(placed.startSlot());
+            coarsePlacement[s] = new InternalScheduledClass(session.requirementPojo(), session.classDefinitionPojo(),
+                session.sessionIndex(), placed.instructorPojo(), placed.roomPojo(), fineStart, session.lengthSlots());
+            List<InternalPlacementOption> windowed = new ArrayList<>();
+            for (InternalPlacementOption option : session.options()) {
+                long[][] intervals = coarseGrid.window(option.startIntervals(), fineStart);
+                if (intervals.length == 0) continue;
+                if (option.instructorPojo() == placed.instructorPojo() && option.roomPojo() == placed.roomPojo()) {
+                    hints[s] = new int[]{windowed.size(), fineStart};
+                }
+                windowed.add(new InternalPlacementOption(option.instructorPojo(), option.roomPojo(), intervals));
+            }
+            fineSessions.add(new InternalClassSession(session.requirementPojo(), session.classDefinitionPojo(),
+                session.sessionIndex(), session.lengthSlots(), windowed));
+        }
+        long coarsePlaced = Arrays.stream(coarsePlacement).filter(Objects::nonNull).count();
+        String coarseLine = "Stage B coarse pass (" + coarseGrid.getStep() * ctx.getSlotMinutes() + "-minute grid) placed "
+            + coarsePlaced + " of " + sessions.size() + " sessions (solver status " + coarse.statistics().getStatus() + ").\n";
+
+        double coarseSeconds = coarse.statistics().getWallTimeSeconds();
+        StageBComponentResult fine = searchStageB(ctx, fineSessions, numWorkers, timeLimitSeconds - coarseSeconds, hints);
+        StageStatisticsDTO stats = fine.statistics();
+        stats.setWarmStartObjectiveValue((double) coarsePlaced);
+        stats.setTimeLimitSeconds(timeLimitSeconds);
+        stats.setWallTimeSeconds(stats.getWallTimeSeconds() + coarseSeconds);
+        if (stats.getFirstSolutionSeconds() != null) stats.setFirstSolutionSeconds(stats.getFirstSolutionSeconds() + coarseSeconds);
+        if (stats.getOptimalSeconds() != null) stats.setOptimalSeconds(stats.getOptimalSeconds() + coarseSeconds);
+        stats.setDeterministicTime(addNullable(stats.getDeterministicTime(), coarse.statistics().getDeterministicTime()));
+
+        long finePlaced = Arrays.stream(fine.scheduled()).filter(Objects::nonNull).count();
+        if (finePlaced < coarsePlaced) {
+            return new StageBComponentResult(coarsePlacement, coarseLine + fine.consoleLog()
+                + "Stage B using coarse pass placement (solver status " + stats.getStatus() + ").\n", stats);
+        }
+        return new StageBComponentResult(fine.scheduled(), coarseLine + fine.consoleLog(), stats);
+    }
+
+    /** One Stage B CP-SAT search. {@code hints} (nullable) holds, per session, {option index, start} or null. */
+    private StageBComponentResult searchStageB(SolveContext ctx, List<InternalClassSession> sessions, int numWorkers,
+                                               double timeLimitSeconds, int[][] hints) {
+        StringBuilder consoleLog = new StringBuilder();
+        ModelBuilder builder = new ModelBuilder(debugModelNames);
+        CpModel model = builder.model();
+        int optionCount = sessions.stream().mapToInt(session -> session.options().size()).sum();
+        List<InternalOptionVars> allOptionVars = new ArrayList<>(optionCount);
+        List<List<InternalOptionVars>> optionVarsBySession = new ArrayList<>(sessions.size());
+        Map<Integer, List<IntervalVar>> byInstrORTools = new HashMap<>();
+        Map<Integer, List<IntervalVar>> byRoomORTools = new LinkedHashMap<>();
+        Map<Integer, List<InternalOptionVars>> optionVarsByInstructor = new LinkedHashMap<>();
+        Map<Integer, List<InternalOptionVars>> optionVarsByRoom = new LinkedHashMap<>();
+
+        for (int s = 0; s < sessions.size(); s++) {
+            InternalClassSession session = sessions.get(s);
+            List<Literal> sessionPresences = new ArrayList<>(session.options().size());
+            List<InternalOptionVars> sessionOptionVars = new ArrayList<>(session.options().size());
+            for (int o = 0; o < session.options().size(); o++) {
+                InternalPlacementOption option = session.options().get(o);
+                IntVar startVar = builder.newIntVar(Domain.fromIntervals(option.startIntervals()), "bstart_", s, "_", o);
+                BoolVar presentVar = builder.newBoolVar("bpresent_", s, "_", o);
+                IntervalVar intervalVar = builder.newOptionalInterval(startVar, session.lengthSlots(), presentVar, "iv_b_", s, "_", o);
+
+                byInstrORTools.computeIfAbsent(option.instructorPojo().getId(), k -> new ArrayList<>()).add(intervalVar);
+                byRoomORTools.computeIfAbsent(option.roomPojo().getId(), k -> new ArrayList<>()).add(intervalVar);
+                sessionPresences.add(presentVar);
+                InternalOptionVars optionVars = new InternalOptionVars(s, option, startVar, presentVar);
+                allOptionVars.add(optionVars);
+                sessionOptionVars.add(optionVars);
+                optionVarsByInstructor.computeIfAbsent(option.instructorPojo().getId(), k -> new ArrayList<>()).add(optionVars);
+                optionVarsByRoom.computeIfAbsent(option.roomPojo().getId(), k -> new ArrayList<>()).add(optionVars);
+                if (hints != null && hints[s] != null) {
+                    boolean hinted = hints[s][0] == o;
+                    model.addHint(presentVar, hinted);
+                    if (hinted) model.addHint(startVar, hints[s][1]);
+                }
+            }
+            model.addAtMostOne(sessionPresences); // Each session is placed at most once
+            optionVarsBySession.add(sessionOptionVars);
+        }
+        byInstrORTools.values().forEach(model::addNoOverlap);
+        byRoomORTools.values().forEach(model::addNoOverlap);
+
+        if (ctx.getExecutionProfile().getSymmetryBreaking()) {
+            addStageBSymmetryBreaking(builder, sessions, optionVarsBySession, optionVarsByInstructor, optionVarsByRoom, consoleLog);
+        }
+
+        IntVar[] presencesArray = allOptionVars.stream().map(InternalOptionVars::presentVar).toArray(IntVar[]::new);
+        model.maximize(LinearExpr.sum(presencesArray));
+
+        CpSolver solver = new CpSolver();
+        SearchOutcome outcome = runSearch(ctx, "B", solver, builder.build(), timeLimitSeconds, numWorkers, null);
+        CpSolverStatus status = outcome.status();
+
+        consoleLog.append("Stage B Solver status: ").append(status).append("\n");
+        StageStatisticsDTO stats = stageStatistics("B", sessions.size(), builder, solver, outcome, timeLimitSeconds);
+
+        InternalScheduledClass[] scheduled = new InternalScheduledClass[sessions.size()];
+        if (status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE) {
+            for (InternalOptionVars ov : allOptionVars) {
+                if (solver.booleanValue(ov.presentVar())) {
+                    InternalClassSession session = sessions.get(ov.sessionPosition());
+                    scheduled[ov.sessionPosition()] = new InternalScheduledClass(
+                        session.requirementPojo(), session.classDefinitionPojo(), session.sessionIndex(),
+                        ov.option().instructorPojo(), ov.option().roomPojo(), (int) solver.value(ov.startVar()), session.lengthSlots());
+                }
+            }
+        }
+        return new StageBComponentResult(scheduled, consoleLog.toString(), stats);
+    }
+
+    /**
+     * Breaks the Stage B symmetries. Sessions with the same length and the same options (the sessions of one
+     * requirement) are placed in order: presences first, starts non-decreasing. Rooms that every session could use
+     * in exactly the same way (same instructors, same starts) can swap whole schedules, so their booked slots are
+     * kept non-increasing in room order; the same holds for instructors that could teach every session in the same
+     * rooms at the same starts.
+     */
+    private void addStageBSymmetryBreaking(ModelBuilder builder, List<InternalClassSession> sessions,
+                                           List<List<InternalOptionVars>> optionVarsBySession,
+                                           Map<Integer, List<InternalOptionVars>> optionVarsByInstructor,
+                                           Map<Integer, List<InternalOptionVars>> optionVarsByRoom,
+                                           StringBuilder consoleLog) {
+        CpModel model = builder.model();
+        List<List<Integer>> duplicateSessions = EquivalenceClasses.of(sessions.size(),
+            s -> List.of(sessions.get(s).lengthSlots(), sessions.get(s).options()));
+        for (List<Integer> group : duplicateSessions) {
+            IntVar previousStart = null;
+            BoolVar previousPresent = null;
+            for (int s : group) {
+                List<InternalOptionVars> options = optionVarsBySession.get(s);
+                long maxStart = options.stream()
+                    .mapToLong(ov -> ov.option().startIntervals()[ov.option().startIntervals().length - 1][1])
+                    .max().orElse(0);
+                BoolVar present = builder.newBoolVar("bsession_present_", s);
+                IntVar start = builder.newIntVar(0, maxStart, "bsession_start_", s);
+                model.addEquality(LinearExpr.sum(options.stream().map(InternalOptionVars::presentVar).toArray(BoolVar[]::new)), present);
+                for (InternalOptionVars ov : options) {
+                    model.addEquality(start, ov.startVar()).onlyEnforceIf(ov.presentVar());
+                }
+                if (previousStart != null) {
+                    model.addImplication(present, previousPresent);
+                    model.addLessOrEqual(previousStart, start).onlyEnforceIf(present);
+                }
+                previousStart = start;
+                previousPresent = present;
+            }
+        }
+
+        int interchangeableRooms = orderInterchangeableResources(model, sessions, optionVarsByRoom,
+            ov -> ov.option().instructorPojo().getId());
+        int interchangeableInstructors = orderInterchangeableResources(model, sessions, optionVarsByInstructor,
+            ov -> ov.option().roomPojo().getId());
+
+        if (!duplicateSessions.isEmpty() || interchangeableRooms > 0 || interchangeableInstructors > 0) {
+            consoleLog.append("Stage B symmetry breaking ordered ").append(duplicateSessions.size())
+                .append(" groups of duplicate sessions, ").append(interchangeableRooms)
+                .append(" groups of interchangeable rooms and ").append(interchangeableInstructors)
+                .append(" groups of interchangeable instructors.\n");
+        }
+    }
+
+    /**
+     * Orders the booked slots of resources (rooms or instructors) whose options match session by session, paired
+     * with the same {@code otherResource} and the same starts. Returns the number of groups ordered.
+     */
+    private int orderInterchangeableResources(CpModel model, List<InternalClassSession> sessions,
+                                              Map<Integer, List<InternalOptionVars>> optionVarsByResource,
+                                              ToIntFunction<InternalOptionVars> otherResource) {
+        List<Integer> resourceIds = new ArrayList<>(optionVarsByResource.keySet());
+        List<List<Integer>> groups = EquivalenceClasses.of(resourceIds.size(), r -> {
+            List<Long> signature = new ArrayList<>();
+            for (InternalOptionVars ov : optionVarsByResource.get(resourceIds.get(r))) {
+                signature.add((long) ov.sessionPosition());
+                signature.add((long) otherResource.applyAsInt(ov));
+                for (long[] interval : ov.option().startIntervals()) {
+                    signature.add(interval[0]);
+                    signature.add(interval[1]);
+                }
+                signature.add(-1L);
+            }
+            return signature;
+        });
+        for (List<Integer> group : groups) {
+            for (int k = 1; k < group.size(); k++) {
+                model.addGreaterOrEqual(bookedSlots(sessions, optionVarsByResource.get(resourceIds.get(group.get(k - 1)))),
+                    bookedSlots(sessions, optionVarsByResource.get(resourceIds.get(group.get(k)))));
+            }
+        }
+        return groups.size();
+    }
+
+    private static LinearExpr bookedSlots(List<InternalClassSession> sessions, List<InternalOptionVars> resourceOptions) {
+        LinearExprBuilder load = LinearExpr.newBuilder();
+        for (InternalOptionVars ov : resourceOptions) {
+            load.addTerm(ov.presentVar(), sessions.get(ov.sessionPosition()).lengthSlots());
+        }
+        return load.build();
+    }
+
+    private StageStatisticsDTO stageStatistics(String stage, int requestCount, ModelBuilder builder, CpSolver solver,
+                                               SearchOutcome outcome, double timeLimitSeconds) {
+        CpSolverStatus status = outcome.status();
+        boolean hasSolution = status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE;
+        Double objective = hasSolution ? solver.objectiveValue() : null;
+        Double bound = hasSolution ? solver.bestObjectiveBound() : null;
+        return StageStatisticsDTO.builder()
+            .stage(stage)
+            .components(1)
+            .requestCount(requestCount)
+            .variables(builder.model().model().getVariablesCount())
+            .constraints(builder.model().model().getConstraintsCount())
+            .modelBytes(builder.protoBytes())
+            .modelBuildSeconds(builder.buildSeconds())
+            .status(status.name())
+            .objectiveValue(objective)
+            .bestObjectiveBound(bound)
+            .relativeGap(relativeGap(objective, bound))
+            .timeLimitSeconds(timeLimitSeconds)
+            .firstSolutionSeconds(outcome.firstSolutionSeconds())
+            .optimalSeconds(status == CpSolverStatus.OPTIMAL ? solver.wallTime() : null)
+            .wallTimeSeconds(solver.wallTime())
+            .deterministicTime(solver.response().getDeterministicTime())
+            .build();
+    }
+
+    /** CP-SAT's relative gap, {@code |bound - objective| / max(1, |objective|)}; null without a solution. */
+    private static Double relativeGap(Double objective, Double bound) {
+        if (objective == null || bound == null) return null;
+        return Math.abs(bound - objective) / Math.max(1.0, Math.abs(objective));
+    }
+
+    /**
+     * Folds the statistics of a stage's independent component models into one entry: sizes, objectives and bounds
+     * add up, times are the slowest component (they run concurrently) and the status is the worst one seen. The
+     * stage only counts as optimal once every component is.
+     */
+    private StageStatisticsDTO mergeStatistics(String stage, List<StageStatisticsDTO> parts) {
+        if (parts.size() == 1) return parts.get(0);
+        List<String> statusRank = List.of(CpSolverStatus.OPTIMAL.name(), CpSolverStatus.FEASIBLE.name(),
+            CpSolverStatus.UNKNOWN.name(), CpSolverStatus.INFEASIBLE.name(), CpSolverStatus.MODEL_INVALID.name());
+        StageStatisticsDTO merged = StageStatisticsDTO.builder()
+            .stage(stage)
+            .components(parts.size())
+            .requestCount(0).variables(0).constraints(0).modelBytes(0L).modelBuildSeconds(0.0)
+            .status(CpSolverStatus.OPTIMAL.name())
+            .timeLimitSeconds(parts.get(0).getTimeLimitSeconds())
+            .optimalSeconds(0.0)
+            .wallTimeSeconds(0.0)
+            .build();
+        for (StageStatisticsDTO part : parts) {
+            merged.setRequestCount(merged.getRequestCount() + part.getRequestCount());
+            merged.setVariables(merged.getVariables() + part.getVariables());
+            merged.setConstraints(merged.getConstraints() + part.getConstraints());
+            merged.setModelBytes(merged.getModelBytes() + part.getModelBytes());
+            merged.setModelBuildSeconds(merged.getModelBuildSeconds() + part.getModelBuildSeconds());
+            if (statusRank.indexOf(part.getStatus()) > statusRank.indexOf(merged.getStatus())) {
+                merged.setStatus(part.getStatus());
+            }
+            merged.setObjectiveValue(addNullable(merged.getObjectiveValue(), part.getObjectiveValue()));
+            merged.setBestObjectiveBound(addNullable(merged.getBestObjectiveBound(), part.getBestObjectiveBound()));
+            merged.setWarmStartObjectiveValue(addNullable(merged.getWarmStartObjectiveValue(), part.getWarmStartObjectiveValue()));
+            merged.setFirstSolutionSeconds(maxNullable(merged.getFirstSolutionSeconds(), part.getFirstSolutionSeconds()));
+            merged.setOptimalSeconds(merged.getOptimalSeconds() == null || part.getOptimalSeconds() == null
+                ? null : Math.max(merged.getOptimalSeconds(), part.getOptimalSeconds()));
+            merged.setWallTimeSeconds(Math.max(merged.getWallTimeSeconds(), part.getWallTimeSeconds()));
+            merged.setDeterministicTime(addNullable(merged.getDeterministicTime(), part.getDeterministicTime()));
+        }
+        boolean everyPartSolved = parts.stream().allMatch(part -> part.getObjectiveValue() != null);
+        if (!everyPartSolved) {
+            merged.setFirstSolutionSeconds(null);
+        }
+        merged.setRelativeGap(everyPartSolved ? relativeGap(merged.getObjectiveValue(), merged.getBestObjectiveBound()) : null);
+        return merged;
+    }
+
+    private static Double addNullable(Double a, Double b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a + b;
+    }
+
+    private static Double maxNullable(Double a, Double b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return Math.max(a, b);
+    }
+
+    private List<ScheduledClassDTO> convertToScheduledClassDTOs(SolveContext ctx, List<InternalScheduledClass> internalClasses) {
+        if (internalClasses == null) return new ArrayList<>();
+        SlotCalendar calendar = ctx.getCalendar();
+        return internalClasses.stream().map(sc -> {
+            SolverStudioLocation loc = sc.roomPojo().getStudioLocation();
+
+            return ScheduledClassDTO.builder()
+                .classSessionRequirementId(sc.requirementPojo().getId())
+                .sessionIndex(sc.sessionIndex())
+                .classDefinitionId(sc.classDefinitionPojo().getId())
+                .classDefinitionName(sc.classDefinitionPojo().getName())
+                .instructorId(sc.instructorPojo().getId())
+                .instructorName(sc.instructorPojo().getName())
+                .roomId(sc.roomPojo().getId())
+                .roomName(sc.roomPojo().getName())
+                .studioLocationId(loc != null ? loc.getId() : null)
+                .studioLocationName(loc != null ? loc.getName() : null)
+                .startSlot(sc.startSlot())
+                .lengthSlots(sc.lengthSlots())
+                .dayOfWeek(calendar.dayOf(sc.startSlot()).toString())
+                .startTime(calendar.formatStartTime(sc.startSlot()))
+                .endTime(calendar.formatEndTime(sc.startSlot(), sc.lengthSlots()))
+                .build();
+        }).collect(Collectors.toList());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.example.solverservice.solver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Groups interchangeable model items (duplicate requests, identical rooms) for symmetry breaking. Items are
+ * equivalent when their keys are equal; the caller makes the key capture everything the model can tell them apart by.
+ */
+final class EquivalenceClasses {
+
+    private EquivalenceClasses() {}
+
+    /**
+     * Indices {@code 0..count-1} grouped by {@code key}. Only groups of two or more are returned, each in ascending
+     * index order, ordered by their smallest index.
+     */
+    static List<List<Integer>> of(int count, IntFunction<?> key) {
+        Map<Object, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            groups.computeIfAbsent(key.apply(i), k -> new ArrayList<>()).add(i);
+        }
+        List<List<Integer>> classes = new ArrayList<>();
+        for (List<Integer> group : groups.values()) {
+            if (group.size() > 1) classes.add(group);
+        }
+        return classes;
+    }
+}
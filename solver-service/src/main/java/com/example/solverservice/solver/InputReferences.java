@@ -0,0 +1,160 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.model.SolverClassDefinition;
+import com.example.solverservice.model.SolverClassSessionRequirement;
+import com.example.solverservice.model.SolverInstructor;
+import com.example.solverservice.model.SolverPriorityRequest;
+import com.example.solverservice.model.SolverRoom;
+import com.example.solverservice.model.SolverStudioLocation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves the ID references of a normalized {@link SolverInput} before solving.
+ * <p>
+ * In the normalized form every instructor, studio location and class definition appears once in its table and rooms,
+ * requests and requirements carry only its ID, so a payload no longer repeats an instructor's availability
+ * once per request. Each table is indexed once into a dense array (ID to array index), and every reference is
+ * resolved through that index. Embedded objects, as sent by older callers, are kept as they are; the input itself is
+ * left untouched and resolved copies are returned.
+ */
+final class InputReferences {
+
+    private final Table<SolverInstructor> instructors;
+    private final Table<SolverStudioLocation> studioLocations;
+    private final Table<SolverClassDefinition> classDefinitions;
+
+    private InputReferences(SolverInput input) {
+        this.instructors = new Table<>(input.getInstructors(), SolverInstructor::getId);
+        List<SolverStudioLocation> locations = new ArrayList<>();
+        if (input.getStudioLocations() != null) locations.addAll(input.getStudioLocations());
+        if (input.getRooms() != null) {
+            // Older callers only ever embedded locations in rooms; those still count as table entries.
+            for (SolverRoom room : input.getRooms()) {
+                if (room.getStudioLocation() != null) locations.add(room.getStudioLocation());
+            }
+        }
+        this.studioLocations = new Table<>(locations, SolverStudioLocation::getId);
+        this.classDefinitions = new Table<>(input.getClassDefinitions(), SolverClassDefinition::getId);
+    }
+
+    /** Returns {@code input} with every ID reference resolved; unresolvable IDs are reported to {@code log} and left null. */
+    static SolverInput resolve(SolverInput input, StringBuilder log) {
+        if (!hasReferences(input)) return input;
+        InputReferences references = new InputReferences(input);
+        return new SolverInput(
+            input.getSlotMinutes(),
+            input.getAvailabilityEncoding(),
+            input.getExecutionProfile(),
+            input.getEffectiveDayWindows(),
+            references.studioLocations.entries,
+            input.getInstructors(),
+            map(input.getRooms(), references::resolveRoom),
+            map(input.getPriorityRequests(), request -> references.resolveRequest(request, log)),
+            input.getClassDefinitions(),
+            map(input.getClassRequirements(), requirement -> references.resolveRequirement(requirement, log)));
+    }
+
+    private static boolean hasReferences(SolverInput input) {
+        if (input.getRooms() != null) {
+            for (SolverRoom room : input.getRooms()) {
+                if (room.getStudioLocation() == null && room.getStudioLocationId() != null) return true;
+            }
+        }
+        if (input.getPriorityRequests() != null) {
+            for (SolverPriorityRequest request : input.getPriorityRequests()) {
+                if (request.getInstructor() == null && request.getInstructorId() != null) return true;
+                if (request.getStudioLocation() == null && request.getStudioLocationId() != null) return true;
+            }
+        }
+        if (input.getClassRequirements() != null) {
+            for (SolverClassSessionRequirement requirement : input.getClassRequirements()) {
+                if (requirement.getClassDefinition() == null && requirement.getClassDefinitionId() != null) return true;
+                if (requirement.getStudioLocation() == null && requirement.getStudioLocationId() != null) return true;
+            }
+        }
+        return false;
+    }
+
+    private SolverRoom resolveRoom(SolverRoom room) {
+        if (room.getStudioLocation() != null || room.getStudioLocationId() == null) return room;
+        SolverStudioLocation location = studioLocations.get(room.getStudioLocationId());
+        if (location == null) {
+            // The room's location only matters as an ID to the solver, so an unlisted one still groups rooms correctly.
+            location = SolverStudioLocation.builder().id(room.getStudioLocationId()).build();
+        }
+        return new SolverRoom(room.getId(), room.getName(), location, room.getStudioLocationId(), room.getCapacity(),
+            room.getOperatingHours());
+    }
+
+    private SolverPriorityRequest resolveRequest(SolverPriorityRequest request, StringBuilder log) {
+        SolverInstructor instructor = request.getInstructor();
+        if (instructor == null && request.getInstructorId() != null) {
+            instructor = instructors.get(request.getInstructorId());
+            if (instructor == null) warn(log, "priority request", request.getId(), "instructor", request.getInstructorId());
+        }
+        SolverStudioLocation location = request.getStudioLocation();
+        if (location == null && request.getStudioLocationId() != null) {
+            location = studioLocations.get(request.getStudioLocationId());
+            if (location == null) warn(log, "priority request", request.getId(), "studio location", request.getStudioLocationId());
+        }
+        if (instructor == request.getInstructor() && location == request.getStudioLocation()) return request;
+        return new SolverPriorityRequest(request.getId(), instructor, request.getInstructorId(), location,
+            request.getStudioLocationId(), request.getBlockLengthHours(), request.getRelativePriority(), request.isActive());
+    }
+
+    private SolverClassSessionRequirement resolveRequirement(SolverClassSessionRequirement requirement, StringBuilder log) {
+        SolverClassDefinition classDefinition = requirement.getClassDefinition();
+        if (classDefinition == null && requirement.getClassDefinitionId() != null) {
+            classDefinition = classDefinitions.get(requirement.getClassDefinitionId());
+            if (classDefinition == null) {
+                warn(log, "class requirement", requirement.getId(), "class definition", requirement.getClassDefinitionId());
+            }
+        }
+        SolverStudioLocation location = requirement.getStudioLocation();
+        if (location == null && requirement.getStudioLocationId() != null) {
+            location = studioLocations.get(requirement.getStudioLocationId());
+            if (location == null) {
+                warn(log, "class requirement", requirement.getId(), "studio location", requirement.getStudioLocationId());
+            }
+        }
+        if (classDefinition == requirement.getClassDefinition() && location == requirement.getStudioLocation()) return requirement;
+        return new SolverClassSessionRequirement(requirement.getId(), classDefinition, requirement.getClassDefinitionId(),
+            requirement.getSessionsPerWeek(), location, requirement.getStudioLocationId(), requirement.isActive());
+    }
+
+    private static void warn(StringBuilder log, String owner, Integer ownerId, String target, Integer targetId) {
+        log.append("Warning: ").append(owner).append(" ID: ").append(ownerId).append(" refers to unknown ")
+            .append(target).append(" ID: ").append(targetId).append("\n");
+    }
+
+    private static <T> List<T> map(List<T> values, Function<T, T> resolver) {
+        if (values == null) return null;
+        List<T> resolved = new ArrayList<>(values.size());
+        for (T value : values) resolved.add(resolver.apply(value));
+        return resolved;
+    }
+
+    /** One table of the input, indexed once: ID to dense array index, first entry wins on duplicate IDs. */
+    private static final class Table<T> {
+        private final List<T> entries = new ArrayList<>();
+        private final Map<Integer, Integer> indexById = new HashMap<>();
+
+        Table(List<T> values, Function<T, Integer> id) {
+            if (values == null) return;
+            for (T value : values) {
+                if (value == null || id.apply(value) == null) continue;
+                if (indexById.putIfAbsent(id.apply(value), entries.size()) == null) entries.add(value);
+            }
+        }
+
+        T get(Integer id) {
+            Integer index = indexById.get(id);
+            return index != null ? entries.get(index) : null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.solverservice.solver;
+
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.IntVar;
+import com.google.ortools.sat.IntervalVar;
+import com.google.ortools.sat.Literal;
+import com.google.ortools.util.Domain;
+
+/**
+ * Thin layer over a {@link CpModel} shared by the Stage A and Stage B model builds.
+ * <p>
+ * Variable names exist only for reading a dumped model, so they are built only when {@code debugNames} is on;
+ * otherwise every variable is created unnamed and no name string is ever concatenated or serialized.
+ */
+final class ModelBuilder {
+
+    private static final String NO_NAME = "";
+
+    private final CpModel model = new CpModel();
+    private final boolean debugNames;
+    private final long startNanos = System.nanoTime();
+    private long builtNanos;
+    private Literal falseLiteral;
+
+    ModelBuilder(boolean debugNames) {
+        this.debugNames = debugNames;
+    }
+
+    CpModel model() { return model; }
+
+    /** Shared always-false literal, for {@code addImplication(literal, falseLiteral())} to rule a literal out. */
+    Literal falseLiteral() {
+        if (falseLiteral == null) falseLiteral = model.falseLiteral();
+        return falseLiteral;
+    }
+
+    BoolVar newBoolVar(String prefix, int id) {
+        return model.newBoolVar(debugNames ? prefix + id : NO_NAME);
+    }
+
+    BoolVar newBoolVar(String prefix, int id, String separator, int subId) {
+        return model.newBoolVar(debugNames ? prefix + id + separator + subId : NO_NAME);
+    }
+
+    IntVar newIntVar(long lowerBound, long upperBound, String prefix, int id) {
+        return model.newIntVar(lowerBound, upperBound, debugNames ? prefix + id : NO_NAME);
+    }
+
+    IntVar newIntVar(Domain domain, String prefix, int id) {
+        return model.newIntVarFromDomain(domain, debugNames ? prefix + id : NO_NAME);
+    }
+
+    IntVar newIntVar(Domain domain, String prefix, int id, String separator, int subId) {
+        return model.newIntVarFromDomain(domain, debugNames ? prefix + id + separator + subId : NO_NAME);
+    }
+
+    IntervalVar newOptionalInterval(IntVar start, long size, Literal presence, String prefix, int id) {
+        return model.newOptionalFixedSizeIntervalVar(start, size, presence, debugNames ? prefix + id : NO_NAME);
+    }
+
+    IntervalVar newOptionalInterval(IntVar start, long size, Literal presence, String prefix, int id, String separator, int subId) {
+        return model.newOptionalFixedSizeIntervalVar(start, size, presence,
+            debugNames ? prefix + id + separator + subId : NO_NAME);
+    }
+
+    /** Size of the model built so far, in serialized proto bytes. */
+    long protoBytes() {
+        return model.model().getSerializedSize();
+    }
+
+    /** Marks the model complete and returns it for solving; {@link #buildSeconds()} stops counting here. */
+    CpModel build() {
+        if (builtNanos == 0) builtNanos = System.nanoTime();
+        return model;
+    }
+
+    /** Time from creating this builder to {@link #build()}, or to now if the model is not complete yet. */
+    double buildSeconds() {
+        return ((builtNanos != 0 ? builtNanos : System.nanoTime()) - startNanos) / 1e9;
+    }
+}
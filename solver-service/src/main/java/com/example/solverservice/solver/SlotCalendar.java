@@ -0,0 +1,204 @@
+package com.example.solverservice.solver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed slot &lt;-&gt; day/time lookup tables for one solve's master grid.
+ * <p>
+ * Everything is resolved into primitive arrays up front, so converting a slot to its day, its minute of day
+ * or an "HH:mm" string is a single array read with no allocation. Result conversion calls these once or twice
+ * per placement, and Stage B can produce thousands of placements.
+ * <p>
+ * Each day is a list of open segments, laid out back to back. Without per-room hours a day is a single segment
+ * spanning its effective window; with them, minutes during which no room is open get no slots at all.
+ */
+public final class SlotCalendar {
+    private static final Logger logger = LoggerFactory.getLogger(SlotCalendar.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+    private static final String[] HH_MM = new String[MINUTES_PER_DAY];
+    static {
+        for (int m = 0; m < MINUTES_PER_DAY; m++) {
+            HH_MM[m] = String.format("%02d:%02d", m / 60, m % 60);
+        }
+    }
+
+    private final int slotMinutes;
+    private final int totalSlots;
+    private final byte[] slotDay;          // slot -> DayOfWeek ordinal
+    private final short[] slotMinuteOfDay; // slot -> minutes since midnight at the slot's start
+    private final int[] dayPrefix;         // day ordinal -> first slot of that day; dayPrefix[7] == totalSlots
+    private final int[] daySegments;       // day ordinal -> first segment of that day; daySegments[7] == segment count
+    private final int[] segmentPrefix;     // segment -> first slot; segmentPrefix[segment count] == totalSlots
+    private final int[] segmentStartMinute;
+    private final int[] segmentEndMinute;  // exclusive; may fall inside a slot that did not fit
+
+    SlotCalendar(int slotMinutes, Map<DayOfWeek, OperatingHoursSpan> effectiveDayWindows) {
+        this(slotMinutes, effectiveDayWindows, null);
+    }
+
+    /**
+     * @param openSpans per day, the spans during which some room is open; they may overlap and are clipped to the
+     *                  day's effective window. Null keeps every effective window whole; a day missing from a non-null
+     *                  map is closed.
+     */
+    SlotCalendar(int slotMinutes, Map<DayOfWeek, OperatingHoursSpan> effectiveDayWindows,
+                 Map<DayOfWeek, List<OperatingHoursSpan>> openSpans) {
+        this.slotMinutes = slotMinutes;
+        this.dayPrefix = new int[DAYS.length + 1];
+        this.daySegments = new int[DAYS.length + 1];
+
+        List<int[]> segments = new ArrayList<>();
+        for (DayOfWeek d : DAYS) {
+            daySegments[d.ordinal()] = segments.size();
+            OperatingHoursSpan span = effectiveDayWindows.get(d);
+            if (span == null || span.getStart() == null || span.getEnd() == null) continue;
+            int dayStart = minuteOfDay(span.getStart());
+            int dayEnd = minuteOfDay(span.getEnd());
+            List<int[]> open = new ArrayList<>();
+            if (openSpans == null) {
+                open.add(new int[]{dayStart, dayEnd});
+            } else {
+                for (OperatingHoursSpan room : openSpans.getOrDefault(d, List.of())) {
+                    if (room == null || room.getStart() == null || room.getEnd() == null) continue;
+                    open.add(new int[]{Math.max(dayStart, minuteOfDay(room.getStart())), Math.min(dayEnd, minuteOfDay(room.getEnd()))});
+                }
+                open.sort(Comparator.comparingInt(o -> o[0]));
+            }
+            for (int[] o : open) {
+                if (o[0] >= o[1]) continue;
+                int last = segments.size() - 1;
+                if (last >= daySegments[d.ordinal()] && segments.get(last)[1] >= o[0]) {
+                    segments.get(last)[1] = Math.max(segments.get(last)[1], o[1]);
+                } else {
+                    segments.add(o);
+                }
+            }
+        }
+        daySegments[DAYS.length] = segments.size();
+
+        this.segmentPrefix = new int[segments.size() + 1];
+        this.segmentStartMinute = new int[segments.size()];
+        this.segmentEndMinute = new int[segments.size()];
+        int accumulatedSlots = 0;
+        for (int g = 0; g < segments.size(); g++) {
+            segmentPrefix[g] = accumulatedSlots;
+            segmentStartMinute[g] = segments.get(g)[0];
+            segmentEndMinute[g] = segments.get(g)[1];
+            accumulatedSlots += (segmentEndMinute[g] - segmentStartMinute[g]) / slotMinutes;
+        }
+        segmentPrefix[segments.size()] = accumulatedSlots;
+        this.totalSlots = accumulatedSlots;
+        for (int i = 0; i <= DAYS.length; i++) {
+            dayPrefix[i] = segmentPrefix[daySegments[i]];
+        }
+
+        this.slotDay = new byte[totalSlots];
+        this.slotMinuteOfDay = new short[totalSlots];
+        for (int i = 0; i < DAYS.length; i++) {
+            for (int g = daySegments[i]; g < daySegments[i + 1]; g++) {
+                for (int slot = segmentPrefix[g]; slot < segmentPrefix[g + 1]; slot++) {
+                    slotDay[slot] = (byte) i;
+                    slotMinuteOfDay[slot] = (short) (segmentStartMinute[g] + (slot - segmentPrefix[g]) * slotMinutes);
+                }
+            }
+        }
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    public int getTotalSlots() { return totalSlots; }
+
+    public int slotsInDay(DayOfWeek day) {
+        return dayPrefix[day.ordinal() + 1] - dayPrefix[day.ordinal()];
+    }
+
+    public int firstSlotOf(DayOfWeek day) {
+        return dayPrefix[day.ordinal()];
+    }
+
+    /** Number of open segments: maximal runs of slots that directly follow each other in time. */
+    public int segmentCount() {
+        return segmentStartMinute.length;
+    }
+
+    public int segmentFirstSlot(int segment) {
+        return segmentPrefix[segment];
+    }
+
+    public int segmentSlots(int segment) {
+        return segmentPrefix[segment + 1] - segmentPrefix[segment];
+    }
+
+    /** {@code [start, end)} minutes of day of each of {@code day}'s open segments, in order. */
+    public int[][] openMinutes(DayOfWeek day) {
+        int from = daySegments[day.ordinal()];
+        int[][] open = new int[daySegments[day.ordinal() + 1] - from][];
+        for (int g = 0; g < open.length; g++) {
+            open[g] = new int[]{segmentStartMinute[from + g], segmentEndMinute[from + g]};
+        }
+        return open;
+    }
+
+    /**
+     * Global slot containing {@code time} on {@code day}. A time equal to a segment's closing time maps to one past
+     * the segment's last slot, so it can be used as an exclusive window end; a time between two segments maps to the
+     * first slot of the later one. Times outside the day are clamped to it; days without slots return -1.
+     */
+    public int toGlobalSlot(DayOfWeek day, LocalTime time) {
+        int d = day.ordinal();
+        int slots = dayPrefix[d + 1] - dayPrefix[d];
+        if (slots == 0) {
+            logger.warn("Time {} on {} falls on a day with no slots in the master grid.", time, day);
+            return -1;
+        }
+        int minute = minuteOfDay(time);
+        if (minute < segmentStartMinute[daySegments[d]]) {
+            logger.warn("Time {} on {} is before the master grid opens; clamping to the first slot.", time, day);
+            return dayPrefix[d];
+        }
+        if (minute > segmentEndMinute[daySegments[d + 1] - 1]) {
+            logger.warn("Time {} on {} is after the master grid closes; clamping to the last slot.", time, day);
+            return dayPrefix[d] + slots - 1;
+        }
+        for (int g = daySegments[d]; g < daySegments[d + 1]; g++) {
+            if (minute < segmentStartMinute[g]) return segmentPrefix[g];
+            if (minute <= segmentEndMinute[g]) {
+                return Math.min(segmentPrefix[g] + (minute - segmentStartMinute[g]) / slotMinutes, segmentPrefix[g + 1]);
+            }
+        }
+        return dayPrefix[d + 1];
+    }
+
+    public DayOfWeek dayOf(int slot) {
+        return DAYS[slotDay[slot]];
+    }
+
+    public int minuteOfDay(int slot) {
+        return slotMinuteOfDay[slot];
+    }
+
+    /** "HH:mm" at which {@code slot} starts. */
+    public String formatStartTime(int slot) {
+        return HH_MM[slotMinuteOfDay[slot]];
+    }
+
+    /**
+     * "HH:mm" at which a block of {@code lengthSlots} starting at {@code startSlot} ends. Computed from the start so
+     * a block ending exactly at closing time reads as that time, not as the next day's opening slot.
+     */
+    public String formatEndTime(int startSlot, int lengthSlots) {
+        return HH_MM[(slotMinuteOfDay[startSlot] + lengthSlots * slotMinutes) % MINUTES_PER_DAY];
+    }
+}
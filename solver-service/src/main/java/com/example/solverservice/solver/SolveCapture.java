@@ -0,0 +1,73 @@
+package com.example.solverservice.solver;
+
+import com.google.ortools.sat.CpModelProto;
+import com.google.ortools.sat.SatParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes everything needed to reproduce one solve offline into its own directory: the request as it arrived
+ * ({@value #REQUEST_FILE}) and, for every CP-SAT search, the built model as a binary {@code CpModelProto}
+ * ({@code NN-<stage>.model.pb}) next to the {@code SatParameters} it ran under, in text format
+ * ({@code NN-<stage>.params.txt}). {@code NN} numbers the searches in the order they started; concurrent component
+ * searches of one stage may interleave. {@link CaptureReplay} solves a capture again.
+ * <p>
+ * Capturing never fails a solve: write errors are logged and the capture is abandoned.
+ */
+public final class SolveCapture {
+    private static final Logger logger = LoggerFactory.getLogger(SolveCapture.class);
+
+    public static final String REQUEST_FILE = "request.json";
+    public static final String MODEL_SUFFIX = ".model.pb";
+    public static final String PARAMETERS_SUFFIX = ".params.txt";
+
+    private final Path directory;
+    private final AtomicInteger searches = new AtomicInteger();
+    private volatile boolean failed;
+
+    private SolveCapture(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Starts a capture in {@code root/<jobId>}, replacing any earlier capture of the same job, and stores
+     * {@code requestJson} in it. Returns null if the directory cannot be written.
+     */
+    public static SolveCapture start(Path root, String jobId, String requestJson) {
+        Path directory = root.resolve(jobId.replaceAll("[^A-Za-z0-9._-]", "_"));
+        try {
+            Files.createDirectories(directory);
+            try (var existing = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) existing::iterator) Files.delete(file);
+            }
+            Files.writeString(directory.resolve(REQUEST_FILE), requestJson, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Could not start a solve capture in {}; solving without one.", directory, e);
+            return null;
+        }
+        logger.info("Capturing solve of job {} to {}", jobId, directory);
+        return new SolveCapture(directory);
+    }
+
+    public Path getDirectory() { return directory; }
+
+    /** Stores one search's model and parameters; called from the solving thread right before the search starts. */
+    void captureSearch(String stage, CpModelProto model, SatParameters parameters) {
+        if (failed) return;
+        String prefix = String.format("%02d-%s", searches.incrementAndGet(), stage);
+        try (OutputStream out = Files.newOutputStream(directory.resolve(prefix + MODEL_SUFFIX))) {
+            model.writeTo(out);
+            Files.writeString(directory.resolve(prefix + PARAMETERS_SUFFIX), parameters.toString(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            failed = true;
+            logger.warn("Could not write {} to solve capture {}; capture abandoned.", prefix, directory, e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.model.SolverRoom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable per-solve view of the master slot grid.
+ * <p>
+ * Built once from a {@link SolverInput} at the start of {@link DanceTimetableSolver#executeSolve(SolverInput)}
+ * and handed down through Stage A/B, so the solver bean itself carries no per-run state and several
+ * solves can run on the same instance at once.
+ */
+public final class SolveContext {
+    private static final Logger logger = LoggerFactory.getLogger(SolveContext.class);
+
+    private final int slotMinutes;
+    private final int dur60; // slots per 60 minutes
+    private final Map<DayOfWeek, OperatingHoursSpan> effectiveDayWindows;
+    private final SlotCalendar calendar;
+    private final AvailabilityEncoding availabilityEncoding;
+    private final SolverExecutionProfile executionProfile;
+    private final SolveCapture capture; // Null unless this solve is being captured
+
+    private SolveContext(int slotMinutes,
+                         Map<DayOfWeek, OperatingHoursSpan> effectiveDayWindows,
+                         Map<DayOfWeek, List<OperatingHoursSpan>> roomOpenSpans,
+                         AvailabilityEncoding availabilityEncoding,
+                         SolverExecutionProfile executionProfile,
+                         SolveCapture capture) {
+        this.slotMinutes = slotMinutes;
+        this.dur60 = 60 / slotMinutes;
+        this.effectiveDayWindows = Collections.unmodifiableMap(effectiveDayWindows);
+        this.calendar = new SlotCalendar(slotMinutes, effectiveDayWindows, roomOpenSpans);
+        this.availabilityEncoding = availabilityEncoding;
+        this.executionProfile = executionProfile;
+        this.capture = capture;
+    }
+
+    /** {@code executionProfile} must already be resolved against the server's limits. */
+    public static SolveContext from(SolverInput input, SolverExecutionProfile executionProfile) {
+        return from(input, executionProfile, null);
+    }
+
+    /** As {@link #from(SolverInput, SolverExecutionProfile)}, recording every search into {@code capture} (nullable). */
+    public static SolveContext from(SolverInput input, SolverExecutionProfile executionProfile, SolveCapture capture) {
+        int slotMinutes = input.getSlotMinutes();
+        if (slotMinutes <= 0 || 60 % slotMinutes != 0) {
+            throw new IllegalArgumentException("slotMinutes must be a positive divisor of 60, got " + slotMinutes);
+        }
+
+        // Copy the spans so a caller mutating its SolverInput cannot shift the grid mid-solve.
+        Map<DayOfWeek, OperatingHoursSpan> windows = new EnumMap<>(DayOfWeek.class);
+        if (input.getEffectiveDayWindows() != null) {
+            input.getEffectiveDayWindows().forEach((day, span) -> {
+                if (span != null) windows.put(day, new OperatingHoursSpan(span.getStart(), span.getEnd()));
+            });
+        }
+
+        AvailabilityEncoding encoding = input.getAvailabilityEncoding() != null
+            ? input.getAvailabilityEncoding() : AvailabilityEncoding.DOMAIN;
+        SolveContext ctx = new SolveContext(slotMinutes, windows, roomOpenSpans(input.getRooms(), windows), encoding, executionProfile, capture);
+        logger.info("Solve context initialized. SlotMin: {}, TotalWeekSlots: {}", slotMinutes, ctx.getTotalWeekSlots());
+        return ctx;
+    }
+
+    /**
+     * Every room's own operating hours per day, so the grid only has slots while some room is open. A room without
+     * hours is open for the whole effective window. Null when no room has hours: the effective windows stay whole.
+     */
+    private static Map<DayOfWeek, List<OperatingHoursSpan>> roomOpenSpans(List<SolverRoom> rooms,
+                                                                         Map<DayOfWeek, OperatingHoursSpan> windows) {
+        if (rooms == null || rooms.stream().allMatch(room -> room.getOperatingHours() == null)) return null;
+        Map<DayOfWeek, List<OperatingHoursSpan>> open = new EnumMap<>(DayOfWeek.class);
+        for (SolverRoom room : rooms) {
+            Map<DayOfWeek, OperatingHoursSpan> hours = room.getOperatingHours() != null ? room.getOperatingHours() : windows;
+            hours.forEach((day, span) -> open.computeIfAbsent(day, d -> new ArrayList<>()).add(span));
+        }
+        return open;
+    }
+
+    public int getSlotMinutes() { return slotMinutes; }
+    public int getDur60() { return dur60; }
+    public int getTotalWeekSlots() { return calendar.getTotalSlots(); }
+    public SlotCalendar getCalendar() { return calendar; }
+    public AvailabilityEncoding getAvailabilityEncoding() { return availabilityEncoding; }
+    public SolverExecutionProfile getExecutionProfile() { return executionProfile; }
+    public SolveCapture getCapture() { return capture; }
+    public Map<DayOfWeek, OperatingHoursSpan> getEffectiveDayWindows() { return effectiveDayWindows; }
+
+    public int toGlobalSlot(DayOfWeek day, LocalTime time) {
+        return calendar.toGlobalSlot(day, time);
+    }
+}
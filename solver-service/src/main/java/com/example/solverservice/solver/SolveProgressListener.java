@@ -0,0 +1,13 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.SolveProgressDTO;
+
+/**
+ * Receives intermediate solutions while {@link DanceTimetableSolver#executeSolve(SolverInput, SolveProgressListener)}
+ * is still searching. Called from CP-SAT worker threads, at most once per
+ * {@link DanceTimetableSolver#PROGRESS_MIN_INTERVAL_MILLIS}, so implementations should return quickly.
+ */
+@FunctionalInterface
+public interface SolveProgressListener {
+    void onProgress(SolveProgressDTO progress);
+}
@@ -0,0 +1,64 @@
+package com.example.solverservice.solver;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * CP-SAT execution settings requested for one solve. Every field is optional; {@link #resolve(int, double)} fills
+ * the gaps with defaults and clamps the request to the server's limits before the solve starts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolverExecutionProfile {
+    static final double DEFAULT_STAGE_TIME_LIMIT_SECONDS = 10.0;
+    static final double DEFAULT_DETERMINISTIC_TIME_LIMIT = 1.0;
+
+    private Integer numSearchWorkers; // Null: the server's worker cap
+    private Double stageATimeLimitSeconds; // Null: 10 seconds
+    private Double stageBTimeLimitSeconds; // Null: 10 seconds
+    private Double relativeGapLimit; // Stop once |bound - objective| / |objective| drops below this; null: prove optimality
+    private Double noImprovementTimeoutSeconds; // Stop a stage this long after its last improving solution; null: off
+    // Deterministic mode stops each stage on CP-SAT's deterministic time instead of the wall clock, so reruns of the
+    // same input reproduce the same timetable. The stage time limits stay in force as a wall-clock safety cap.
+    private boolean deterministic;
+    private Double deterministicTimeLimit; // Per stage, in CP-SAT deterministic time units; null: 1.0
+    // Solve each stage on a coarse grid first (the largest step up to 60 minutes dividing every block or class
+    // length), then refine on the fine grid around the coarse placements. Needs the DOMAIN availability encoding.
+    private boolean coarseToFine;
+    // Order interchangeable requests, sessions and rooms so CP-SAT does not search permutations of the same
+    // timetable; null: on. Only worth turning off to measure what it saves.
+    private Boolean symmetryBreaking;
+    // End each stage at its first feasible solution (the greedy warm start still stands in if it is better). Trades
+    // placement quality for latency; mostly useful to measure time to first solution.
+    private boolean stopAtFirstSolution;
+
+    /**
+     * Returns a copy with every optional field set, workers in {@code [1, maxWorkers]} and every time limit at most
+     * {@code maxStageSeconds}. Non-positive values are treated as unset.
+     */
+    SolverExecutionProfile resolve(int maxWorkers, double maxStageSeconds) {
+        return SolverExecutionProfile.builder()
+            .numSearchWorkers(numSearchWorkers != null && numSearchWorkers > 0 ? Math.min(numSearchWorkers, maxWorkers) : maxWorkers)
+            .stageATimeLimitSeconds(capSeconds(stageATimeLimitSeconds, DEFAULT_STAGE_TIME_LIMIT_SECONDS, maxStageSeconds))
+            .stageBTimeLimitSeconds(capSeconds(stageBTimeLimitSeconds, DEFAULT_STAGE_TIME_LIMIT_SECONDS, maxStageSeconds))
+            .relativeGapLimit(relativeGapLimit != null && relativeGapLimit > 0 ? relativeGapLimit : 0.0)
+            .noImprovementTimeoutSeconds(noImprovementTimeoutSeconds != null && noImprovementTimeoutSeconds > 0
+                ? Math.min(noImprovementTimeoutSeconds, maxStageSeconds) : null)
+            .deterministic(deterministic)
+            .deterministicTimeLimit(deterministicTimeLimit != null && deterministicTimeLimit > 0
+                ? deterministicTimeLimit : DEFAULT_DETERMINISTIC_TIME_LIMIT)
+            .coarseToFine(coarseToFine)
+            .symmetryBreaking(symmetryBreaking == null || symmetryBreaking)
+            .stopAtFirstSolution(stopAtFirstSolution)
+            .build();
+    }
+
+    private static double capSeconds(Double requested, double defaultSeconds, double maxSeconds) {
+        double seconds = requested != null && requested > 0 ? requested : defaultSeconds;
+        return Math.min(seconds, maxSeconds);
+    }
+}
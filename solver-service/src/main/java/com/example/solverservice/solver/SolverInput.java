@@ -6,6 +6,7 @@ import com.example.solverservice.model.SolverRoom;
 import com.example.solverservice.model.SolverPriorityRequest;
 import com.example.solverservice.model.SolverClassDefinition;
 import com.example.solverservice.model.SolverClassSessionRequirement;
+import com.example.solverservice.model.SolverStudioLocation;
 // OperatingHoursSpan is already in this package
 
 import lombok.Builder;
@@ -24,8 +25,13 @@ import java.time.DayOfWeek;
 @AllArgsConstructor
 public class SolverInput {
     private int slotMinutes;
+    private AvailabilityEncoding availabilityEncoding; // Null means AvailabilityEncoding.DOMAIN
+    private SolverExecutionProfile executionProfile; // Null means server defaults
     private Map<DayOfWeek, OperatingHoursSpan> effectiveDayWindows; 
     
+    // Requests, requirements and rooms may either embed what they refer to or, in the normalized form, refer to
+    // these tables by ID; InputReferences resolves the IDs before solving.
+    private List<SolverStudioLocation> studioLocations;
     private List<SolverInstructor> instructors;
     private List<SolverRoom> rooms;
     
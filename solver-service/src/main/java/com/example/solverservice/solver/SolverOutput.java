@@ -1,7 +1,8 @@
 package com.example.solverservice.solver; // Updated package
 
 import com.example.solverservice.dto.LockedBlockDTO; // Updated import
-// We'll need a new DTO for Stage B scheduled classes, e.g., ScheduledClassDetailDTO
+import com.example.solverservice.dto.ScheduledClassDTO;
+import com.example.solverservice.dto.StageStatisticsDTO;
 import lombok.Data;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
@@ -15,7 +16,8 @@ import java.util.List;
 @AllArgsConstructor
 public class SolverOutput {
     private List<LockedBlockDTO> stageAResults;
-    // private List<ScheduledClassDetailDTO> stageBResults; // To be defined
+    private List<ScheduledClassDTO> stageBResults;
+    private List<StageStatisticsDTO> stageStatistics; // One entry per stage, merged over its component and coarse/fine models
     private String consoleLog; // To capture any print statements from the solver for debugging
     private boolean solveSuccess;
     private String statusMessage;
@@ -1,5 +1,8 @@
 package com.example.solverservice.controller;
 
+import com.example.solverservice.dto.JobStatusDTO;
+import com.example.solverservice.dto.SolveProgressDTO;
+import com.example.solverservice.service.JobStoreService;
 import com.example.solverservice.solver.DanceTimetableSolver;
 import com.example.solverservice.solver.SolverInput;
 import com.example.solverservice.solver.SolverOutput;
@@ -15,6 +18,7 @@ import java.util.ArrayList;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -28,6 +32,9 @@ public class SolverControllerTest {
     @MockBean
     private DanceTimetableSolver danceTimetableSolver;
 
+    @MockBean
+    private JobStoreService jobStoreService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -88,4 +95,34 @@ public class SolverControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(content().json(objectMapper.writeValueAsString(expectedErrorOutput)));
     }
+
+    @Test
+    void testGetJobStatus_ReturnsProgressWhileProcessing() throws Exception {
+        JobStatusDTO jobStatus = JobStatusDTO.builder()
+                .jobId("job-1")
+                .status("PROCESSING")
+                .progress(SolveProgressDTO.builder()
+                        .stage("A")
+                        .objectiveValue(3.0)
+                        .bestObjectiveBound(4.0)
+                        .wallTimeSeconds(0.2)
+                        .solutionCount(2)
+                        .lockedBlocks(new ArrayList<>())
+                        .build())
+                .build();
+
+        when(jobStoreService.getJobStatus("job-1")).thenReturn(jobStatus);
+
+        mockMvc.perform(get("/solver/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(jobStatus)));
+    }
+
+    @Test
+    void testGetJobStatus_UnknownJob() throws Exception {
+        when(jobStoreService.getJobStatus("missing")).thenReturn(null);
+
+        mockMvc.perform(get("/solver/jobs/missing"))
+                .andExpect(status().isNotFound());
+    }
 }
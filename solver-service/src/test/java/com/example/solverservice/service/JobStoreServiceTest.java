@@ -0,0 +1,155 @@
+package com.example.solverservice.service;
+
+import com.example.solverservice.dto.JobStatusDTO;
+import com.example.solverservice.dto.LockedBlockDTO;
+import com.example.solverservice.dto.SolveProgressDTO;
+import com.example.solverservice.solver.SolverOutput;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobStoreServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void finishedJobsExpireAfterTheirTtlButRunningJobsStay() {
+        JobStoreService store = store(Duration.ofMinutes(10), 100, null, 0);
+        store.tryStartJob("done");
+        store.storeJobOutput("done", output(3));
+        store.tryStartJob("running");
+
+        clock.advance(Duration.ofMinutes(9));
+        assertNotNull(store.getJobStatus("done"));
+
+        clock.advance(Duration.ofMinutes(2));
+        store.evictExpired();
+        assertNull(store.getJobStatus("done"));
+        assertEquals("PROCESSING", store.getJobStatus("running").getStatus());
+        assertEquals(1, store.size());
+        assertEquals(1.0, registry.get("solver.jobs.evictions").tag("cause", "expired").counter().count());
+        assertEquals(0, store.heapOutputBytes());
+    }
+
+    @Test
+    void oldestFinishedJobsAreEvictedBeyondMaxEntries() {
+        JobStoreService store = store(Duration.ofHours(1), 3, null, 0);
+        store.tryStartJob("running");
+        for (int i = 0; i < 4; i++) {
+            store.tryStartJob("job-" + i);
+            store.storeJobError("job-" + i, "infeasible");
+            clock.advance(Duration.ofSeconds(1));
+        }
+
+        assertEquals(3, store.size());
+        assertNull(store.getJobResult("job-0"));
+        assertNull(store.getJobResult("job-1"));
+        assertNotNull(store.getJobResult("job-3"));
+        assertNotNull(store.getJobResult("running"));
+        assertEquals(2.0, registry.get("solver.jobs.evictions").tag("cause", "size").counter().count());
+    }
+
+    @Test
+    void outputsRoundTripCompressedAndSpillAboveTheThreshold(@TempDir Path spillDir) throws Exception {
+        JobStoreService store = store(Duration.ofHours(1), 100, spillDir, 1024);
+        store.tryStartJob("small");
+        store.storeJobOutput("small", output(1));
+        store.tryStartJob("large");
+        store.storeJobOutput("large", output(2000));
+
+        assertTrue(store.heapOutputBytes() > 0);
+        assertEquals(1, countFiles(spillDir), "only the large output is spilled");
+        assertEquals(output(1), store.getJobStatus("small").getOutput());
+        assertEquals(output(2000), store.getJobStatus("large").getOutput());
+
+        clock.advance(Duration.ofHours(2));
+        store.evictExpired();
+        assertEquals(0, countFiles(spillDir), "spill files are deleted with their job");
+    }
+
+    @Test
+    void outputWhoseSpillFileWasDeletedByAConcurrentEvictionIsAMiss(@TempDir Path spillDir) throws Exception {
+        JobStoreService store = store(Duration.ofHours(1), 100, spillDir, 1024);
+        store.tryStartJob("large");
+        store.storeJobOutput("large", output(2000));
+
+        // What an eviction running between the lookup and the read leaves behind.
+        try (Stream<Path> files = Files.list(spillDir)) {
+            for (Path file : files.toList()) Files.delete(file);
+        }
+
+        assertNull(store.getJobStatus("large"));
+        assertEquals(1.0, registry.get("solver.jobs.lookups").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void progressIsKeptOnlyWhileProcessingAndLookupsAreCounted() {
+        JobStoreService store = store(Duration.ofHours(1), 100, null, 0);
+        store.updateJobProgress("unknown", SolveProgressDTO.builder().build());
+        assertNull(store.getJobStatus("unknown"));
+
+        store.tryStartJob("job");
+        SolveProgressDTO progress = SolveProgressDTO.builder().stage("A").build();
+        store.updateJobProgress("job", progress);
+        assertEquals(progress, store.getJobStatus("job").getProgress());
+
+        store.storeJobOutput("job", output(1));
+        store.updateJobProgress("job", progress);
+        JobStatusDTO status = store.getJobStatus("job");
+        assertEquals("COMPLETED", status.getStatus());
+        assertNull(status.getProgress());
+
+        assertEquals(2.0, registry.get("solver.jobs.lookups").tag("result", "hit").counter().count());
+        assertEquals(1.0, registry.get("solver.jobs.lookups").tag("result", "miss").counter().count());
+    }
+
+    private JobStoreService store(Duration ttl, int maxEntries, Path spillDir, long spillThresholdBytes) {
+        return new JobStoreService(new ObjectMapper().findAndRegisterModules(), registry, clock, ttl, maxEntries,
+            spillDir, spillThresholdBytes);
+    }
+
+    private static SolverOutput output(int blocks) {
+        List<LockedBlockDTO> stageA = new ArrayList<>();
+        for (int i = 0; i < blocks; i++) {
+            stageA.add(LockedBlockDTO.builder().instructorId(i).instructorName("Instructor " + i)
+                .roomId(i % 7).startSlot(i % 40).lengthSlots(4).dayOfWeek("MONDAY").build());
+        }
+        return SolverOutput.builder().solveSuccess(true).statusMessage("ok").stageAResults(stageA).consoleLog("").build();
+    }
+
+    private static long countFiles(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-05T09:00:00Z");
+
+        void advance(Duration duration) { now = now.plus(duration); }
+
+        @Override
+        public ZoneId getZone() { return ZoneOffset.UTC; }
+
+        @Override
+        public Clock withZone(ZoneId zone) { return this; }
+
+        @Override
+        public Instant instant() { return now; }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.solverservice.service;
+
+import com.example.solverservice.dto.LockedBlockDTO;
+import com.example.solverservice.dto.PubSubSolveRequest;
+import com.example.solverservice.dto.ScheduledClassDTO;
+import com.example.solverservice.dto.SolveProgressDTO;
+import com.example.solverservice.dto.SolveResultMessage;
+import com.example.solverservice.solver.DanceTimetableSolver;
+import com.example.solverservice.solver.SolveProgressListener;
+import com.example.solverservice.solver.SolverInput;
+import com.example.solverservice.solver.SolverOutput;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.spring.pubsub.support.BasicAcknowledgeablePubsubMessage;
+import com.google.cloud.spring.pubsub.support.DefaultSubscriberFactory;
+import com.google.cloud.spring.pubsub.support.GcpPubSubHeaders;
+import com.google.protobuf.ByteString;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.integration.channel.ExecutorChannel;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ErrorMessage;
+import org.threeten.bp.Duration;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+public class PubSubMessageHandlerTest {
+
+    private DanceTimetableSolver solver;
+    private JobStoreService jobStoreService;
+    private PubSubMessageHandler handler;
+    private final List<SolveResultMessage> published = new CopyOnWriteArrayList<>(); // In-process stand-in for the result topic
+    private byte[] payload;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        solver = mock(DanceTimetableSolver.class);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        jobStoreService = new JobStoreService(objectMapper, new SimpleMeterRegistry(), Clock.systemUTC(),
+            java.time.Duration.ofHours(1), 100, null, 0);
+        handler = new PubSubMessageHandler(solver, objectMapper, jobStoreService, new SolveWorkerPool(1, 0),
+            published::add);
+        payload = objectMapper.writeValueAsBytes(new PubSubSolveRequest("job-1", SolverInput.builder().build()));
+    }
+
+    @Test
+    void redeliveryOfACompletedJobIsAckedWithoutSolvingAgain() {
+        when(solver.executeSolve(any(), any(), isNull())).thenReturn(success());
+        BasicAcknowledgeablePubsubMessage first = mock(BasicAcknowledgeablePubsubMessage.class);
+        BasicAcknowledgeablePubsubMessage redelivery = mock(BasicAcknowledgeablePubsubMessage.class);
+
+        handler.messageReceiver(payload, first);
+        handler.messageReceiver(payload, redelivery);
+
+        verify(solver, times(1)).executeSolve(any(), any(), isNull());
+        verify(first).ack();
+        verify(redelivery).ack();
+        assertEquals(JobStatus.COMPLETED, jobStoreService.getJobResult("job-1").getStatus());
+        assertEquals(List.of("RUNNING", "COMPLETED"), publishedStatuses());
+        assertEquals(1, published.get(1).getStageAResults().size());
+        assertEquals(1, published.get(1).getStageBResults().size());
+    }
+
+    @Test
+    void duplicateDeliveredWhileSolvingIsAckedWithoutSolving() throws Exception {
+        CountDownLatch solving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(solver.executeSolve(any(), any(), isNull())).thenAnswer(invocation -> {
+            solving.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return success();
+        });
+        BasicAcknowledgeablePubsubMessage first = mock(BasicAcknowledgeablePubsubMessage.class);
+        BasicAcknowledgeablePubsubMessage duplicate = mock(BasicAcknowledgeablePubsubMessage.class);
+
+        CompletableFuture<Void> firstDelivery = CompletableFuture.runAsync(() -> handler.messageReceiver(payload, first));
+        try {
+            assertTrue(solving.await(5, TimeUnit.SECONDS));
+            handler.messageReceiver(payload, duplicate);
+
+            verify(duplicate).ack();
+            verify(first, never()).ack();
+            assertEquals(JobStatus.PROCESSING, jobStoreService.getJobResult("job-1").getStatus());
+        } finally {
+            release.countDown();
+        }
+        firstDelivery.get(5, TimeUnit.SECONDS);
+
+        verify(solver, times(1)).executeSolve(any(), any(), isNull());
+        verify(first).ack();
+    }
+
+    @Test
+    void redeliveryOfAFailedJobSolvesAgain() {
+        when(solver.executeSolve(any(), any(), isNull()))
+            .thenReturn(SolverOutput.builder().solveSuccess(false).statusMessage("infeasible").build())
+            .thenReturn(success());
+
+        handler.messageReceiver(payload, mock(BasicAcknowledgeablePubsubMessage.class));
+        assertEquals(JobStatus.FAILED, jobStoreService.getJobResult("job-1").getStatus());
+        handler.messageReceiver(payload, mock(BasicAcknowledgeablePubsubMessage.class));
+
+        verify(solver, times(2)).executeSolve(any(), any(), isNull());
+        assertEquals(JobStatus.COMPLETED, jobStoreService.getJobResult("job-1").getStatus());
+        assertEquals(List.of("RUNNING", "FAILED", "RUNNING", "COMPLETED"), publishedStatuses());
+        assertEquals("infeasible", published.get(1).getErrorMessage());
+    }
+
+    @Test
+    void intermediateSolutionsGoToTheJobStoreAndTheResultTopic() {
+        SolveProgressDTO progress = SolveProgressDTO.builder().stage("A").objectiveValue(1.0).solutionCount(1)
+            .lockedBlocks(List.of(LockedBlockDTO.builder().instructorId(1).roomId(10).startSlot(0).lengthSlots(6).build()))
+            .build();
+        when(solver.executeSolve(any(), any(), isNull())).thenAnswer(invocation -> {
+            invocation.<SolveProgressListener>getArgument(1).onProgress(progress);
+            assertEquals(progress, jobStoreService.getJobStatus("job-1").getProgress());
+            return success();
+        });
+
+        handler.messageReceiver(payload, mock(BasicAcknowledgeablePubsubMessage.class));
+
+        assertEquals(List.of("RUNNING", "RUNNING", "COMPLETED"), publishedStatuses());
+        assertNull(published.get(0).getProgress());
+        assertEquals(progress, published.get(1).getProgress());
+        assertNull(published.get(2).getProgress());
+    }
+
+    @Test
+    void compressedPayloadIsDecodedFromItsFormatAttribute() throws Exception {
+        when(solver.executeSolve(any(), any(), isNull())).thenReturn(success());
+        SolverInput input = SolverInput.builder().slotMinutes(15).build();
+        byte[] compressed = new SolvePayloadCodec(new ObjectMapper().findAndRegisterModules())
+            .encode(new PubSubSolveRequest("job-2", input), SolvePayloadCodec.JSON_GZIP);
+        BasicAcknowledgeablePubsubMessage message = mock(BasicAcknowledgeablePubsubMessage.class);
+        when(message.getPubsubMessage()).thenReturn(PubsubMessage.newBuilder()
+            .setData(ByteString.copyFrom(compressed))
+            .putAllAttributes(SolvePayloadCodec.attributes(SolvePayloadCodec.JSON_GZIP))
+            .build());
+
+        handler.messageReceiver(compressed, message);
+
+        verify(solver).executeSolve(eq(input), any(), isNull());
+        verify(message).ack();
+        assertEquals(JobStatus.COMPLETED, jobStoreService.getJobResult("job-2").getStatus());
+    }
+
+    @Test
+    void messageTheFullWorkerPoolRejectsIsNacked() throws Exception {
+        SolveWorkerPool pool = new SolveWorkerPool(1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            pool.getExecutor().execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            BasicAcknowledgeablePubsubMessage message = mock(BasicAcknowledgeablePubsubMessage.class);
+            Message<byte[]> delivery = MessageBuilder.withPayload(payload)
+                .setHeader(GcpPubSubHeaders.ORIGINAL_MESSAGE, message).build();
+
+            // What the inbound adapter does when sending to its output channel fails and an error channel is set.
+            MessagingException failure = assertThrows(MessagingException.class,
+                () -> new ExecutorChannel(pool.getExecutor()).send(delivery));
+            handler.nackUndeliveredMessage(new ErrorMessage(failure));
+
+            verify(message).nack();
+            verify(message, never()).ack();
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void subscriberExtendsLeasesAndCapsOutstandingMessages() {
+        SolveWorkerPool pool = new SolveWorkerPool(2, 1);
+        try {
+            @SuppressWarnings("unchecked")
+            ObjectProvider<SolveWorkerPool> provider = mock(ObjectProvider.class);
+            when(provider.getObject()).thenReturn(pool);
+            DefaultSubscriberFactory subscriberFactory = mock(DefaultSubscriberFactory.class);
+
+            PubSubFlowControlConfiguration.solveFlowControl(provider, 900)
+                .postProcessAfterInitialization(subscriberFactory, "subscriberFactory");
+
+            verify(subscriberFactory).setMaxAckExtensionPeriod(Duration.ofSeconds(900));
+            verify(subscriberFactory).setFlowControlSettings(argThat(settings ->
+                settings.getMaxOutstandingElementCount() == 3L));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private List<String> publishedStatuses() {
+        return published.stream().map(SolveResultMessage::getStatus).collect(Collectors.toList());
+    }
+
+    private static SolverOutput success() {
+        return SolverOutput.builder()
+            .solveSuccess(true)
+            .statusMessage("Successfully solved")
+            .stageAResults(List.of(LockedBlockDTO.builder().instructorId(1).roomId(10).startSlot(0).lengthSlots(6).build()))
+            .stageBResults(List.of(ScheduledClassDTO.builder().classSessionRequirementId(3).sessionIndex(0)
+                .classDefinitionId(7).instructorId(1).roomId(10).startSlot(12).lengthSlots(6).build()))
+            .build();
+    }
+}
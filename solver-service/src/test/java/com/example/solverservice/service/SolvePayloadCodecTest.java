@@ -0,0 +1,108 @@
+package com.example.solverservice.service;
+
+import com.example.solverservice.dto.PubSubSolveRequest;
+import com.example.solverservice.solver.SolverInput;
+import com.example.solverservice.solver.SyntheticStudioGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+import com.google.pubsub.v1.PubsubMessage;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolvePayloadCodecTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SolvePayloadCodecTest.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SolvePayloadCodec codec = new SolvePayloadCodec(objectMapper);
+
+    @Test
+    void bothFormatsRoundTripAndGzipIsSmaller() throws Exception {
+        PubSubSolveRequest request = request(40, 6);
+
+        byte[] json = codec.encode(request, SolvePayloadCodec.JSON);
+        byte[] gzip = codec.encode(request, SolvePayloadCodec.JSON_GZIP);
+
+        assertEquals(request, codec.decode(json, SolvePayloadCodec.attributes(SolvePayloadCodec.JSON)));
+        assertEquals(request, codec.decode(gzip, SolvePayloadCodec.attributes(SolvePayloadCodec.JSON_GZIP)));
+        assertTrue(gzip.length * 4 < json.length, "gzip " + gzip.length + " bytes vs json " + json.length);
+    }
+
+    @Test
+    void messagesWithoutAttributesAreReadAsPlainJson() throws Exception {
+        PubSubSolveRequest request = request(5, 2);
+        byte[] legacy = objectMapper.writeValueAsBytes(request); // As published before the format attribute existed
+
+        assertEquals(request, codec.decode(legacy, Map.of()));
+        assertEquals(request, codec.decode(legacy, null));
+    }
+
+    @Test
+    void nestedVersionOnePayloadsAreStillRead() throws Exception {
+        PubSubSolveRequest request = request(5, 2);
+        byte[] data = codec.encode(request, SolvePayloadCodec.JSON);
+
+        assertEquals(request, codec.decode(data, Map.of(
+            SolvePayloadCodec.FORMAT_ATTRIBUTE, SolvePayloadCodec.JSON, SolvePayloadCodec.VERSION_ATTRIBUTE, "1")));
+    }
+
+    @Test
+    void unknownFormatsAndVersionsAreRejected() {
+        byte[] data = "{}".getBytes();
+        assertThrows(IOException.class, () -> codec.decode(data, Map.of(SolvePayloadCodec.FORMAT_ATTRIBUTE, "avro")));
+        assertThrows(IOException.class, () -> codec.decode(data, Map.of(
+            SolvePayloadCodec.FORMAT_ATTRIBUTE, SolvePayloadCodec.JSON, SolvePayloadCodec.VERSION_ATTRIBUTE, "3")));
+    }
+
+    /** Run with {@code mvn test -Pbenchmark}. */
+    @Test
+    @Tag("benchmark")
+    void benchmarkFormats() throws Exception {
+        int[][] sizes = {{20, 4}, {100, 8}, {400, 12}}; // instructors, availability slots per instructor
+        int rounds = 20;
+        logger.info(String.format("%-10s %5s %6s %10s %12s %12s %12s",
+            "format", "instr", "slots", "bytes", "encode(ms)", "publish(ms)", "decode(ms)"));
+        for (int[] size : sizes) {
+            PubSubSolveRequest request = request(size[0], size[1]);
+            for (String format : new String[] {SolvePayloadCodec.JSON, SolvePayloadCodec.JSON_GZIP}) {
+                Map<String, String> attributes = SolvePayloadCodec.attributes(format);
+                byte[] data = codec.encode(request, format);
+                codec.decode(data, attributes); // Warm up
+
+                long encodeNanos = 0, publishNanos = 0, decodeNanos = 0;
+                for (int i = 0; i < rounds; i++) {
+                    long start = System.nanoTime();
+                    data = codec.encode(request, format);
+                    long encoded = System.nanoTime();
+                    // What the publisher does with the bytes before they go on the wire.
+                    PubsubMessage message = PubsubMessage.newBuilder()
+                        .setData(ByteString.copyFrom(data)).putAllAttributes(attributes).build();
+                    byte[] wire = message.toByteArray();
+                    long published = System.nanoTime();
+                    assertEquals(request, codec.decode(PubsubMessage.parseFrom(wire).getData().toByteArray(), attributes));
+                    long decoded = System.nanoTime();
+                    encodeNanos += encoded - start;
+                    publishNanos += published - encoded;
+                    decodeNanos += decoded - published;
+                }
+                logger.info(String.format("%-10s %5d %6d %10d %12.3f %12.3f %12.3f", format, size[0], size[1], data.length,
+                    encodeNanos / 1e6 / rounds, publishNanos / 1e6 / rounds, decodeNanos / 1e6 / rounds));
+            }
+        }
+    }
+
+    private static PubSubSolveRequest request(int instructors, int availabilitySlotsPerInstructor) {
+        SolverInput input = new SyntheticStudioGenerator()
+            .seed(5).instructors(instructors).availabilitySlotsPerInstructor(availabilitySlotsPerInstructor)
+            .locations(2).roomsPerLocation(3).priorityRequestsPerInstructor(2).classDefinitions(12)
+            .generate();
+        return new PubSubSolveRequest("job-" + instructors, input);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.solverservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolveWorkerPoolTest {
+
+    @Test
+    void defaultsToOneSolvePerSearchWorkerCap() {
+        assertEquals(1, SolveWorkerPool.defaultConcurrentSolves(8, 0), "every solve may use all cores");
+        assertEquals(4, SolveWorkerPool.defaultConcurrentSolves(8, 2));
+        assertEquals(2, SolveWorkerPool.defaultConcurrentSolves(8, 3));
+        assertEquals(1, SolveWorkerPool.defaultConcurrentSolves(2, 4));
+    }
+
+    @Test
+    void tracksInFlightAndQueuedJobsAndRejectsBeyondCapacity() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SolveWorkerPool pool = new SolveWorkerPool(2, 1, 0, registry);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable solve = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try {
+            assertEquals(3, pool.getCapacity());
+            for (int i = 0; i < 3; i++) pool.getExecutor().execute(solve);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertEquals(2, pool.getInFlight());
+            assertEquals(1, pool.getQueueDepth());
+            assertEquals(2.0, registry.get("solver.solves.in_flight").gauge().value());
+            assertEquals(1.0, registry.get("solver.solves.queued").gauge().value());
+            assertThrows(RejectedExecutionException.class, () -> pool.getExecutor().execute(solve));
+
+            release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((pool.getInFlight() > 0 || pool.getQueueDepth() > 0) && System.nanoTime() < deadline) Thread.sleep(10);
+            assertEquals(0, pool.getInFlight());
+            assertEquals(0, pool.getQueueDepth());
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+}
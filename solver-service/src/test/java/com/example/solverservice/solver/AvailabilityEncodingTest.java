@@ -0,0 +1,67 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.StageStatisticsDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailabilityEncodingTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityEncodingTest.class);
+
+    private final DanceTimetableSolver solver = new DanceTimetableSolver();
+
+    @Test
+    void domainEncodingPlacesAsManyRequestsWithASmallerModel() {
+        SolverInput input = new SyntheticStudioGenerator()
+            .seed(7).instructors(8).availabilitySlotsPerInstructor(6).roomsPerLocation(2)
+            .generate();
+
+        StageStatisticsDTO reified = stageA(solve(input, AvailabilityEncoding.REIFIED));
+        StageStatisticsDTO domain = stageA(solve(input, AvailabilityEncoding.DOMAIN));
+
+        assertEquals("OPTIMAL", reified.getStatus());
+        assertEquals("OPTIMAL", domain.getStatus());
+        assertEquals(reified.getObjectiveValue(), domain.getObjectiveValue(), "both encodings describe the same problem");
+        assertTrue(domain.getVariables() < reified.getVariables());
+        assertTrue(domain.getConstraints() < reified.getConstraints());
+    }
+
+    /** Run with {@code mvn test -Pbenchmark}. */
+    @Test
+    @Tag("benchmark")
+    void benchmarkEncodings() {
+        int[][] sizes = {{20, 4}, {60, 8}, {120, 16}}; // instructors, availability slots per instructor
+        logger.info(String.format("%-10s %5s %6s %10s %12s %10s %10s",
+            "encoding", "instr", "slots", "variables", "constraints", "objective", "wall(s)"));
+        for (int[] size : sizes) {
+            SolverInput input = new SyntheticStudioGenerator()
+                .seed(11).instructors(size[0]).availabilitySlotsPerInstructor(size[1])
+                .locations(2).roomsPerLocation(3).priorityRequestsPerInstructor(2)
+                .generate();
+            for (AvailabilityEncoding encoding : AvailabilityEncoding.values()) {
+                StageStatisticsDTO stats = stageA(solve(input, encoding));
+                logger.info(String.format("%-10s %5d %6d %10d %12d %10.0f %10.3f",
+                    encoding, size[0], size[1], stats.getVariables(), stats.getConstraints(),
+                    stats.getObjectiveValue(), stats.getWallTimeSeconds()));
+            }
+        }
+    }
+
+    private SolverOutput solve(SolverInput input, AvailabilityEncoding encoding) {
+        input.setAvailabilityEncoding(encoding);
+        SolverOutput output = solver.executeSolve(input);
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        return output;
+    }
+
+    private static StageStatisticsDTO stageA(SolverOutput output) {
+        return output.getStageStatistics().stream()
+            .filter(s -> "A".equals(s.getStage()))
+            .findFirst()
+            .orElseThrow();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailabilityReductionTest {
+
+    private final SolverStudioLocation location = SolverStudioLocation.builder().id(1).name("City").build();
+    private final SolverRoom lateRoom = SolverRoom.builder().id(10).name("Late").studioLocation(location)
+        .operatingHours(Map.of(DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(10, 0), LocalTime.of(20, 0))))
+        .build();
+
+    @Test
+    void mergesClipsAndDropsWindowsPerInstructorAndDay() {
+        SolverInstructor ava = SolverInstructor.builder().id(1).name("Ava").qualifiedClassDefinitionIds(List.of())
+            .availabilitySlots(List.of(
+                window(1, DayOfWeek.MONDAY, 9, 0, 11, 0),
+                window(2, DayOfWeek.MONDAY, 11, 0, 12, 0),    // adjacent
+                window(3, DayOfWeek.MONDAY, 11, 30, 13, 0),   // overlapping
+                window(4, DayOfWeek.MONDAY, 19, 30, 20, 30),  // only 30 minutes left once the room closes
+                window(5, DayOfWeek.TUESDAY, 10, 0, 12, 0)))  // the grid is closed on Tuesday
+            .build();
+        SolverInput input = input(ava, 1);
+
+        AvailabilityReduction reduction = AvailabilityReduction.of(SolveContext.from(input, new SolverExecutionProfile()), input);
+        StringBuilder log = new StringBuilder();
+        reduction.appendSummary(log);
+
+        assertEquals(List.of(window(1, DayOfWeek.MONDAY, 10, 0, 13, 0)), reduction.getInstructors().get(0).getAvailabilitySlots());
+        assertEquals("Pre-solve reduction: merged 2 overlapping or adjacent availability windows, clipped 3 to room operating hours"
+            + " and dropped 1 too short for any block.\n", log.toString());
+        assertEquals(5, ava.getAvailabilitySlots().size(), "the input instructor is left untouched");
+    }
+
+    @Test
+    void unplaceableRequestsNeverReachTheModel() {
+        SolverInstructor ava = SolverInstructor.builder().id(1).name("Ava").qualifiedClassDefinitionIds(List.of())
+            .availabilitySlots(List.of(
+                window(1, DayOfWeek.MONDAY, 10, 0, 11, 0),
+                window(2, DayOfWeek.MONDAY, 11, 0, 12, 0)))
+            .build();
+        SolverPriorityRequest twoHours = request(1, ava, 2);
+        SolverPriorityRequest fourHours = request(2, ava, 4);
+        SolverInput input = input(ava, 2);
+        input.setPriorityRequests(List.of(twoHours, fourHours));
+
+        SolverOutput output = new DanceTimetableSolver().executeSolve(input);
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        assertTrue(output.getConsoleLog().contains(
+            "Pre-solve reduction: priority request ID: 2 (Ava, 4h) fits no availability window in any of its 1 candidate rooms; marked unplaceable."));
+        assertTrue(output.getConsoleLog().contains("Running OR-Tools Stage A with 1 requests."));
+        assertEquals(1, output.getStageAResults().size(), "the merged 10:00-12:00 window fits the two-hour block");
+        assertEquals("10:00", output.getStageAResults().get(0).getStartTime());
+    }
+
+    private SolverInput input(SolverInstructor instructor, int blockLengthHours) {
+        return SolverInput.builder()
+            .slotMinutes(15)
+            .effectiveDayWindows(Map.of(DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(9, 0), LocalTime.of(21, 0))))
+            .instructors(List.of(instructor))
+            .rooms(List.of(lateRoom))
+            .priorityRequests(List.of(request(1, instructor, blockLengthHours)))
+            .classRequirements(List.of())
+            .build();
+    }
+
+    private SolverPriorityRequest request(int id, SolverInstructor instructor, int blockLengthHours) {
+        return SolverPriorityRequest.builder()
+            .id(id).instructor(instructor).studioLocation(location).blockLengthHours(blockLengthHours).active(true).build();
+    }
+
+    private static SolverAvailabilitySlot window(int id, DayOfWeek day, int fromHour, int fromMinute, int toHour, int toMinute) {
+        return SolverAvailabilitySlot.builder()
+            .id(id).dayOfWeek(day).startTime(LocalTime.of(fromHour, fromMinute)).endTime(LocalTime.of(toHour, toMinute)).build();
+    }
+}
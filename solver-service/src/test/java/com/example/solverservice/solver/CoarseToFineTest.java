@@ -0,0 +1,108 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.StageStatisticsDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoarseToFineTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoarseToFineTest.class);
+
+    private final DanceTimetableSolver solver = new DanceTimetableSolver();
+
+    private final SlotCalendar calendar = new SlotCalendar(15, Map.of(
+        DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(9, 0), LocalTime.of(12, 0)),      // 12 slots
+        DayOfWeek.WEDNESDAY, new OperatingHoursSpan(LocalTime.of(17, 30), LocalTime.of(22, 0)))); // 18 slots
+
+    @Test
+    void coarseStepIsTheCommonDivisorOfTheLengthsUpToAnHour() {
+        assertEquals(4, CoarseGrid.of(calendar, 15, new int[]{4, 8}).getStep());
+        assertEquals(2, CoarseGrid.of(calendar, 15, new int[]{4, 6}).getStep());
+        assertNull(CoarseGrid.of(calendar, 15, new int[]{4, 3}), "a 15-minute step is no coarser than the grid");
+    }
+
+    @Test
+    void coarseSlotsStartAtEachDaysOpening() {
+        CoarseGrid grid = CoarseGrid.of(calendar, 15, new int[]{4});
+
+        assertEquals(3 + 5, grid.getTotalSlots(), "Wednesday's partial last hour still gets a coarse slot");
+        assertEquals(8, grid.toFine(2));
+        assertEquals(12, grid.toFine(3), "Wednesday opens at 17:30, not on the hour");
+        assertEquals(2, grid.coarseLength(8));
+
+        BitSet fineStarts = new BitSet();
+        fineStarts.set(2, 14);
+        BitSet expectedCoarse = new BitSet();
+        expectedCoarse.set(1, 4);
+        assertEquals(expectedCoarse, grid.coarsen(fineStarts));
+        assertArrayEquals(new long[][]{{1, 3}}, grid.coarsen(new long[][]{{2, 13}}));
+
+        assertArrayEquals(new long[][]{{4, 12}}, grid.window(new long[][]{{0, 29}}, 8));
+        BitSet expectedWindow = new BitSet();
+        expectedWindow.set(4, 13);
+        assertEquals(expectedWindow, grid.window(fineStarts, 8));
+    }
+
+    @Test
+    void coarseToFineKeepsTheQualityOfTheSingleGridSolve() {
+        SolverOutput single = solve(false);
+        SolverOutput coarseToFine = solve(true);
+
+        assertEquals(stage(single, "A").getObjectiveValue(), stage(coarseToFine, "A").getObjectiveValue());
+        assertEquals(single.getStageBResults().size(), coarseToFine.getStageBResults().size());
+        assertTrue(coarseToFine.getConsoleLog().contains("Stage A coarse pass (60-minute grid)"));
+        assertTrue(coarseToFine.getConsoleLog().contains("Stage B coarse pass (15-minute grid)"));
+    }
+
+    /** Run with {@code mvn test -Pbenchmark}. */
+    @Test
+    @Tag("benchmark")
+    void benchmarkCoarseToFine() {
+        int[] instructorCounts = {40, 120, 240};
+        logger.info(String.format("%-8s %5s %11s %11s %11s %11s",
+            "mode", "instr", "A placed", "A wall(s)", "B placed", "B wall(s)"));
+        for (int instructors : instructorCounts) {
+            for (boolean coarse : new boolean[]{false, true}) {
+                SolverOutput output = solver.executeSolve(generate(instructors, coarse));
+                assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+                logger.info(String.format("%-8s %5d %11d %11.3f %11d %11.3f",
+                    coarse ? "coarse" : "single", instructors,
+                    output.getStageAResults().size(), stage(output, "A").getWallTimeSeconds(),
+                    output.getStageBResults().size(), stage(output, "B").getWallTimeSeconds()));
+            }
+        }
+    }
+
+    private SolverOutput solve(boolean coarseToFine) {
+        SolverOutput output = solver.executeSolve(generate(12, coarseToFine));
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        return output;
+    }
+
+    // Whole-hour availability and 45-90 minute classes on the default 5-minute grid.
+    private static SolverInput generate(int instructors, boolean coarseToFine) {
+        SolverInput input = new SyntheticStudioGenerator()
+            .seed(21).instructors(instructors).availabilitySlotsPerInstructor(4)
+            .locations(2).roomsPerLocation(2).priorityRequestsPerInstructor(2)
+            .classDefinitions(Math.max(4, instructors / 4)).sessionsPerClass(2)
+            .generate();
+        input.setExecutionProfile(SolverExecutionProfile.builder().coarseToFine(coarseToFine).build());
+        return input;
+    }
+
+    private static StageStatisticsDTO stage(SolverOutput output, String stage) {
+        return output.getStageStatistics().stream()
+            .filter(s -> stage.equals(s.getStage()))
+            .findFirst()
+            .orElseThrow();
+    }
+}
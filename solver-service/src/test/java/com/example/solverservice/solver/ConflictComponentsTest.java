@@ -0,0 +1,76 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.StageStatisticsDTO;
+import com.example.solverservice.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConflictComponentsTest {
+
+    private record Item(String instructor, String room) {}
+
+    @Test
+    void groupsItemsLinkedThroughSharedResources() {
+        List<Item> items = List.of(
+            new Item("ava", "r1"),  // 0
+            new Item("liam", "r2"), // 1
+            new Item("ava", "r3"),  // 2: shares ava with 0
+            new Item("noah", "r3"), // 3: shares r3 with 2, so joins 0 transitively
+            new Item("emma", "r4")); // 4
+
+        List<List<Integer>> components = ConflictComponents.of(items,
+            item -> List.of("instructor:" + item.instructor(), "room:" + item.room()));
+
+        assertEquals(List.of(List.of(0, 2, 3), List.of(1), List.of(4)), components);
+    }
+
+    @Test
+    void stageASolvesIndependentLocationsAsSeparateModels() {
+        Map<DayOfWeek, OperatingHoursSpan> windows = new EnumMap<>(DayOfWeek.class);
+        windows.put(DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(16, 0), LocalTime.of(22, 0)));
+
+        List<SolverInstructor> instructors = new ArrayList<>();
+        List<SolverRoom> rooms = new ArrayList<>();
+        List<SolverPriorityRequest> requests = new ArrayList<>();
+        for (int l = 1; l <= 3; l++) {
+            SolverStudioLocation location = SolverStudioLocation.builder().id(l).name("Location " + l).build();
+            rooms.add(SolverRoom.builder().id(10 * l).name("Room " + l).studioLocation(location).build());
+            SolverInstructor instructor = SolverInstructor.builder()
+                .id(l).name("Instructor " + l)
+                .availabilitySlots(List.of(SolverAvailabilitySlot.builder()
+                    .id(l).dayOfWeek(DayOfWeek.MONDAY).startTime(LocalTime.of(17, 0)).endTime(LocalTime.of(20, 0)).build()))
+                .build();
+            instructors.add(instructor);
+            for (int r = 0; r < 2; r++) {
+                requests.add(SolverPriorityRequest.builder()
+                    .id(100 * l + r).instructor(instructor).studioLocation(location).blockLengthHours(1).active(true).build());
+            }
+        }
+
+        SolverOutput output = new DanceTimetableSolver().executeSolve(SolverInput.builder()
+            .slotMinutes(30)
+            .effectiveDayWindows(windows)
+            .instructors(instructors)
+            .rooms(rooms)
+            .priorityRequests(requests)
+            .build());
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        StageStatisticsDTO stageA = output.getStageStatistics().get(0);
+        assertEquals(3, stageA.getComponents());
+        assertEquals(6, stageA.getRequestCount());
+        assertEquals("OPTIMAL", stageA.getStatus());
+        assertEquals(6.0, stageA.getObjectiveValue());
+        assertEquals(0.0, stageA.getRelativeGap());
+        assertNotNull(stageA.getFirstSolutionSeconds());
+        assertNotNull(stageA.getOptimalSeconds());
+        assertTrue(stageA.getFirstSolutionSeconds() <= stageA.getOptimalSeconds());
+        assertEquals(6, output.getStageAResults().size());
+        assertTrue(output.getConsoleLog().contains("Stage A split into 3 independent components."));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.LockedBlockDTO;
+import com.example.solverservice.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs many solves with deliberately different grids through one {@link DanceTimetableSolver} instance at the same
+ * time and checks every result against its own input. Any per-run state leaking between solves shows up as
+ * foreign instructor IDs or as times that do not fit the input's grid.
+ */
+public class DanceTimetableSolverConcurrencyTest {
+
+    private static final int[] SLOT_MINUTES = {5, 10, 15, 30};
+    private static final int INSTRUCTORS_PER_INPUT = 4;
+
+    private final DanceTimetableSolver solver = new DanceTimetableSolver();
+
+    @Test
+    void concurrentSolvesDoNotInterfere() throws Exception {
+        int variants = 8;
+        List<SolverInput> inputs = new ArrayList<>();
+        for (int k = 0; k < variants; k++) {
+            inputs.add(buildInput(k));
+        }
+
+        // Sequential baseline on the same bean.
+        List<Integer> expectedCounts = new ArrayList<>();
+        for (SolverInput input : inputs) {
+            SolverOutput output = solver.executeSolve(input);
+            assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+            assertEquals(INSTRUCTORS_PER_INPUT, output.getStageAResults().size(), "every request fits in the baseline");
+            expectedCounts.add(output.getStageAResults().size());
+        }
+
+        int rounds = 3;
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch startGate = new CountDownLatch(1);
+            List<Future<SolverOutput>> futures = new ArrayList<>();
+            List<Integer> variantOfFuture = new ArrayList<>();
+            for (int r = 0; r < rounds; r++) {
+                for (int k = 0; k < variants; k++) {
+                    SolverInput input = inputs.get(k);
+                    futures.add(pool.submit(() -> {
+                        startGate.await();
+                        return solver.executeSolve(input);
+                    }));
+                    variantOfFuture.add(k);
+                }
+            }
+            startGate.countDown();
+
+            for (int i = 0; i < futures.size(); i++) {
+                int k = variantOfFuture.get(i);
+                SolverOutput output = futures.get(i).get(2, TimeUnit.MINUTES);
+                assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+                assertEquals(expectedCounts.get(k), output.getStageAResults().size(), "placement count for variant " + k);
+                assertBlocksMatchInput(k, inputs.get(k), output.getStageAResults());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void assertBlocksMatchInput(int k, SolverInput input, List<LockedBlockDTO> blocks) {
+        Map<Integer, SolverInstructor> instructors = new HashMap<>();
+        input.getInstructors().forEach(i -> instructors.put(i.getId(), i));
+
+        for (LockedBlockDTO block : blocks) {
+            SolverInstructor instructor = instructors.get(block.getInstructorId());
+            assertNotNull(instructor, "variant " + k + " got a block for foreign instructor " + block.getInstructorId());
+
+            LocalTime start = LocalTime.parse(block.getStartTime());
+            LocalTime end = LocalTime.parse(block.getEndTime());
+            assertEquals((long) block.getLengthSlots() * input.getSlotMinutes(), Duration.between(start, end).toMinutes(),
+                "variant " + k + " block length does not match its own slot size");
+
+            DayOfWeek day = DayOfWeek.valueOf(block.getDayOfWeek());
+            boolean insideAvailability = instructor.getAvailabilitySlots().stream()
+                .anyMatch(a -> a.getDayOfWeek() == day && !start.isBefore(a.getStartTime()) && !end.isAfter(a.getEndTime()));
+            assertTrue(insideAvailability, "variant " + k + " block " + block + " is outside its instructor's availability");
+        }
+    }
+
+    /**
+     * Every variant gets its own slot size, its own day window and its own ID range, so a result computed
+     * against another variant's grid cannot pass {@link #assertBlocksMatchInput}.
+     */
+    private static SolverInput buildInput(int k) {
+        int slotMinutes = SLOT_MINUTES[k % SLOT_MINUTES.length];
+        LocalTime open = LocalTime.of(9 + k % 4, 0);
+        LocalTime close = open.plusHours(8);
+
+        Map<DayOfWeek, OperatingHoursSpan> windows = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek d : DayOfWeek.values()) {
+            windows.put(d, d.getValue() <= 5 ? new OperatingHoursSpan(open, close) : new OperatingHoursSpan(LocalTime.MIDNIGHT, LocalTime.MIDNIGHT));
+        }
+
+        SolverStudioLocation location = SolverStudioLocation.builder().id(k * 100 + 1).name("Location " + k).build();
+        List<SolverRoom> rooms = List.of(
+            SolverRoom.builder().id(k * 100 + 1).name("Room A" + k).studioLocation(location).build(),
+            SolverRoom.builder().id(k * 100 + 2).name("Room B" + k).studioLocation(location).build());
+
+        List<SolverInstructor> instructors = new ArrayList<>();
+        List<SolverPriorityRequest> requests = new ArrayList<>();
+        for (int i = 0; i < INSTRUCTORS_PER_INPUT; i++) {
+            DayOfWeek day = DayOfWeek.of(1 + (i + k) % 5);
+            SolverAvailabilitySlot slot = SolverAvailabilitySlot.builder()
+                .id(k * 100 + i)
+                .dayOfWeek(day)
+                .startTime(open.plusHours(1))
+                .endTime(open.plusHours(5))
+                .build();
+            SolverInstructor instructor = SolverInstructor.builder()
+                .id(k * 100 + i)
+                .name("Instructor " + k + "-" + i)
+                .availabilitySlots(List.of(slot))
+                .build();
+            instructors.add(instructor);
+            requests.add(SolverPriorityRequest.builder()
+                .id(k * 100 + i)
+                .instructor(instructor)
+                .studioLocation(location)
+                .blockLengthHours(1 + i % 2)
+                .active(true)
+                .build());
+        }
+
+        return SolverInput.builder()
+            .slotMinutes(slotMinutes)
+            .effectiveDayWindows(windows)
+            .instructors(instructors)
+            .rooms(rooms)
+            .priorityRequests(requests)
+            .classDefinitions(List.of())
+            .classRequirements(List.of())
+            .build();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.LockedBlockDTO;
+import com.example.solverservice.dto.ScheduledClassDTO;
+import com.example.solverservice.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DanceTimetableSolverStageBTest {
+
+    private final DanceTimetableSolver solver = new DanceTimetableSolver();
+
+    private final SolverStudioLocation location = SolverStudioLocation.builder().id(1).name("City").build();
+    private final SolverRoom bigRoom = SolverRoom.builder().id(10).name("Big").studioLocation(location).capacity(20).build();
+    private final SolverRoom smallRoom = SolverRoom.builder().id(11).name("Small").studioLocation(location).capacity(5).build();
+
+    private final SolverClassDefinition beginner = SolverClassDefinition.builder()
+        .id(100).name("Pole Beginner").durationMinutes(60).defaultStudioCapacityNeeded(10).build();
+    private final SolverClassDefinition advanced = SolverClassDefinition.builder()
+        .id(101).name("Pole Advanced").durationMinutes(45).build();
+
+    @Test
+    void placesSessionsAroundStageABlocksRespectingQualificationAndCapacity() {
+        SolverInstructor qualified = instructor(1, "Ava", List.of(beginner.getId()), DayOfWeek.MONDAY, 17, 21);
+        SolverInstructor unqualified = instructor(2, "Liam", List.of(), DayOfWeek.MONDAY, 17, 21);
+
+        SolverPriorityRequest avaBlock = SolverPriorityRequest.builder()
+            .id(1).instructor(qualified).studioLocation(location).blockLengthHours(1).active(true).build();
+
+        // Hour slots keep the Stage A block on the hour, so exactly three free hours remain around it.
+        SolverInput input = baseInput()
+            .slotMinutes(60)
+            .instructors(List.of(qualified, unqualified))
+            .priorityRequests(List.of(avaBlock))
+            .classDefinitions(List.of(beginner, advanced))
+            .classRequirements(List.of(
+                SolverClassSessionRequirement.builder().id(500).classDefinition(beginner).sessionsPerWeek(3).studioLocation(location).active(true).build(),
+                SolverClassSessionRequirement.builder().id(501).classDefinition(advanced).sessionsPerWeek(2).active(true).build()))
+            .build();
+
+        SolverOutput output = solver.executeSolve(input);
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        assertEquals(1, output.getStageAResults().size());
+        LockedBlockDTO locked = output.getStageAResults().get(0);
+
+        // Ava has four free hours on Monday, one of which Stage A takes; the other three fit the three beginner sessions.
+        List<ScheduledClassDTO> classes = output.getStageBResults();
+        assertEquals(3, classes.size());
+        for (ScheduledClassDTO c : classes) {
+            assertEquals(500, c.getClassSessionRequirementId());
+            assertEquals(qualified.getId(), c.getInstructorId(), "only the qualified instructor may teach");
+            assertEquals(bigRoom.getId(), c.getRoomId(), "small room is below the class's capacity need");
+            assertEquals(DayOfWeek.MONDAY.toString(), c.getDayOfWeek());
+            assertFalse(overlaps(c.getStartSlot(), c.getLengthSlots(), locked.getStartSlot(), locked.getLengthSlots()),
+                "session overlaps the instructor's Stage A block");
+        }
+        for (int i = 0; i < classes.size(); i++) {
+            for (int j = i + 1; j < classes.size(); j++) {
+                assertFalse(overlaps(classes.get(i).getStartSlot(), classes.get(i).getLengthSlots(),
+                                     classes.get(j).getStartSlot(), classes.get(j).getLengthSlots()));
+            }
+        }
+        assertTrue(output.getConsoleLog().contains("No qualified instructor/room/time combination for class requirement ID: 501"));
+    }
+
+    @Test
+    void roundsDurationUpToWholeSlots() {
+        SolverInstructor instructor = instructor(1, "Ava", List.of(advanced.getId()), DayOfWeek.TUESDAY, 18, 20);
+        SolverInput input = baseInput()
+            .slotMinutes(30)
+            .instructors(List.of(instructor))
+            .priorityRequests(List.of())
+            .classDefinitions(List.of(advanced))
+            .classRequirements(List.of(
+                SolverClassSessionRequirement.builder().id(600).classDefinition(advanced).sessionsPerWeek(1).active(true).build()))
+            .build();
+
+        SolverOutput output = solver.executeSolve(input);
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        assertEquals(1, output.getStageBResults().size());
+        assertEquals(2, output.getStageBResults().get(0).getLengthSlots(), "45 minutes on a 30-minute grid takes two slots");
+    }
+
+    @Test
+    void keepsEachSessionInsideItsOwnRoomsStaggeredHours() {
+        SolverRoom early = SolverRoom.builder().id(20).name("Early").studioLocation(location).capacity(20)
+            .operatingHours(Map.of(DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(16, 0), LocalTime.of(18, 0)))).build();
+        SolverRoom late = SolverRoom.builder().id(21).name("Late").studioLocation(location).capacity(20)
+            .operatingHours(Map.of(DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(19, 0), LocalTime.of(22, 0)))).build();
+        SolverInput input = baseInput()
+            .slotMinutes(60)
+            .rooms(List.of(early, late))
+            .instructors(List.of(
+                instructor(1, "Ava", List.of(beginner.getId()), DayOfWeek.MONDAY, 16, 22),
+                instructor(2, "Liam", List.of(beginner.getId()), DayOfWeek.MONDAY, 16, 22)))
+            .priorityRequests(List.of())
+            .classDefinitions(List.of(beginner))
+            .classRequirements(List.of(
+                SolverClassSessionRequirement.builder().id(700).classDefinition(beginner).sessionsPerWeek(8).studioLocation(location).active(true).build()))
+            .build();
+
+        SolverOutput output = solver.executeSolve(input);
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        assertEquals(2 + 3, output.getStageBResults().size(), "the rooms are open five hours in total, and never 18:00-19:00");
+        for (ScheduledClassDTO c : output.getStageBResults()) {
+            LocalTime start = LocalTime.parse(c.getStartTime());
+            LocalTime end = LocalTime.parse(c.getEndTime());
+            if (c.getRoomId().equals(early.getId())) {
+                assertFalse(start.isBefore(LocalTime.of(16, 0)) || end.isAfter(LocalTime.of(18, 0)), c.toString());
+            } else {
+                assertFalse(start.isBefore(LocalTime.of(19, 0)) || end.isAfter(LocalTime.of(22, 0)), c.toString());
+            }
+        }
+    }
+
+    private static boolean overlaps(int startA, int lenA, int startB, int lenB) {
+        return startA < startB + lenB && startB < startA + lenA;
+    }
+
+    private SolverInput.SolverInputBuilder baseInput() {
+        Map<DayOfWeek, OperatingHoursSpan> windows = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek d : DayOfWeek.values()) {
+            windows.put(d, new OperatingHoursSpan(LocalTime.of(16, 0), LocalTime.of(22, 0)));
+        }
+        return SolverInput.builder()
+            .slotMinutes(15)
+            .effectiveDayWindows(windows)
+            .rooms(List.of(bigRoom, smallRoom));
+    }
+
+    private static SolverInstructor instructor(int id, String name, List<Integer> qualifications, DayOfWeek day, int fromHour, int toHour) {
+        return SolverInstructor.builder()
+            .id(id)
+            .name(name)
+            .qualifiedClassDefinitionIds(qualifications)
+            .availabilitySlots(List.of(SolverAvailabilitySlot.builder()
+                .id(id)
+                .dayOfWeek(day)
+                .startTime(LocalTime.of(fromHour, 0))
+                .endTime(LocalTime.of(toHour, 0))
+                .build()))
+            .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.LockedBlockDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * studioapp-api solves small jobs with its own in-process Stage A model. Its InlineSolveExecutorTest checks that the
+ * fixture is what the API publishes for a job it would solve inline and that its model places it as expected; this
+ * test holds solver-service to the same placements.
+ */
+public class InlineParityTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void inlineEligibleJobGetsTheSamePlacementsAsInTheApi() throws Exception {
+        JsonNode fixture;
+        try (InputStream in = getClass().getResourceAsStream("/inline-parity.json")) {
+            fixture = objectMapper.readTree(in);
+        }
+        SolverInput input = objectMapper.treeToValue(fixture.get("solverInput"), SolverInput.class);
+
+        SolverOutput output = new DanceTimetableSolver().executeSolve(input);
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        Set<JsonNode> expected = new HashSet<>();
+        fixture.get("expectedStageAResults").forEach(expected::add);
+        Set<JsonNode> placed = new HashSet<>();
+        for (LockedBlockDTO block : output.getStageAResults()) {
+            placed.add(objectMapper.createObjectNode()
+                .put("instructorId", block.getInstructorId())
+                .put("roomId", block.getRoomId())
+                .put("dayOfWeek", block.getDayOfWeek())
+                .put("startTime", block.getStartTime())
+                .put("endTime", block.getEndTime()));
+        }
+        assertEquals(expected, placed);
+    }
+}
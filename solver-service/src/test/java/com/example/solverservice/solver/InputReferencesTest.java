@@ -0,0 +1,93 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.model.*;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InputReferencesTest {
+
+    private final DanceTimetableSolver solver = new DanceTimetableSolver();
+
+    @Test
+    void normalizedInputSolvesLikeTheNestedOneAndIsSmaller() throws Exception {
+        SolverInput nested = studio(false);
+        SolverInput normalized = studio(true);
+
+        SolverOutput fromNested = solver.executeSolve(nested);
+        SolverOutput fromNormalized = solver.executeSolve(normalized);
+
+        assertTrue(fromNormalized.isSolveSuccess(), fromNormalized.getStatusMessage());
+        assertFalse(fromNormalized.getStageAResults().isEmpty());
+        assertEquals(fromNested.getStageAResults(), fromNormalized.getStageAResults());
+        assertEquals(fromNested.getStageBResults(), fromNormalized.getStageBResults());
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL); // As SolvePayloadCodec writes it
+        int nestedBytes = objectMapper.writeValueAsBytes(nested).length;
+        int normalizedBytes = objectMapper.writeValueAsBytes(normalized).length;
+        assertTrue(normalizedBytes * 2 < nestedBytes, "normalized " + normalizedBytes + " bytes vs nested " + nestedBytes);
+    }
+
+    @Test
+    void referencesResolveThroughTheTablesWithoutTouchingTheInput() {
+        SolverInput input = studio(true);
+
+        SolverInput resolved = InputReferences.resolve(input, new StringBuilder());
+
+        SolverPriorityRequest request = resolved.getPriorityRequests().get(0);
+        assertSame(input.getInstructors().get(request.getInstructorId() - 1), request.getInstructor());
+        assertEquals(request.getStudioLocationId(), request.getStudioLocation().getId());
+        assertEquals("Location 1", resolved.getRooms().get(0).getStudioLocation().getName());
+        assertEquals(resolved.getClassRequirements().get(0).getClassDefinitionId(),
+            resolved.getClassRequirements().get(0).getClassDefinition().getId());
+        assertNull(input.getPriorityRequests().get(0).getInstructor(), "the input itself is left untouched");
+
+        SolverInput nested = studio(false);
+        assertSame(nested, InputReferences.resolve(nested, new StringBuilder()), "nothing to resolve, nothing copied");
+    }
+
+    @Test
+    void requestsForUnknownInstructorsAreReportedAndSkipped() {
+        SolverStudioLocation location = SolverStudioLocation.builder().id(1).name("City").build();
+        SolverInstructor ava = SolverInstructor.builder().id(1).name("Ava").qualifiedClassDefinitionIds(List.of())
+            .availabilitySlots(List.of(SolverAvailabilitySlot.builder()
+                .id(1).dayOfWeek(DayOfWeek.MONDAY).startTime(LocalTime.of(10, 0)).endTime(LocalTime.of(12, 0)).build()))
+            .build();
+        SolverInput input = SolverInput.builder()
+            .slotMinutes(15)
+            .effectiveDayWindows(Map.of(DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(9, 0), LocalTime.of(21, 0))))
+            .studioLocations(List.of(location))
+            .instructors(List.of(ava))
+            .rooms(List.of(SolverRoom.builder().id(10).name("Studio A").studioLocationId(1).build()))
+            .priorityRequests(List.of(
+                SolverPriorityRequest.builder().id(1).instructorId(1).studioLocationId(1).blockLengthHours(1).active(true).build(),
+                SolverPriorityRequest.builder().id(2).instructorId(99).studioLocationId(1).blockLengthHours(1).active(true).build()))
+            .build();
+
+        SolverOutput output = solver.executeSolve(input);
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        assertTrue(output.getConsoleLog().contains("Warning: priority request ID: 2 refers to unknown instructor ID: 99"));
+        assertTrue(output.getConsoleLog().contains("Warning: Instructor not found for priority request ID: 2"));
+        assertEquals(1, output.getStageAResults().size());
+        assertEquals("City", output.getStageAResults().get(0).getStudioLocationName());
+    }
+
+    private static SolverInput studio(boolean normalized) {
+        SolverInput input = new SyntheticStudioGenerator()
+            .seed(11).slotMinutes(15).instructors(12).availabilitySlotsPerInstructor(4)
+            .locations(2).roomsPerLocation(2).priorityRequestsPerInstructor(3).classDefinitions(4)
+            .normalized(normalized)
+            .generate();
+        input.setExecutionProfile(SolverExecutionProfile.builder().deterministic(true).numSearchWorkers(1).build());
+        return input;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.StageStatisticsDTO;
+import com.google.ortools.Loader;
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.IntVar;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelBuilderTest {
+
+    @BeforeAll
+    static void loadNativeLibraries() {
+        Loader.loadNativeLibraries();
+    }
+
+    @Test
+    void namesVariablesOnlyUnderDebugNames() {
+        ModelBuilder plain = build(false);
+        ModelBuilder named = build(true);
+
+        assertTrue(plain.model().model().getVariablesList().stream().allMatch(v -> v.getName().isEmpty()));
+        assertEquals("present_7_r3", named.model().model().getVariables(1).getName());
+        assertEquals(named.model().model().getVariablesCount(), plain.model().model().getVariablesCount());
+        assertTrue(plain.protoBytes() < named.protoBytes());
+    }
+
+    @Test
+    void sharesOneFalseLiteral() {
+        ModelBuilder builder = new ModelBuilder(false);
+
+        assertSame(builder.falseLiteral(), builder.falseLiteral());
+        assertEquals(1, builder.model().model().getVariablesCount(), "the false literal's 0");
+    }
+
+    @Test
+    void solveReportsModelSizeAndBuildTime() {
+        SolverInput input = new SyntheticStudioGenerator()
+            .seed(15).instructors(20).availabilitySlotsPerInstructor(3)
+            .locations(2).roomsPerLocation(2).priorityRequestsPerInstructor(2)
+            .generate();
+
+        SolverOutput output = new DanceTimetableSolver().executeSolve(input);
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        StageStatisticsDTO stageA = output.getStageStatistics().get(0);
+        assertTrue(stageA.getModelBytes() > 0);
+        assertTrue(stageA.getModelBuildSeconds() >= 0);
+        assertTrue(stageA.getModelBuildSeconds() < stageA.getWallTimeSeconds() + 1.0);
+    }
+
+    private static ModelBuilder build(boolean debugNames) {
+        ModelBuilder builder = new ModelBuilder(debugNames);
+        IntVar start = builder.newIntVar(0, 96, "pstart_", 7);
+        BoolVar present = builder.newBoolVar("present_", 7, "_r", 3);
+        builder.newOptionalInterval(start, 4, present, "iv_p_", 7);
+        return builder;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.solverservice.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlotCalendarTest {
+
+    private final SlotCalendar calendar = new SlotCalendar(15, Map.of(
+        DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(9, 0), LocalTime.of(12, 0)),     // 12 slots
+        DayOfWeek.WEDNESDAY, new OperatingHoursSpan(LocalTime.of(17, 30), LocalTime.of(22, 0)), // 18 slots
+        DayOfWeek.FRIDAY, new OperatingHoursSpan(LocalTime.of(10, 0), LocalTime.of(10, 0))));  // closed
+
+    @Test
+    void laysDaysOutBackToBackSkippingUndefinedDays() {
+        assertEquals(30, calendar.getTotalSlots());
+        assertEquals(0, calendar.firstSlotOf(DayOfWeek.MONDAY));
+        assertEquals(12, calendar.firstSlotOf(DayOfWeek.TUESDAY));
+        assertEquals(12, calendar.firstSlotOf(DayOfWeek.WEDNESDAY));
+        assertEquals(0, calendar.slotsInDay(DayOfWeek.FRIDAY));
+    }
+
+    @Test
+    void convertsTimesToSlotsAndBack() {
+        assertEquals(0, calendar.toGlobalSlot(DayOfWeek.MONDAY, LocalTime.of(9, 0)));
+        assertEquals(5, calendar.toGlobalSlot(DayOfWeek.MONDAY, LocalTime.of(10, 20)));
+        assertEquals(12, calendar.toGlobalSlot(DayOfWeek.MONDAY, LocalTime.of(12, 0)), "closing time is an exclusive end");
+        assertEquals(14, calendar.toGlobalSlot(DayOfWeek.WEDNESDAY, LocalTime.of(18, 0)));
+
+        assertEquals(DayOfWeek.WEDNESDAY, calendar.dayOf(14));
+        assertEquals(18 * 60, calendar.minuteOfDay(14));
+        assertEquals("18:00", calendar.formatStartTime(14));
+        assertEquals("09:15", calendar.formatStartTime(1));
+    }
+
+    @Test
+    void clampsOutsideTheSpanAndRejectsDaysWithoutSlots() {
+        assertEquals(0, calendar.toGlobalSlot(DayOfWeek.MONDAY, LocalTime.of(7, 0)));
+        assertEquals(11, calendar.toGlobalSlot(DayOfWeek.MONDAY, LocalTime.of(13, 0)));
+        assertEquals(-1, calendar.toGlobalSlot(DayOfWeek.TUESDAY, LocalTime.of(10, 0)));
+        assertEquals(-1, calendar.toGlobalSlot(DayOfWeek.FRIDAY, LocalTime.of(10, 0)));
+    }
+
+    @Test
+    void endTimeOfABlockFinishingAtClosingStaysOnItsOwnDay() {
+        // Monday's last hour ends exactly where Wednesday's first slot begins in the global numbering.
+        assertEquals("12:00", calendar.formatEndTime(8, 4));
+        assertEquals("22:00", calendar.formatEndTime(26, 4));
+    }
+
+    @Test
+    void skipsSlotsWhereNoRoomIsOpen() {
+        // Rooms open 09:00-12:00, 11:00-13:00 and 17:00-22:00 inside a 09:00-22:00 effective window.
+        SlotCalendar staggered = new SlotCalendar(60,
+            Map.of(DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(9, 0), LocalTime.of(22, 0))),
+            Map.of(DayOfWeek.MONDAY, List.of(
+                new OperatingHoursSpan(LocalTime.of(17, 0), LocalTime.of(23, 0)),
+                new OperatingHoursSpan(LocalTime.of(9, 0), LocalTime.of(12, 0)),
+                new OperatingHoursSpan(LocalTime.of(11, 0), LocalTime.of(13, 0)))));
+
+        assertEquals(4 + 5, staggered.getTotalSlots());
+        assertEquals(2, staggered.segmentCount());
+        assertEquals(4, staggered.segmentFirstSlot(1));
+        assertArrayEquals(new int[][]{{9 * 60, 13 * 60}, {17 * 60, 22 * 60}}, staggered.openMinutes(DayOfWeek.MONDAY));
+        assertEquals("17:00", staggered.formatStartTime(4));
+        assertEquals("13:00", staggered.formatEndTime(3, 1));
+        assertEquals(4, staggered.toGlobalSlot(DayOfWeek.MONDAY, LocalTime.of(13, 0)));
+        assertEquals(4, staggered.toGlobalSlot(DayOfWeek.MONDAY, LocalTime.of(15, 0)), "a closed hour maps to the next opening");
+        assertEquals(-1, staggered.toGlobalSlot(DayOfWeek.TUESDAY, LocalTime.of(10, 0)));
+    }
+
+    @Test
+    void endTimeWrapsAtMidnight() {
+        Map<DayOfWeek, OperatingHoursSpan> lateNight = new EnumMap<>(DayOfWeek.class);
+        lateNight.put(DayOfWeek.SATURDAY, new OperatingHoursSpan(LocalTime.of(22, 0), LocalTime.of(23, 59)));
+        SlotCalendar late = new SlotCalendar(60, lateNight);
+        assertEquals(1, late.getTotalSlots());
+        assertEquals("22:00", late.formatStartTime(0));
+        assertEquals("00:00", late.formatEndTime(0, 2));
+    }
+}
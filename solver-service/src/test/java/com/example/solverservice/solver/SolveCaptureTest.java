@@ -0,0 +1,69 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.PubSubSolveRequest;
+import com.example.solverservice.dto.StageStatisticsDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolveCaptureTest {
+
+    private final DanceTimetableSolver solver = new DanceTimetableSolver();
+
+    @TempDir
+    Path captureRoot;
+
+    @Test
+    void capturedJobReplaysToTheSameOptimum() throws Exception {
+        SolverInput input = new SyntheticStudioGenerator()
+            .seed(16).instructors(12).availabilitySlotsPerInstructor(3)
+            .locations(1).roomsPerLocation(2).priorityRequestsPerInstructor(2).classDefinitions(3)
+            .generate();
+        String payload = new ObjectMapper().findAndRegisterModules().writeValueAsString(new PubSubSolveRequest("job/16", input));
+
+        SolveCapture capture = SolveCapture.start(captureRoot, "job/16", payload);
+        SolverOutput output = solver.executeSolve(input, null, capture);
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        assertEquals(captureRoot.resolve("job_16"), capture.getDirectory());
+        List<String> files;
+        try (Stream<Path> list = Files.list(capture.getDirectory())) {
+            files = list.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+        assertEquals(List.of("01-A.model.pb", "01-A.params.txt", "02-B.model.pb", "02-B.params.txt", "request.json"), files);
+
+        List<CaptureReplay.ReplayResult> models = CaptureReplay.replayModels(capture.getDirectory());
+        assertEquals(List.of("01-A", "02-B"), models.stream().map(CaptureReplay.ReplayResult::name).collect(Collectors.toList()));
+        assertEquals("OPTIMAL", models.get(0).status());
+        assertEquals(stage(output, "A").getObjectiveValue(), models.get(0).objective());
+
+        List<CaptureReplay.ReplayResult> request = CaptureReplay.replayRequest(capture.getDirectory(), solver);
+        assertEquals(output.getStageStatistics().size(), request.size());
+        assertEquals(stage(output, "A").getObjectiveValue(), request.get(0).objective());
+    }
+
+    @Test
+    void solvesWithoutCaptureByDefault() throws Exception {
+        SolverInput input = new SyntheticStudioGenerator().seed(16).instructors(4).generate();
+
+        assertTrue(solver.executeSolve(input).isSolveSuccess());
+        try (Stream<Path> list = Files.list(captureRoot)) {
+            assertEquals(0, list.count());
+        }
+    }
+
+    private static StageStatisticsDTO stage(SolverOutput output, String stage) {
+        return output.getStageStatistics().stream()
+            .filter(s -> stage.equals(s.getStage()))
+            .findFirst()
+            .orElseThrow();
+    }
+}
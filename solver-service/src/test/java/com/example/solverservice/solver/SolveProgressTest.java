@@ -0,0 +1,46 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.SolveProgressDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolveProgressTest {
+
+    private final DanceTimetableSolver solver = new DanceTimetableSolver();
+
+    @Test
+    void publishesImprovingStageASolutionsBeforeTheSolveReturns() {
+        SolverInput input = new SyntheticStudioGenerator()
+            .seed(5).instructors(40).availabilitySlotsPerInstructor(4)
+            .locations(2).roomsPerLocation(2).priorityRequestsPerInstructor(2)
+            .generate();
+        List<SolveProgressDTO> published = new CopyOnWriteArrayList<>();
+
+        SolverOutput output = solver.executeSolve(input, published::add);
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        assertFalse(published.isEmpty(), "the first incumbent is always published");
+        double previous = Double.NEGATIVE_INFINITY;
+        for (SolveProgressDTO progress : published) {
+            assertEquals("A", progress.getStage());
+            assertTrue(progress.getObjectiveValue() > previous, "only improvements are published");
+            assertTrue(progress.getObjectiveValue() <= progress.getBestObjectiveBound());
+            assertEquals(progress.getObjectiveValue().intValue(), progress.getLockedBlocks().size());
+            previous = progress.getObjectiveValue();
+        }
+        assertTrue(previous <= output.getStageAResults().size());
+    }
+
+    @Test
+    void aFailingListenerDoesNotFailTheSolve() {
+        SolverInput input = new SyntheticStudioGenerator().seed(1).instructors(5).generate();
+
+        SolverOutput output = solver.executeSolve(input, progress -> { throw new IllegalStateException("listener down"); });
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+    }
+}
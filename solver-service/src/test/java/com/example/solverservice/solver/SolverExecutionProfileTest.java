@@ -0,0 +1,95 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.LockedBlockDTO;
+import com.example.solverservice.dto.StageStatisticsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolverExecutionProfileTest {
+
+    @Test
+    void resolveFillsDefaultsAndAppliesServerCaps() {
+        SolverExecutionProfile defaults = new SolverExecutionProfile().resolve(8, 30);
+        assertEquals(8, defaults.getNumSearchWorkers());
+        assertEquals(SolverExecutionProfile.DEFAULT_STAGE_TIME_LIMIT_SECONDS, defaults.getStageATimeLimitSeconds());
+        assertEquals(SolverExecutionProfile.DEFAULT_STAGE_TIME_LIMIT_SECONDS, defaults.getStageBTimeLimitSeconds());
+        assertEquals(0.0, defaults.getRelativeGapLimit());
+        assertNull(defaults.getNoImprovementTimeoutSeconds());
+        assertEquals(SolverExecutionProfile.DEFAULT_DETERMINISTIC_TIME_LIMIT, defaults.getDeterministicTimeLimit());
+        assertTrue(defaults.getSymmetryBreaking());
+        assertFalse(defaults.isStopAtFirstSolution());
+
+        SolverExecutionProfile greedy = SolverExecutionProfile.builder()
+            .numSearchWorkers(64)
+            .stageATimeLimitSeconds(600.0)
+            .stageBTimeLimitSeconds(-1.0)
+            .noImprovementTimeoutSeconds(120.0)
+            .build()
+            .resolve(8, 30);
+        assertEquals(8, greedy.getNumSearchWorkers());
+        assertEquals(30.0, greedy.getStageATimeLimitSeconds());
+        assertEquals(SolverExecutionProfile.DEFAULT_STAGE_TIME_LIMIT_SECONDS, greedy.getStageBTimeLimitSeconds());
+        assertEquals(30.0, greedy.getNoImprovementTimeoutSeconds());
+    }
+
+    @Test
+    void deterministicProfileReproducesTheSameTimetable() {
+        SolverExecutionProfile profile = SolverExecutionProfile.builder()
+            .numSearchWorkers(4).deterministic(true).deterministicTimeLimit(0.01).build();
+
+        List<String> first = stageASignature(solve(profile));
+        List<String> second = stageASignature(solve(profile));
+
+        assertFalse(first.isEmpty());
+        assertEquals(first, second);
+    }
+
+    @Test
+    void tinyBudgetStillReturnsAtLeastTheGreedyPlacement() {
+        SolverOutput output = solve(SolverExecutionProfile.builder()
+            .numSearchWorkers(1).stageATimeLimitSeconds(1e-6).build());
+
+        StageStatisticsDTO stageA = output.getStageStatistics().get(0);
+        assertTrue(output.getStageAResults().size() >= stageA.getWarmStartObjectiveValue());
+    }
+
+    @Test
+    void stopAtFirstSolutionKeepsAtLeastTheGreedyPlacement() {
+        SolverOutput output = solve(SolverExecutionProfile.builder().stopAtFirstSolution(true).build());
+
+        StageStatisticsDTO stageA = output.getStageStatistics().get(0);
+        assertNotNull(stageA.getFirstSolutionSeconds());
+        assertTrue(output.getStageAResults().size() >= stageA.getWarmStartObjectiveValue());
+    }
+
+    @Test
+    void noImprovementTimeoutAndGapStopsStillSolve() {
+        SolverOutput output = solve(SolverExecutionProfile.builder()
+            .relativeGapLimit(0.05).noImprovementTimeoutSeconds(0.5).build());
+
+        StageStatisticsDTO stageA = output.getStageStatistics().get(0);
+        assertNotNull(stageA.getObjectiveValue());
+        assertTrue(stageA.getWallTimeSeconds() < SolverExecutionProfile.DEFAULT_STAGE_TIME_LIMIT_SECONDS);
+    }
+
+    private static SolverOutput solve(SolverExecutionProfile profile) {
+        SolverInput input = new SyntheticStudioGenerator()
+            .seed(9).instructors(40).availabilitySlotsPerInstructor(4)
+            .locations(1).roomsPerLocation(2).priorityRequestsPerInstructor(2)
+            .generate();
+        input.setExecutionProfile(profile);
+        SolverOutput output = new DanceTimetableSolver(8, 30).executeSolve(input);
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        return output;
+    }
+
+    private static List<String> stageASignature(SolverOutput output) {
+        return output.getStageAResults().stream()
+            .map(LockedBlockDTO::toString)
+            .collect(Collectors.toList());
+    }
+}
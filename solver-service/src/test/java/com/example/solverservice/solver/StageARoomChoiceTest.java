@@ -0,0 +1,113 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.LockedBlockDTO;
+import com.example.solverservice.dto.StageStatisticsDTO;
+import com.example.solverservice.model.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StageARoomChoiceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageARoomChoiceTest.class);
+
+    private final DanceTimetableSolver solver = new DanceTimetableSolver();
+
+    @Test
+    void requestsSpreadAcrossTheRoomsOfTheirLocation() {
+        SolverStudioLocation location = SolverStudioLocation.builder().id(1).name("City").build();
+        List<SolverRoom> rooms = List.of(
+            SolverRoom.builder().id(10).name("Studio A").studioLocation(location).build(),
+            SolverRoom.builder().id(11).name("Studio B").studioLocation(location).build(),
+            SolverRoom.builder().id(12).name("Evening studio").studioLocation(location)
+                .operatingHours(Map.of(DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(19, 0), LocalTime.of(22, 0))))
+                .build());
+        List<SolverInstructor> instructors = new ArrayList<>();
+        List<SolverPriorityRequest> requests = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            SolverInstructor instructor = SolverInstructor.builder()
+                .id(i).name("Instructor " + i)
+                .availabilitySlots(List.of(SolverAvailabilitySlot.builder()
+                    .id(i).dayOfWeek(DayOfWeek.MONDAY).startTime(LocalTime.of(17, 0)).endTime(LocalTime.of(18, 0)).build()))
+                .build();
+            instructors.add(instructor);
+            requests.add(SolverPriorityRequest.builder()
+                .id(i).instructor(instructor).studioLocation(location).blockLengthHours(1).active(true).build());
+        }
+
+        SolverOutput output = solver.executeSolve(SolverInput.builder()
+            .slotMinutes(15)
+            .effectiveDayWindows(Map.of(DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(16, 0), LocalTime.of(22, 0))))
+            .instructors(instructors)
+            .rooms(rooms)
+            .priorityRequests(requests)
+            .build());
+
+        // Pinned to the location's first room only one block fit; the evening studio is closed at 17:00.
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        assertEquals(2, output.getStageAResults().size());
+        assertEquals(Set.of(10, 11), output.getStageAResults().stream().map(LockedBlockDTO::getRoomId).collect(Collectors.toSet()));
+        assertTrue(output.getStageAResults().stream().allMatch(block -> "17:00".equals(block.getStartTime())));
+    }
+
+    @Test
+    void moreRoomsNeverPlaceFewerRequests() {
+        int previous = -1;
+        for (int rooms = 1; rooms <= 3; rooms++) {
+            SolverOutput output = solver.executeSolve(studio(rooms));
+            assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+            assertNoDoubleBooking(output.getStageAResults());
+            assertTrue(output.getStageAResults().size() >= previous);
+            previous = output.getStageAResults().size();
+        }
+    }
+
+    /** Run with {@code mvn test -Pbenchmark}. */
+    @Test
+    @Tag("benchmark")
+    void benchmarkRoomsPerLocation() {
+        logger.info(String.format("%5s %8s %6s %9s %10s", "rooms", "requests", "placed", "A status", "A wall(s)"));
+        for (int rooms = 1; rooms <= 4; rooms++) {
+            SolverInput input = studio(rooms);
+            SolverOutput output = solver.executeSolve(input);
+            StageStatisticsDTO stageA = output.getStageStatistics().get(0);
+            logger.info(String.format("%5d %8d %6d %9s %10.3f", rooms, input.getPriorityRequests().size(),
+                output.getStageAResults().size(), stageA.getStatus(), stageA.getWallTimeSeconds()));
+        }
+    }
+
+    /** The same instructors and requests each time, keeping only the first {@code roomsPerLocation} rooms of each location. */
+    private static SolverInput studio(int roomsPerLocation) {
+        SolverInput input = new SyntheticStudioGenerator()
+            .seed(14).instructors(30).availabilitySlotsPerInstructor(3)
+            .locations(2).roomsPerLocation(4).priorityRequestsPerInstructor(3)
+            .generate();
+        input.setRooms(input.getRooms().stream()
+            .filter(room -> room.getId() % 100 <= roomsPerLocation)
+            .collect(Collectors.toList()));
+        return input;
+    }
+
+    private static void assertNoDoubleBooking(List<LockedBlockDTO> blocks) {
+        for (int i = 0; i < blocks.size(); i++) {
+            for (int j = i + 1; j < blocks.size(); j++) {
+                LockedBlockDTO a = blocks.get(i);
+                LockedBlockDTO b = blocks.get(j);
+                boolean overlap = a.getStartSlot() < b.getStartSlot() + b.getLengthSlots()
+                    && b.getStartSlot() < a.getStartSlot() + a.getLengthSlots();
+                if (overlap) {
+                    assertNotEquals(a.getInstructorId(), b.getInstructorId(), "instructor double-booked");
+                    assertNotEquals(a.getRoomId(), b.getRoomId(), "room double-booked");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.LockedBlockDTO;
+import com.example.solverservice.dto.StageStatisticsDTO;
+import com.example.solverservice.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StageAWarmStartTest {
+
+    private final DanceTimetableSolver solver = new DanceTimetableSolver();
+
+    @Test
+    void greedyWarmStartIsReportedAndNeverBeatsTheFinalResult() {
+        SolverInput input = new SyntheticStudioGenerator()
+            .seed(3).instructors(30).availabilitySlotsPerInstructor(4)
+            .locations(2).roomsPerLocation(2).priorityRequestsPerInstructor(2)
+            .generate();
+
+        SolverOutput output = solver.executeSolve(input);
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        StageStatisticsDTO stageA = output.getStageStatistics().stream()
+            .filter(s -> "A".equals(s.getStage())).findFirst().orElseThrow();
+        assertNotNull(stageA.getWarmStartObjectiveValue());
+        assertTrue(stageA.getWarmStartObjectiveValue() > 0);
+        assertTrue(output.getStageAResults().size() >= stageA.getWarmStartObjectiveValue());
+        assertNoOverlaps(output.getStageAResults());
+    }
+
+    @Test
+    void greedyOrdersByRelativePriorityThenLongerBlocks() {
+        SolverStudioLocation location = SolverStudioLocation.builder().id(1).name("City").build();
+        SolverRoom room = SolverRoom.builder().id(10).name("Main").studioLocation(location).build();
+        SolverInstructor instructor = SolverInstructor.builder()
+            .id(1).name("Ava")
+            .availabilitySlots(List.of(SolverAvailabilitySlot.builder()
+                .id(1).dayOfWeek(DayOfWeek.MONDAY).startTime(LocalTime.of(17, 0)).endTime(LocalTime.of(19, 0)).build()))
+            .build();
+
+        // Only two hours free: the priority-1 two-hour block takes them and both one-hour requests miss out.
+        List<SolverPriorityRequest> requests = List.of(
+            request(1, instructor, location, 1, 2),
+            request(2, instructor, location, 1, 2),
+            request(3, instructor, location, 2, 1));
+
+        SolverOutput output = solver.executeSolve(input(instructor, room, requests));
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        StageStatisticsDTO stageA = output.getStageStatistics().get(0);
+        assertEquals(1.0, stageA.getWarmStartObjectiveValue());
+        assertEquals(2.0, stageA.getObjectiveValue(), "CP-SAT still improves on the greedy hint");
+    }
+
+    private static SolverPriorityRequest request(int id, SolverInstructor instructor, SolverStudioLocation location,
+                                                 int blockLengthHours, int relativePriority) {
+        return SolverPriorityRequest.builder()
+            .id(id).instructor(instructor).studioLocation(location)
+            .blockLengthHours(blockLengthHours).relativePriority(relativePriority).active(true)
+            .build();
+    }
+
+    private static SolverInput input(SolverInstructor instructor, SolverRoom room, List<SolverPriorityRequest> requests) {
+        Map<DayOfWeek, OperatingHoursSpan> windows = new EnumMap<>(DayOfWeek.class);
+        windows.put(DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(16, 0), LocalTime.of(22, 0)));
+        return SolverInput.builder()
+            .slotMinutes(60)
+            .effectiveDayWindows(windows)
+            .instructors(List.of(instructor))
+            .rooms(List.of(room))
+            .priorityRequests(requests)
+            .build();
+    }
+
+    private static void assertNoOverlaps(List<LockedBlockDTO> blocks) {
+        for (int i = 0; i < blocks.size(); i++) {
+            for (int j = i + 1; j < blocks.size(); j++) {
+                LockedBlockDTO a = blocks.get(i);
+                LockedBlockDTO b = blocks.get(j);
+                boolean overlap = a.getStartSlot() < b.getStartSlot() + b.getLengthSlots()
+                    && b.getStartSlot() < a.getStartSlot() + a.getLengthSlots();
+                if (overlap) {
+                    assertNotEquals(a.getInstructorId(), b.getInstructorId(), "instructor double-booked");
+                    assertNotEquals(a.getRoomId(), b.getRoomId(), "room double-booked");
+                }
+            }
+        }
+    }
+}
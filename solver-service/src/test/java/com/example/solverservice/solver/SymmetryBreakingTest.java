@@ -0,0 +1,142 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.dto.StageStatisticsDTO;
+import com.example.solverservice.model.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SymmetryBreakingTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SymmetryBreakingTest.class);
+
+    private final DanceTimetableSolver solver = new DanceTimetableSolver();
+
+    @Test
+    void groupsEquivalentItemsAndDropsSingletons() {
+        List<String> rooms = List.of("small", "large", "small", "studio", "large", "small");
+        assertEquals(List.of(List.of(0, 2, 5), List.of(1, 4)), EquivalenceClasses.of(rooms.size(), rooms::get));
+    }
+
+    @Test
+    void symmetryBreakingKeepsTheOptimum() {
+        SolverOutput broken = solve(pigeonholeStudio(3), true, 2.0);
+        SolverOutput plain = solve(pigeonholeStudio(3), false, 2.0);
+
+        assertEquals("OPTIMAL", stage(broken, "A").getStatus());
+        assertEquals("OPTIMAL", stage(plain, "A").getStatus());
+        assertEquals(stage(plain, "A").getObjectiveValue(), stage(broken, "A").getObjectiveValue());
+        assertEquals(4 * 3, broken.getStageAResults().size(), "one block per instructor window");
+        // Stage B proofs stay slow without symmetry breaking; both modes still find the full placement.
+        assertEquals(2 * 3, plain.getStageBResults().size(), "one session per class instructor window");
+        assertEquals(2 * 3, broken.getStageBResults().size(), "one session per class instructor window");
+        assertEquals(4, broken.getConsoleLog().split("Stage A symmetry breaking ordered 1 groups of equivalent requests.", -1).length - 1,
+            "each instructor is an independent component with one group of identical requests");
+        assertTrue(broken.getConsoleLog().contains("Stage B symmetry breaking ordered 3 groups of duplicate sessions, 1 groups of interchangeable rooms and 1 groups of interchangeable instructors."));
+        assertFalse(plain.getConsoleLog().contains("symmetry breaking"));
+    }
+
+    /** Run with {@code mvn test -Pbenchmark}. */
+    @Test
+    @Tag("benchmark")
+    void benchmarkSymmetryBreaking() {
+        logger.info(String.format("%-9s %7s %9s %10s %9s %10s",
+            "symmetry", "windows", "A status", "A wall(s)", "B status", "B wall(s)"));
+        for (int windows = 3; windows <= 7; windows++) {
+            for (boolean symmetryBreaking : new boolean[]{false, true}) {
+                SolverOutput output = solve(pigeonholeStudio(windows), symmetryBreaking, null);
+                logger.info(String.format("%-9s %7d %9s %10.3f %9s %10.3f",
+                    symmetryBreaking ? "on" : "off", windows,
+                    stage(output, "A").getStatus(), stage(output, "A").getWallTimeSeconds(),
+                    stage(output, "B").getStatus(), stage(output, "B").getWallTimeSeconds()));
+            }
+        }
+    }
+
+    /**
+     * Every instructor is available in {@code windows} 90-minute windows, so each window fits one hour-long block.
+     * Stage A: four instructors, each with twice as many identical one-hour requests as windows, in their own room.
+     * Stage B: two identical class instructors and three identical rooms for three classes of {@code windows} sessions
+     * each. Proving that only part of the demand fits is a pigeonhole argument, which CP-SAT otherwise has to make for
+     * every permutation of the identical requests, sessions, rooms and instructors.
+     */
+    private static SolverInput pigeonholeStudio(int windows) {
+        Map<DayOfWeek, OperatingHoursSpan> days = new EnumMap<>(DayOfWeek.class);
+        List<SolverAvailabilitySlot> availability = new ArrayList<>();
+        for (int w = 0; w < windows; w++) {
+            DayOfWeek day = DayOfWeek.of(1 + w);
+            days.put(day, new OperatingHoursSpan(LocalTime.of(16, 0), LocalTime.of(22, 0)));
+            availability.add(SolverAvailabilitySlot.builder()
+                .id(w + 1).dayOfWeek(day).startTime(LocalTime.of(17, 0)).endTime(LocalTime.of(18, 30)).build());
+        }
+
+        List<SolverClassDefinition> classes = new ArrayList<>();
+        for (int c = 1; c <= 3; c++) {
+            classes.add(SolverClassDefinition.builder().id(c).name("Class " + c).durationMinutes(60).build());
+        }
+        List<Integer> classIds = classes.stream().map(SolverClassDefinition::getId).collect(Collectors.toList());
+
+        List<SolverInstructor> instructors = new ArrayList<>();
+        List<SolverRoom> rooms = new ArrayList<>();
+        List<SolverPriorityRequest> requests = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            SolverStudioLocation own = SolverStudioLocation.builder().id(i).name("Private " + i).build();
+            rooms.add(SolverRoom.builder().id(i).name("Private room " + i).studioLocation(own).capacity(5).build());
+            SolverInstructor instructor = SolverInstructor.builder()
+                .id(i).name("Instructor " + i).availabilitySlots(availability).qualifiedClassDefinitionIds(List.of()).build();
+            instructors.add(instructor);
+            for (int r = 0; r < 2 * windows; r++) {
+                requests.add(SolverPriorityRequest.builder()
+                    .id(100 * i + r).instructor(instructor).studioLocation(own).blockLengthHours(1).active(true).build());
+            }
+        }
+
+        SolverStudioLocation main = SolverStudioLocation.builder().id(10).name("Main").build();
+        for (int r = 1; r <= 3; r++) {
+            rooms.add(SolverRoom.builder().id(10 + r).name("Studio " + r).studioLocation(main).capacity(20).build());
+        }
+        for (int i = 5; i <= 6; i++) {
+            instructors.add(SolverInstructor.builder()
+                .id(i).name("Instructor " + i).availabilitySlots(availability).qualifiedClassDefinitionIds(classIds).build());
+        }
+        List<SolverClassSessionRequirement> requirements = classes.stream()
+            .map(def -> SolverClassSessionRequirement.builder()
+                .id(def.getId()).classDefinition(def).sessionsPerWeek(windows).studioLocation(main).active(true).build())
+            .collect(Collectors.toList());
+
+        return SolverInput.builder()
+            .slotMinutes(15)
+            .effectiveDayWindows(days)
+            .instructors(instructors)
+            .rooms(rooms)
+            .priorityRequests(requests)
+            .classRequirements(requirements)
+            .build();
+    }
+
+    private SolverOutput solve(SolverInput input, boolean symmetryBreaking, Double stageBTimeLimitSeconds) {
+        input.setExecutionProfile(SolverExecutionProfile.builder()
+            .symmetryBreaking(symmetryBreaking).stageBTimeLimitSeconds(stageBTimeLimitSeconds).build());
+        SolverOutput output = solver.executeSolve(input);
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        return output;
+    }
+
+    private static StageStatisticsDTO stage(SolverOutput output, String stage) {
+        return output.getStageStatistics().stream()
+            .filter(s -> stage.equals(s.getStage()))
+            .findFirst()
+            .orElseThrow();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.solverservice.solver;
+
+import com.example.solverservice.model.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Seeded generator of synthetic studios for solver tests and benchmarks. The same settings and seed
+ * always produce the same {@link SolverInput}.
+ */
+public final class SyntheticStudioGenerator {
+
+    private static final LocalTime OPEN = LocalTime.of(9, 0);
+    private static final LocalTime CLOSE = LocalTime.of(22, 0);
+
+    private long seed = 42L;
+    private int slotMinutes = 5;
+    private int instructors = 20;
+    private int availabilitySlotsPerInstructor = 3;
+    private int locations = 1;
+    private int roomsPerLocation = 2;
+    private int priorityRequestsPerInstructor = 1;
+    private int maxBlockLengthHours = 2;
+    private int classDefinitions = 0;
+    private int sessionsPerClass = 2;
+    private boolean normalized = false;
+
+    public SyntheticStudioGenerator seed(long seed) { this.seed = seed; return this; }
+    public SyntheticStudioGenerator slotMinutes(int slotMinutes) { this.slotMinutes = slotMinutes; return this; }
+    public SyntheticStudioGenerator instructors(int instructors) { this.instructors = instructors; return this; }
+    public SyntheticStudioGenerator availabilitySlotsPerInstructor(int n) { this.availabilitySlotsPerInstructor = n; return this; }
+    public SyntheticStudioGenerator locations(int locations) { this.locations = locations; return this; }
+    public SyntheticStudioGenerator roomsPerLocation(int roomsPerLocation) { this.roomsPerLocation = roomsPerLocation; return this; }
+    public SyntheticStudioGenerator priorityRequestsPerInstructor(int n) { this.priorityRequestsPerInstructor = n; return this; }
+    public SyntheticStudioGenerator maxBlockLengthHours(int hours) { this.maxBlockLengthHours = hours; return this; }
+    public SyntheticStudioGenerator classDefinitions(int classDefinitions) { this.classDefinitions = classDefinitions; return this; }
+    public SyntheticStudioGenerator sessionsPerClass(int sessionsPerClass) { this.sessionsPerClass = sessionsPerClass; return this; }
+    /** Refer to instructors, locations and class definitions by ID instead of embedding them; the studio is the same. */
+    public SyntheticStudioGenerator normalized(boolean normalized) { this.normalized = normalized; return this; }
+
+    public SolverInput generate() {
+        Random random = new Random(seed);
+
+        Map<DayOfWeek, OperatingHoursSpan> windows = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek d : DayOfWeek.values()) {
+            windows.put(d, new OperatingHoursSpan(OPEN, CLOSE));
+        }
+
+        List<SolverStudioLocation> locationList = new ArrayList<>();
+        List<SolverRoom> rooms = new ArrayList<>();
+        for (int l = 0; l < locations; l++) {
+            SolverStudioLocation location = SolverStudioLocation.builder().id(l + 1).name("Location " + (l + 1)).build();
+            locationList.add(location);
+            for (int r = 0; r < roomsPerLocation; r++) {
+                int roomId = l * 100 + r + 1;
+                rooms.add(SolverRoom.builder()
+                    .id(roomId)
+                    .name("Room " + roomId)
+                    .studioLocation(normalized ? null : location)
+                    .studioLocationId(normalized ? location.getId() : null)
+                    .capacity(10 + 5 * random.nextInt(4))
+                    .build());
+            }
+        }
+
+        List<SolverClassDefinition> classDefinitionList = new ArrayList<>();
+        for (int c = 0; c < classDefinitions; c++) {
+            classDefinitionList.add(SolverClassDefinition.builder()
+                .id(c + 1)
+                .name("Class " + (c + 1))
+                .durationMinutes(45 + 15 * random.nextInt(4))
+                .defaultStudioCapacityNeeded(random.nextInt(3) == 0 ? 15 : null)
+                .build());
+        }
+
+        List<SolverInstructor> instructorList = new ArrayList<>();
+        List<SolverPriorityRequest> requests = new ArrayList<>();
+        int nextSlotId = 1;
+        int nextRequestId = 1;
+        for (int i = 0; i < instructors; i++) {
+            List<SolverAvailabilitySlot> slots = new ArrayList<>();
+            for (int a = 0; a < availabilitySlotsPerInstructor; a++) {
+                DayOfWeek day = DayOfWeek.of(1 + random.nextInt(7));
+                int startHour = OPEN.getHour() + random.nextInt(CLOSE.getHour() - OPEN.getHour() - 1);
+                int lengthHours = 1 + random.nextInt(Math.min(4, CLOSE.getHour() - startHour));
+                slots.add(SolverAvailabilitySlot.builder()
+                    .id(nextSlotId++)
+                    .dayOfWeek(day)
+                    .startTime(LocalTime.of(startHour, 0))
+                    .endTime(LocalTime.of(startHour + lengthHours, 0))
+                    .build());
+            }
+
+            List<Integer> qualified = new ArrayList<>();
+            for (SolverClassDefinition def : classDefinitionList) {
+                if (random.nextInt(3) == 0) qualified.add(def.getId());
+            }
+
+            SolverInstructor instructor = SolverInstructor.builder()
+                .id(i + 1)
+                .name("Instructor " + (i + 1))
+                .availabilitySlots(slots)
+                .qualifiedClassDefinitionIds(qualified)
+                .build();
+            instructorList.add(instructor);
+
+            for (int p = 0; p < priorityRequestsPerInstructor; p++) {
+                SolverStudioLocation location = locationList.get(random.nextInt(locationList.size()));
+                requests.add(SolverPriorityRequest.builder()
+                    .id(nextRequestId++)
+                    .instructor(normalized ? null : instructor)
+                    .instructorId(normalized ? instructor.getId() : null)
+                    .studioLocation(normalized ? null : location)
+                    .studioLocationId(normalized ? location.getId() : null)
+                    .blockLengthHours(1 + random.nextInt(maxBlockLengthHours))
+                    .active(true)
+                    .build());
+            }
+        }
+
+        List<SolverClassSessionRequirement> requirements = new ArrayList<>();
+        for (SolverClassDefinition def : classDefinitionList) {
+            SolverStudioLocation location = locationList.get(random.nextInt(locationList.size()));
+            requirements.add(SolverClassSessionRequirement.builder()
+                .id(def.getId())
+                .classDefinition(normalized ? null : def)
+                .classDefinitionId(normalized ? def.getId() : null)
+                .sessionsPerWeek(sessionsPerClass)
+                .studioLocation(normalized ? null : location)
+                .studioLocationId(normalized ? location.getId() : null)
+                .active(true)
+                .build());
+        }
+
+        return SolverInput.builder()
+            .slotMinutes(slotMinutes)
+            .effectiveDayWindows(windows)
+            .studioLocations(normalized ? locationList : null)
+            .instructors(instructorList)
+            .rooms(rooms)
+            .priorityRequests(requests)
+            .classDefinitions(classDefinitionList)
+            .classRequirements(requirements)
+            .build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.studioapp_api.controller;
 
+import com.example.studioapp_api.dto.LockedBlockDTO;
+import com.example.studioapp_api.dto.ScheduledClassDTO;
 import com.example.studioapp_api.dto.SolveRequestDTO;
 import com.example.studioapp_api.dto.SolverJobResponseDTO;
 import com.example.studioapp_api.service.SolverService;
@@ -7,6 +9,8 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/solver")
 public class SolverController {
@@ -32,4 +36,16 @@ public class SolverController {
         SolverJobResponseDTO jobStatus = solverService.getJobStatus(jobId);
         return ResponseEntity.ok(jobStatus);
     }
-}
\ No newline at end of file
+
+    // Stage A placements of a completed job, as written back from the solver's result topic
+    @GetMapping("/results/{jobId}/stage-a")
+    public ResponseEntity<List<LockedBlockDTO>> getStageAResults(@PathVariable String jobId) {
+        return ResponseEntity.ok(solverService.getStageAResults(jobId));
+    }
+
+    // Stage B class sessions of a completed job, written back alongside the Stage A placements
+    @GetMapping("/results/{jobId}/stage-b")
+    public ResponseEntity<List<ScheduledClassDTO>> getStageBResults(@PathVariable String jobId) {
+        return ResponseEntity.ok(solverService.getStageBResults(jobId));
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.studioapp_api.dto;
 
 import lombok.Data;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 // Potentially add start/end dates if the solve isn't just for a full term
 // or specific week numbers within a term.
@@ -23,4 +24,8 @@ public class SolveRequestDTO {
 
     // Optional: Force re-running Stage A even if cached results exist (for later use)
     private boolean forceRunStageA = false; 
+
+    // Optional: CP-SAT workers, time budgets and stop criteria for this solve
+    @Valid
+    private SolverExecutionProfileDTO executionProfile;
 }
\ No newline at end of file
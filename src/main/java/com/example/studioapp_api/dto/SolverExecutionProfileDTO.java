@@ -0,0 +1,40 @@
+package com.example.studioapp_api.dto;
+
+import lombok.Data;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+
+// Optional CP-SAT settings for one solve. Unset fields use the solver-service defaults,
+// and the solver-service caps workers and time limits to its own server-side limits.
+@Data
+public class SolverExecutionProfileDTO {
+
+    @Min(value = 1, message = "Number of search workers must be at least 1.")
+    private Integer numSearchWorkers;
+
+    @Positive(message = "Stage A time limit must be positive.")
+    private Double stageATimeLimitSeconds;
+
+    @Positive(message = "Stage B time limit must be positive.")
+    private Double stageBTimeLimitSeconds;
+
+    @DecimalMin(value = "0.0", message = "Relative gap limit cannot be negative.")
+    @DecimalMax(value = "1.0", message = "Relative gap limit cannot exceed 1.")
+    private Double relativeGapLimit; // e.g. 0.05 stops once within 5% of the best bound
+
+    @Positive(message = "No-improvement timeout must be positive.")
+    private Double noImprovementTimeoutSeconds;
+
+    private boolean deterministic = false; // Reproducible results: stop on CP-SAT deterministic time, not the wall clock
+
+    @Positive(message = "Deterministic time limit must be positive.")
+    private Double deterministicTimeLimit; // Per stage, in CP-SAT deterministic time units
+
+    private boolean coarseToFine = false; // Solve on a coarse grid first, then refine around it on the fine grid
+
+    private Boolean symmetryBreaking; // Null: on
+
+    private boolean stopAtFirstSolution = false; // End each stage at its first feasible timetable
+}
@@ -1,5 +1,6 @@
 package com.example.studioapp_api.dto;
 
+import com.example.studioapp_api.dto.solver_service_dtos.SolveProgressStructure;
 import lombok.Data;
 import lombok.Builder; // For easy construction
 import java.time.OffsetDateTime;
@@ -11,5 +12,6 @@ public class SolverJobResponseDTO {
     private String status; // e.g., "QUEUED", "RUNNING", "COMPLETED", "FAILED"
     private String message;
     private OffsetDateTime submittedAt;
+    private SolveProgressStructure progress; // Latest intermediate Stage A solution while RUNNING, else null
     // Could add links to check status or results later
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.studioapp_api.dto.solver_service_dtos;
+
+import com.example.studioapp_api.dto.LockedBlockDTO;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+// Mirrors the solver-service SolveProgressDTO: the latest improving (not necessarily final) solution of a running stage.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolveProgressStructure {
+    private String stage; // "A"
+    private Double objectiveValue;
+    private Double bestObjectiveBound;
+    private Double wallTimeSeconds; // Since the stage started
+    private Integer solutionCount; // Improving solutions seen so far, published or not
+    private List<LockedBlockDTO> lockedBlocks;
+}
@@ -0,0 +1,24 @@
+package com.example.studioapp_api.dto.solver_service_dtos;
+
+import com.example.studioapp_api.dto.LockedBlockDTO;
+import com.example.studioapp_api.dto.ScheduledClassDTO;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+// Mirrors the solver-service SolveResultMessage published on the result topic when a job starts, for each intermediate
+// Stage A solution, and when it finishes.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolveResultStructure {
+    private String jobId;
+    private String status; // RUNNING, COMPLETED or FAILED
+    private String errorMessage;
+    private List<LockedBlockDTO> stageAResults;
+    private List<ScheduledClassDTO> stageBResults;
+    private List<StageStatisticsStructure> stageStatistics;
+    private SolveProgressStructure progress; // Set on RUNNING updates that carry an intermediate solution
+}
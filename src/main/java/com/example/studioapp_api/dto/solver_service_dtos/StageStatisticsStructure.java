@@ -0,0 +1,29 @@
+package com.example.studioapp_api.dto.solver_service_dtos;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// Mirrors the solver-service StageStatisticsDTO reported for each stage of a finished job.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StageStatisticsStructure {
+    private String stage;
+    private Integer components;
+    private Integer requestCount;
+    private Integer variables;
+    private Integer constraints;
+    private Long modelBytes;
+    private Double modelBuildSeconds;
+    private String status;
+    private Double objectiveValue;
+    private Double bestObjectiveBound;
+    private Double relativeGap;
+    private Double warmStartObjectiveValue;
+    private Double timeLimitSeconds;
+    private Double firstSolutionSeconds;
+    private Double optimalSeconds;
+    private Double wallTimeSeconds;
+    private Double deterministicTime;
+}
@@ -35,6 +35,23 @@ public class SolverJob {
     @Column(name = "error_message")
     private String errorMessage;
 
+    // Summary of the latest intermediate solution while RUNNING; its blocks are the job's solver_job_placements rows.
+    // Cleared when the job finishes.
+    @Column(name = "progress_stage", length = 1)
+    private String progressStage;
+
+    @Column(name = "progress_objective_value")
+    private Double progressObjectiveValue;
+
+    @Column(name = "progress_best_objective_bound")
+    private Double progressBestObjectiveBound;
+
+    @Column(name = "progress_wall_time_seconds")
+    private Double progressWallTimeSeconds;
+
+    @Column(name = "progress_solution_count")
+    private Integer progressSolutionCount;
+
     // Standard getters and setters
 
     public String getJobId() {
@@ -108,4 +125,44 @@ public class SolverJob {
     public void setErrorMessage(String errorMessage) {
         this.errorMessage = errorMessage;
     }
+
+    public String getProgressStage() {
+        return progressStage;
+    }
+
+    public void setProgressStage(String progressStage) {
+        this.progressStage = progressStage;
+    }
+
+    public Double getProgressObjectiveValue() {
+        return progressObjectiveValue;
+    }
+
+    public void setProgressObjectiveValue(Double progressObjectiveValue) {
+        this.progressObjectiveValue = progressObjectiveValue;
+    }
+
+    public Double getProgressBestObjectiveBound() {
+        return progressBestObjectiveBound;
+    }
+
+    public void setProgressBestObjectiveBound(Double progressBestObjectiveBound) {
+        this.progressBestObjectiveBound = progressBestObjectiveBound;
+    }
+
+    public Double getProgressWallTimeSeconds() {
+        return progressWallTimeSeconds;
+    }
+
+    public void setProgressWallTimeSeconds(Double progressWallTimeSeconds) {
+        this.progressWallTimeSeconds = progressWallTimeSeconds;
+    }
+
+    public Integer getProgressSolutionCount() {
+        return progressSolutionCount;
+    }
+
+    public void setProgressSolutionCount(Integer progressSolutionCount) {
+        this.progressSolutionCount = progressSolutionCount;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.example.studioapp_api.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// One Stage B class session placed by a finished solver job, stored next to the job's Stage A placements and
+// written and read back the same way.
+@Entity
+@Table(name = "solver_job_class_placements",
+       indexes = @Index(name = "idx_solver_job_class_placements_job_requirement", columnList = "job_id, class_session_requirement_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolverJobClassPlacement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "class_session_requirement_id")
+    private Integer classSessionRequirementId;
+
+    @Column(name = "session_index")
+    private Integer sessionIndex; // 0-based, among the requirement's sessionsPerWeek
+
+    @Column(name = "class_definition_id")
+    private Integer classDefinitionId;
+
+    @Column(name = "class_definition_name", length = 255)
+    private String classDefinitionName;
+
+    @Column(name = "instructor_id")
+    private Integer instructorId;
+
+    @Column(name = "instructor_name", length = 255)
+    private String instructorName;
+
+    @Column(name = "room_id")
+    private Integer roomId;
+
+    @Column(name = "room_name", length = 255)
+    private String roomName;
+
+    @Column(name = "studio_location_id")
+    private Integer studioLocationId;
+
+    @Column(name = "studio_location_name", length = 255)
+    private String studioLocationName;
+
+    @Column(name = "start_slot")
+    private Integer startSlot; // The solver's slot index within the week
+
+    @Column(name = "length_slots")
+    private Integer lengthSlots;
+
+    @Column(name = "day_of_week", length = 10)
+    private String dayOfWeek;
+
+    @Column(name = "start_time", length = 5)
+    private String startTime; // "HH:mm", as the solver formats it
+
+    @Column(name = "end_time", length = 5)
+    private String endTime;
+
+    // --- Relationships ---
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    private SolverJob solverJob;
+}
@@ -0,0 +1,62 @@
+package com.example.studioapp_api.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// One Stage A block of a solver job, as reported on the result topic: from its latest intermediate solution while it
+// runs, then from its final result. Rows are replaced in bulk when a result arrives and read back by job, so
+// getStageAResults is a single indexed query.
+@Entity
+@Table(name = "solver_job_placements",
+       indexes = @Index(name = "idx_solver_job_placements_job_instructor_room", columnList = "job_id, instructor_id, room_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolverJobPlacement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "instructor_id")
+    private Integer instructorId;
+
+    @Column(name = "instructor_name", length = 255)
+    private String instructorName;
+
+    @Column(name = "room_id")
+    private Integer roomId;
+
+    @Column(name = "room_name", length = 255)
+    private String roomName;
+
+    @Column(name = "studio_location_id")
+    private Integer studioLocationId;
+
+    @Column(name = "studio_location_name", length = 255)
+    private String studioLocationName;
+
+    @Column(name = "start_slot")
+    private Integer startSlot; // The solver's slot index within the week
+
+    @Column(name = "length_slots")
+    private Integer lengthSlots;
+
+    @Column(name = "day_of_week", length = 10)
+    private String dayOfWeek;
+
+    @Column(name = "start_time", length = 5)
+    private String startTime; // "HH:mm", as the solver formats it
+
+    @Column(name = "end_time", length = 5)
+    private String endTime;
+
+    // --- Relationships ---
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    private SolverJob solverJob;
+}
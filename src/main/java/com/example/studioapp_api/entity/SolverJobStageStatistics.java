@@ -0,0 +1,65 @@
+package com.example.studioapp_api.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.OffsetDateTime;
+
+// Model size and search outcome of one solver stage of a finished job. Past rows drive the
+// time budget SolverBudgetService picks for new jobs of a similar size.
+@Entity
+@Table(name = "solver_job_stage_statistics",
+       indexes = @Index(name = "idx_solver_job_stage_statistics_stage_size", columnList = "stage, request_count"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolverJobStageStatistics {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stage", nullable = false, length = 1)
+    private String stage; // "A" or "B"
+
+    @Column(name = "request_count", nullable = false)
+    private Integer requestCount; // Priority requests (Stage A) or class sessions (Stage B)
+
+    @Column(name = "variables")
+    private Integer variables;
+
+    @Column(name = "constraints")
+    private Integer constraints;
+
+    @Column(name = "status", length = 20)
+    private String status; // CP-SAT status name
+
+    @Column(name = "time_limit_seconds")
+    private Double timeLimitSeconds;
+
+    @Column(name = "first_solution_seconds")
+    private Double firstSolutionSeconds; // Null when no solution was found
+
+    @Column(name = "optimal_seconds")
+    private Double optimalSeconds; // Null unless optimality was proven
+
+    @Column(name = "relative_gap")
+    private Double relativeGap;
+
+    @Column(name = "wall_time_seconds")
+    private Double wallTimeSeconds;
+
+    @CreationTimestamp
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private OffsetDateTime recordedAt;
+
+    // --- Relationships ---
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    private SolverJob solverJob;
+}
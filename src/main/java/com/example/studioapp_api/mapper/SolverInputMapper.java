@@ -1,5 +1,6 @@
 package com.example.studioapp_api.mapper;
 
+import com.example.studioapp_api.dto.SolverExecutionProfileDTO;
 import com.example.studioapp_api.entity.*;
 // The solver-service models are defined independently in that module.
 // This mapper will map JPA entities to local DTOs that mirror the structure
@@ -7,8 +8,12 @@ import com.example.studioapp_api.entity.*;
 
 import com.example.studioapp_api.solver.OperatingHoursSpan; // Re-using from main app for simplicity, or define locally.
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.time.DayOfWeek; // For mapping DayOfWeekEnum
 
@@ -38,21 +43,25 @@ public class SolverInputMapper {
         private Integer id;
         private String name;
         private List<LocalSolverAvailabilitySlot> availabilitySlots;
+        private List<Integer> qualifiedClassDefinitionIds;
     }
 
     @lombok.Data @lombok.Builder @lombok.NoArgsConstructor @lombok.AllArgsConstructor
     public static class LocalSolverRoom {
         private Integer id;
         private String name;
-        private LocalSolverStudioLocation studioLocation;
+        private Integer studioLocationId;
+        private Integer capacity;
+        private Map<DayOfWeek, OperatingHoursSpan> operatingHours;
     }
 
     @lombok.Data @lombok.Builder @lombok.NoArgsConstructor @lombok.AllArgsConstructor
     public static class LocalSolverPriorityRequest {
         private Integer id;
-        private LocalSolverInstructor instructor;
-        private LocalSolverStudioLocation studioLocation;
+        private Integer instructorId;
+        private Integer studioLocationId;
         private int blockLengthHours;
+        private Integer relativePriority;
         private boolean active;
     }
 
@@ -61,22 +70,41 @@ public class SolverInputMapper {
         private Integer id;
         private String name;
         private int durationMinutes; // Corrected field name
+        private Integer defaultStudioCapacityNeeded;
     }
 
     @lombok.Data @lombok.Builder @lombok.NoArgsConstructor @lombok.AllArgsConstructor
     public static class LocalSolverClassSessionRequirement {
         private Integer id;
-        private LocalSolverClassDefinition classDefinition;
+        private Integer classDefinitionId;
         private int sessionsPerWeek; // Corrected field name
-        private LocalSolverStudioLocation studioLocation;
+        private Integer studioLocationId;
         private boolean active;
     }
 
-    // DTO for the overall SolverInput structure expected by the solver-service
+    @lombok.Data @lombok.Builder @lombok.NoArgsConstructor @lombok.AllArgsConstructor
+    public static class LocalSolverExecutionProfile {
+        private Integer numSearchWorkers;
+        private Double stageATimeLimitSeconds;
+        private Double stageBTimeLimitSeconds;
+        private Double relativeGapLimit;
+        private Double noImprovementTimeoutSeconds;
+        private boolean deterministic;
+        private Double deterministicTimeLimit;
+        private boolean coarseToFine;
+        private Boolean symmetryBreaking;
+        private boolean stopAtFirstSolution;
+    }
+
+    // DTO for the overall SolverInput structure expected by the solver-service.
+    // Normalized: each location, instructor and class definition is sent once in its table and rooms, requests and
+    // requirements refer to it by ID, so an instructor's availability is no longer repeated for every request.
     @lombok.Data @lombok.Builder @lombok.NoArgsConstructor @lombok.AllArgsConstructor
     public static class LocalSolverServiceInput {
         private int slotMinutes;
+        private LocalSolverExecutionProfile executionProfile;
         private java.util.Map<java.time.DayOfWeek, OperatingHoursSpan> effectiveDayWindows;
+        private List<LocalSolverStudioLocation> studioLocations;
         private List<LocalSolverInstructor> instructors;
         private List<LocalSolverRoom> rooms;
         private List<LocalSolverPriorityRequest> priorityRequests;
@@ -117,9 +145,18 @@ public class SolverInputMapper {
                 .id(entity.getId())
                 .name(entity.getName())
                 .availabilitySlots(toSolverAvailabilitySlots(entity.getAvailabilitySlots()))
+                .qualifiedClassDefinitionIds(toQualifiedClassDefinitionIds(entity.getClassQualifications()))
                 .build();
     }
 
+    // Reads the IDs off the composite key so the ClassDefinition side of each qualification is never loaded.
+    public static List<Integer> toQualifiedClassDefinitionIds(List<InstructorClassQualification> entities) {
+        if (entities == null) return Collections.emptyList();
+        return entities.stream()
+                .map(q -> q.getId().getClassDefinitionId())
+                .collect(Collectors.toList());
+    }
+
     public static List<LocalSolverInstructor> toSolverInstructors(List<Instructor> entities) {
         if (entities == null) return Collections.emptyList();
         return entities.stream().map(SolverInputMapper::toSolverInstructor).collect(Collectors.toList());
@@ -130,10 +167,22 @@ public class SolverInputMapper {
         return LocalSolverRoom.builder()
                 .id(entity.getId())
                 .name(entity.getName())
-                .studioLocation(toSolverStudioLocation(entity.getStudioLocation()))
+                .studioLocationId(entity.getStudioLocation() != null ? entity.getStudioLocation().getId() : null)
+                .capacity(entity.getCapacity())
+                .operatingHours(toOperatingHours(entity.getOperatingHours()))
                 .build();
     }
 
+    // Null (no hours recorded) lets the solver treat the room as open whenever the master grid is.
+    public static Map<DayOfWeek, OperatingHoursSpan> toOperatingHours(List<RoomOperatingHours> entities) {
+        if (entities == null || entities.isEmpty()) return null;
+        Map<DayOfWeek, OperatingHoursSpan> hours = new EnumMap<>(DayOfWeek.class);
+        for (RoomOperatingHours entity : entities) {
+            hours.put(entity.getDayOfWeek().toJavaTimeDayOfWeek(), new OperatingHoursSpan(entity.getStartTime(), entity.getEndTime()));
+        }
+        return hours;
+    }
+
     public static List<LocalSolverRoom> toSolverRooms(List<Room> entities) {
         if (entities == null) return Collections.emptyList();
         return entities.stream().map(SolverInputMapper::toSolverRoom).collect(Collectors.toList());
@@ -143,9 +192,10 @@ public class SolverInputMapper {
         if (entity == null) return null;
         return LocalSolverPriorityRequest.builder()
                 .id(entity.getId())
-                .instructor(toSolverInstructor(entity.getInstructor()))
-                .studioLocation(toSolverStudioLocation(entity.getStudioLocation()))
+                .instructorId(entity.getInstructor() != null ? entity.getInstructor().getId() : null)
+                .studioLocationId(entity.getStudioLocation() != null ? entity.getStudioLocation().getId() : null)
                 .blockLengthHours(entity.getBlockLengthHours())
+                .relativePriority(entity.getRelativePriority())
                 .active(entity.isActive())
                 .build();
     }
@@ -161,6 +211,7 @@ public class SolverInputMapper {
                 .id(entity.getId())
                 .name(entity.getName())
                 .durationMinutes(entity.getDurationMinutes()) // Corrected getter
+                .defaultStudioCapacityNeeded(entity.getDefaultStudioCapacityNeeded())
                 .build();
     }
 
@@ -173,9 +224,9 @@ public class SolverInputMapper {
         if (entity == null) return null;
         return LocalSolverClassSessionRequirement.builder()
                 .id(entity.getId())
-                .classDefinition(toSolverClassDefinition(entity.getClassDefinition()))
+                .classDefinitionId(entity.getClassDefinition() != null ? entity.getClassDefinition().getId() : null)
                 .sessionsPerWeek(entity.getSessionsPerWeek()) // Corrected getter
-                .studioLocation(toSolverStudioLocation(entity.getStudioLocation()))
+                .studioLocationId(entity.getStudioLocation() != null ? entity.getStudioLocation().getId() : null)
                 .active(entity.isActive())
                 .build();
     }
@@ -185,6 +236,40 @@ public class SolverInputMapper {
         return entities.stream().map(SolverInputMapper::toSolverClassSessionRequirement).collect(Collectors.toList());
     }
 
+    // Every location a room, request or requirement refers to, once each, in first-seen order.
+    public static List<LocalSolverStudioLocation> toSolverStudioLocations(
+            List<Room> rooms,
+            List<InstructorPriorityRequest> priorityRequests,
+            List<ClassSessionRequirement> classRequirements) {
+        Map<Integer, LocalSolverStudioLocation> locations = new LinkedHashMap<>();
+        if (rooms != null) rooms.forEach(r -> addStudioLocation(locations, r.getStudioLocation()));
+        if (priorityRequests != null) priorityRequests.forEach(r -> addStudioLocation(locations, r.getStudioLocation()));
+        if (classRequirements != null) classRequirements.forEach(r -> addStudioLocation(locations, r.getStudioLocation()));
+        return new ArrayList<>(locations.values());
+    }
+
+    private static void addStudioLocation(Map<Integer, LocalSolverStudioLocation> locations, StudioLocation entity) {
+        if (entity != null && entity.getId() != null) {
+            locations.computeIfAbsent(entity.getId(), id -> toSolverStudioLocation(entity));
+        }
+    }
+
+    public static LocalSolverExecutionProfile toSolverExecutionProfile(SolverExecutionProfileDTO dto) {
+        if (dto == null) return null;
+        return LocalSolverExecutionProfile.builder()
+                .numSearchWorkers(dto.getNumSearchWorkers())
+                .stageATimeLimitSeconds(dto.getStageATimeLimitSeconds())
+                .stageBTimeLimitSeconds(dto.getStageBTimeLimitSeconds())
+                .relativeGapLimit(dto.getRelativeGapLimit())
+                .noImprovementTimeoutSeconds(dto.getNoImprovementTimeoutSeconds())
+                .deterministic(dto.isDeterministic())
+                .deterministicTimeLimit(dto.getDeterministicTimeLimit())
+                .coarseToFine(dto.isCoarseToFine())
+                .symmetryBreaking(dto.getSymmetryBreaking())
+                .stopAtFirstSolution(dto.isStopAtFirstSolution())
+                .build();
+    }
+
     // This method will be used by SolverServiceImpl to construct the LocalSolverServiceInput DTO
     public static LocalSolverServiceInput createSolverServiceInputStructure(
             int slotMinutes,
@@ -198,6 +283,7 @@ public class SolverInputMapper {
         return LocalSolverServiceInput.builder()
                 .slotMinutes(slotMinutes)
                 .effectiveDayWindows(effectiveDayWindows)
+                .studioLocations(toSolverStudioLocations(rooms, priorityRequests, classRequirements))
                 .instructors(toSolverInstructors(instructors))
                 .rooms(toSolverRooms(rooms))
                 .priorityRequests(toSolverPriorityRequests(priorityRequests))
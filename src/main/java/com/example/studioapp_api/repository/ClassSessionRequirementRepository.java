@@ -2,6 +2,8 @@ package com.example.studioapp_api.repository;
 
 import com.example.studioapp_api.entity.ClassSessionRequirement;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +14,14 @@ public interface ClassSessionRequirementRepository
     extends JpaRepository<ClassSessionRequirement, Integer> {
 
     List<ClassSessionRequirement> findByTermId(Integer termId);
+
+    // Solve snapshot: active requirements for the organization's classes in the term, with class and location.
+    @Query("SELECT r FROM ClassSessionRequirement r JOIN FETCH r.classDefinition d LEFT JOIN FETCH r.studioLocation " +
+           "WHERE r.term.id = :termId AND d.organization.id = :organizationId AND r.isActive = true " +
+           "AND (:studioLocationId IS NULL OR r.studioLocation IS NULL OR r.studioLocation.id = :studioLocationId) ORDER BY r.id")
+    List<ClassSessionRequirement> findForSolve(@Param("termId") Integer termId,
+                                               @Param("organizationId") Integer organizationId,
+                                               @Param("studioLocationId") Integer studioLocationId);
     List<ClassSessionRequirement> findByTermIdAndClassDefinitionId(Integer termId, Integer classDefinitionId);
     
     // For uniqueness check where studioLocationId is NOT NULL
@@ -2,6 +2,8 @@ package com.example.studioapp_api.repository;
 
 import com.example.studioapp_api.entity.InstructorPriorityRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +14,15 @@ public interface InstructorPriorityRequestRepository
 
     List<InstructorPriorityRequest> findByInstructorId(Integer instructorId);
     List<InstructorPriorityRequest> findByTermId(Integer termId);
+
+    // Solve snapshot: active requests of the organization's instructors for the term, with instructor and location.
+    // With a location, requests for other locations are left out; requests without one always apply.
+    @Query("SELECT r FROM InstructorPriorityRequest r JOIN FETCH r.instructor i LEFT JOIN FETCH r.studioLocation " +
+           "WHERE r.term.id = :termId AND i.organization.id = :organizationId AND r.isActive = true " +
+           "AND (:studioLocationId IS NULL OR r.studioLocation IS NULL OR r.studioLocation.id = :studioLocationId) ORDER BY r.id")
+    List<InstructorPriorityRequest> findForSolve(@Param("termId") Integer termId,
+                                                 @Param("organizationId") Integer organizationId,
+                                                 @Param("studioLocationId") Integer studioLocationId);
     List<InstructorPriorityRequest> findByInstructorIdAndTermId(Integer instructorId, Integer termId);
     // Add more specific finders as needed, e.g., by isActive status, by organization via instructor/term
 }
\ No newline at end of file
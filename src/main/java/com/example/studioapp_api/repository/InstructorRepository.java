@@ -3,6 +3,8 @@ package com.example.studioapp_api.repository;
 import com.example.studioapp_api.entity.Instructor;
 // import com.example.studioapp_api.entity.Organization; // Not strictly needed if using ByOrganizationId
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,6 +15,14 @@ public interface InstructorRepository extends JpaRepository<Instructor, Integer>
 
     List<Instructor> findByOrganizationId(Integer organizationId);
 
+    // Solve snapshot. Two bags cannot be fetched in one query, so qualifications come from a second query that
+    // returns the same (already managed) instructors, in the same order, with both collections loaded.
+    @Query("SELECT DISTINCT i FROM Instructor i LEFT JOIN FETCH i.availabilitySlots WHERE i.organization.id = :organizationId ORDER BY i.id")
+    List<Instructor> findWithAvailabilityByOrganizationId(@Param("organizationId") Integer organizationId);
+
+    @Query("SELECT DISTINCT i FROM Instructor i LEFT JOIN FETCH i.classQualifications WHERE i.organization.id = :organizationId ORDER BY i.id")
+    List<Instructor> findWithClassQualificationsByOrganizationId(@Param("organizationId") Integer organizationId);
+
     // For unique constraint (organization_id, name)
     Optional<Instructor> findByOrganizationIdAndName(Integer organizationId, String name);
 
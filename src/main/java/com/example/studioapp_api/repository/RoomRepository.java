@@ -3,6 +3,8 @@ package com.example.studioapp_api.repository;
 import com.example.studioapp_api.entity.Room;
 import com.example.studioapp_api.entity.StudioLocation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,6 +19,11 @@ public interface RoomRepository extends JpaRepository<Room, Integer> {
     // Find all rooms belonging to a specific studio location by its ID
     List<Room> findByStudioLocationId(Integer studioLocationId);
 
+    // Solve snapshot: the organization's rooms (or one location's) with their location and operating hours.
+    @Query("SELECT DISTINCT r FROM Room r JOIN FETCH r.studioLocation l LEFT JOIN FETCH r.operatingHours " +
+           "WHERE l.organization.id = :organizationId AND (:studioLocationId IS NULL OR l.id = :studioLocationId) ORDER BY l.id, r.id")
+    List<Room> findForSolve(@Param("organizationId") Integer organizationId, @Param("studioLocationId") Integer studioLocationId);
+
     // Find a specific room by its name within a specific studio location object
     Optional<Room> findByStudioLocationAndName(StudioLocation studioLocation, String name);
 
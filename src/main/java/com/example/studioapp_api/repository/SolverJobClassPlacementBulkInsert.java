@@ -0,0 +1,11 @@
+package com.example.studioapp_api.repository;
+
+import com.example.studioapp_api.entity.SolverJobClassPlacement;
+
+import java.util.List;
+
+// Batched JDBC insert for Stage B result placements, as SolverJobPlacementBulkInsert does for Stage A.
+public interface SolverJobClassPlacementBulkInsert {
+
+    void insertAll(String jobId, List<SolverJobClassPlacement> placements);
+}
@@ -0,0 +1,46 @@
+package com.example.studioapp_api.repository;
+
+import com.example.studioapp_api.entity.SolverJobClassPlacement;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+// Picked up by Spring Data as the implementation of the SolverJobClassPlacementBulkInsert fragment.
+class SolverJobClassPlacementBulkInsertImpl implements SolverJobClassPlacementBulkInsert {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_SQL = "INSERT INTO solver_job_class_placements "
+        + "(job_id, class_session_requirement_id, session_index, class_definition_id, class_definition_name, "
+        + "instructor_id, instructor_name, room_id, room_name, studio_location_id, studio_location_name, "
+        + "start_slot, length_slots, day_of_week, start_time, end_time) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SolverJobClassPlacementBulkInsertImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(String jobId, List<SolverJobClassPlacement> placements) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, placements, BATCH_SIZE, (ps, p) -> {
+            ps.setString(1, jobId);
+            ps.setObject(2, p.getClassSessionRequirementId(), Types.INTEGER);
+            ps.setObject(3, p.getSessionIndex(), Types.INTEGER);
+            ps.setObject(4, p.getClassDefinitionId(), Types.INTEGER);
+            ps.setString(5, p.getClassDefinitionName());
+            ps.setObject(6, p.getInstructorId(), Types.INTEGER);
+            ps.setString(7, p.getInstructorName());
+            ps.setObject(8, p.getRoomId(), Types.INTEGER);
+            ps.setString(9, p.getRoomName());
+            ps.setObject(10, p.getStudioLocationId(), Types.INTEGER);
+            ps.setString(11, p.getStudioLocationName());
+            ps.setObject(12, p.getStartSlot(), Types.INTEGER);
+            ps.setObject(13, p.getLengthSlots(), Types.INTEGER);
+            ps.setString(14, p.getDayOfWeek());
+            ps.setString(15, p.getStartTime());
+            ps.setString(16, p.getEndTime());
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.studioapp_api.repository;
+
+import com.example.studioapp_api.entity.SolverJobClassPlacement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SolverJobClassPlacementRepository
+        extends JpaRepository<SolverJobClassPlacement, Long>, SolverJobClassPlacementBulkInsert {
+
+    List<SolverJobClassPlacement> findBySolverJobJobIdOrderByStartSlotAsc(String jobId);
+
+    @Modifying
+    @Query("DELETE FROM SolverJobClassPlacement p WHERE p.solverJob.jobId = :jobId")
+    int deleteBySolverJobId(@Param("jobId") String jobId);
+}
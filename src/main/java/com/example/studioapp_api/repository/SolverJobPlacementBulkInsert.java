@@ -0,0 +1,11 @@
+package com.example.studioapp_api.repository;
+
+import com.example.studioapp_api.entity.SolverJobPlacement;
+
+import java.util.List;
+
+// Batched JDBC insert for result placements; IDENTITY ids keep Hibernate from batching saveAll.
+public interface SolverJobPlacementBulkInsert {
+
+    void insertAll(String jobId, List<SolverJobPlacement> placements);
+}
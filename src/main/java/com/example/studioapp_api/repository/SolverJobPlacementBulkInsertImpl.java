@@ -0,0 +1,40 @@
+package com.example.studioapp_api.repository;
+
+import com.example.studioapp_api.entity.SolverJobPlacement;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+// Picked up by Spring Data as the implementation of the SolverJobPlacementBulkInsert fragment.
+class SolverJobPlacementBulkInsertImpl implements SolverJobPlacementBulkInsert {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_SQL = "INSERT INTO solver_job_placements "
+        + "(job_id, instructor_id, instructor_name, room_id, room_name, studio_location_id, studio_location_name, "
+        + "start_slot, length_slots, day_of_week, start_time, end_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SolverJobPlacementBulkInsertImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(String jobId, List<SolverJobPlacement> placements) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, placements, BATCH_SIZE, (ps, p) -> {
+            ps.setString(1, jobId);
+            ps.setObject(2, p.getInstructorId(), Types.INTEGER);
+            ps.setString(3, p.getInstructorName());
+            ps.setObject(4, p.getRoomId(), Types.INTEGER);
+            ps.setString(5, p.getRoomName());
+            ps.setObject(6, p.getStudioLocationId(), Types.INTEGER);
+            ps.setString(7, p.getStudioLocationName());
+            ps.setObject(8, p.getStartSlot(), Types.INTEGER);
+            ps.setObject(9, p.getLengthSlots(), Types.INTEGER);
+            ps.setString(10, p.getDayOfWeek());
+            ps.setString(11, p.getStartTime());
+            ps.setString(12, p.getEndTime());
+        });
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.studioapp_api.repository;
+
+import com.example.studioapp_api.entity.SolverJobPlacement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SolverJobPlacementRepository extends JpaRepository<SolverJobPlacement, Long>, SolverJobPlacementBulkInsert {
+
+    List<SolverJobPlacement> findBySolverJobJobIdOrderByStartSlotAsc(String jobId);
+
+    @Modifying
+    @Query("DELETE FROM SolverJobPlacement p WHERE p.solverJob.jobId = :jobId")
+    int deleteBySolverJobId(@Param("jobId") String jobId);
+}
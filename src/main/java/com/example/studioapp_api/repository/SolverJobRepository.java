@@ -1,9 +1,20 @@
 package com.example.studioapp_api.repository;
 
 import com.example.studioapp_api.entity.SolverJob;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface SolverJobRepository extends JpaRepository<SolverJob, String> {
-}
\ No newline at end of file
+
+    // Row lock held until the transaction ends, so results for one job arriving together are applied one at a time.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM SolverJob j WHERE j.jobId = :jobId")
+    Optional<SolverJob> findForUpdate(@Param("jobId") String jobId);
+}
@@ -0,0 +1,17 @@
+package com.example.studioapp_api.repository;
+
+import com.example.studioapp_api.entity.SolverJobStageStatistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SolverJobStageStatisticsRepository extends JpaRepository<SolverJobStageStatistics, Long> {
+
+    // Most recent runs of a stage whose size falls within [minRequests, maxRequests]
+    List<SolverJobStageStatistics> findTop50ByStageAndRequestCountBetweenOrderByRecordedAtDesc(
+        String stage, Integer minRequests, Integer maxRequests);
+
+    List<SolverJobStageStatistics> findBySolverJobJobId(String jobId);
+}
@@ -0,0 +1,233 @@
+package com.example.studioapp_api.service;
+
+import com.example.studioapp_api.dto.solver_service_dtos.SolveResultStructure;
+import com.example.studioapp_api.entity.ClassSessionRequirement;
+import com.example.studioapp_api.entity.Instructor;
+import com.example.studioapp_api.entity.InstructorPriorityRequest;
+import com.example.studioapp_api.entity.Room;
+import com.example.studioapp_api.mapper.SolverInputMapper;
+import com.example.studioapp_api.solver.DanceTimetableSolver;
+import com.example.studioapp_api.solver.OperatingHoursSpan;
+import com.example.studioapp_api.solver.SolverInput;
+import com.example.studioapp_api.solver.SolverOutput;
+import com.google.ortools.Loader;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Solves small jobs in this process instead of publishing them to solver-service, so a studio of a few instructors
+ * gets its result in milliseconds rather than after a Pub/Sub round trip.
+ * <p>
+ * The in-process solver is the API's own Stage A model. It has no Stage B, books each request into the first room of
+ * its location, plans on the master grid alone, and has none of solver-service's availability reduction or greedy
+ * warm start. The threshold is therefore narrow by design: a job qualifies only where that model gives
+ * solver-service's answer, so the two paths never return different timetables for the same job. It must stay under
+ * every {@code solver.inline.*} limit, need no Stage B, have exactly one room per requested location, and no room may
+ * be closed while the master grid is open. Most studios with class requirements or several rooms per location still go
+ * to solver-service. InlineSolveExecutorTest and solver-service's InlineParityTest hold both engines to the same
+ * placements for one such job.
+ * <p>
+ * The budgeted execution profile applies within the {@code solver.inline.*} caps. A job first takes one of the pool's
+ * {@code threads + queue-capacity} places with {@link #tryReserve}; when none is free the caller publishes the job as
+ * usual. Status, placements and Stage A statistics are recorded through {@link SolverResultService#applyResult},
+ * exactly as for results arriving from the result topic.
+ */
+@Component
+public class InlineSolveExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(InlineSolveExecutor.class);
+
+    private final Supplier<DanceTimetableSolver> solverFactory;
+    private final SolverResultService solverResultService;
+    private final boolean enabled;
+    private final int maxInstructors;
+    private final int maxPriorityRequests;
+    private final int maxModelVariables;
+    private final Semaphore places;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public InlineSolveExecutor(ObjectProvider<DanceTimetableSolver> solverProvider,
+                               SolverResultService solverResultService,
+                               @Value("${solver.inline.enabled:true}") boolean enabled,
+                               @Value("${solver.inline.max-instructors:10}") int maxInstructors,
+                               @Value("${solver.inline.max-priority-requests:25}") int maxPriorityRequests,
+                               @Value("${solver.inline.max-model-variables:500}") int maxModelVariables,
+                               @Value("${solver.inline.threads:2}") int threads,
+                               @Value("${solver.inline.queue-capacity:8}") int queueCapacity) {
+        this(solverProvider::getObject, solverResultService, enabled, maxInstructors, maxPriorityRequests,
+                maxModelVariables, threads, queueCapacity);
+        if (enabled) {
+            // Loading the OR-Tools natives takes seconds; do it now rather than in the first small job.
+            executor.execute(Loader::loadNativeLibraries);
+        }
+    }
+
+    InlineSolveExecutor(Supplier<DanceTimetableSolver> solverFactory,
+                        SolverResultService solverResultService,
+                        boolean enabled,
+                        int maxInstructors,
+                        int maxPriorityRequests,
+                        int maxModelVariables,
+                        int threads,
+                        int queueCapacity) {
+        this.solverFactory = solverFactory;
+        this.solverResultService = solverResultService;
+        this.enabled = enabled;
+        this.maxInstructors = maxInstructors;
+        this.maxPriorityRequests = maxPriorityRequests;
+        this.maxModelVariables = maxModelVariables;
+        int poolSize = Math.max(1, threads);
+        this.places = new Semaphore(poolSize + Math.max(0, queueCapacity));
+        AtomicInteger threadNumber = new AtomicInteger();
+        // The queue itself is unbounded; the reserved places are what bound it.
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "inline-solve-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /** Whether the job is small and simple enough to solve here; it goes to solver-service otherwise. */
+    public boolean accepts(List<Instructor> instructors,
+                           List<Room> rooms,
+                           List<InstructorPriorityRequest> priorityRequests,
+                           List<ClassSessionRequirement> classRequirements,
+                           Map<DayOfWeek, OperatingHoursSpan> effectiveDayWindows) {
+        if (!enabled) return false;
+        if (!classRequirements.isEmpty()) return false; // The in-process solver only runs Stage A
+        if (instructors.size() > maxInstructors || priorityRequests.size() > maxPriorityRequests) return false;
+        if (!oneRoomPerRequestedLocation(rooms, priorityRequests)) return false;
+        if (!rooms.stream().allMatch(room -> openWheneverTheGridIs(room, effectiveDayWindows))) return false;
+        return estimatedModelVariables(instructors, priorityRequests) <= maxModelVariables;
+    }
+
+    /**
+     * The in-process solver books a request into the first room of its location, or the first room of all without
+     * one, so it only finds solver-service's placements when that is the only room the request could use.
+     */
+    static boolean oneRoomPerRequestedLocation(List<Room> rooms, List<InstructorPriorityRequest> priorityRequests) {
+        Map<Integer, Long> roomsByLocation = rooms.stream()
+                .collect(Collectors.groupingBy(room -> room.getStudioLocation().getId(), Collectors.counting()));
+        return priorityRequests.stream().allMatch(request -> request.getStudioLocation() != null
+                ? roomsByLocation.getOrDefault(request.getStudioLocation().getId(), 0L) == 1
+                : rooms.size() == 1);
+    }
+
+    /**
+     * The in-process solver ignores room operating hours, which is only right for a room with none recorded or whose
+     * hours cover the master grid on every day it is open.
+     */
+    static boolean openWheneverTheGridIs(Room room, Map<DayOfWeek, OperatingHoursSpan> effectiveDayWindows) {
+        Map<DayOfWeek, OperatingHoursSpan> hours = SolverInputMapper.toOperatingHours(room.getOperatingHours());
+        if (hours == null) return true; // Open whenever the master grid is, for solver-service too
+        return effectiveDayWindows.entrySet().stream().allMatch(day -> {
+            OperatingHoursSpan window = day.getValue();
+            if (window == null || !window.getStart().isBefore(window.getEnd())) return true; // Grid closed that day
+            OperatingHoursSpan open = hours.get(day.getKey());
+            return open != null
+                    && !open.getStart().isAfter(window.getStart()) && !open.getEnd().isBefore(window.getEnd());
+        });
+    }
+
+    /**
+     * Variables the in-process Stage A model creates: start, end and presence per request, plus one literal per
+     * availability window of the request's instructor.
+     */
+    static long estimatedModelVariables(List<Instructor> instructors, List<InstructorPriorityRequest> priorityRequests) {
+        Map<Integer, Integer> windowsByInstructor = instructors.stream().collect(Collectors.toMap(
+                Instructor::getId,
+                i -> i.getAvailabilitySlots() != null ? i.getAvailabilitySlots().size() : 0,
+                (a, b) -> a));
+        long variables = 0;
+        for (InstructorPriorityRequest request : priorityRequests) {
+            Integer instructorId = request.getInstructor() != null ? request.getInstructor().getId() : null;
+            variables += 3 + windowsByInstructor.getOrDefault(instructorId, 0);
+        }
+        return variables;
+    }
+
+    /** Takes a place in the pool for one job; false when the pool is full and the job should go to solver-service. */
+    public boolean tryReserve() {
+        boolean reserved = places.tryAcquire();
+        if (!reserved) {
+            logger.warn("In-process solve pool full ({} running, {} queued); sending the job to solver-service.",
+                    executor.getActiveCount(), executor.getQueue().size());
+        }
+        return reserved;
+    }
+
+    /** Gives back a place reserved for a job that will not be submitted, e.g. because its transaction rolled back. */
+    public void release() {
+        places.release();
+    }
+
+    /**
+     * Queues the job on a place taken with {@link #tryReserve}. The input's entities must already be initialized, as
+     * the solve runs outside the caller's persistence context.
+     */
+    public void submit(String jobId, SolverInput input) {
+        executor.execute(() -> {
+            try {
+                solve(jobId, input);
+            } finally {
+                places.release();
+            }
+        });
+        logger.info("Job {} queued for an in-process solve.", jobId);
+    }
+
+    private void solve(String jobId, SolverInput input) {
+        long start = System.nanoTime();
+        try {
+            solverResultService.applyResult(new SolveResultStructure(jobId, "RUNNING", null, null, null, null, null));
+            // One solver per job: DanceTimetableSolver keeps its grid in fields for the length of a run.
+            SolverOutput output = solverFactory.get().executeSolve(input);
+            if (output.isSolveSuccess()) {
+                solverResultService.applyResult(
+                        new SolveResultStructure(jobId, "COMPLETED", null, output.getStageAResults(), null,
+                                output.getStageStatistics(), null));
+            } else {
+                solverResultService.applyResult(
+                        new SolveResultStructure(jobId, "FAILED", output.getStatusMessage(), null, null,
+                                output.getStageStatistics(), null));
+            }
+            logger.info("Job {} solved in process in {} ms (success: {}).", jobId,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), output.isSolveSuccess());
+        } catch (Exception | LinkageError e) { // LinkageError: OR-Tools natives or protobuf runtime missing
+            logger.error("Job {}: in-process solve failed.", jobId, e);
+            solverResultService.applyResult(
+                    new SolveResultStructure(jobId, "FAILED", "Unexpected error: " + e.getMessage(), null, null, null, null));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.studioapp_api.service;
+
+import com.example.studioapp_api.dto.solver_service_dtos.PubSubSolveRequestStructure;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.protobuf.ByteString;
+import com.google.pubsub.v1.PubsubMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes solve requests in the wire format solver-service's {@code SolvePayloadCodec} reads, named by the
+ * {@value #FORMAT_ATTRIBUTE} and {@value #VERSION_ATTRIBUTE} message attributes. {@code solver.gcp.payload-format}
+ * picks gzipped JSON (the default) or plain JSON for solver-service versions that predate the attributes.
+ */
+@Component
+public class SolvePayloadEncoder {
+
+    public static final String FORMAT_ATTRIBUTE = "payloadFormat";
+    public static final String VERSION_ATTRIBUTE = "payloadVersion";
+    public static final String JSON = "json";
+    public static final String JSON_GZIP = "json+gzip";
+    public static final String CURRENT_VERSION = "2"; // 2: normalized input, requests refer to instructors and locations by ID
+
+    private final ObjectWriter requestWriter;
+    private final String format;
+
+    @Autowired
+    public SolvePayloadEncoder(ObjectMapper objectMapper,
+                               @Value("${solver.gcp.payload-format:json+gzip}") String format) {
+        if (!JSON.equals(format) && !JSON_GZIP.equals(format)) {
+            throw new IllegalArgumentException("Unsupported solver.gcp.payload-format: " + format);
+        }
+        this.requestWriter = objectMapper.copy()
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .writerFor(PubSubSolveRequestStructure.class);
+        this.format = format;
+    }
+
+    public PubsubMessage encode(PubSubSolveRequestStructure request) throws IOException {
+        ByteString.Output data = ByteString.newOutput();
+        if (JSON_GZIP.equals(format)) {
+            try (OutputStream gzip = new GZIPOutputStream(data)) {
+                requestWriter.writeValue(gzip, request);
+            }
+        } else {
+            requestWriter.writeValue(data, request);
+        }
+        return PubsubMessage.newBuilder()
+                .setData(data.toByteString())
+                .putAttributes(FORMAT_ATTRIBUTE, format)
+                .putAttributes(VERSION_ATTRIBUTE, CURRENT_VERSION)
+                .build();
+    }
+
+    public String getFormat() {
+        return format;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.studioapp_api.service;
+
+import com.example.studioapp_api.dto.solver_service_dtos.StageStatisticsStructure;
+import com.example.studioapp_api.entity.SolverJob;
+import com.example.studioapp_api.entity.SolverJobStageStatistics;
+import com.example.studioapp_api.repository.SolverJobRepository;
+import com.example.studioapp_api.repository.SolverJobStageStatisticsRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Records per-stage model statistics of finished solver jobs and predicts a time budget for new jobs from past
+ * runs of a similar size, so small terms stop paying for the full default budget and hard ones get more.
+ */
+@Service
+public class SolverBudgetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SolverBudgetService.class);
+
+    static final int MIN_SIMILAR_RUNS = 3; // Fewer past runs than this: leave the solver-service default
+    static final double SAFETY_FACTOR = 1.5; // Headroom over the 90th percentile of the time similar runs needed
+    static final double CUT_OFF_GROWTH = 2.0; // A run stopped by its time limit needed at least this much more
+    static final double MIN_BUDGET_SECONDS = 1.0;
+    static final double MAX_BUDGET_SECONDS = 60.0; // The solver-service still applies its own cap on top
+
+    private final SolverJobStageStatisticsRepository statisticsRepository;
+    private final SolverJobRepository solverJobRepository;
+
+    @Autowired
+    public SolverBudgetService(SolverJobStageStatisticsRepository statisticsRepository,
+                               SolverJobRepository solverJobRepository) {
+        this.statisticsRepository = statisticsRepository;
+        this.solverJobRepository = solverJobRepository;
+    }
+
+    @Transactional
+    public void recordStageStatistics(String jobId, List<StageStatisticsStructure> stageStatistics) {
+        if (stageStatistics == null || stageStatistics.isEmpty()) return;
+        SolverJob job = solverJobRepository.findById(jobId)
+            .orElseThrow(() -> new EntityNotFoundException("Job with ID " + jobId + " not found."));
+        for (StageStatisticsStructure stats : stageStatistics) {
+            if (stats.getStage() == null || stats.getRequestCount() == null) continue;
+            SolverJobStageStatistics row = new SolverJobStageStatistics();
+            row.setSolverJob(job);
+            row.setStage(stats.getStage());
+            row.setRequestCount(stats.getRequestCount());
+            row.setVariables(stats.getVariables());
+            row.setConstraints(stats.getConstraints());
+            row.setStatus(stats.getStatus());
+            row.setTimeLimitSeconds(stats.getTimeLimitSeconds());
+            row.setFirstSolutionSeconds(stats.getFirstSolutionSeconds());
+            row.setOptimalSeconds(stats.getOptimalSeconds());
+            row.setRelativeGap(stats.getRelativeGap());
+            row.setWallTimeSeconds(stats.getWallTimeSeconds());
+            statisticsRepository.save(row);
+        }
+    }
+
+    /**
+     * Predicts a time limit for one stage of a new job from past runs with between half and twice as many
+     * requests. Returns null when the stage is empty or there is not enough history.
+     */
+    @Transactional(readOnly = true)
+    public Double predictStageTimeLimitSeconds(String stage, int requestCount) {
+        if (requestCount <= 0) return null;
+        List<SolverJobStageStatistics> similarRuns = statisticsRepository
+            .findTop50ByStageAndRequestCountBetweenOrderByRecordedAtDesc(stage, Math.max(1, requestCount / 2), requestCount * 2);
+        Double budget = predictTimeLimitSeconds(similarRuns);
+        logger.info("Stage {} budget for {} requests from {} similar past runs: {}", stage, requestCount,
+            similarRuns.size(), budget != null ? budget + "s" : "solver default");
+        return budget;
+    }
+
+    static Double predictTimeLimitSeconds(List<SolverJobStageStatistics> similarRuns) {
+        double[] secondsNeeded = similarRuns.stream()
+            .map(SolverBudgetService::secondsNeeded)
+            .filter(seconds -> seconds != null)
+            .mapToDouble(Double::doubleValue)
+            .sorted()
+            .toArray();
+        if (secondsNeeded.length < MIN_SIMILAR_RUNS) return null;
+        double p90 = secondsNeeded[(int) Math.ceil(0.9 * secondsNeeded.length) - 1];
+        return Math.max(MIN_BUDGET_SECONDS, Math.min(MAX_BUDGET_SECONDS, p90 * SAFETY_FACTOR));
+    }
+
+    // Time the run actually needed: until optimality, until the client's gap or stall stop, or, when the
+    // time limit cut it off, more than it was given.
+    private static Double secondsNeeded(SolverJobStageStatistics run) {
+        if (run.getOptimalSeconds() != null) return run.getOptimalSeconds();
+        Double limit = run.getTimeLimitSeconds();
+        Double wall = run.getWallTimeSeconds();
+        if (limit == null) return null;
+        if (wall != null && wall < 0.95 * limit && run.getFirstSolutionSeconds() != null) return wall;
+        return limit * CUT_OFF_GROWTH;
+    }
+}
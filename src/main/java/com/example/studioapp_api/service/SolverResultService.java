@@ -0,0 +1,241 @@
+package com.example.studioapp_api.service;
+
+import com.example.studioapp_api.dto.LockedBlockDTO;
+import com.example.studioapp_api.dto.ScheduledClassDTO;
+import com.example.studioapp_api.dto.solver_service_dtos.SolveProgressStructure;
+import com.example.studioapp_api.dto.solver_service_dtos.SolveResultStructure;
+import com.example.studioapp_api.entity.SolverJob;
+import com.example.studioapp_api.entity.SolverJobClassPlacement;
+import com.example.studioapp_api.entity.SolverJobPlacement;
+import com.example.studioapp_api.repository.SolverJobClassPlacementRepository;
+import com.example.studioapp_api.repository.SolverJobPlacementRepository;
+import com.example.studioapp_api.repository.SolverJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Applies solver-service results to the job they belong to: moves {@link SolverJob} through RUNNING to COMPLETED or
+ * FAILED, stores the Stage A and Stage B placements and records the stage statistics that drive {@link SolverBudgetService}.
+ * While the job runs, each intermediate Stage A solution replaces the job's Stage A placements and its progress summary.
+ * <p>
+ * Results may arrive twice or out of order, so a job that has already finished ignores anything further, and an
+ * intermediate solution older than the one stored is dropped. Each result holds the job's row lock while it applies.
+ */
+@Service
+public class SolverResultService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SolverResultService.class);
+
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+
+    private final SolverJobRepository solverJobRepository;
+    private final SolverJobPlacementRepository placementRepository;
+    private final SolverJobClassPlacementRepository classPlacementRepository;
+    private final SolverBudgetService solverBudgetService;
+
+    @Autowired
+    public SolverResultService(SolverJobRepository solverJobRepository,
+                               SolverJobPlacementRepository placementRepository,
+                               SolverJobClassPlacementRepository classPlacementRepository,
+                               SolverBudgetService solverBudgetService) {
+        this.solverJobRepository = solverJobRepository;
+        this.placementRepository = placementRepository;
+        this.classPlacementRepository = classPlacementRepository;
+        this.solverBudgetService = solverBudgetService;
+    }
+
+    @Transactional
+    public void applyResult(SolveResultStructure result) {
+        String jobId = result.getJobId();
+        SolverJob job = solverJobRepository.findForUpdate(jobId).orElse(null);
+        if (job == null) {
+            logger.warn("Ignoring {} result for unknown job {}.", result.getStatus(), jobId);
+            return;
+        }
+        if (isFinished(job.getStatus())) {
+            logger.info("Job {} is already {}; ignoring {} result.", jobId, job.getStatus(), result.getStatus());
+            return;
+        }
+        if (!RUNNING.equals(result.getStatus()) && !isFinished(result.getStatus())) {
+            logger.warn("Ignoring result with unknown status {} for job {}.", result.getStatus(), jobId);
+            return;
+        }
+
+        if (RUNNING.equals(result.getStatus()) && result.getProgress() != null) {
+            applyProgress(job, result.getProgress());
+            return;
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        boolean hadProgress = job.getProgressSolutionCount() != null;
+        job.setStatus(result.getStatus());
+        job.setLastUpdatedAt(now);
+        if (isFinished(result.getStatus())) {
+            job.setCompletedAt(now);
+            job.setErrorMessage(FAILED.equals(result.getStatus()) ? result.getErrorMessage() : null);
+            setProgress(job, null);
+        }
+        solverJobRepository.save(job);
+
+        if (FAILED.equals(result.getStatus()) && hadProgress) {
+            placementRepository.deleteBySolverJobId(jobId); // A failed job keeps no intermediate placements
+        }
+
+        if (COMPLETED.equals(result.getStatus()) && result.getStageAResults() != null) {
+            List<SolverJobPlacement> placements = result.getStageAResults().stream()
+                    .map(SolverResultService::toPlacement)
+                    .collect(Collectors.toList());
+            placementRepository.deleteBySolverJobId(jobId);
+            placementRepository.insertAll(jobId, placements);
+            logger.info("Job {} completed with {} Stage A placements.", jobId, placements.size());
+        }
+        if (COMPLETED.equals(result.getStatus()) && result.getStageBResults() != null) {
+            List<SolverJobClassPlacement> classPlacements = result.getStageBResults().stream()
+                    .map(SolverResultService::toClassPlacement)
+                    .collect(Collectors.toList());
+            classPlacementRepository.deleteBySolverJobId(jobId);
+            classPlacementRepository.insertAll(jobId, classPlacements);
+            logger.info("Job {} completed with {} Stage B class sessions.", jobId, classPlacements.size());
+        }
+        if (isFinished(result.getStatus())) {
+            solverBudgetService.recordStageStatistics(jobId, result.getStageStatistics());
+        }
+    }
+
+    private void applyProgress(SolverJob job, SolveProgressStructure progress) {
+        String jobId = job.getJobId();
+        Integer storedCount = job.getProgressSolutionCount();
+        if (storedCount != null && progress.getSolutionCount() != null && progress.getSolutionCount() <= storedCount) {
+            logger.debug("Job {}: dropping intermediate solution {}, already at {}.", jobId, progress.getSolutionCount(),
+                    storedCount);
+            return;
+        }
+        job.setStatus(RUNNING);
+        job.setLastUpdatedAt(OffsetDateTime.now());
+        setProgress(job, progress);
+        solverJobRepository.save(job);
+
+        List<SolverJobPlacement> placements = progress.getLockedBlocks() == null ? List.of()
+                : progress.getLockedBlocks().stream().map(SolverResultService::toPlacement).collect(Collectors.toList());
+        placementRepository.deleteBySolverJobId(jobId);
+        placementRepository.insertAll(jobId, placements);
+        logger.debug("Job {}: intermediate solution {} with {} Stage A placements.", jobId, progress.getSolutionCount(),
+                placements.size());
+    }
+
+    /** The job's latest intermediate solution, with its Stage A blocks; null unless it is RUNNING and has reported one. */
+    @Transactional(readOnly = true)
+    public SolveProgressStructure getProgress(SolverJob job) {
+        if (!RUNNING.equals(job.getStatus()) || job.getProgressSolutionCount() == null) return null;
+        return new SolveProgressStructure(job.getProgressStage(), job.getProgressObjectiveValue(),
+                job.getProgressBestObjectiveBound(), job.getProgressWallTimeSeconds(), job.getProgressSolutionCount(),
+                getStageAResults(job.getJobId()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<LockedBlockDTO> getStageAResults(String jobId) {
+        return placementRepository.findBySolverJobJobIdOrderByStartSlotAsc(jobId).stream()
+                .map(SolverResultService::toLockedBlock)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ScheduledClassDTO> getStageBResults(String jobId) {
+        return classPlacementRepository.findBySolverJobJobIdOrderByStartSlotAsc(jobId).stream()
+                .map(SolverResultService::toScheduledClass)
+                .collect(Collectors.toList());
+    }
+
+    private static void setProgress(SolverJob job, SolveProgressStructure progress) {
+        job.setProgressStage(progress != null ? progress.getStage() : null);
+        job.setProgressObjectiveValue(progress != null ? progress.getObjectiveValue() : null);
+        job.setProgressBestObjectiveBound(progress != null ? progress.getBestObjectiveBound() : null);
+        job.setProgressWallTimeSeconds(progress != null ? progress.getWallTimeSeconds() : null);
+        job.setProgressSolutionCount(progress != null ? progress.getSolutionCount() : null);
+    }
+
+    private static boolean isFinished(String status) {
+        return COMPLETED.equals(status) || FAILED.equals(status);
+    }
+
+    static SolverJobPlacement toPlacement(LockedBlockDTO block) {
+        SolverJobPlacement placement = new SolverJobPlacement();
+        placement.setInstructorId(block.getInstructorId());
+        placement.setInstructorName(block.getInstructorName());
+        placement.setRoomId(block.getRoomId());
+        placement.setRoomName(block.getRoomName());
+        placement.setStudioLocationId(block.getStudioLocationId());
+        placement.setStudioLocationName(block.getStudioLocationName());
+        placement.setStartSlot(block.getStartSlot());
+        placement.setLengthSlots(block.getLengthSlots());
+        placement.setDayOfWeek(block.getDayOfWeek());
+        placement.setStartTime(block.getStartTime());
+        placement.setEndTime(block.getEndTime());
+        return placement;
+    }
+
+    static LockedBlockDTO toLockedBlock(SolverJobPlacement placement) {
+        return LockedBlockDTO.builder()
+                .instructorId(placement.getInstructorId())
+                .instructorName(placement.getInstructorName())
+                .roomId(placement.getRoomId())
+                .roomName(placement.getRoomName())
+                .studioLocationId(placement.getStudioLocationId())
+                .studioLocationName(placement.getStudioLocationName())
+                .startSlot(placement.getStartSlot())
+                .lengthSlots(placement.getLengthSlots())
+                .dayOfWeek(placement.getDayOfWeek())
+                .startTime(placement.getStartTime())
+                .endTime(placement.getEndTime())
+                .build();
+    }
+
+    static SolverJobClassPlacement toClassPlacement(ScheduledClassDTO session) {
+        SolverJobClassPlacement placement = new SolverJobClassPlacement();
+        placement.setClassSessionRequirementId(session.getClassSessionRequirementId());
+        placement.setSessionIndex(session.getSessionIndex());
+        placement.setClassDefinitionId(session.getClassDefinitionId());
+        placement.setClassDefinitionName(session.getClassDefinitionName());
+        placement.setInstructorId(session.getInstructorId());
+        placement.setInstructorName(session.getInstructorName());
+        placement.setRoomId(session.getRoomId());
+        placement.setRoomName(session.getRoomName());
+        placement.setStudioLocationId(session.getStudioLocationId());
+        placement.setStudioLocationName(session.getStudioLocationName());
+        placement.setStartSlot(session.getStartSlot());
+        placement.setLengthSlots(session.getLengthSlots());
+        placement.setDayOfWeek(session.getDayOfWeek());
+        placement.setStartTime(session.getStartTime());
+        placement.setEndTime(session.getEndTime());
+        return placement;
+    }
+
+    static ScheduledClassDTO toScheduledClass(SolverJobClassPlacement placement) {
+        return ScheduledClassDTO.builder()
+                .classSessionRequirementId(placement.getClassSessionRequirementId())
+                .sessionIndex(placement.getSessionIndex())
+                .classDefinitionId(placement.getClassDefinitionId())
+                .classDefinitionName(placement.getClassDefinitionName())
+                .instructorId(placement.getInstructorId())
+                .instructorName(placement.getInstructorName())
+                .roomId(placement.getRoomId())
+                .roomName(placement.getRoomName())
+                .studioLocationId(placement.getStudioLocationId())
+                .studioLocationName(placement.getStudioLocationName())
+                .startSlot(placement.getStartSlot())
+                .lengthSlots(placement.getLengthSlots())
+                .dayOfWeek(placement.getDayOfWeek())
+                .startTime(placement.getStartTime())
+                .endTime(placement.getEndTime())
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.studioapp_api.service;
+
+import com.example.studioapp_api.dto.solver_service_dtos.SolveResultStructure;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.pubsub.v1.Subscriber;
+import com.google.cloud.spring.pubsub.core.PubSubTemplate;
+import com.google.cloud.spring.pubsub.support.BasicAcknowledgeablePubsubMessage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes the solver-service result topic and hands each message to {@link SolverResultService}. Malformed
+ * messages are acked and dropped; a message that fails to apply is nacked so Pub/Sub redelivers it.
+ */
+@Component
+public class SolverResultSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(SolverResultSubscriber.class);
+
+    private final PubSubTemplate pubSubTemplate;
+    private final ObjectMapper objectMapper;
+    private final SolverResultService solverResultService;
+
+    @Value("${solver.gcp.result-subscription-id:}")
+    private String resultSubscriptionId;
+
+    private Subscriber subscriber;
+
+    @Autowired
+    public SolverResultSubscriber(PubSubTemplate pubSubTemplate, ObjectMapper objectMapper,
+                                  SolverResultService solverResultService) {
+        this.pubSubTemplate = pubSubTemplate;
+        this.objectMapper = objectMapper;
+        this.solverResultService = solverResultService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        if (resultSubscriptionId == null || resultSubscriptionId.isBlank()) {
+            logger.info("No solver result subscription configured; job results will not be written back.");
+            return;
+        }
+        subscriber = pubSubTemplate.subscribe(resultSubscriptionId, this::onMessage);
+        logger.info("Listening for solver results on {}.", resultSubscriptionId);
+    }
+
+    void onMessage(BasicAcknowledgeablePubsubMessage message) {
+        String payload = message.getPubsubMessage().getData().toStringUtf8();
+        SolveResultStructure result;
+        try {
+            result = objectMapper.readValue(payload, SolveResultStructure.class);
+        } catch (JsonProcessingException e) {
+            logger.error("Dropping malformed solver result: {}", payload, e);
+            message.ack();
+            return;
+        }
+        try {
+            solverResultService.applyResult(result);
+            message.ack();
+        } catch (RuntimeException e) {
+            logger.error("Failed to apply {} result of job {}; it will be redelivered.", result.getStatus(), result.getJobId(), e);
+            message.nack();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscriber != null) {
+            subscriber.stopAsync();
+        }
+    }
+}
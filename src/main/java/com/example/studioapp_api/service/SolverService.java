@@ -1,6 +1,7 @@
 package com.example.studioapp_api.service;
 
 import com.example.studioapp_api.dto.LockedBlockDTO; // Example result DTO
+import com.example.studioapp_api.dto.ScheduledClassDTO;
 import com.example.studioapp_api.dto.SolveRequestDTO;
 import com.example.studioapp_api.dto.SolverJobResponseDTO;
 // Import other DTOs for full timetable results later
@@ -32,6 +33,13 @@ public interface SolverService {
      */
     List<LockedBlockDTO> getStageAResults(String jobId); // Example
 
-    // We'll add methods for getting Stage B results / full timetable later
+    /**
+     * Retrieves the results of Stage B (scheduled class sessions) for a completed job.
+     * @param jobId The ID of the solver job.
+     * @return A list of scheduled class sessions.
+     */
+    List<ScheduledClassDTO> getStageBResults(String jobId);
+
+    // We'll add a method for getting the full timetable later
     // List<ScheduledEventResponseDTO> getFullTimetableResults(String jobId);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.studioapp_api.service;
 
 import com.example.studioapp_api.dto.LockedBlockDTO;
+import com.example.studioapp_api.dto.ScheduledClassDTO;
 import com.example.studioapp_api.dto.SolveRequestDTO;
 import com.example.studioapp_api.dto.SolverJobResponseDTO;
 import com.example.studioapp_api.entity.*;
@@ -8,14 +9,17 @@ import com.example.studioapp_api.repository.*;
 import com.example.studioapp_api.mapper.SolverInputMapper;
 import com.example.studioapp_api.dto.solver_service_dtos.PubSubSolveRequestStructure;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.cloud.spring.pubsub.core.PubSubTemplate;
+import com.google.pubsub.v1.PubsubMessage;
 import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.Hibernate;
 
 import com.example.studioapp_api.solver.OperatingHoursSpan;
+import com.example.studioapp_api.solver.SolverInput;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,12 +29,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class SolverServiceImpl implements SolverService {
@@ -53,9 +55,12 @@ public class SolverServiceImpl implements SolverService {
     
     // === OUR NEW REPOSITORY ===
     private final SolverJobRepository solverJobRepository;
+    private final SolverBudgetService solverBudgetService;
+    private final SolverResultService solverResultService;
+    private final InlineSolveExecutor inlineSolveExecutor;
 
     private final PubSubTemplate pubSubTemplate;
-    private final ObjectMapper objectMapper;
+    private final SolvePayloadEncoder solvePayloadEncoder;
 
     @Value("${solver.gcp.topic-id}")
     private String pubsubTopicId;
@@ -74,8 +79,11 @@ public class SolverServiceImpl implements SolverService {
                              InstructorPriorityRequestRepository priorityRequestRepository,
                              ClassSessionRequirementRepository sessionRequirementRepository,
                              SolverJobRepository solverJobRepository, // <-- Injected here
+                             SolverBudgetService solverBudgetService,
+                             SolverResultService solverResultService,
+                             InlineSolveExecutor inlineSolveExecutor,
                              PubSubTemplate pubSubTemplate,
-                             ObjectMapper objectMapper) {
+                             SolvePayloadEncoder solvePayloadEncoder) {
         this.organizationRepository = organizationRepository;
         this.termRepository = termRepository;
         this.instructorRepository = instructorRepository;
@@ -89,12 +97,16 @@ public class SolverServiceImpl implements SolverService {
         this.priorityRequestRepository = priorityRequestRepository;
         this.sessionRequirementRepository = sessionRequirementRepository;
         this.solverJobRepository = solverJobRepository; // <-- Assigned here
+        this.solverBudgetService = solverBudgetService;
+        this.solverResultService = solverResultService;
+        this.inlineSolveExecutor = inlineSolveExecutor;
         this.pubSubTemplate = pubSubTemplate;
-        this.objectMapper = objectMapper;
+        this.solvePayloadEncoder = solvePayloadEncoder;
     }
 
-    private Map<java.time.DayOfWeek, OperatingHoursSpan> calculateEffectiveDayWindows(List<Room> rooms, int slotMinutes) {
-        // This method remains unchanged from your original file.
+    private Map<java.time.DayOfWeek, OperatingHoursSpan> calculateEffectiveDayWindows(List<Room> rooms) {
+        // Outer bound of the master grid only: each room's own hours travel on the room, and the solver drops
+        // slots where no room is open and keeps every room's sessions inside its own hours.
         Map<DayOfWeek, OperatingHoursSpan> effectiveDayWindows = new EnumMap<>(DayOfWeek.class);
         if (rooms.isEmpty()) {
             logger.warn("No rooms provided to calculate effective day windows, using default empty spans.");
@@ -138,8 +150,8 @@ public class SolverServiceImpl implements SolverService {
     public SolverJobResponseDTO triggerSolver(SolveRequestDTO solveRequestDTO) {
         String jobId = UUID.randomUUID().toString();
         OffsetDateTime now = OffsetDateTime.now();
-        logger.info("Solver job {} triggered for OrgID: {}, TermID: {}. Publishing to Pub/Sub topic: {}",
-                jobId, solveRequestDTO.getOrganizationId(), solveRequestDTO.getTermId(), pubsubTopicId);
+        logger.info("Solver job {} triggered for OrgID: {}, TermID: {}.",
+                jobId, solveRequestDTO.getOrganizationId(), solveRequestDTO.getTermId());
 
         // --- Data Fetching (your original logic is preserved) ---
         Organization organization = organizationRepository.findById(solveRequestDTO.getOrganizationId())
@@ -150,8 +162,8 @@ public class SolverServiceImpl implements SolverService {
         // === START: NEW LOGIC TO PERSIST THE JOB ===
         SolverJob newJob = new SolverJob();
         newJob.setJobId(jobId);
-        newJob.setTermId(term.getId());
-        newJob.setOrganizationId(organization.getId());
+        newJob.setTermId(term.getId().longValue());
+        newJob.setOrganizationId(organization.getId().longValue());
         newJob.setStatus("QUEUED"); // Set initial status
         newJob.setSubmittedAt(now);
         newJob.setLastUpdatedAt(now);
@@ -175,65 +187,115 @@ public class SolverServiceImpl implements SolverService {
         } else {
             finalSpecificLocationForSolve = null;
         }
-        List<Instructor> instructors = instructorRepository.findByOrganizationId(organization.getId());
-        instructors.forEach(i -> {
-            if (i.getAvailabilitySlots() != null) i.getAvailabilitySlots().size();
-            if (i.getClassQualifications() != null) i.getClassQualifications().size();
-        });
-        List<Room> relevantRooms = new ArrayList<>();
-        if (finalSpecificLocationForSolve != null) {
-            relevantRooms.addAll(roomRepository.findByStudioLocationId(finalSpecificLocationForSolve.getId()));
-        } else {
-            List<StudioLocation> locationsForOrg = studioLocationRepository.findByOrganizationId(organization.getId());
-            for (StudioLocation loc : locationsForOrg) {
-                relevantRooms.addAll(roomRepository.findByStudioLocationId(loc.getId()));
-            }
+        // Solve snapshot: one query per table below, however many instructors, locations and rooms there are.
+        // Everything the mapper reads is fetched here, so no lazy association is loaded one row at a time later.
+        Integer locationIdForSolve = finalSpecificLocationForSolve != null ? finalSpecificLocationForSolve.getId() : null;
+        // Two bags cannot be fetched in one query. The second query returns the instructors the first one loaded,
+        // now with their qualifications as well, and the snapshot is built from its result.
+        instructorRepository.findWithAvailabilityByOrganizationId(organization.getId());
+        List<Instructor> instructors = instructorRepository.findWithClassQualificationsByOrganizationId(organization.getId());
+        if (!instructors.stream().allMatch(i -> Hibernate.isInitialized(i.getAvailabilitySlots()))) {
+            // Only one persistence context hands back the instances the first query filled in; fail rather than
+            // load each instructor's availability with its own query.
+            throw new IllegalStateException("Solve snapshot for organization " + organization.getId()
+                    + " was read without instructor availability; both instructor queries must share a transaction.");
         }
-         relevantRooms.forEach(r -> {
-            if (r.getOperatingHours() != null) r.getOperatingHours().size();
-         });
+        List<Room> relevantRooms = roomRepository.findForSolve(organization.getId(), locationIdForSolve);
         final int slotMinutesConfig = 5;
-        Map<java.time.DayOfWeek, OperatingHoursSpan> effectiveWindows = calculateEffectiveDayWindows(relevantRooms, slotMinutesConfig);
-        List<InstructorPriorityRequest> priorityRequests = priorityRequestRepository.findByTermId(term.getId())
-            .stream()
-            .filter(pr -> pr.getInstructor().getOrganization().getId().equals(organization.getId()))
-            .filter(pr -> pr.isActive())
-            .filter(pr -> finalSpecificLocationForSolve == null ||
-                           pr.getStudioLocation() == null ||
-                           (pr.getStudioLocation() != null && pr.getStudioLocation().getId().equals(finalSpecificLocationForSolve.getId())))
-            .collect(Collectors.toList());
-        List<ClassSessionRequirement> classRequirements = sessionRequirementRepository.findByTermId(term.getId())
-            .stream()
-            .filter(csr -> csr.getClassDefinition().getOrganization().getId().equals(organization.getId()))
-            .filter(csr -> csr.isActive())
-            .filter(csr -> finalSpecificLocationForSolve == null ||
-                            csr.getStudioLocation() == null ||
-                            (csr.getStudioLocation() != null && csr.getStudioLocation().getId().equals(finalSpecificLocationForSolve.getId())))
-            .collect(Collectors.toList());
+        Map<java.time.DayOfWeek, OperatingHoursSpan> effectiveWindows = calculateEffectiveDayWindows(relevantRooms);
+        List<InstructorPriorityRequest> priorityRequests =
+                priorityRequestRepository.findForSolve(term.getId(), organization.getId(), locationIdForSolve);
+        List<ClassSessionRequirement> classRequirements =
+                sessionRequirementRepository.findForSolve(term.getId(), organization.getId(), locationIdForSolve);
         List<ClassDefinition> classDefinitions = classDefinitionRepository.findByOrganizationId(organization.getId());
         
         // --- Your Pub/Sub publishing logic remains untouched ---
         SolverInputMapper.LocalSolverServiceInput solverServiceInput = SolverInputMapper.createSolverServiceInputStructure(
                 slotMinutesConfig, effectiveWindows, instructors, relevantRooms, priorityRequests, classDefinitions, classRequirements
         );
+        solverServiceInput.setExecutionProfile(budgetedExecutionProfile(solveRequestDTO, priorityRequests, classRequirements));
+
+        if (inlineSolveExecutor.accepts(instructors, relevantRooms, priorityRequests, classRequirements, effectiveWindows)
+                && inlineSolveExecutor.tryReserve()) {
+            // Small jobs skip the Pub/Sub round trip. The solve reads the snapshot on another thread after this
+            // transaction ends, which works because the queries above left nothing lazy in it.
+            SolverInput inlineInput = SolverInput.builder()
+                    .slotMinutes(slotMinutesConfig)
+                    .effectiveDayWindows(effectiveWindows)
+                    .instructors(instructors)
+                    .rooms(relevantRooms)
+                    .priorityRequests(priorityRequests)
+                    .classDefinitions(classDefinitions)
+                    .classRequirements(classRequirements)
+                    .executionProfile(solverServiceInput.getExecutionProfile())
+                    .build();
+            // Queued only once the job row is committed, or its first status update would find no job to update.
+            afterCommit(() -> inlineSolveExecutor.submit(jobId, inlineInput), inlineSolveExecutor::release);
+        } else {
+            publish(jobId, solverServiceInput);
+        }
+        return SolverJobResponseDTO.builder()
+                .jobId(jobId)
+                .status("QUEUED") // <-- MODIFIED: Changed from PENDING to QUEUED for consistency
+                .message("Solver job has been successfully queued. You can track its status using the provided jobId.")
+                .submittedAt(now)
+                .build();
+    }
+
+    private void publish(String jobId, SolverInputMapper.LocalSolverServiceInput solverServiceInput) {
         PubSubSolveRequestStructure pubSubRequest = new PubSubSolveRequestStructure(jobId, solverServiceInput);
         try {
-            String jsonPayload = objectMapper.writeValueAsString(pubSubRequest);
-            pubSubTemplate.publish(this.pubsubTopicId, jsonPayload);
-            logger.info("Job {} published to Pub/Sub topic {}.", jobId, this.pubsubTopicId);
+            PubsubMessage message = solvePayloadEncoder.encode(pubSubRequest);
+            pubSubTemplate.publish(this.pubsubTopicId, message);
+            logger.info("Job {} published to Pub/Sub topic {} ({} bytes of {}).", jobId, this.pubsubTopicId,
+                    message.getData().size(), solvePayloadEncoder.getFormat());
         } catch (Exception e) {
             // Your error handling is preserved. If publishing fails, the transaction will roll back,
             // and the job record we tried to save will be removed, which is the correct behavior.
             logger.error("Job {}: Failed to publish message. Error: {}", jobId, e.getMessage(), e);
             throw new RuntimeException("Failed to publish solver job to Pub/Sub.", e);
         }
+    }
 
-        return SolverJobResponseDTO.builder()
-                .jobId(jobId)
-                .status("QUEUED") // <-- MODIFIED: Changed from PENDING to QUEUED for consistency
-                .message("Solver job has been successfully queued. You can track its status using the provided jobId.")
-                .submittedAt(now)
-                .build();
+    private static void afterCommit(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * The client's execution profile, with any stage time limit it left unset predicted from past jobs of a
+     * similar size. Stages without enough history keep the solver-service default.
+     */
+    private SolverInputMapper.LocalSolverExecutionProfile budgetedExecutionProfile(
+            SolveRequestDTO solveRequestDTO,
+            List<InstructorPriorityRequest> priorityRequests,
+            List<ClassSessionRequirement> classRequirements) {
+        SolverInputMapper.LocalSolverExecutionProfile profile =
+                SolverInputMapper.toSolverExecutionProfile(solveRequestDTO.getExecutionProfile());
+        if (profile == null) {
+            profile = new SolverInputMapper.LocalSolverExecutionProfile();
+        }
+        if (profile.getStageATimeLimitSeconds() == null) {
+            profile.setStageATimeLimitSeconds(
+                    solverBudgetService.predictStageTimeLimitSeconds("A", priorityRequests.size()));
+        }
+        if (profile.getStageBTimeLimitSeconds() == null) {
+            int sessionCount = classRequirements.stream().mapToInt(ClassSessionRequirement::getSessionsPerWeek).sum();
+            profile.setStageBTimeLimitSeconds(solverBudgetService.predictStageTimeLimitSeconds("B", sessionCount));
+        }
+        return profile;
     }
 
     // --- We will implement getJobStatus in a later step. Your placeholder is perfect for now. ---
@@ -255,13 +317,19 @@ public class SolverServiceImpl implements SolverService {
                 .status(job.getStatus())
                 .message(job.getErrorMessage() != null ? "Job failed: " + job.getErrorMessage() : "Status at " + job.getLastUpdatedAt())
                 .submittedAt(job.getSubmittedAt())
+                .progress(solverResultService.getProgress(job))
                 .build();
     }
 
-    // --- This method remains untouched ---
+    // Placements are written back from the solver's result topic by SolverResultService: the latest intermediate
+    // solution while the job runs, then the final result.
     @Override
     public List<LockedBlockDTO> getStageAResults(String jobId) {
-        logger.warn("getStageAResults for job ID: {} - Placeholder. Implement query to shared job store.", jobId);
-        return new ArrayList<>();
+        return solverResultService.getStageAResults(jobId);
+    }
+
+    @Override
+    public List<ScheduledClassDTO> getStageBResults(String jobId) {
+        return solverResultService.getStageBResults(jobId);
     }
 }
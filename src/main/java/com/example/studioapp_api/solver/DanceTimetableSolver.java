@@ -1,17 +1,23 @@
 package com.example.studioapp_api.solver; // New package
 
 import com.example.studioapp_api.dto.LockedBlockDTO;
+import com.example.studioapp_api.dto.solver_service_dtos.StageStatisticsStructure;
 
 // Import your JPA entities from com.example.studioapp_api.entity.*
 // Import com.google.ortools.*
 // Import other necessary Java types
 
 import com.example.studioapp_api.entity.*; // JPA Entities
+import com.example.studioapp_api.mapper.SolverInputMapper;
 import com.google.ortools.Loader;
 import com.google.ortools.sat.*;
 import org.slf4j.Logger; // For logging
 import org.slf4j.LoggerFactory; // For logging
 import org.springframework.stereotype.Component; // Make it a Spring bean
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
@@ -21,9 +27,16 @@ import java.util.stream.Collectors;
 
 
 @Component // So Spring can manage it and SolverServiceImpl can inject it
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE) // Fields below hold one run's grid, so each solve gets its own instance
 public class DanceTimetableSolver {
     private static final Logger logger = LoggerFactory.getLogger(DanceTimetableSolver.class);
 
+    // Caps and defaults for the execution profile, from the solver.inline.* properties
+    private final int maxWorkers;
+    private final double maxStageSeconds;
+    private final double defaultStageSeconds;
+    private final double defaultDeterministicTimeLimit;
+
     // Instance fields - these will be initialized per solve run
     private int slotMinutes;
     private int dur60; // slots per 60 minutes
@@ -36,9 +49,16 @@ public class DanceTimetableSolver {
         DateTimeFormatter.ofPattern("[H:mm][HH:mm][:ss][.SSS]");
 
 
-    // Constructor - could be empty or take some global config if needed
-    public DanceTimetableSolver() {
+    @Autowired
+    public DanceTimetableSolver(@Value("${solver.inline.max-workers:0}") int maxWorkers,
+                                @Value("${solver.inline.max-stage-seconds:60}") double maxStageSeconds,
+                                @Value("${solver.inline.default-stage-seconds:10}") double defaultStageSeconds,
+                                @Value("${solver.inline.default-deterministic-time-limit:1.0}") double defaultDeterministicTimeLimit) {
          Loader.loadNativeLibraries(); // Load OR-Tools natives when an instance is created
+         this.maxWorkers = maxWorkers > 0 ? maxWorkers : Runtime.getRuntime().availableProcessors();
+         this.maxStageSeconds = maxStageSeconds;
+         this.defaultStageSeconds = defaultStageSeconds;
+         this.defaultDeterministicTimeLimit = defaultDeterministicTimeLimit;
     }
 
     // --- Initialization method called by executeSolve ---
@@ -149,9 +169,12 @@ public class DanceTimetableSolver {
     
     
             List<InternalLockedBlock> stageARawResults = new ArrayList<>();
+            List<StageStatisticsStructure> stageStatistics = new ArrayList<>();
             if (!solverStageARequests.isEmpty()) {
-                 stageARawResults = runActualStageA(solverStageARequests, input.getInstructors(), input.getRooms(), internalConsoleLog);
+                 stageARawResults = runActualStageA(solverStageARequests, input.getInstructors(), input.getRooms(),
+                         input.getExecutionProfile(), stageStatistics, internalConsoleLog);
             }
+            output.setStageStatistics(stageStatistics);
             
             output.setStageAResults(convertToLockedBlockDTOs(stageARawResults, input)); // Convert internal results to DTOs
             logger.info("Solver Engine: Stage A completed. Found {} locked blocks.", stageARawResults.size());
@@ -275,12 +298,15 @@ public class DanceTimetableSolver {
         List<InternalSolverPriorityRequest> solverRequests,
         List<com.example.studioapp_api.entity.Instructor> allInstructors, // Full list for availability
         List<com.example.studioapp_api.entity.Room> allRooms,             // Full list for NoOverlap by room
+        SolverInputMapper.LocalSolverExecutionProfile executionProfile,   // Null: solver-service's defaults
+        List<StageStatisticsStructure> stageStatistics,                   // Receives this stage's statistics
         StringBuilder internalConsoleLog) {
     
         internalConsoleLog.append("Running OR-Tools Stage A with ").append(solverRequests.size()).append(" requests.\n");
         List<InternalLockedBlock> confirmedBlocks = new ArrayList<>();
         if (solverRequests.isEmpty()) return confirmedBlocks;
     
+        long buildStart = System.nanoTime();
         CpModel model = new CpModel();
     
         // Create OR-Tools variables for each request
@@ -322,9 +348,19 @@ public class DanceTimetableSolver {
         IntVar[] presencesArray = requestsWithORToolsVars.stream().map(InternalSolverPriorityRequest::presentVar).toArray(IntVar[]::new);
         model.maximize(LinearExpr.sum(presencesArray));
     
+        double modelBuildSeconds = (System.nanoTime() - buildStart) / 1e9;
+
         CpSolver solver = new CpSolver();
-        solver.getParameters().setMaxTimeInSeconds(10); // Configurable
-        CpSolverStatus status = solver.solve(model);
+        double timeLimitSeconds = applyExecutionProfile(solver.getParameters(), executionProfile);
+        double[] firstSolutionSeconds = {-1};
+        CpSolverStatus status = solver.solve(model, new CpSolverSolutionCallback() {
+            @Override
+            public void onSolutionCallback() {
+                if (firstSolutionSeconds[0] < 0) firstSolutionSeconds[0] = wallTime();
+            }
+        });
+        stageStatistics.add(stageAStatistics(model, solver, status, requestsWithORToolsVars.size(), modelBuildSeconds,
+                timeLimitSeconds, firstSolutionSeconds[0] >= 0 ? firstSolutionSeconds[0] : null));
     
         internalConsoleLog.append("Stage A Solver status: ").append(status).append("\n");
     
@@ -348,6 +384,63 @@ public class DanceTimetableSolver {
         return confirmedBlocks;
     }
     
+    // --- Method to apply the budgeted execution profile the way solver-service does ---
+    // Fills the gaps with the configured defaults and clamps the request to the configured caps, as
+    // SolverExecutionProfile.resolve does there. Returns the stage time limit in force. The no-improvement timeout,
+    // coarse-to-fine and symmetry breaking settings have no counterpart in this model and are ignored.
+    double applyExecutionProfile(SatParameters.Builder parameters, SolverInputMapper.LocalSolverExecutionProfile profile) {
+        Integer requestedWorkers = profile != null ? profile.getNumSearchWorkers() : null;
+        parameters.setNumWorkers(requestedWorkers != null && requestedWorkers > 0
+                ? Math.min(requestedWorkers, maxWorkers) : maxWorkers);
+        Double requestedSeconds = profile != null ? profile.getStageATimeLimitSeconds() : null;
+        double timeLimitSeconds = Math.min(requestedSeconds != null && requestedSeconds > 0
+                ? requestedSeconds : defaultStageSeconds, maxStageSeconds);
+        parameters.setMaxTimeInSeconds(timeLimitSeconds);
+        if (profile == null) return timeLimitSeconds;
+        if (profile.isDeterministic()) {
+            // Interleaved workers make the multi-worker search reproducible under a deterministic time limit.
+            parameters.setMaxDeterministicTime(profile.getDeterministicTimeLimit() != null && profile.getDeterministicTimeLimit() > 0
+                    ? profile.getDeterministicTimeLimit() : defaultDeterministicTimeLimit);
+            parameters.setInterleaveSearch(true);
+        }
+        if (profile.getRelativeGapLimit() != null && profile.getRelativeGapLimit() > 0) {
+            parameters.setRelativeGapLimit(profile.getRelativeGapLimit());
+        }
+        if (profile.isStopAtFirstSolution()) {
+            parameters.setStopAfterFirstSolution(true);
+        }
+        return timeLimitSeconds;
+    }
+
+    // --- Method to report Stage A in the shape solver-service reports it ---
+    private static StageStatisticsStructure stageAStatistics(CpModel model, CpSolver solver, CpSolverStatus status,
+                                                             int requestCount, double modelBuildSeconds,
+                                                             double timeLimitSeconds, Double firstSolutionSeconds) {
+        boolean hasSolution = status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE;
+        StageStatisticsStructure stats = new StageStatisticsStructure();
+        stats.setStage("A");
+        stats.setComponents(1);
+        stats.setRequestCount(requestCount);
+        stats.setVariables(model.model().getVariablesCount());
+        stats.setConstraints(model.model().getConstraintsCount());
+        stats.setModelBytes((long) model.model().getSerializedSize());
+        stats.setModelBuildSeconds(modelBuildSeconds);
+        stats.setStatus(status.name());
+        if (hasSolution) {
+            stats.setObjectiveValue(solver.objectiveValue());
+            stats.setBestObjectiveBound(solver.bestObjectiveBound());
+            // CP-SAT's relative gap, |bound - objective| / max(1, |objective|)
+            stats.setRelativeGap(Math.abs(solver.bestObjectiveBound() - solver.objectiveValue())
+                    / Math.max(1.0, Math.abs(solver.objectiveValue())));
+        }
+        stats.setTimeLimitSeconds(timeLimitSeconds);
+        stats.setFirstSolutionSeconds(firstSolutionSeconds);
+        stats.setOptimalSeconds(status == CpSolverStatus.OPTIMAL ? solver.wallTime() : null);
+        stats.setWallTimeSeconds(solver.wallTime());
+        stats.setDeterministicTime(solver.response().getDeterministicTime());
+        return stats;
+    }
+
     // --- Method to adapt JPA Availability to OR-Tools Window Constraints ---
     private void addWindowConstraintsInternal(CpModel model, IntVar startVar, int lengthSlots,
                                             List<com.example.studioapp_api.entity.InstructorAvailabilitySlot> availabilitySlots,
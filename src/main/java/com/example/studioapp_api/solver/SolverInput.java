@@ -1,6 +1,7 @@
 package com.example.studioapp_api.solver; // Or a sub-package of service
 
 import com.example.studioapp_api.entity.*; // Import all your JPA entities
+import com.example.studioapp_api.mapper.SolverInputMapper;
 import lombok.Builder;
 import lombok.Data;
 import java.util.List;
@@ -27,5 +28,8 @@ public class SolverInput {
     // or classDefinition.getInstructorQualifications() if those JPA relationships are set up,
     // or passed as a separate list if that's easier for the solver.
 
+    // Budgeted search settings, as sent to solver-service; null keeps the solver's defaults
+    private SolverInputMapper.LocalSolverExecutionProfile executionProfile;
+
     // Consider if default class duration needs to be passed, or if it's always from ClassDefinition
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.studioapp_api.solver;
 
 import com.example.studioapp_api.dto.LockedBlockDTO; // Using existing DTO for Stage A results
+import com.example.studioapp_api.dto.solver_service_dtos.StageStatisticsStructure;
 // We'll need a new DTO for Stage B scheduled classes, e.g., ScheduledClassDetailDTO
 import lombok.Data;
 import java.util.List;
@@ -12,4 +13,5 @@ public class SolverOutput {
     private String consoleLog; // To capture any print statements from the solver for debugging
     private boolean solveSuccess;
     private String statusMessage;
+    private List<StageStatisticsStructure> stageStatistics; // Same shape solver-service reports per stage
 }
\ No newline at end of file
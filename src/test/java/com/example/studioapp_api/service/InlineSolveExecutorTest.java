@@ -0,0 +1,282 @@
+package com.example.studioapp_api.service;
+
+import com.example.studioapp_api.dto.LockedBlockDTO;
+import com.example.studioapp_api.dto.solver_service_dtos.SolveResultStructure;
+import com.example.studioapp_api.entity.*;
+import com.example.studioapp_api.mapper.SolverInputMapper;
+import com.example.studioapp_api.solver.DanceTimetableSolver;
+import com.example.studioapp_api.solver.OperatingHoursSpan;
+import com.example.studioapp_api.solver.SolverInput;
+import com.example.studioapp_api.solver.SolverOutput;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InlineSolveExecutorTest {
+
+    // Also solved by solver-service's InlineParityTest, so both engines are held to the same placements.
+    private static final Path PARITY_FIXTURE = Path.of("solver-service", "src", "test", "resources", "inline-parity.json");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS) // As Spring Boot's ObjectMapper writes them
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL); // As SolvePayloadEncoder writes them
+    private final SolverResultService resultService = mock(SolverResultService.class);
+    private final List<InlineSolveExecutor> executors = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executors.forEach(InlineSolveExecutor::shutdown);
+    }
+
+    @Test
+    void smallStageAJobsAreAcceptedAndLargerOnesAreNot() {
+        InlineSolveExecutor executor = executor(true, 2, 1);
+        StudioLocation location = location();
+        List<Room> rooms = List.of(room(10, location));
+        List<Instructor> two = List.of(instructor(1, 2), instructor(2, 2));
+        List<InstructorPriorityRequest> requests = List.of(request(1, two.get(0), location), request(2, two.get(1), location));
+
+        assertEquals(10, InlineSolveExecutor.estimatedModelVariables(two, requests));
+        assertTrue(executor.accepts(two, rooms, requests, List.of(), mondayOnly()));
+        assertFalse(executor.accepts(two, rooms, requests, List.of(new ClassSessionRequirement()), mondayOnly()),
+                "Stage B needs solver-service");
+
+        List<Instructor> three = List.of(instructor(1, 2), instructor(2, 2), instructor(3, 2));
+        assertFalse(executor.accepts(three, rooms, requests, List.of(), mondayOnly()), "more instructors than max-instructors");
+
+        List<Instructor> busy = List.of(instructor(1, 100));
+        assertFalse(executor.accepts(busy, rooms, List.of(request(1, busy.get(0), location)), List.of(), mondayOnly()),
+                "model too large");
+
+        assertFalse(executor(false, 2, 1).accepts(two, rooms, requests, List.of(), mondayOnly()), "disabled");
+    }
+
+    @Test
+    void jobsTheInProcessSolverWouldPlaceDifferentlyGoToSolverService() {
+        InlineSolveExecutor executor = executor(true, 2, 1);
+        StudioLocation location = location();
+        List<Instructor> one = List.of(instructor(1, 1));
+        List<InstructorPriorityRequest> requests = List.of(request(1, one.get(0), location));
+
+        assertFalse(executor.accepts(one, List.of(room(10, location), room(11, location)), requests, List.of(), mondayOnly()),
+                "only the first of the location's rooms would be tried");
+        assertFalse(executor.accepts(one, List.of(room(10, location), room(11, location)),
+                List.of(request(1, one.get(0), null)), List.of(), mondayOnly()), "a request without a location could use any room");
+
+        Room wholeDay = room(10, location);
+        wholeDay.getOperatingHours().add(hours(wholeDay, LocalTime.of(8, 0), LocalTime.of(22, 0)));
+        assertTrue(executor.accepts(one, List.of(wholeDay), requests, List.of(), mondayOnly()),
+                "hours covering the master grid change nothing");
+
+        Room closesEarly = room(10, location);
+        closesEarly.getOperatingHours().add(hours(closesEarly, LocalTime.of(9, 0), LocalTime.of(17, 0)));
+        assertFalse(executor.accepts(one, List.of(closesEarly), requests, List.of(), mondayOnly()),
+                "the in-process solver would book the room after it closes");
+    }
+
+    @Test
+    void inlineSolveRecordsRunningThenCompletedWithPlacements() {
+        InlineSolveExecutor executor = executor(true, 1, 0);
+        StudioLocation location = location();
+        Room room = room(10, location);
+        Instructor ava = instructor(1, 1);
+        SolverInput input = SolverInput.builder()
+                .slotMinutes(5)
+                .effectiveDayWindows(mondayOnly())
+                .instructors(List.of(ava))
+                .rooms(List.of(room))
+                .priorityRequests(List.of(request(1, ava, location)))
+                .classDefinitions(List.of())
+                .classRequirements(List.of())
+                .executionProfile(SolverInputMapper.LocalSolverExecutionProfile.builder()
+                        .numSearchWorkers(1)
+                        .stageATimeLimitSeconds(3.0)
+                        .build())
+                .build();
+
+        assertTrue(executor.tryReserve());
+        executor.submit("job-1", input);
+
+        ArgumentCaptor<SolveResultStructure> results = ArgumentCaptor.forClass(SolveResultStructure.class);
+        verify(resultService, timeout(10_000).times(2)).applyResult(results.capture());
+        assertEquals(List.of("RUNNING", "COMPLETED"),
+                results.getAllValues().stream().map(SolveResultStructure::getStatus).collect(Collectors.toList()));
+        SolveResultStructure completed = results.getAllValues().get(1);
+        assertEquals("job-1", completed.getJobId());
+        assertEquals(1, completed.getStageAResults().size());
+        assertEquals("MONDAY", completed.getStageAResults().get(0).getDayOfWeek());
+        assertEquals("City", completed.getStageAResults().get(0).getStudioLocationName());
+        assertEquals(1, completed.getStageStatistics().size());
+        assertEquals("A", completed.getStageStatistics().get(0).getStage());
+        assertEquals("OPTIMAL", completed.getStageStatistics().get(0).getStatus());
+        assertEquals(3.0, completed.getStageStatistics().get(0).getTimeLimitSeconds(), "the budgeted profile applies");
+    }
+
+    @Test
+    void eligibleJobGetsTheSamePlacementsAsOnSolverService() throws Exception {
+        StudioLocation city = location();
+        StudioLocation harbour = new StudioLocation();
+        harbour.setId(2);
+        harbour.setName("Harbour");
+        Room cityRoom = openMondayAndTuesday(room(10, city));
+        Room harbourRoom = openMondayAndTuesday(room(20, harbour));
+        Instructor ava = instructor(1, 0);
+        available(ava, 11, DayOfWeekEnum.MONDAY, LocalTime.of(10, 0), LocalTime.of(12, 0));
+        Instructor ben = instructor(2, 0);
+        available(ben, 21, DayOfWeekEnum.MONDAY, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        available(ben, 22, DayOfWeekEnum.TUESDAY, LocalTime.of(17, 0), LocalTime.of(18, 0));
+        Instructor cleo = instructor(3, 0);
+        available(cleo, 31, DayOfWeekEnum.TUESDAY, LocalTime.of(9, 0), LocalTime.of(9, 30)); // Too short for an hour
+        InstructorPriorityRequest avaCity = request(1, ava, city);
+        avaCity.setBlockLengthHours(2);
+        List<Instructor> instructors = List.of(ava, ben, cleo);
+        List<Room> rooms = List.of(cityRoom, harbourRoom);
+        List<InstructorPriorityRequest> requests =
+                List.of(avaCity, request(2, ben, city), request(3, ben, harbour), request(4, cleo, harbour));
+        Map<DayOfWeek, OperatingHoursSpan> windows = new EnumMap<>(DayOfWeek.class);
+        windows.put(DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(9, 0), LocalTime.of(21, 0)));
+        windows.put(DayOfWeek.TUESDAY, new OperatingHoursSpan(LocalTime.of(9, 0), LocalTime.of(21, 0)));
+
+        assertTrue(executor(true, 10, 1).accepts(instructors, rooms, requests, List.of(), windows));
+        JsonNode fixture = objectMapper.readTree(Files.readAllBytes(PARITY_FIXTURE));
+        assertEquals(fixture.get("solverInput"), objectMapper.valueToTree(SolverInputMapper.createSolverServiceInputStructure(
+                5, windows, instructors, rooms, requests, List.of(), List.of())), "the fixture is what the API publishes");
+
+        SolverOutput output = new DanceTimetableSolver(1, 60, 10, 1.0).executeSolve(SolverInput.builder()
+                .slotMinutes(5)
+                .effectiveDayWindows(windows)
+                .instructors(instructors)
+                .rooms(rooms)
+                .priorityRequests(requests)
+                .classDefinitions(List.of())
+                .classRequirements(List.of())
+                .build());
+
+        assertTrue(output.isSolveSuccess(), output.getStatusMessage());
+        Set<JsonNode> expected = new HashSet<>();
+        fixture.get("expectedStageAResults").forEach(expected::add);
+        Set<JsonNode> placed = new HashSet<>();
+        for (LockedBlockDTO block : output.getStageAResults()) {
+            placed.add(objectMapper.createObjectNode()
+                    .put("instructorId", block.getInstructorId())
+                    .put("roomId", block.getRoomId())
+                    .put("dayOfWeek", block.getDayOfWeek())
+                    .put("startTime", block.getStartTime())
+                    .put("endTime", block.getEndTime()));
+        }
+        assertEquals(expected, placed);
+    }
+
+    @Test
+    void reservationsAreBoundedAndGivenBack() {
+        InlineSolveExecutor executor = executor(true, 1, 1);
+
+        assertTrue(executor.tryReserve());
+        assertTrue(executor.tryReserve());
+        assertFalse(executor.tryReserve(), "one running and one queued is the most this pool holds");
+
+        executor.release();
+        assertTrue(executor.tryReserve());
+    }
+
+    private InlineSolveExecutor executor(boolean enabled, int maxInstructors, int queueCapacity) {
+        InlineSolveExecutor executor = new InlineSolveExecutor(() -> new DanceTimetableSolver(1, 60, 10, 1.0), resultService,
+                enabled, maxInstructors, 25, 50, 1, queueCapacity);
+        executors.add(executor);
+        return executor;
+    }
+
+    private static Map<DayOfWeek, OperatingHoursSpan> mondayOnly() {
+        Map<DayOfWeek, OperatingHoursSpan> windows = new EnumMap<>(DayOfWeek.class);
+        windows.put(DayOfWeek.MONDAY, new OperatingHoursSpan(LocalTime.of(9, 0), LocalTime.of(21, 0)));
+        return windows;
+    }
+
+    private static Room room(int id, StudioLocation location) {
+        Room room = new Room();
+        room.setId(id);
+        room.setName("Studio " + id);
+        room.setStudioLocation(location);
+        return room;
+    }
+
+    private static Room openMondayAndTuesday(Room room) {
+        RoomOperatingHours monday = hours(room, LocalTime.of(9, 0), LocalTime.of(21, 0));
+        RoomOperatingHours tuesday = hours(room, LocalTime.of(9, 0), LocalTime.of(21, 0));
+        tuesday.setDayOfWeek(DayOfWeekEnum.TUESDAY);
+        room.getOperatingHours().add(monday);
+        room.getOperatingHours().add(tuesday);
+        return room;
+    }
+
+    private static void available(Instructor instructor, int id, DayOfWeekEnum day, LocalTime start, LocalTime end) {
+        InstructorAvailabilitySlot slot = new InstructorAvailabilitySlot();
+        slot.setId(id);
+        slot.setInstructor(instructor);
+        slot.setDayOfWeek(day);
+        slot.setStartTime(start);
+        slot.setEndTime(end);
+        instructor.getAvailabilitySlots().add(slot);
+    }
+
+    private static RoomOperatingHours hours(Room room, LocalTime start, LocalTime end) {
+        RoomOperatingHours hours = new RoomOperatingHours();
+        hours.setRoom(room);
+        hours.setDayOfWeek(DayOfWeekEnum.MONDAY);
+        hours.setStartTime(start);
+        hours.setEndTime(end);
+        return hours;
+    }
+
+    private static StudioLocation location() {
+        StudioLocation location = new StudioLocation();
+        location.setId(1);
+        location.setName("City");
+        return location;
+    }
+
+    private static Instructor instructor(int id, int windows) {
+        Instructor instructor = new Instructor();
+        instructor.setId(id);
+        instructor.setName("Instructor " + id);
+        for (int w = 0; w < windows; w++) {
+            InstructorAvailabilitySlot slot = new InstructorAvailabilitySlot();
+            slot.setId(id * 1000 + w);
+            slot.setInstructor(instructor);
+            slot.setDayOfWeek(DayOfWeekEnum.MONDAY);
+            slot.setStartTime(LocalTime.of(10, 0));
+            slot.setEndTime(LocalTime.of(12, 0));
+            instructor.getAvailabilitySlots().add(slot);
+        }
+        return instructor;
+    }
+
+    private static InstructorPriorityRequest request(int id, Instructor instructor, StudioLocation location) {
+        InstructorPriorityRequest request = new InstructorPriorityRequest();
+        request.setId(id);
+        request.setInstructor(instructor);
+        request.setStudioLocation(location);
+        request.setBlockLengthHours(1);
+        request.setActive(true);
+        return request;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.studioapp_api.service;
+
+import com.example.studioapp_api.dto.solver_service_dtos.PubSubSolveRequestStructure;
+import com.example.studioapp_api.mapper.SolverInputMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.pubsub.v1.PubsubMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolvePayloadEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void gzipPayloadCarriesItsFormatAndOmitsNulls() throws Exception {
+        PubsubMessage message = new SolvePayloadEncoder(objectMapper, SolvePayloadEncoder.JSON_GZIP).encode(request());
+
+        assertEquals(SolvePayloadEncoder.JSON_GZIP, message.getAttributesOrThrow(SolvePayloadEncoder.FORMAT_ATTRIBUTE));
+        assertEquals(SolvePayloadEncoder.CURRENT_VERSION, message.getAttributesOrThrow(SolvePayloadEncoder.VERSION_ATTRIBUTE));
+        JsonNode decoded;
+        try (InputStream in = new GZIPInputStream(message.getData().newInput())) {
+            decoded = objectMapper.readTree(in);
+        }
+        assertEquals("job-1", decoded.get("jobId").asText());
+        assertEquals(5, decoded.get("solverInput").get("slotMinutes").asInt());
+        assertFalse(decoded.get("solverInput").has("executionProfile"), "null fields are left out");
+    }
+
+    @Test
+    void plainJsonStaysReadableByOlderSolvers() throws Exception {
+        PubsubMessage message = new SolvePayloadEncoder(objectMapper, SolvePayloadEncoder.JSON).encode(request());
+
+        assertEquals(SolvePayloadEncoder.JSON, message.getAttributesOrThrow(SolvePayloadEncoder.FORMAT_ATTRIBUTE));
+        assertEquals("job-1", objectMapper.readTree(message.getData().toStringUtf8()).get("jobId").asText());
+    }
+
+    @Test
+    void unknownFormatIsRejectedAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> new SolvePayloadEncoder(objectMapper, "smile"));
+    }
+
+    private static PubSubSolveRequestStructure request() {
+        SolverInputMapper.LocalSolverServiceInput input = new SolverInputMapper.LocalSolverServiceInput();
+        input.setSlotMinutes(5);
+        return new PubSubSolveRequestStructure("job-1", input);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.studioapp_api.service;
+
+import com.example.studioapp_api.entity.SolverJobStageStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverBudgetServiceTest {
+
+    @Test
+    void smallJobsThatSolveQuicklyGetAShortBudget() {
+        List<SolverJobStageStatistics> runs = List.of(
+                run("OPTIMAL", 10.0, 0.1, 0.2, 0.2),
+                run("OPTIMAL", 10.0, 0.1, 0.4, 0.4),
+                run("OPTIMAL", 10.0, 0.1, 0.3, 0.3));
+
+        assertEquals(SolverBudgetService.MIN_BUDGET_SECONDS, SolverBudgetService.predictTimeLimitSeconds(runs));
+    }
+
+    @Test
+    void runsCutOffByTheirTimeLimitAskForMoreTime() {
+        List<SolverJobStageStatistics> runs = List.of(
+                run("OPTIMAL", 10.0, 1.0, 6.0, 6.0),
+                run("FEASIBLE", 10.0, 2.0, null, 10.0),
+                run("FEASIBLE", 10.0, 2.0, null, 10.0));
+
+        // Cut-off runs count as needing twice their 10s limit, plus the 1.5x safety factor.
+        assertEquals(30.0, SolverBudgetService.predictTimeLimitSeconds(runs));
+    }
+
+    @Test
+    void notEnoughHistoryLeavesTheDefault() {
+        assertNull(SolverBudgetService.predictTimeLimitSeconds(List.of(
+                run("OPTIMAL", 10.0, 0.1, 0.2, 0.2),
+                run("OPTIMAL", 10.0, 0.1, 0.2, 0.2))));
+    }
+
+    private static SolverJobStageStatistics run(String status, Double limit, Double firstSolution,
+                                                Double optimal, Double wallTime) {
+        SolverJobStageStatistics stats = new SolverJobStageStatistics();
+        stats.setStage("A");
+        stats.setRequestCount(20);
+        stats.setStatus(status);
+        stats.setTimeLimitSeconds(limit);
+        stats.setFirstSolutionSeconds(firstSolution);
+        stats.setOptimalSeconds(optimal);
+        stats.setWallTimeSeconds(wallTime);
+        return stats;
+    }
+}
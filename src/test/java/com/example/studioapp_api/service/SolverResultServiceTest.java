@@ -0,0 +1,218 @@
+package com.example.studioapp_api.service;
+
+import com.example.studioapp_api.dto.LockedBlockDTO;
+import com.example.studioapp_api.dto.ScheduledClassDTO;
+import com.example.studioapp_api.dto.solver_service_dtos.SolveProgressStructure;
+import com.example.studioapp_api.dto.solver_service_dtos.SolveResultStructure;
+import com.example.studioapp_api.dto.solver_service_dtos.StageStatisticsStructure;
+import com.example.studioapp_api.entity.SolverJob;
+import com.example.studioapp_api.entity.SolverJobClassPlacement;
+import com.example.studioapp_api.entity.SolverJobPlacement;
+import com.example.studioapp_api.repository.SolverJobClassPlacementRepository;
+import com.example.studioapp_api.repository.SolverJobPlacementRepository;
+import com.example.studioapp_api.repository.SolverJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SolverResultServiceTest {
+
+    private SolverJobRepository jobRepository;
+    private SolverJobPlacementRepository placementRepository;
+    private SolverJobClassPlacementRepository classPlacementRepository;
+    private SolverBudgetService budgetService;
+    private SolverResultService service;
+    private SolverJob job;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(SolverJobRepository.class);
+        placementRepository = mock(SolverJobPlacementRepository.class);
+        classPlacementRepository = mock(SolverJobClassPlacementRepository.class);
+        budgetService = mock(SolverBudgetService.class);
+        service = new SolverResultService(jobRepository, placementRepository, classPlacementRepository, budgetService);
+
+        job = new SolverJob();
+        job.setJobId("job-1");
+        job.setStatus("QUEUED");
+        job.setSubmittedAt(OffsetDateTime.now());
+        job.setLastUpdatedAt(job.getSubmittedAt());
+        when(jobRepository.findForUpdate("job-1")).thenReturn(Optional.of(job));
+    }
+
+    @Test
+    void completedResultFinishesTheJobAndStoresPlacementsAndStatistics() {
+        service.applyResult(result("RUNNING", null, null));
+        assertEquals("RUNNING", job.getStatus());
+        assertNull(job.getCompletedAt());
+
+        List<StageStatisticsStructure> statistics = List.of(new StageStatisticsStructure());
+        SolveResultStructure completed = result("COMPLETED", List.of(block(1, 10, 0), block(2, 11, 12)), null);
+        completed.setStageStatistics(statistics);
+        completed.setStageBResults(List.of(session(5, 0, 48), session(5, 1, 96)));
+        service.applyResult(completed);
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertNotNull(job.getCompletedAt());
+        assertNull(job.getErrorMessage());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SolverJobPlacement>> placements = ArgumentCaptor.forClass(List.class);
+        verify(placementRepository).deleteBySolverJobId("job-1");
+        verify(placementRepository).insertAll(eq("job-1"), placements.capture());
+        assertEquals(2, placements.getValue().size());
+        assertEquals(11, placements.getValue().get(1).getRoomId());
+        assertEquals("10:00", placements.getValue().get(0).getStartTime());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SolverJobClassPlacement>> sessions = ArgumentCaptor.forClass(List.class);
+        verify(classPlacementRepository).deleteBySolverJobId("job-1");
+        verify(classPlacementRepository).insertAll(eq("job-1"), sessions.capture());
+        assertEquals(2, sessions.getValue().size());
+        assertEquals(1, sessions.getValue().get(1).getSessionIndex());
+        assertEquals(7, sessions.getValue().get(0).getClassDefinitionId());
+        verify(budgetService).recordStageStatistics("job-1", statistics);
+    }
+
+    @Test
+    void failedResultRecordsTheErrorWithoutPlacements() {
+        service.applyResult(result("FAILED", null, "Stage A infeasible"));
+
+        assertEquals("FAILED", job.getStatus());
+        assertEquals("Stage A infeasible", job.getErrorMessage());
+        assertNotNull(job.getCompletedAt());
+        verify(placementRepository, never()).insertAll(anyString(), anyList());
+        verify(classPlacementRepository, never()).insertAll(anyString(), anyList());
+        verify(budgetService).recordStageStatistics(eq("job-1"), any());
+    }
+
+    @Test
+    void intermediateSolutionsReplaceTheStageAPlacementsUntilTheJobCompletes() {
+        service.applyResult(progress(2, 120.0, block(1, 10, 0)));
+        service.applyResult(progress(1, 150.0, block(1, 11, 0))); // Overtaken on the topic: dropped
+
+        assertEquals("RUNNING", job.getStatus());
+        assertEquals(2, job.getProgressSolutionCount());
+        assertEquals(120.0, job.getProgressObjectiveValue());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SolverJobPlacement>> placements = ArgumentCaptor.forClass(List.class);
+        verify(placementRepository).insertAll(eq("job-1"), placements.capture());
+        assertEquals(10, placements.getValue().get(0).getRoomId());
+
+        LockedBlockDTO block = block(1, 10, 0);
+        when(placementRepository.findBySolverJobJobIdOrderByStartSlotAsc("job-1"))
+                .thenReturn(List.of(SolverResultService.toPlacement(block)));
+        SolveProgressStructure latest = service.getProgress(job);
+        assertEquals(2, latest.getSolutionCount());
+        assertEquals(List.of(block), latest.getLockedBlocks());
+
+        service.applyResult(result("COMPLETED", List.of(block(1, 12, 0)), null));
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertNull(job.getProgressSolutionCount());
+        assertNull(service.getProgress(job));
+        verify(placementRepository, times(2)).insertAll(eq("job-1"), anyList());
+    }
+
+    @Test
+    void failedJobDropsItsIntermediatePlacements() {
+        service.applyResult(progress(1, 120.0, block(1, 10, 0)));
+        service.applyResult(result("FAILED", null, "Stage B infeasible"));
+
+        assertNull(job.getProgressSolutionCount());
+        verify(placementRepository, times(2)).deleteBySolverJobId("job-1");
+        verify(placementRepository, times(1)).insertAll(anyString(), anyList());
+    }
+
+    @Test
+    void lateOrDuplicateResultsDoNotChangeAFinishedJob() {
+        service.applyResult(result("COMPLETED", List.of(block(1, 10, 0)), null));
+        OffsetDateTime completedAt = job.getCompletedAt();
+
+        service.applyResult(result("RUNNING", null, null));
+        service.applyResult(result("COMPLETED", List.of(block(1, 10, 0)), null));
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertSame(completedAt, job.getCompletedAt());
+        verify(placementRepository, times(1)).insertAll(anyString(), anyList());
+        verify(budgetService, times(1)).recordStageStatistics(anyString(), any());
+    }
+
+    @Test
+    void resultsForUnknownJobsAreIgnored() {
+        when(jobRepository.findForUpdate("other")).thenReturn(Optional.empty());
+        SolveResultStructure result = result("COMPLETED", List.of(block(1, 10, 0)), null);
+        result.setJobId("other");
+
+        service.applyResult(result);
+
+        verify(jobRepository, never()).save(any());
+        verifyNoInteractions(placementRepository, classPlacementRepository, budgetService);
+    }
+
+    @Test
+    void storedPlacementsReadBackAsLockedBlocks() {
+        LockedBlockDTO block = block(3, 12, 24);
+        when(placementRepository.findBySolverJobJobIdOrderByStartSlotAsc("job-1"))
+                .thenReturn(List.of(SolverResultService.toPlacement(block)));
+
+        assertEquals(List.of(block), service.getStageAResults("job-1"));
+
+        ScheduledClassDTO session = session(5, 1, 96);
+        when(classPlacementRepository.findBySolverJobJobIdOrderByStartSlotAsc("job-1"))
+                .thenReturn(List.of(SolverResultService.toClassPlacement(session)));
+
+        assertEquals(List.of(session), service.getStageBResults("job-1"));
+    }
+
+    private static SolveResultStructure progress(int solutionCount, double objective, LockedBlockDTO... blocks) {
+        SolveResultStructure result = result("RUNNING", null, null);
+        result.setProgress(new SolveProgressStructure("A", objective, 100.0, 1.5, solutionCount, List.of(blocks)));
+        return result;
+    }
+
+    private static SolveResultStructure result(String status, List<LockedBlockDTO> placements, String error) {
+        return new SolveResultStructure("job-1", status, error, placements, null, null, null);
+    }
+
+    private static LockedBlockDTO block(int instructorId, int roomId, int startSlot) {
+        return LockedBlockDTO.builder()
+                .instructorId(instructorId)
+                .instructorName("Instructor " + instructorId)
+                .roomId(roomId)
+                .roomName("Room " + roomId)
+                .startSlot(startSlot)
+                .lengthSlots(12)
+                .dayOfWeek("MONDAY")
+                .startTime("10:00")
+                .endTime("11:00")
+                .build();
+    }
+
+    private static ScheduledClassDTO session(int requirementId, int sessionIndex, int startSlot) {
+        return ScheduledClassDTO.builder()
+                .classSessionRequirementId(requirementId)
+                .sessionIndex(sessionIndex)
+                .classDefinitionId(7)
+                .classDefinitionName("Ballet 1")
+                .instructorId(1)
+                .instructorName("Instructor 1")
+                .roomId(10)
+                .roomName("Room 10")
+                .startSlot(startSlot)
+                .lengthSlots(12)
+                .dayOfWeek("TUESDAY")
+                .startTime("18:00")
+                .endTime("19:00")
+                .build();
+    }
+}
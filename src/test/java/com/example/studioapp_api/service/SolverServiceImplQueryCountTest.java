@@ -0,0 +1,216 @@
+package com.example.studioapp_api.service;
+
+import com.example.studioapp_api.dto.SolveRequestDTO;
+import com.example.studioapp_api.dto.solver_service_dtos.PubSubSolveRequestStructure;
+import com.example.studioapp_api.entity.*;
+import com.example.studioapp_api.mapper.SolverInputMapper;
+import com.google.cloud.spring.pubsub.core.PubSubTemplate;
+import com.google.pubsub.v1.PubsubMessage;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * triggerSolver loads its whole snapshot in a fixed number of statements: the count must not grow with the number of
+ * instructors, locations, rooms or requests.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "solver.gcp.topic-id=solve-requests"
+})
+@Import(SolverServiceImpl.class)
+class SolverServiceImplQueryCountTest {
+
+    private static final int MAX_STATEMENTS = 12;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private SolverServiceImpl solverService;
+
+    @MockitoBean
+    private SolverBudgetService solverBudgetService;
+    @MockitoBean
+    private SolverResultService solverResultService;
+    @MockitoBean
+    private InlineSolveExecutor inlineSolveExecutor;
+    @MockitoBean
+    private PubSubTemplate pubSubTemplate;
+    @MockitoBean
+    private SolvePayloadEncoder solvePayloadEncoder;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        when(solvePayloadEncoder.encode(any())).thenReturn(PubsubMessage.getDefaultInstance());
+    }
+
+    @Test
+    void snapshotQueriesDoNotGrowWithTheStudio() throws Exception {
+        Studio small = studio("Small", 2, 1, 1);
+        Studio large = studio("Large", 12, 3, 3);
+        entityManager.flush();
+        entityManager.clear();
+
+        long smallStatements = statementsToTrigger(small.organizationId(), small.termId(), null);
+        entityManager.clear();
+        long largeStatements = statementsToTrigger(large.organizationId(), large.termId(), null);
+
+        assertEquals(smallStatements, largeStatements);
+        assertTrue(largeStatements <= MAX_STATEMENTS, largeStatements + " statements");
+
+        ArgumentCaptor<PubSubSolveRequestStructure> published = ArgumentCaptor.forClass(PubSubSolveRequestStructure.class);
+        verify(solvePayloadEncoder, times(2)).encode(published.capture());
+        SolverInputMapper.LocalSolverServiceInput input = published.getAllValues().get(1).getSolverInput();
+        assertEquals(12, input.getInstructors().size());
+        assertEquals(9, input.getRooms().size());
+        assertEquals(3, input.getStudioLocations().size());
+        assertEquals(12 * 3 * 2, input.getPriorityRequests().size(), "inactive requests are left out");
+        assertTrue(input.getInstructors().stream().allMatch(i -> i.getAvailabilitySlots().size() == 2),
+                "every instructor in the snapshot list carries its availability");
+        assertTrue(input.getInstructors().stream().allMatch(i -> i.getQualifiedClassDefinitionIds().size() == 1),
+                "every instructor in the snapshot list carries its qualifications");
+        assertEquals(3, input.getClassRequirements().size());
+    }
+
+    @Test
+    void oneLocationSolveOnlyLoadsThatLocationsRoomsAndRequests() throws Exception {
+        Studio studio = studio("Two locations", 4, 2, 2);
+        entityManager.flush();
+        entityManager.clear();
+
+        long statements = statementsToTrigger(studio.organizationId(), studio.termId(), studio.firstLocationId());
+
+        assertTrue(statements <= MAX_STATEMENTS + 1, statements + " statements"); // Plus the location lookup
+        ArgumentCaptor<PubSubSolveRequestStructure> published = ArgumentCaptor.forClass(PubSubSolveRequestStructure.class);
+        verify(solvePayloadEncoder).encode(published.capture());
+        SolverInputMapper.LocalSolverServiceInput input = published.getValue().getSolverInput();
+        assertEquals(2, input.getRooms().size());
+        assertTrue(input.getPriorityRequests().stream()
+                .allMatch(r -> studio.firstLocationId().equals(r.getStudioLocationId())));
+        assertTrue(input.getClassRequirements().stream()
+                .allMatch(r -> studio.firstLocationId().equals(r.getStudioLocationId())));
+    }
+
+    private long statementsToTrigger(Integer organizationId, Integer termId, Integer studioLocationId) {
+        SolveRequestDTO request = new SolveRequestDTO();
+        request.setOrganizationId(organizationId);
+        request.setTermId(termId);
+        request.setStudioLocationId(studioLocationId);
+        statistics.clear();
+        solverService.triggerSolver(request);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private record Studio(Integer organizationId, Integer termId, Integer firstLocationId) {}
+
+    // Every instructor has two availability windows, one qualification, and two active and one inactive request per
+    // location; every location gets one class requirement.
+    private Studio studio(String name, int instructors, int locations, int roomsPerLocation) {
+        Organization organization = new Organization();
+        organization.setName(name);
+        entityManager.persist(organization);
+
+        Term term = new Term();
+        term.setName(name + " term");
+        term.setStartDate(LocalDate.of(2026, 9, 1));
+        term.setEndDate(LocalDate.of(2026, 12, 20));
+        term.setOrganization(organization);
+        entityManager.persist(term);
+
+        ClassType classType = new ClassType();
+        classType.setName("Ballet");
+        classType.setOrganization(organization);
+        entityManager.persist(classType);
+
+        ClassDefinition classDefinition = new ClassDefinition();
+        classDefinition.setClassCode("BAL-1");
+        classDefinition.setName("Ballet 1");
+        classDefinition.setDurationMinutes(60);
+        classDefinition.setClassType(classType);
+        classDefinition.setOrganization(organization);
+        entityManager.persist(classDefinition);
+
+        StudioLocation[] studioLocations = new StudioLocation[locations];
+        for (int l = 0; l < locations; l++) {
+            StudioLocation location = new StudioLocation();
+            location.setName(name + " location " + l);
+            location.setOrganization(organization);
+            entityManager.persist(location);
+            studioLocations[l] = location;
+            for (int r = 0; r < roomsPerLocation; r++) {
+                Room room = new Room();
+                room.setName("Room " + r);
+                room.setStudioLocation(location);
+                entityManager.persist(room);
+                for (DayOfWeekEnum day : new DayOfWeekEnum[] {DayOfWeekEnum.MONDAY, DayOfWeekEnum.TUESDAY}) {
+                    RoomOperatingHours hours = new RoomOperatingHours();
+                    hours.setRoom(room);
+                    hours.setDayOfWeek(day);
+                    hours.setStartTime(LocalTime.of(9, 0));
+                    hours.setEndTime(LocalTime.of(21, 0));
+                    entityManager.persist(hours);
+                }
+            }
+            ClassSessionRequirement requirement = new ClassSessionRequirement();
+            requirement.setTerm(term);
+            requirement.setClassDefinition(classDefinition);
+            requirement.setStudioLocation(location);
+            requirement.setSessionsPerWeek(2);
+            entityManager.persist(requirement);
+        }
+
+        for (int i = 0; i < instructors; i++) {
+            Instructor instructor = new Instructor();
+            instructor.setName(name + " instructor " + i);
+            instructor.setOrganization(organization);
+            entityManager.persist(instructor);
+            for (DayOfWeekEnum day : new DayOfWeekEnum[] {DayOfWeekEnum.MONDAY, DayOfWeekEnum.TUESDAY}) {
+                InstructorAvailabilitySlot slot = new InstructorAvailabilitySlot();
+                slot.setInstructor(instructor);
+                slot.setDayOfWeek(day);
+                slot.setStartTime(LocalTime.of(10, 0));
+                slot.setEndTime(LocalTime.of(14, 0));
+                entityManager.persist(slot);
+            }
+            InstructorClassQualification qualification = new InstructorClassQualification();
+            qualification.setId(new InstructorClassQualificationId(instructor.getId(), classDefinition.getId()));
+            qualification.setInstructor(instructor);
+            qualification.setClassDefinition(classDefinition);
+            entityManager.persist(qualification);
+            for (StudioLocation location : studioLocations) {
+                for (boolean active : new boolean[] {true, true, false}) {
+                    InstructorPriorityRequest request = new InstructorPriorityRequest();
+                    request.setInstructor(instructor);
+                    request.setTerm(term);
+                    request.setStudioLocation(location);
+                    request.setBlockLengthHours(1);
+                    request.setActive(active);
+                    entityManager.persist(request);
+                }
+            }
+        }
+        return new Studio(organization.getId(), term.getId(), studioLocations[0].getId());
+    }
+}
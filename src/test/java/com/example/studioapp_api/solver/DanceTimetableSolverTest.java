@@ -0,0 +1,38 @@
+package com.example.studioapp_api.solver;
+
+import com.example.studioapp_api.mapper.SolverInputMapper;
+import com.google.ortools.sat.SatParameters;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DanceTimetableSolverTest {
+
+    private final DanceTimetableSolver solver = new DanceTimetableSolver(2, 30, 10, 1.5);
+
+    @Test
+    void profileIsClampedToTheConfiguredCaps() {
+        SatParameters.Builder parameters = SatParameters.newBuilder();
+        double timeLimit = solver.applyExecutionProfile(parameters, SolverInputMapper.LocalSolverExecutionProfile.builder()
+                .numSearchWorkers(64)
+                .stageATimeLimitSeconds(600.0)
+                .deterministic(true)
+                .build());
+
+        assertEquals(2, parameters.getNumWorkers(), "no more workers than solver.inline.max-workers");
+        assertEquals(30.0, timeLimit);
+        assertEquals(30.0, parameters.getMaxTimeInSeconds());
+        assertEquals(1.5, parameters.getMaxDeterministicTime());
+        assertTrue(parameters.getInterleaveSearch());
+    }
+
+    @Test
+    void missingProfileUsesTheConfiguredDefaults() {
+        SatParameters.Builder parameters = SatParameters.newBuilder();
+        double timeLimit = solver.applyExecutionProfile(parameters, null);
+
+        assertEquals(2, parameters.getNumWorkers());
+        assertEquals(10.0, timeLimit);
+        assertFalse(parameters.getInterleaveSearch());
+    }
+}